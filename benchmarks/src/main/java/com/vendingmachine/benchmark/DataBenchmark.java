@@ -0,0 +1,114 @@
+package com.vendingmachine.benchmark;
+
+import com.vendingmachine.model.Barang;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Data dan direktori bersama untuk benchmark.
+ *
+ * Direktori data model dibaca sekali saat DataPersistence dimuat, sehingga
+ * {@link #siapkanDirektori()} harus dipanggil sebelum kelas model mana pun
+ * menyentuh disk. JMH menjalankan setiap kombinasi parameter di JVM baru,
+ * jadi satu direktori sementara per JVM sudah cukup; isinya dikosongkan di
+ * awal setiap trial.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+final class DataBenchmark {
+
+    /** Stok awal setiap barang, cukup besar agar tidak habis selama pengukuran */
+    static final int STOK_BESAR = 1_000_000_000;
+
+    private DataBenchmark() {
+    }
+
+    /**
+     * Menyiapkan direktori data kosong untuk satu trial.
+     *
+     * @return Direktori data (nilai properti vending.dataDir)
+     */
+    static Path siapkanDirektori() {
+        try {
+            String dataDir = System.getProperty("vending.dataDir");
+            if (dataDir == null) {
+                Path sementara = Files.createTempDirectory("vending-bench-");
+                System.setProperty("vending.dataDir", sementara.toString());
+                return sementara;
+            }
+            Path direktori = Paths.get(dataDir);
+            hapusIsi(direktori);
+            Files.createDirectories(direktori);
+            return direktori;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Menghapus direktori beserta seluruh isinya.
+     *
+     * @param direktori Direktori yang dihapus
+     */
+    static void hapusIsi(Path direktori) {
+        if (!Files.exists(direktori)) {
+            return;
+        }
+        try (Stream<Path> isi = Files.walk(direktori)) {
+            for (Path path : (Iterable<Path>) isi.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Membuat katalog contoh dengan ID berurutan.
+     *
+     * @param ukuran Jumlah barang
+     * @return Daftar barang baru
+     */
+    static List<Barang> buatKatalog(int ukuran) {
+        List<Barang> katalog = new ArrayList<>(ukuran);
+        for (int i = 0; i < ukuran; i++) {
+            katalog.add(new Barang(idBarang(i), "Produk " + i, 1000 + (i % 50) * 500, STOK_BESAR, ""));
+        }
+        return katalog;
+    }
+
+    /**
+     * Mendapatkan seluruh ID katalog contoh, agar benchmark tidak ikut
+     * mengukur pembuatan string ID.
+     *
+     * @param ukuran Jumlah barang
+     * @return ID barang ke-0 sampai ukuran-1
+     */
+    static String[] daftarId(int ukuran) {
+        String[] daftarId = new String[ukuran];
+        for (int i = 0; i < ukuran; i++) {
+            daftarId[i] = idBarang(i);
+        }
+        return daftarId;
+    }
+
+    /**
+     * Mendapatkan ID barang ke-i dari katalog contoh.
+     *
+     * @param i Nomor barang
+     * @return ID barang
+     */
+    static String idBarang(int i) {
+        return String.format("B%06d", i);
+    }
+}
@@ -0,0 +1,92 @@
+package com.vendingmachine.benchmark;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.DataPersistence;
+import com.vendingmachine.model.MesinPenjual;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark operasi katalog: pencarian barang oleh kiosk dan perubahan
+ * katalog oleh admin. Perubahan katalog menulis snapshot penuh, sehingga
+ * biayanya tumbuh bersama ukuran katalog.
+ *
+ * tambahBarang menambah barang baru di setiap pemanggilan, jadi katalog
+ * sedikit membesar selama pengukuran.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KatalogBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int ukuranKatalog;
+
+    private Path direktori;
+    private MesinPenjual mesin;
+    private String[] daftarId;
+    private final AtomicLong nomorBaru = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        direktori = DataBenchmark.siapkanDirektori();
+        DataPersistence.saveData(DataBenchmark.buatKatalog(ukuranKatalog));
+        mesin = new MesinPenjual();
+        daftarId = DataBenchmark.daftarId(ukuranKatalog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mesin.tutup();
+        DataBenchmark.hapusIsi(direktori);
+    }
+
+    @Benchmark
+    public Barang cariBarang() {
+        return mesin.cariBarang(daftarId[ThreadLocalRandom.current().nextInt(ukuranKatalog)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Barang cariBarangParalel() {
+        return mesin.cariBarang(daftarId[ThreadLocalRandom.current().nextInt(ukuranKatalog)]);
+    }
+
+    @Benchmark
+    public void tambahBarang() {
+        mesin.tambahBarang(new Barang("N" + nomorBaru.incrementAndGet(), "Produk baru", 5000,
+                DataBenchmark.STOK_BESAR, ""));
+    }
+
+    @Benchmark
+    public void updateBarang() {
+        int i = ThreadLocalRandom.current().nextInt(ukuranKatalog);
+        String id = daftarId[i];
+        mesin.updateBarang(id, new Barang(id, "Produk " + i, 1000 + ThreadLocalRandom.current().nextInt(100) * 500,
+                DataBenchmark.STOK_BESAR, ""));
+    }
+}
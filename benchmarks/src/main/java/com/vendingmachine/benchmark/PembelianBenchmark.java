@@ -0,0 +1,86 @@
+package com.vendingmachine.benchmark;
+
+import com.vendingmachine.model.DataPersistence;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.Transaksi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark pembelian satu barang, termasuk append jurnal, fsync, dan
+ * append riwayat. Pemadatan jurnal berkala (snapshot katalog penuh) ikut
+ * terukur, sehingga ukuran katalog berpengaruh pada rata-rata.
+ *
+ * Varian paralel mensimulasikan lonjakan pembelian dari beberapa kiosk
+ * atau pesanan jarak jauh; dengan fsync "group" beberapa pembelian
+ * berbagi satu fsync.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PembelianBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int ukuranKatalog;
+
+    /** Kebijakan fsync jurnal (properti vending.journal.fsync) */
+    @Param({"always", "group", "never"})
+    public String fsync;
+
+    private Path direktori;
+    private MesinPenjual mesin;
+    private String[] daftarId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        direktori = DataBenchmark.siapkanDirektori();
+        System.setProperty("vending.journal.fsync", fsync);
+        DataPersistence.saveData(DataBenchmark.buatKatalog(ukuranKatalog));
+        mesin = new MesinPenjual();
+        daftarId = DataBenchmark.daftarId(ukuranKatalog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mesin.tutup();
+        DataBenchmark.hapusIsi(direktori);
+    }
+
+    @Benchmark
+    public Transaksi prosesPembelian() {
+        return beliAcak();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaksi prosesPembelianParalel() {
+        return beliAcak();
+    }
+
+    private Transaksi beliAcak() {
+        return mesin.prosesPembelian(mesin.cariBarang(daftarId[ThreadLocalRandom.current().nextInt(ukuranKatalog)]));
+    }
+}
@@ -0,0 +1,70 @@
+package com.vendingmachine.benchmark;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.DataPersistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark snapshot katalog: menulis dan membaca file data utama.
+ * Snapshot ditulis saat katalog diubah dan saat jurnal dipadatkan,
+ * dan dibaca sekali saat aplikasi dimulai.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int ukuranKatalog;
+
+    private Path direktori;
+    private List<Barang> katalog;
+    private long sekuens;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        direktori = DataBenchmark.siapkanDirektori();
+        katalog = DataBenchmark.buatKatalog(ukuranKatalog);
+        if (!DataPersistence.saveData(katalog)) {
+            throw new IllegalStateException("Snapshot awal gagal ditulis");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataBenchmark.hapusIsi(direktori);
+    }
+
+    @Benchmark
+    public boolean saveData() {
+        return DataPersistence.saveData(katalog, ++sekuens);
+    }
+
+    @Benchmark
+    public List<Barang> loadData() {
+        return DataPersistence.loadData();
+    }
+}
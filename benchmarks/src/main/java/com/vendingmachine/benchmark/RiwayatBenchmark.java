@@ -0,0 +1,126 @@
+package com.vendingmachine.benchmark;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.DataPersistence;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.TransactionLogReader;
+import com.vendingmachine.model.TransactionStore;
+import com.vendingmachine.model.Transaksi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark riwayat transaksi berukuran besar: waktu mulai mesin (memuat
+ * snapshot, jurnal, dan cache riwayat terbaru), baca acak lewat indeks
+ * segmen, dan pemindaian seluruh riwayat.
+ *
+ * Riwayat diisi langsung lewat TransactionStore saat setup; mengisi 10 juta
+ * record membutuhkan beberapa puluh detik dan sekitar 200 MB disk.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class RiwayatBenchmark {
+
+    private static final int UKURAN_KATALOG = 100;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int ukuranRiwayat;
+
+    private Path direktori;
+
+    /**
+     * Mesin yang sudah berjalan beserta pembaca riwayatnya, untuk benchmark
+     * baca. Dipisah dari data agar mulaiMesin tidak membuka dua mesin
+     * pada direktori yang sama.
+     */
+    @State(Scope.Benchmark)
+    public static class MesinBerjalan {
+        private MesinPenjual mesin;
+        private TransactionLogReader pembaca;
+
+        @Setup(Level.Trial)
+        public void setup(RiwayatBenchmark data) {
+            mesin = new MesinPenjual();
+            pembaca = mesin.bukaPembacaRiwayat();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            pembaca.close();
+            mesin.tutup();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        direktori = DataBenchmark.siapkanDirektori();
+        List<Barang> katalog = DataBenchmark.buatKatalog(UKURAN_KATALOG);
+        try (TransactionStore store = new TransactionStore(DataPersistence.getHistoryDirectory(),
+                8L * 1024 * 1024)) {
+            for (int i = 0; i < ukuranRiwayat; i++) {
+                Transaksi transaksi = new Transaksi(katalog.get(i % UKURAN_KATALOG), 1 + i % 3);
+                transaksi.setStatus(Transaksi.StatusTransaksi.BERHASIL);
+                store.append(transaksi, i + 1L);
+            }
+        }
+        // Snapshot mencakup seluruh riwayat sehingga tidak ada yang perlu di-replay
+        DataPersistence.saveData(katalog, ukuranRiwayat);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataBenchmark.hapusIsi(direktori);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int mulaiMesin() {
+        MesinPenjual mesinBaru = new MesinPenjual();
+        int jumlah = mesinBaru.getJumlahTransaksi();
+        mesinBaru.tutup();
+        return jumlah;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Transaksi bacaAcak(MesinBerjalan berjalan) throws IOException {
+        TransactionLogReader pembaca = berjalan.pembaca;
+        return pembaca.baca(ThreadLocalRandom.current().nextLong(pembaca.getJumlah()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void pindaiRiwayat(MesinBerjalan berjalan, Blackhole bh) {
+        berjalan.mesin.forEachTransaksi(bh::consume);
+    }
+}
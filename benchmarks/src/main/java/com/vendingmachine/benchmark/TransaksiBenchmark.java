@@ -0,0 +1,59 @@
+package com.vendingmachine.benchmark;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.TransactionIdGenerator;
+import com.vendingmachine.model.Transaksi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark pembuatan ID transaksi dan objek Transaksi.
+ * Setiap pembelian membuat satu ID; varian paralel mengukur perebutan
+ * compare-and-set pada generator saat banyak pembelian bersamaan.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransaksiBenchmark {
+
+    private final TransactionIdGenerator generator = new TransactionIdGenerator(1);
+    private final Barang barang = new Barang("B000001", "Produk 1", 5000, DataBenchmark.STOK_BESAR, "");
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdParalel() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String nextIdTeks() {
+        return generator.nextIdTeks();
+    }
+
+    @Benchmark
+    public Transaksi buatTransaksi() {
+        return new Transaksi(barang, 1);
+    }
+}
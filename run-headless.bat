@@ -0,0 +1,30 @@
+@echo off
+REM ============================================
+REM Launcher PENShop tanpa antarmuka grafis (headless)
+REM ============================================
+
+title PENShop - Headless
+
+echo ============================================
+echo   PENShop Vending Machine (headless)
+echo   Tekan Ctrl+C untuk berhenti
+echo ============================================
+echo.
+
+REM Pindah ke direktori script
+cd /d "%~dp0"
+
+REM Build modul core saja (tanpa JavaFX), lalu jalankan langsung dengan java
+call mvn -q -pl vending-core -am clean package -DskipTests
+if not errorlevel 1 java -jar vending-core\target\vending-core-1.0.0.jar
+
+REM Jika gagal, tampilkan pesan
+if errorlevel 1 (
+    echo.
+    echo ============================================
+    echo   ERROR: Gagal menjalankan aplikasi!
+    echo   Pastikan Maven sudah terinstall.
+    echo ============================================
+    echo.
+    pause
+)
@@ -14,8 +14,9 @@ echo.
 REM Pindah ke direktori script
 cd /d "%~dp0"
 
-REM Jalankan aplikasi menggunakan Maven
-call mvn clean compile exec:java
+REM Build modul core dan app, lalu jalankan aplikasi kiosk
+call mvn -q clean install -DskipTests
+if not errorlevel 1 call mvn -f vending-app\pom.xml exec:java
 
 REM Jika gagal, tampilkan pesan
 if errorlevel 1 (
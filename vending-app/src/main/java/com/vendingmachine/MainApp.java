@@ -1,8 +1,12 @@
 package com.vendingmachine;
 
+import com.vendingmachine.controller.FxmlTimer;
 import com.vendingmachine.controller.MainController;
+import com.vendingmachine.engine.VendingEngine;
 import com.vendingmachine.model.Barang;
 import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.payment.LocalPaymentGateway;
+import com.vendingmachine.payment.PaymentService;
 
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -10,6 +14,9 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
 /**
  * Kelas utama aplikasi Vending Machine (Mesin Penjual Otomatis).
  * Aplikasi ini menggunakan JavaFX untuk antarmuka pengguna dan menyediakan
@@ -21,6 +28,7 @@ import javafx.stage.Stage;
  * - Panel admin untuk manajemen produk
  * - Riwayat transaksi dengan detail lengkap
  * - Persistensi data menggunakan serialisasi
+ * - Metrik Prometheus di GET /metrics jika vending.metrics.port diisi
  * 
  * @author Tim Pengembang Vending Machine
  * @version 1.0
@@ -28,8 +36,13 @@ import javafx.stage.Stage;
  */
 public class MainApp extends Application {
 
+    private VendingEngine engine;
     private MesinPenjual mesinPenjual;
 
+    /** Satu layanan pembayaran untuk seluruh tampilan, ditutup di {@link #stop()} */
+    private LocalPaymentGateway paymentGateway;
+    private PaymentService paymentService;
+
     /**
      * Metode start yang dipanggil saat aplikasi dimulai.
      *
@@ -38,21 +51,29 @@ public class MainApp extends Application {
     @Override
     public void start(Stage primaryStage) {
         try {
-            // Inisialisasi MesinPenjual (akan memuat otomatis dari file jika ada)
-            mesinPenjual = new MesinPenjual();
+            // Jalankan engine (akan memuat otomatis dari file jika ada)
+            engine = new VendingEngine();
+            engine.mulai();
+            mesinPenjual = engine.getMesinPenjual();
 
             // Muat data awal hanya jika belum ada data tersimpan
             if (mesinPenjual.getJumlahJenisBarang() == 0) {
                 loadInitialData();
             }
 
+            mulaiMetrik();
+
+            paymentGateway = new LocalPaymentGateway();
+            paymentService = new PaymentService(paymentGateway);
+
             // Muat file FXML
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/vendingmachine/MainView.fxml"));
-            Parent root = loader.load();
+            Parent root = FxmlTimer.muat(loader);
 
             // Atur MesinPenjual ke controller
             MainController mainController = loader.getController();
             mainController.setMesinPenjual(mesinPenjual);
+            mainController.setPaymentService(paymentService);
 
             // Atur scene
             Scene scene = new Scene(root);
@@ -72,6 +93,43 @@ public class MainApp extends Application {
         }
     }
 
+    /**
+     * Metode stop yang dipanggil saat aplikasi ditutup.
+     * Menghentikan thread layanan pembayaran dan menutup jurnal transaksi
+     * agar semua record sudah tersimpan di disk.
+     */
+    @Override
+    public void stop() {
+        if (paymentService != null) {
+            paymentService.tutup();
+        }
+        if (paymentGateway != null) {
+            paymentGateway.tutup();
+        }
+        if (engine != null) {
+            engine.hentikan();
+        }
+    }
+
+    /**
+     * Menjalankan endpoint metrik Prometheus jika vending.metrics.port diisi.
+     * Kiosk tetap berjalan jika port tidak dapat dibuka.
+     */
+    private void mulaiMetrik() {
+        int port = Integer.getInteger("vending.metrics.port", -1);
+        if (port < 0) {
+            return;
+        }
+        try {
+            InetSocketAddress alamat = new InetSocketAddress(
+                    System.getProperty("vending.metrics.host", "127.0.0.1"), port);
+            int portAktif = engine.mulaiMetrik(alamat).getPort();
+            System.out.println("Metrik Prometheus tersedia di port " + portAktif + " (/metrics)");
+        } catch (IOException e) {
+            System.err.println("Endpoint metrik tidak dapat dijalankan: " + e.getMessage());
+        }
+    }
+
     /**
      * Memuat data awal produk untuk vending machine.
      */
@@ -5,20 +5,27 @@ import java.text.NumberFormat;
 import java.util.Locale;
 import java.util.Optional;
 
+import com.vendingmachine.metrics.Counter;
+import com.vendingmachine.metrics.Gauge;
+import com.vendingmachine.metrics.LatencyHistogram;
+import com.vendingmachine.metrics.Metric;
+import com.vendingmachine.metrics.MetricsRegistry;
 import com.vendingmachine.model.Barang;
 import com.vendingmachine.model.MesinPenjual;
 
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.Tab;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.FileChooser;
 
 /**
@@ -32,6 +39,7 @@ import javafx.stage.FileChooser;
  * - Validasi input data produk
  * - Konfirmasi untuk operasi update dan delete
  * - Refresh otomatis tabel setelah perubahan data
+ * - Tab metrik berisi penghitung, gauge, dan persentil latensi
  * 
  * @author Tim Pengembang Vending Machine
  * @version 1.0
@@ -49,7 +57,7 @@ public class AdminController {
     private TableColumn<Barang, String> nameColumn;
 
     @FXML
-    private TableColumn<Barang, Double> priceColumn;
+    private TableColumn<Barang, Long> priceColumn;
 
     @FXML
     private TableColumn<Barang, Integer> stockColumn;
@@ -87,6 +95,30 @@ public class AdminController {
     @FXML
     private Button clearButton;
 
+    @FXML
+    private Tab metricsTab;
+
+    @FXML
+    private TableView<Metric> metricsTable;
+
+    @FXML
+    private TableColumn<Metric, String> metricNameColumn;
+
+    @FXML
+    private TableColumn<Metric, String> metricTypeColumn;
+
+    @FXML
+    private TableColumn<Metric, String> metricValueColumn;
+
+    @FXML
+    private TableColumn<Metric, String> metricP50Column;
+
+    @FXML
+    private TableColumn<Metric, String> metricP99Column;
+
+    @FXML
+    private TableColumn<Metric, String> metricMaxColumn;
+
     private MesinPenjual mesinPenjual;
     private MainController mainController;
     private ObservableList<Barang> barangList;
@@ -101,16 +133,16 @@ public class AdminController {
         currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
 
         // Konfigurasi kolom tabel untuk menampilkan data barang
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idBarang"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("namaBarang"));
-        priceColumn.setCellValueFactory(new PropertyValueFactory<>("hargaBarang"));
-        stockColumn.setCellValueFactory(new PropertyValueFactory<>("stokSekarang"));
-        imagePathColumn.setCellValueFactory(new PropertyValueFactory<>("pathGambar"));
+        idColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getIdBarang()));
+        nameColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getNamaBarang()));
+        priceColumn.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().getHargaBarang()));
+        stockColumn.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().getStokSekarang()));
+        imagePathColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getPathGambar()));
 
         // Format kolom harga untuk menampilkan mata uang
-        priceColumn.setCellFactory(column -> new TableCell<Barang, Double>() {
+        priceColumn.setCellFactory(column -> new TableCell<Barang, Long>() {
             @Override
-            protected void updateItem(Double item, boolean empty) {
+            protected void updateItem(Long item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
@@ -131,6 +163,30 @@ public class AdminController {
 
         barangList = FXCollections.observableArrayList();
         productTable.setItems(barangList);
+
+        initializeMetricsTable();
+    }
+
+    /**
+     * Konfigurasi tabel metrik. Nilai dibaca saat tabel di-refresh,
+     * bukan terus-menerus, agar panel admin tidak membebani kiosk.
+     */
+    private void initializeMetricsTable() {
+        metricNameColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getNama()));
+        metricTypeColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(jenisMetrik(data.getValue())));
+        metricValueColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(nilaiMetrik(data.getValue())));
+        metricP50Column.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                durasiMetrik(data.getValue(), 50)));
+        metricP99Column.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                durasiMetrik(data.getValue(), 99)));
+        metricMaxColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                durasiMetrik(data.getValue(), -1)));
+
+        metricsTab.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue) {
+                loadMetricsData();
+            }
+        });
     }
 
     /**
@@ -161,6 +217,50 @@ public class AdminController {
         productTable.refresh();
     }
 
+    /**
+     * Memuat ulang daftar metrik beserta nilai terbarunya.
+     */
+    private void loadMetricsData() {
+        metricsTable.setItems(FXCollections.observableArrayList(MetricsRegistry.getDefault().getMetrik()));
+        metricsTable.refresh();
+    }
+
+    private static String jenisMetrik(Metric metrik) {
+        if (metrik instanceof LatencyHistogram) {
+            return "histogram";
+        }
+        return metrik instanceof Gauge ? "gauge" : "counter";
+    }
+
+    private static String nilaiMetrik(Metric metrik) {
+        try {
+            if (metrik instanceof Counter) {
+                return String.valueOf(((Counter) metrik).getNilai());
+            }
+            if (metrik instanceof Gauge) {
+                return String.valueOf(((Gauge) metrik).getNilai());
+            }
+            return String.valueOf(((LatencyHistogram) metrik).getJumlah());
+        } catch (RuntimeException e) {
+            return "-";
+        }
+    }
+
+    /**
+     * Persentil histogram dalam milidetik; persen negatif berarti durasi terlama.
+     */
+    private static String durasiMetrik(Metric metrik, double persen) {
+        if (!(metrik instanceof LatencyHistogram)) {
+            return "";
+        }
+        LatencyHistogram histogram = (LatencyHistogram) metrik;
+        if (histogram.getJumlah() == 0) {
+            return "-";
+        }
+        long nanos = persen < 0 ? histogram.getMaksNanos() : histogram.getPersentilNanos(persen);
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
     /**
      * Mengisi field input dengan data barang yang dipilih.
      *
@@ -170,7 +270,8 @@ public class AdminController {
         idField.setText(barang.getIdBarang());
         nameField.setText(barang.getNamaBarang());
         priceField.setText(String.valueOf(barang.getHargaBarang()));
-        stockField.setText(String.valueOf(barang.getStokSekarang()));
+        // Stok fisik, termasuk unit yang sedang dipesan pembeli
+        stockField.setText(String.valueOf(mesinPenjual.getStokFisik(barang.getIdBarang())));
         imagePathField.setText(barang.getPathGambar());
     }
 
@@ -190,7 +291,7 @@ public class AdminController {
             Barang barang = new Barang(
                 idField.getText().trim(),
                 nameField.getText().trim(),
-                Double.parseDouble(priceField.getText().trim()),
+                Long.parseLong(priceField.getText().trim()),
                 Integer.parseInt(stockField.getText().trim()),
                 imagePathField.getText().trim()
             );
@@ -249,7 +350,7 @@ public class AdminController {
                 Barang dataBaru = new Barang(
                     idField.getText().trim(),
                     nameField.getText().trim(),
-                    Double.parseDouble(priceField.getText().trim()),
+                    Long.parseLong(priceField.getText().trim()),
                     Integer.parseInt(stockField.getText().trim()),
                     imagePathField.getText().trim()
                 );
@@ -300,8 +401,14 @@ public class AdminController {
         );
 
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            // Hapus barang
-            boolean success = mesinPenjual.hapusBarang(selectedBarang.getIdBarang());
+            // Hapus barang; ditolak jika masih ada pembeli yang sedang membayar barang ini
+            boolean success;
+            try {
+                success = mesinPenjual.hapusBarang(selectedBarang.getIdBarang());
+            } catch (IllegalStateException e) {
+                showAlert(Alert.AlertType.WARNING, "Peringatan", e.getMessage());
+                return;
+            }
 
             if (success) {
                 // Refresh tabel
@@ -344,6 +451,14 @@ public class AdminController {
         }
     }
 
+    /**
+     * Menangani aksi tombol refresh pada tab metrik.
+     */
+    @FXML
+    private void handleRefreshMetricsButton() {
+        loadMetricsData();
+    }
+
     /**
      * Menangani aksi tombol clear untuk mengosongkan semua field.
      */
@@ -396,13 +511,13 @@ public class AdminController {
         }
 
         try {
-            double harga = Double.parseDouble(priceField.getText().trim());
+            long harga = Long.parseLong(priceField.getText().trim());
             if (harga < 0) {
                 showAlert(Alert.AlertType.WARNING, "Validasi", "Harga tidak boleh negatif!");
                 return false;
             }
         } catch (NumberFormatException e) {
-            showAlert(Alert.AlertType.WARNING, "Validasi", "Harga harus berupa angka!");
+            showAlert(Alert.AlertType.WARNING, "Validasi", "Harga harus berupa angka bulat (Rupiah)!");
             return false;
         }
 
@@ -423,10 +538,10 @@ public class AdminController {
     /**
      * Memformat angka menjadi format mata uang Rupiah.
      *
-     * @param amount Jumlah yang akan diformat
+     * @param amount Jumlah dalam Rupiah penuh
      * @return String dengan format Rupiah
      */
-    private String formatCurrency(double amount) {
+    private String formatCurrency(long amount) {
         return currencyFormat.format(amount).replace("IDR", "Rp");
     }
 
@@ -0,0 +1,40 @@
+package com.vendingmachine.controller;
+
+import com.vendingmachine.metrics.LatencyHistogram;
+import com.vendingmachine.metrics.MetricsRegistry;
+
+import java.io.IOException;
+
+import javafx.fxml.FXMLLoader;
+
+/**
+ * Memuat tampilan FXML sambil mencatat durasi FXMLLoader.load ke histogram
+ * vending_fxml_muat_durasi_seconds, sehingga setiap tampilan diukur di satu tempat.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class FxmlTimer {
+
+    private static final LatencyHistogram DURASI_FXML = MetricsRegistry.getDefault().histogram(
+            "vending_fxml_muat_durasi_seconds", "Durasi FXMLLoader.load untuk setiap tampilan");
+
+    private FxmlTimer() {
+    }
+
+    /**
+     * Memanggil {@link FXMLLoader#load()} dan mencatat durasinya.
+     *
+     * @param <T> Tipe root tampilan
+     * @param loader Loader yang sudah diberi lokasi FXML
+     * @return Root tampilan hasil load
+     * @throws IOException jika FXML gagal dimuat
+     */
+    public static <T> T muat(FXMLLoader loader) throws IOException {
+        long mulai = System.nanoTime();
+        T root = loader.load();
+        DURASI_FXML.catatSejak(mulai);
+        return root;
+    }
+}
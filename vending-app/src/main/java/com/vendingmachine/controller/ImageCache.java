@@ -0,0 +1,320 @@
+package com.vendingmachine.controller;
+
+import com.vendingmachine.metrics.Counter;
+import com.vendingmachine.metrics.LatencyHistogram;
+import com.vendingmachine.metrics.MetricsRegistry;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache bersama untuk gambar produk yang sudah di-decode.
+ * Gambar di-decode langsung pada ukuran tampilnya (misalnya 150px untuk
+ * kartu produk), sehingga PNG besar tidak disimpan di memori pada resolusi
+ * aslinya dan grid yang dimuat ulang tidak men-decode ulang setiap gambar.
+ *
+ * Kunci cache adalah path gambar dan ukuran target. Cache dibatasi total
+ * perkiraan byte piksel (properti vending.imageCache.maxBytes, default 32 MB)
+ * dengan pengusiran LRU, dan setiap entri disimpan lewat SoftReference
+ * sehingga garbage collector tetap dapat membebaskannya saat memori menipis.
+ *
+ * Path gambar dicari berturut-turut sebagai resource classpath, resource di
+ * bawah /images/, lalu file di sistem file; jika tidak ada, gambar default dipakai.
+ *
+ * {@link #tampilkan(ImageView, String, double)} men-decode gambar di thread
+ * latar belakang JavaFX: ImageView langsung menampilkan gambar default dan
+ * gambar asli dipasang setelah selesai di-decode, sehingga thread UI tidak
+ * menunggu decoding PNG.
+ *
+ * Durasi decoding (sinkron maupun latar belakang) serta jumlah hit dan
+ * miss cache dicatat di {@link MetricsRegistry#getDefault()}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+final class ImageCache {
+
+    /** Ukuran gambar pada kartu produk */
+    static final double UKURAN_KARTU = 150;
+
+    private static final String GAMBAR_DEFAULT = "/images/default.png";
+
+    /** Kunci properti ImageView untuk gambar yang sedang ditunggu */
+    private static final String PROPERTI_KUNCI = ImageCache.class.getName() + ".kunci";
+
+    private static final long BATAS_BYTE = Long.getLong("vending.imageCache.maxBytes", 32L * 1024 * 1024);
+
+    private static final LatencyHistogram DURASI_MUAT = MetricsRegistry.getDefault().histogram(
+            "vending_gambar_muat_durasi_seconds", "Durasi decoding gambar produk");
+    private static final Counter CACHE_HIT = MetricsRegistry.getDefault().counter(
+            "vending_gambar_cache_hit_total", "Permintaan gambar yang dilayani dari cache");
+    private static final Counter CACHE_MISS = MetricsRegistry.getDefault().counter(
+            "vending_gambar_cache_miss_total", "Permintaan gambar yang harus di-decode");
+
+    /**
+     * Satu entri cache beserta perkiraan ukurannya di memori.
+     */
+    private static final class Entri {
+        private final SoftReference<Image> gambar;
+        private final long ukuranByte;
+
+        Entri(Image gambar, long ukuranByte) {
+            this.gambar = new SoftReference<>(gambar);
+            this.ukuranByte = ukuranByte;
+        }
+    }
+
+    private static final Map<String, Entri> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+    private static long totalByte;
+
+    private ImageCache() {
+    }
+
+    /**
+     * Mendapatkan gambar yang sudah di-decode pada ukuran tertentu
+     * (sisi terpanjang, rasio dipertahankan).
+     *
+     * @param path Path gambar
+     * @param ukuran Ukuran target dalam piksel
+     * @return Gambar, atau gambar default jika path tidak ditemukan
+     */
+    static synchronized Image get(String path, double ukuran) {
+        String kunci = path + "@" + ukuran;
+        Entri entri = CACHE.get(kunci);
+        Image gambar = entri == null ? null : entri.gambar.get();
+        if (gambar != null) {
+            CACHE_HIT.tambah();
+            return gambar;
+        }
+        CACHE_MISS.tambah();
+        if (entri != null) {
+            // Sudah dibebaskan garbage collector
+            hapus(kunci);
+        }
+
+        gambar = muat(path, ukuran);
+        if (gambar == null) {
+            return GAMBAR_DEFAULT.equals(path) ? null : get(GAMBAR_DEFAULT, ukuran);
+        }
+        simpan(kunci, new Entri(gambar, (long) gambar.getWidth() * (long) gambar.getHeight() * 4));
+        return gambar;
+    }
+
+    /**
+     * Menampilkan gambar pada ImageView tanpa menunggu decoding.
+     * Jika gambar belum ada di cache, gambar default langsung dipasang dan
+     * gambar asli di-decode di latar belakang, lalu menggantikannya saat siap.
+     * Jika ImageView sudah diminta menampilkan gambar lain sebelum decoding
+     * selesai (misalnya sel grid yang dipakai ulang), hasilnya diabaikan.
+     *
+     * Harus dipanggil dari JavaFX Application Thread.
+     *
+     * @param view ImageView tujuan
+     * @param path Path gambar
+     * @param ukuran Ukuran target dalam piksel
+     */
+    static void tampilkan(ImageView view, String path, double ukuran) {
+        String kunci = path + "@" + ukuran;
+        Image gambar = ambilAtauMuatLatar(kunci, path, ukuran);
+        if (gambar != null && gambar.getProgress() >= 1 && !gambar.isError()) {
+            view.getProperties().remove(PROPERTI_KUNCI);
+            view.setImage(gambar);
+            return;
+        }
+
+        view.setImage(get(GAMBAR_DEFAULT, ukuran));
+        if (gambar == null) {
+            view.getProperties().remove(PROPERTI_KUNCI);
+            return;
+        }
+        view.getProperties().put(PROPERTI_KUNCI, kunci);
+        new Penukar(view, kunci, gambar).pasang();
+    }
+
+    /**
+     * Mengosongkan cache, misalnya setelah file gambar diganti.
+     */
+    static synchronized void clear() {
+        CACHE.clear();
+        totalByte = 0;
+    }
+
+    /**
+     * Mengambil gambar dari cache, atau mulai men-decode-nya di latar belakang.
+     *
+     * @return Gambar (mungkin belum selesai dimuat), atau null jika path tidak ditemukan
+     */
+    private static synchronized Image ambilAtauMuatLatar(String kunci, String path, double ukuran) {
+        Entri entri = CACHE.get(kunci);
+        Image gambar = entri == null ? null : entri.gambar.get();
+        if (gambar != null) {
+            CACHE_HIT.tambah();
+            return gambar;
+        }
+        CACHE_MISS.tambah();
+        if (entri != null) {
+            hapus(kunci);
+        }
+
+        String url = cariUrl(path);
+        if (url == null) {
+            return null;
+        }
+        gambar = new Image(url, ukuran, ukuran, true, true, true);
+        new PengukurMuat(gambar).pasang();
+        // Dimensi belum diketahui; perkiraan atas dari kotak target
+        simpan(kunci, new Entri(gambar, (long) (ukuran * ukuran * 4)));
+        return gambar;
+    }
+
+    /**
+     * Menghapus gambar yang gagal di-decode dari cache, jika masih entri yang sama.
+     */
+    private static synchronized void lupakan(String kunci, Image gambar) {
+        Entri entri = CACHE.get(kunci);
+        if (entri != null && entri.gambar.get() == gambar) {
+            hapus(kunci);
+        }
+    }
+
+    /**
+     * Menunggu gambar latar belakang selesai lalu memasangnya ke ImageView.
+     * Listener dilepas setelah gambar selesai atau gagal.
+     */
+    private static final class Penukar implements InvalidationListener {
+        private final ImageView view;
+        private final String kunci;
+        private final Image gambar;
+
+        Penukar(ImageView view, String kunci, Image gambar) {
+            this.view = view;
+            this.kunci = kunci;
+            this.gambar = gambar;
+        }
+
+        void pasang() {
+            gambar.progressProperty().addListener(this);
+            gambar.errorProperty().addListener(this);
+            // Gambar bisa saja selesai sebelum listener terpasang
+            invalidated(null);
+        }
+
+        @Override
+        public void invalidated(Observable observable) {
+            if (!gambar.isError() && gambar.getProgress() < 1) {
+                return;
+            }
+            gambar.progressProperty().removeListener(this);
+            gambar.errorProperty().removeListener(this);
+
+            if (gambar.isError()) {
+                System.err.println("Error loading image: " + kunci);
+                lupakan(kunci, gambar);
+                return;
+            }
+            if (kunci.equals(view.getProperties().get(PROPERTI_KUNCI))) {
+                view.getProperties().remove(PROPERTI_KUNCI);
+                view.setImage(gambar);
+            }
+        }
+    }
+
+    /**
+     * Mencatat durasi decoding latar belakang saat gambar selesai atau gagal.
+     */
+    private static final class PengukurMuat implements InvalidationListener {
+        private final Image gambar;
+        private final long mulai = System.nanoTime();
+
+        PengukurMuat(Image gambar) {
+            this.gambar = gambar;
+        }
+
+        void pasang() {
+            gambar.progressProperty().addListener(this);
+            gambar.errorProperty().addListener(this);
+            invalidated(null);
+        }
+
+        @Override
+        public void invalidated(Observable observable) {
+            if (!gambar.isError() && gambar.getProgress() < 1) {
+                return;
+            }
+            gambar.progressProperty().removeListener(this);
+            gambar.errorProperty().removeListener(this);
+            DURASI_MUAT.catatSejak(mulai);
+        }
+    }
+
+    /**
+     * Men-decode gambar pada ukuran target.
+     *
+     * @return Gambar, atau null jika path tidak ditemukan atau gagal di-decode
+     */
+    private static Image muat(String path, double ukuran) {
+        String url = cariUrl(path);
+        if (url == null) {
+            return null;
+        }
+        long mulai = System.nanoTime();
+        Image gambar = new Image(url, ukuran, ukuran, true, true, false);
+        DURASI_MUAT.catatSejak(mulai);
+        if (gambar.isError()) {
+            System.err.println("Error loading image: " + path);
+            return null;
+        }
+        return gambar;
+    }
+
+    private static String cariUrl(String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        URL url = ImageCache.class.getResource(path);
+        if (url == null && !path.startsWith("/")) {
+            url = ImageCache.class.getResource("/images/" + path);
+        }
+        if (url != null) {
+            return url.toExternalForm();
+        }
+        File file = new File(path);
+        return file.isFile() ? file.toURI().toString() : null;
+    }
+
+    private static void simpan(String kunci, Entri entri) {
+        Entri lama = CACHE.put(kunci, entri);
+        if (lama != null) {
+            totalByte -= lama.ukuranByte;
+        }
+        totalByte += entri.ukuranByte;
+
+        // Usir entri yang paling lama tidak dipakai sampai kembali di bawah batas
+        Iterator<Map.Entry<String, Entri>> it = CACHE.entrySet().iterator();
+        while (totalByte > BATAS_BYTE && it.hasNext()) {
+            Map.Entry<String, Entri> tertua = it.next();
+            if (tertua.getKey().equals(kunci)) {
+                continue;
+            }
+            totalByte -= tertua.getValue().ukuranByte;
+            it.remove();
+        }
+    }
+
+    private static void hapus(String kunci) {
+        Entri entri = CACHE.remove(kunci);
+        if (entri != null) {
+            totalByte -= entri.ukuranByte;
+        }
+    }
+}
@@ -0,0 +1,810 @@
+package com.vendingmachine.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.Transaksi;
+import com.vendingmachine.payment.PaymentService;
+import com.vendingmachine.payment.PermintaanPembayaran;
+import com.vendingmachine.payment.StatusPembayaran;
+import com.vendingmachine.controller.TransactionHistoryController;
+import com.vendingmachine.controller.TransactionDetailController;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.TilePane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+/**
+ * Controller utama untuk tampilan vending machine.
+ * Mengelola interaksi pengguna dengan produk, proses pembelian,
+ * dan navigasi ke fitur-fitur lain seperti admin dan riwayat transaksi.
+ * 
+ * Fitur yang dikelola:
+ * - Tampilan grid produk dengan gambar dan informasi
+ *   (grid virtual untuk katalog besar)
+ * - Proses pembelian dengan validasi stok
+ * - Dialog pembayaran QRIS lewat {@link PaymentService}
+ * - Navigasi ke panel admin dan riwayat transaksi
+ * - Refresh otomatis data produk
+ * 
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class MainController {
+
+    @FXML
+    private BorderPane rootPane;
+
+    @FXML
+    private ScrollPane productScrollPane;
+
+    @FXML
+    private TilePane productTilePane;
+
+    @FXML
+    private Button adminButton;
+
+    @FXML
+    private Button historyButton;
+
+    private MesinPenjual mesinPenjual;
+
+    /** Layanan pembayaran QRIS milik aplikasi, dipakai bersama semua tampilan */
+    private PaymentService paymentService;
+
+    /** Jumlah kolom kartu produk per baris */
+    private static final int KOLOM_GRID = 3;
+
+    /**
+     * Jumlah barang di atas mana grid virtual dipakai
+     * (properti vending.grid.virtualThreshold, default 120).
+     */
+    private static final int BATAS_GRID_VIRTUAL = Integer.getInteger("vending.grid.virtualThreshold", 120);
+
+    /** Kartu produk yang sedang tampil, per ID barang */
+    private final Map<String, KartuProduk> kartuProduk = new HashMap<>();
+
+    /** Grid virtual untuk katalog besar; dibuat saat pertama kali dibutuhkan */
+    private ListView<List<Barang>> productListView;
+
+    /**
+     * Inisialisasi controller.
+     * Dipanggil otomatis setelah FXML dimuat.
+     */
+    @FXML
+    public void initialize() {
+        // Konfigurasi TilePane untuk menampilkan produk
+        productTilePane.setHgap(15);
+        productTilePane.setVgap(15);
+        productTilePane.setPadding(new Insets(20));
+        productTilePane.setPrefColumns(KOLOM_GRID);
+    }
+
+    /**
+     * Mengatur instance MesinPenjual dan memuat data produk.
+     *
+     * @param mesinPenjual Instance MesinPenjual yang berisi data
+     */
+    public void setMesinPenjual(MesinPenjual mesinPenjual) {
+        this.mesinPenjual = mesinPenjual;
+        loadProducts();
+    }
+
+    /**
+     * Mengatur layanan pembayaran yang dipakai dialog QRIS. Layanan dibuat
+     * dan ditutup oleh aplikasi, bukan oleh controller, karena controller
+     * dibuat ulang setiap kali tampilan utama dimuat.
+     *
+     * @param paymentService Layanan pembayaran yang dipakai dialog QRIS
+     */
+    public void setPaymentService(PaymentService paymentService) {
+        this.paymentService = paymentService;
+    }
+
+    /**
+     * Menampilkan daftar produk dari MesinPenjual. Katalog yang lebih besar
+     * dari {@link #BATAS_GRID_VIRTUAL} ditampilkan dengan grid virtual,
+     * selebihnya dengan TilePane biasa.
+     */
+    private void loadProducts() {
+        List<Barang> daftarBarang = mesinPenjual.getDaftarBarang();
+        if (daftarBarang.size() > BATAS_GRID_VIRTUAL) {
+            tampilkanGridVirtual(daftarBarang);
+        } else {
+            tampilkanGridTile(daftarBarang);
+        }
+    }
+
+    /**
+     * Menyelaraskan TilePane dengan daftar produk.
+     * Kartu yang sudah ada hanya diperbarui isinya; kartu baru dibuat untuk
+     * barang yang ditambahkan dan kartu barang yang dihapus dilepas dari grid,
+     * sehingga perubahan kecil tidak membangun ulang seluruh scene graph.
+     */
+    private void tampilkanGridTile(List<Barang> daftarBarang) {
+        if (rootPane.getCenter() != productScrollPane) {
+            productListView.getItems().clear();
+            rootPane.setCenter(productScrollPane);
+        }
+
+        Map<String, KartuProduk> kartuBaru = new HashMap<>();
+        List<Node> urutan = new ArrayList<>(daftarBarang.size());
+
+        for (Barang barang : daftarBarang) {
+            KartuProduk kartu = kartuProduk.get(barang.getIdBarang());
+            if (kartu == null) {
+                kartu = createProductCard();
+            }
+            kartu.perbarui(barang);
+            kartuBaru.put(barang.getIdBarang(), kartu);
+            urutan.add(kartu.card);
+        }
+
+        kartuProduk.clear();
+        kartuProduk.putAll(kartuBaru);
+        susunGrid(urutan);
+    }
+
+    /**
+     * Menampilkan produk dengan grid virtual: setiap item ListView adalah satu
+     * baris berisi hingga {@link #KOLOM_GRID} barang, dan hanya baris yang
+     * terlihat yang memiliki node kartu. Sel dipakai ulang saat digulir,
+     * sehingga gambar hanya dimuat untuk kartu yang sedang tampil.
+     */
+    private void tampilkanGridVirtual(List<Barang> daftarBarang) {
+        if (productListView == null) {
+            productListView = new ListView<>();
+            productListView.getStyleClass().add("product-list-view");
+            productListView.setCellFactory(list -> new BarisProdukCell());
+            productListView.setFocusTraversable(false);
+        }
+        if (rootPane.getCenter() != productListView) {
+            productTilePane.getChildren().clear();
+            kartuProduk.clear();
+            rootPane.setCenter(productListView);
+        }
+
+        List<List<Barang>> baris = new ArrayList<>((daftarBarang.size() + KOLOM_GRID - 1) / KOLOM_GRID);
+        for (int i = 0; i < daftarBarang.size(); i += KOLOM_GRID) {
+            baris.add(daftarBarang.subList(i, Math.min(i + KOLOM_GRID, daftarBarang.size())));
+        }
+        productListView.getItems().setAll(baris);
+    }
+
+    /**
+     * Memperbarui kartu satu barang, misalnya setelah pembelian.
+     * Jika kartunya belum ada atau sudah tidak cocok, seluruh grid diselaraskan.
+     *
+     * @param barang Barang yang berubah
+     */
+    private void updateProductCard(Barang barang) {
+        if (rootPane.getCenter() == productListView) {
+            // Hanya sel yang terlihat yang diperbarui
+            productListView.refresh();
+            return;
+        }
+
+        KartuProduk kartu = kartuProduk.get(barang.getIdBarang());
+        if (kartu != null && kartu.barang == barang) {
+            kartu.perbarui(barang);
+        } else {
+            loadProducts();
+        }
+    }
+
+    /**
+     * Menyamakan isi TilePane dengan urutan kartu yang diinginkan dengan
+     * perubahan sesedikit mungkin: kartu yang hilang dilepas, kartu baru
+     * disisipkan di posisinya. Jika urutan kartu lama berubah, isi grid diganti sekaligus.
+     */
+    private void susunGrid(List<Node> urutan) {
+        ObservableList<Node> anak = productTilePane.getChildren();
+        if (anak.equals(urutan)) {
+            return;
+        }
+
+        Set<Node> dipakai = Collections.newSetFromMap(new IdentityHashMap<>());
+        dipakai.addAll(urutan);
+        anak.removeIf(node -> !dipakai.contains(node));
+
+        Set<Node> sudahAda = Collections.newSetFromMap(new IdentityHashMap<>());
+        sudahAda.addAll(anak);
+        for (int i = 0; i < urutan.size(); i++) {
+            Node node = urutan.get(i);
+            if (i < anak.size() && anak.get(i) == node) {
+                continue;
+            }
+            if (sudahAda.contains(node)) {
+                anak.setAll(urutan);
+                return;
+            }
+            anak.add(i, node);
+        }
+    }
+
+    /**
+     * Membuat kartu produk kosong; isinya diisi lewat {@link KartuProduk#perbarui(Barang)}.
+     *
+     * @return Kartu produk beserta node-node yang isinya dapat diperbarui
+     */
+    private KartuProduk createProductCard() {
+        VBox card = new VBox(10);
+        card.setAlignment(Pos.CENTER);
+        card.getStyleClass().add("product-card");
+        card.setPadding(new Insets(15));
+        card.setPrefWidth(200);
+        card.setPrefHeight(280);
+
+        // Gambar produk dari cache, sudah di-decode pada ukuran kartu
+        ImageView imageView = new ImageView();
+        imageView.setFitWidth(ImageCache.UKURAN_KARTU);
+        imageView.setFitHeight(ImageCache.UKURAN_KARTU);
+        imageView.setPreserveRatio(true);
+
+        // Label nama produk
+        Label nameLabel = new Label();
+        nameLabel.getStyleClass().add("product-name");
+        nameLabel.setWrapText(true);
+        nameLabel.setMaxWidth(180);
+        nameLabel.setAlignment(Pos.CENTER);
+        nameLabel.setStyle("-fx-alignment: center;");
+
+        // Label harga
+        Label priceLabel = new Label();
+        priceLabel.getStyleClass().add("product-price");
+
+        // Label stok
+        Label stockLabel = new Label();
+        stockLabel.getStyleClass().add("product-stock");
+
+        // Tombol beli
+        Button buyButton = new Button();
+        buyButton.getStyleClass().add("buy-button");
+        buyButton.setMaxWidth(Double.MAX_VALUE);
+
+        card.getChildren().addAll(imageView, nameLabel, priceLabel, stockLabel, buyButton);
+
+        KartuProduk kartu = new KartuProduk(card, imageView, nameLabel, priceLabel, stockLabel, buyButton);
+        buyButton.setOnAction(e -> handleBuyButton(kartu.barang));
+        return kartu;
+    }
+
+    /**
+     * Menangani aksi tombol beli.
+     *
+     * @param barang Barang yang akan dibeli
+     */
+    private void handleBuyButton(Barang barang) {
+        // Cek stok terlebih dahulu
+        if (barang.getStokSekarang() <= 0) {
+            showAlert(Alert.AlertType.ERROR, "Stok Habis",
+                     "Maaf, " + barang.getNamaBarang() + " sedang habis!");
+            return;
+        }
+
+        // Konfirmasi pembelian
+        Optional<ButtonType> result = showConfirmation(
+            "Konfirmasi Pembelian",
+            "Apakah Anda yakin ingin membeli " + barang.getNamaBarang() + "?",
+            "Harga: " + formatCurrency(barang.getHargaBarang())
+        );
+
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            // Tampilkan QR Code untuk pembayaran
+            showQRCodePayment(barang);
+        }
+    }
+
+    /**
+     * Menampilkan jendela QR Code untuk pembayaran.
+     * Satu unit stok dipesan saat jendela dibuka sehingga pembeli lain tidak
+     * dapat membayar unit yang sama. Pembayaran langsung dimulai di gateway,
+     * reservasi dikonfirmasi begitu gateway mengonfirmasi pembayaran, dan
+     * dilepas jika pembayaran batal, gagal, atau kedaluwarsa.
+     *
+     * @param barang Barang yang dibeli
+     */
+    private void showQRCodePayment(Barang barang) {
+        // Pesan stok selama pembayaran berlangsung
+        Transaksi reservasi;
+        try {
+            reservasi = mesinPenjual.reservasi(barang);
+        } catch (IllegalStateException | IllegalArgumentException ex) {
+            updateProductCard(barang);
+            showAlert(Alert.AlertType.ERROR, "Stok Habis", ex.getMessage());
+            return;
+        }
+        updateProductCard(barang);
+
+        // Membuat stage baru untuk dialog pembayaran QRIS
+        Stage qrStage = new Stage();
+        qrStage.setTitle("Pembayaran QRIS - Vending Machine");
+        qrStage.initModality(Modality.APPLICATION_MODAL); // Modal agar user fokus pada pembayaran
+
+        // Container utama untuk layout pembayaran
+        VBox qrBox = new VBox(20);
+        qrBox.setAlignment(Pos.CENTER);
+        qrBox.setPadding(new Insets(40));
+        qrBox.getStyleClass().add("qr-container");
+
+        // Judul dialog pembayaran
+        Label titleLabel = new Label("Scan QRIS untuk Pembayaran");
+        titleLabel.getStyleClass().add("qr-title");
+
+        // Informasi produk yang dibeli
+        Label infoLabel = new Label(barang.getNamaBarang());
+        infoLabel.getStyleClass().add("qr-product-name");
+
+        Label priceLabel = new Label(formatCurrency(barang.getHargaBarang()));
+        priceLabel.getStyleClass().add("qr-price");
+
+        // Gambar QR Code untuk pembayaran
+        ImageView qrImageView = new ImageView();
+        qrImageView.setFitWidth(320);
+        qrImageView.setFitHeight(320);
+        qrImageView.setPreserveRatio(true);
+
+        // Memuat gambar QR Code dari cache
+        qrImageView.setImage(ImageCache.get("/images/qris_payment.png", 320));
+
+        // Instruksi untuk user
+        Label instructionLabel = new Label("Scan QR Code di atas menggunakan aplikasi pembayaran Anda");
+        instructionLabel.getStyleClass().add("qr-instruction");
+        instructionLabel.setWrapText(true);
+        instructionLabel.setMaxWidth(350);
+
+        // Status pembayaran dari gateway
+        Label statusLabel = new Label(StatusPembayaran.MENUNGGU.getDisplayName() + "...");
+        statusLabel.getStyleClass().add("loading-text");
+
+        Button cancelButton = new Button("✕ Batalkan Pesanan");
+        cancelButton.getStyleClass().add("cancel-button");
+
+        // ID transaksi reservasi sekaligus menjadi referensi pembayaran
+        PermintaanPembayaran permintaan = new PermintaanPembayaran(
+            reservasi.getIdTransaksi(),
+            barang.getHargaBarang(),
+            barang.getNamaBarang()
+        );
+
+        // Event handler untuk tombol batal dengan konfirmasi
+        cancelButton.setOnAction(e -> {
+            Optional<ButtonType> result = showConfirmation(
+                "Batalkan Pesanan",
+                "Apakah Anda yakin ingin membatalkan pesanan?",
+                "Pesanan akan dibatalkan dan Anda kembali ke menu utama."
+            );
+
+            if (result.isPresent() && result.get() == ButtonType.OK) {
+                paymentService.batalkan(permintaan.getReferensi());
+                qrStage.close();
+            }
+        });
+
+        // Menutup jendela juga membatalkan pembayaran yang belum selesai
+        qrStage.setOnCloseRequest(e -> paymentService.batalkan(permintaan.getReferensi()));
+
+        // Menambahkan semua komponen ke container
+        qrBox.getChildren().addAll(titleLabel, infoLabel, priceLabel, qrImageView,
+                                   instructionLabel, statusLabel, cancelButton);
+
+        // Mulai pembayaran; status dari gateway dipindahkan ke thread UI
+        paymentService.bayar(permintaan,
+                status -> Platform.runLater(() -> statusLabel.setText(status.getDisplayName() + "...")))
+            .thenAccept(status -> Platform.runLater(() ->
+                handlePaymentResult(qrStage, barang, qrBox, reservasi, status)));
+
+        Scene qrScene = new Scene(qrBox, 500, 750);
+        qrScene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+        qrStage.setScene(qrScene);
+        qrStage.setResizable(false);
+        qrStage.showAndWait();
+    }
+
+    /**
+     * Menangani status akhir pembayaran dari gateway.
+     */
+    private void handlePaymentResult(Stage qrStage, Barang barang, VBox qrBox,
+                                     Transaksi reservasi, StatusPembayaran status) {
+        if (status == StatusPembayaran.BERHASIL) {
+            processPurchase(qrStage, barang, qrBox, reservasi);
+            return;
+        }
+
+        // Pembayaran tidak selesai: kembalikan unit yang dipesan ke stok
+        mesinPenjual.batalkanReservasi(reservasi.getIdTransaksi());
+        updateProductCard(barang);
+        switch (status) {
+            case DIBATALKAN:
+                qrStage.close();
+                break;
+            default:
+                if (qrStage.isShowing()) {
+                    showAlert(Alert.AlertType.ERROR, "Pembayaran " + status.getDisplayName(),
+                             "Pembayaran tidak dapat diselesaikan. Silakan coba lagi.");
+                    qrStage.close();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Mengonfirmasi reservasi setelah pembayaran diterima, dengan loading effect
+     * selama transaksi dicatat.
+     */
+    private void processPurchase(Stage qrStage, Barang barang, VBox qrBox, Transaksi reservasi) {
+        // Clear content dan tampilkan loading
+        qrBox.getChildren().clear();
+        qrBox.setAlignment(Pos.CENTER);
+
+        Label loadingTitle = new Label("Pembayaran Diterima");
+        loadingTitle.getStyleClass().add("loading-title");
+
+        // Simple loading animation using label
+        Label loadingDots = new Label("");
+        loadingDots.getStyleClass().add("loading-dots");
+
+        Label progressLabel = new Label("Mencatat transaksi");
+        progressLabel.getStyleClass().add("loading-text");
+
+        qrBox.getChildren().addAll(loadingTitle, loadingDots, progressLabel);
+
+        javafx.animation.Timeline dotsAnimation = new javafx.animation.Timeline(
+            new javafx.animation.KeyFrame(javafx.util.Duration.millis(500), evt -> {
+                String dots = loadingDots.getText();
+                if (dots.length() < 3) {
+                    loadingDots.setText(dots + ".");
+                } else {
+                    loadingDots.setText("");
+                }
+            })
+        );
+        dotsAnimation.setCycleCount(javafx.animation.Animation.INDEFINITE);
+        dotsAnimation.play();
+
+        // Konfirmasi reservasi (tulis ke disk) di luar thread UI
+        mesinPenjual.konfirmasiReservasiAsync(reservasi.getIdTransaksi()).whenComplete((transaksi, error) ->
+            Platform.runLater(() -> {
+                dotsAnimation.stop();
+                updateProductCard(barang);
+
+                if (error == null) {
+                    // Tampilkan success message
+                    showPaymentSuccess(qrStage, barang, qrBox, transaksi);
+                } else {
+                    // Jika gagal, tampilkan error dan stok terkini
+                    Throwable penyebab = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    showAlert(Alert.AlertType.ERROR, "Error",
+                             "Terjadi kesalahan: " + penyebab.getMessage());
+                    qrStage.close();
+                }
+            }));
+    }
+
+    /**
+     * Menampilkan pesan sukses pembayaran dan detail transaksi.
+     */
+    private void showPaymentSuccess(Stage qrStage, Barang barang, VBox qrBox, Transaksi transaksi) {
+        qrBox.getChildren().clear();
+        qrBox.setAlignment(Pos.CENTER);
+        qrBox.setPadding(new Insets(50));
+
+        // Success icon (menggunakan karakter Unicode)
+        Label successIcon = new Label("✓");
+        successIcon.getStyleClass().add("success-icon");
+
+        Label successTitle = new Label("Pembayaran Berhasil!");
+        successTitle.getStyleClass().add("success-title");
+
+        Label successMessage = new Label("Terima kasih telah berbelanja");
+        successMessage.getStyleClass().add("success-message");
+
+        // Product info
+        Label productInfo = new Label(barang.getNamaBarang());
+        productInfo.getStyleClass().add("success-product");
+
+        Label instruction = new Label("Silakan ambil produk Anda di slot pengambilan");
+        instruction.getStyleClass().add("success-instruction");
+        instruction.setWrapText(true);
+        instruction.setMaxWidth(350);
+
+        Button detailButton = new Button("Lihat Detail Transaksi");
+        detailButton.getStyleClass().add("detail-button");
+        detailButton.setOnAction(e -> {
+            showTransactionDetail(transaksi, barang);
+        });
+
+        Button closeButton = new Button("Selesai");
+        closeButton.getStyleClass().add("success-button");
+        closeButton.setOnAction(e -> {
+            qrStage.close();
+        });
+
+        qrBox.getChildren().addAll(successIcon, successTitle, successMessage,
+                                   productInfo, instruction, detailButton, closeButton);
+    }
+
+    /**
+     * Menampilkan detail transaksi setelah pembelian berhasil.
+     */
+    private void showTransactionDetail(Transaksi transaksi, Barang barang) {
+        try {
+            // Transaksi milik pembelian ini; transaksi terakhir di riwayat bisa milik pembeli lain
+            if (transaksi != null) {
+                
+                FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/vendingmachine/TransactionDetailView.fxml"));
+                Parent root = FxmlTimer.muat(loader);
+
+                TransactionDetailController detailController = loader.getController();
+                detailController.setTransactionData(transaksi, barang);
+
+                Stage detailStage = new Stage();
+                detailStage.setTitle("Detail Transaksi - Vending Machine");
+                detailStage.initModality(Modality.APPLICATION_MODAL);
+
+                Scene scene = new Scene(root);
+                scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+                detailStage.setScene(scene);
+                detailStage.showAndWait();
+            }
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Error",
+                     "Gagal membuka Detail Transaksi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menangani aksi tombol Admin.
+     */
+    @FXML
+    private void handleAdminButton() {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/vendingmachine/AdminView.fxml"));
+            Parent root = FxmlTimer.muat(loader);
+
+            AdminController adminController = loader.getController();
+            adminController.setMesinPenjual(mesinPenjual);
+            adminController.setMainController(this);
+
+            Stage adminStage = new Stage();
+            adminStage.setTitle("Admin Panel - Vending Machine");
+            adminStage.initModality(Modality.APPLICATION_MODAL);
+
+            Scene scene = new Scene(root);
+            scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+            adminStage.setScene(scene);
+            adminStage.showAndWait();
+
+            // Refresh produk setelah admin ditutup
+            loadProducts();
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Error",
+                     "Gagal membuka Admin Panel: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menangani aksi tombol Riwayat Transaksi.
+     */
+    @FXML
+    private void handleHistoryButton() {
+        try {
+            // Debug: Print resource URL
+            java.net.URL fxmlUrl = getClass().getResource("/com/vendingmachine/TransactionHistoryView.fxml");
+            System.out.println("FXML URL: " + fxmlUrl);
+            
+            if (fxmlUrl == null) {
+                showAlert(Alert.AlertType.ERROR, "Error", 
+                         "File TransactionHistoryView.fxml tidak ditemukan di classpath");
+                return;
+            }
+            
+            FXMLLoader loader = new FXMLLoader(fxmlUrl);
+            Parent root = FxmlTimer.muat(loader);
+
+            TransactionHistoryController historyController = loader.getController();
+            historyController.setMesinPenjual(mesinPenjual);
+            historyController.setPaymentService(paymentService);
+
+            Stage historyStage = new Stage();
+            historyStage.setTitle("Riwayat Transaksi - Vending Machine");
+            historyStage.initModality(Modality.APPLICATION_MODAL);
+
+            Scene scene = new Scene(root, 1000, 700);
+            scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+            historyStage.setScene(scene);
+            historyStage.showAndWait();
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Error",
+                     "Gagal membuka Riwayat Transaksi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Memformat angka menjadi format mata uang Rupiah.
+     *
+     * @param amount Jumlah dalam Rupiah penuh
+     * @return String dengan format Rupiah (contoh: Rp10.000)
+     */
+    static String formatCurrency(long amount) {
+        // Format dengan pemisah ribuan tanpa desimal
+        return "Rp" + String.format(Locale.ROOT, "%,d", amount).replace(",", ".");
+    }
+
+    /**
+     * Menampilkan alert dialog.
+     *
+     * @param type Tipe alert
+     * @param title Judul alert
+     * @param content Konten alert
+     */
+    private void showAlert(Alert.AlertType type, String title, String content) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
+    /**
+     * Menampilkan dialog konfirmasi.
+     *
+     * @param title Judul dialog
+     * @param header Header dialog
+     * @param content Konten dialog
+     * @return Optional berisi ButtonType yang dipilih
+     */
+    private Optional<ButtonType> showConfirmation(String title, String header, String content) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(header);
+        alert.setContentText(content);
+        return alert.showAndWait();
+    }
+
+    /**
+     * Refresh tampilan produk (dipanggil dari AdminController).
+     * Hanya kartu yang berubah yang diperbarui.
+     */
+    public void refreshProducts() {
+        loadProducts();
+    }
+
+    /**
+     * Sel grid virtual yang menampilkan satu baris kartu produk.
+     * Kartu di dalam sel dipakai ulang untuk baris lain saat digulir.
+     */
+    private final class BarisProdukCell extends ListCell<List<Barang>> {
+        private final HBox baris = new HBox(15);
+        private final KartuProduk[] kartu = new KartuProduk[KOLOM_GRID];
+
+        BarisProdukCell() {
+            baris.setAlignment(Pos.CENTER);
+            for (int i = 0; i < KOLOM_GRID; i++) {
+                kartu[i] = createProductCard();
+                baris.getChildren().add(kartu[i].card);
+            }
+            getStyleClass().add("product-row-cell");
+        }
+
+        @Override
+        protected void updateItem(List<Barang> item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+            for (int i = 0; i < KOLOM_GRID; i++) {
+                boolean ada = i < item.size();
+                if (ada) {
+                    kartu[i].perbarui(item.get(i));
+                }
+                // Kartu kosong tetap memakan tempat agar kolom tetap sejajar
+                kartu[i].card.setVisible(ada);
+            }
+            setGraphic(baris);
+        }
+    }
+
+    /**
+     * Node-node satu kartu produk beserta nilai yang terakhir ditampilkan,
+     * agar pembaruan hanya menyentuh bagian yang benar-benar berubah.
+     */
+    private final class KartuProduk {
+        private final VBox card;
+        private final ImageView imageView;
+        private final Label nameLabel;
+        private final Label priceLabel;
+        private final Label stockLabel;
+        private final Button buyButton;
+
+        private Barang barang;
+        private String pathGambar;
+        private String nama;
+        private long harga = -1;
+        private int stok = Integer.MIN_VALUE;
+
+        KartuProduk(VBox card, ImageView imageView, Label nameLabel, Label priceLabel,
+                    Label stockLabel, Button buyButton) {
+            this.card = card;
+            this.imageView = imageView;
+            this.nameLabel = nameLabel;
+            this.priceLabel = priceLabel;
+            this.stockLabel = stockLabel;
+            this.buyButton = buyButton;
+        }
+
+        /**
+         * Menampilkan data barang terkini pada kartu ini.
+         */
+        void perbarui(Barang barangBaru) {
+            this.barang = barangBaru;
+
+            if (!Objects.equals(pathGambar, barangBaru.getPathGambar())) {
+                pathGambar = barangBaru.getPathGambar();
+                // Gambar default tampil dulu; gambar asli di-decode di latar belakang
+                ImageCache.tampilkan(imageView, pathGambar, ImageCache.UKURAN_KARTU);
+            }
+            if (!Objects.equals(nama, barangBaru.getNamaBarang())) {
+                nama = barangBaru.getNamaBarang();
+                nameLabel.setText(nama);
+            }
+            if (harga != barangBaru.getHargaBarang()) {
+                harga = barangBaru.getHargaBarang();
+                priceLabel.setText(formatCurrency(harga));
+            }
+
+            int stokBaru = barangBaru.getStokSekarang();
+            if (stok != stokBaru) {
+                boolean habis = stokBaru <= 0;
+                stok = stokBaru;
+                stockLabel.setText("Stok: " + stokBaru);
+
+                // Nonaktifkan tombol jika stok habis
+                buyButton.setDisable(habis);
+                buyButton.setText(habis ? "STOK HABIS" : "BELI");
+                stockLabel.setStyle(habis ? "-fx-text-fill: #e74c3c;" : "");
+            }
+        }
+    }
+}
@@ -7,11 +7,9 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
-import java.io.File;
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
 import java.util.ResourceBundle;
@@ -83,8 +81,21 @@ public class TransactionDetailController implements Initializable {
         transactionIdLabel.setText(transaksi.getIdTransaksi());
 
         // Atur detail produk
-        productNameLabel.setText(transaksi.getBarangYangDibeli().getNamaBarang());
-        unitPriceLabel.setText(formatCurrency(transaksi.getBarangYangDibeli().getHargaBarang()));
+        if (transaksi.getJumlahItem() > 1) {
+            // Transaksi keranjang: tampilkan semua item, tanpa satu harga satuan
+            StringBuilder nama = new StringBuilder();
+            for (Transaksi.Item item : transaksi.getItems()) {
+                if (nama.length() > 0) {
+                    nama.append(", ");
+                }
+                nama.append(item.getBarang().getNamaBarang()).append(" x").append(item.getKuantitas());
+            }
+            productNameLabel.setText(nama.toString());
+            unitPriceLabel.setText("-");
+        } else {
+            productNameLabel.setText(transaksi.getBarangYangDibeli().getNamaBarang());
+            unitPriceLabel.setText(formatCurrency(transaksi.getBarangYangDibeli().getHargaBarang()));
+        }
         quantityLabel.setText(String.valueOf(transaksi.getKuantitas()));
         totalPriceLabel.setText(formatCurrency(transaksi.getTotalHarga()));
 
@@ -100,60 +111,23 @@ public class TransactionDetailController implements Initializable {
     }
 
     /**
-     * Memuat gambar produk ke ImageView.
-     * Mencoba memuat dari resources terlebih dahulu, kemudian dari file system.
-     * Jika gagal, akan memuat gambar default.
+     * Memuat gambar produk ke ImageView dari cache gambar bersama.
+     * Cache mencari gambar di resources, lalu di file system, dan
+     * memakai gambar default jika keduanya tidak ada. Gambar di-decode di
+     * latar belakang; gambar default tampil sampai gambar asli siap.
      */
     private void loadProductImage() {
-        try {
-            String imagePath = barang.getPathGambar();
-            
-            // Coba muat dari resources terlebih dahulu
-            URL imageUrl = getClass().getResource("/images/" + imagePath);
-            if (imageUrl != null) {
-                Image image = new Image(imageUrl.toExternalForm());
-                productImageView.setImage(image);
-            } else {
-                // Coba muat dari file system
-                File imageFile = new File(imagePath);
-                if (imageFile.exists()) {
-                    Image image = new Image(imageFile.toURI().toString());
-                    productImageView.setImage(image);
-                } else {
-                    // Muat gambar default
-                    loadDefaultImage();
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading product image: " + e.getMessage());
-            loadDefaultImage();
-        }
-    }
-
-    /**
-     * Memuat gambar default jika gambar produk tidak ditemukan.
-     * Digunakan sebagai fallback ketika gambar produk tidak tersedia.
-     */
-    private void loadDefaultImage() {
-        try {
-            URL defaultImageUrl = getClass().getResource("/images/default.png");
-            if (defaultImageUrl != null) {
-                Image defaultImage = new Image(defaultImageUrl.toExternalForm());
-                productImageView.setImage(defaultImage);
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading default image: " + e.getMessage());
-        }
+        ImageCache.tampilkan(productImageView, barang.getPathGambar(), productImageView.getFitWidth());
     }
 
     /**
      * Memformat angka menjadi format mata uang Rupiah.
      *
-     * @param amount Jumlah yang akan diformat
+     * @param amount Jumlah dalam Rupiah penuh
      * @return String dalam format mata uang Rupiah
      */
-    private String formatCurrency(double amount) {
-        return String.format("Rp %.0f", amount);
+    static String formatCurrency(long amount) {
+        return "Rp " + amount;
     }
 
     /**
@@ -185,6 +159,29 @@ public class TransactionDetailController implements Initializable {
         if (transaksi == null) return "";
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+        if (transaksi.getJumlahItem() > 1) {
+            StringBuilder struk = new StringBuilder();
+            struk.append("========== PENSHOP ==========\n")
+                 .append("      Vending Machine\n")
+                 .append("=============================\n\n")
+                 .append(String.format("ID Transaksi : %s\n", transaksi.getIdTransaksi()))
+                 .append(String.format("Tanggal      : %s\n\n", transaksi.getWaktuTransaksi().format(formatter)))
+                 .append("DETAIL PEMBELIAN:\n");
+            for (Transaksi.Item item : transaksi.getItems()) {
+                struk.append(String.format("%s\n  %d x %s = %s\n",
+                        item.getBarang().getNamaBarang(), item.getKuantitas(),
+                        formatCurrency(item.getBarang().getHargaBarang()),
+                        formatCurrency(item.getSubtotal())));
+            }
+            struk.append("-----------------------------\n")
+                 .append(String.format("TOTAL        : %s\n", formatCurrency(transaksi.getTotalHarga())))
+                 .append(String.format("Status       : %s\n\n", transaksi.getStatus().getDisplayName()))
+                 .append("=============================\n")
+                 .append("Terima kasih telah berbelanja!\n")
+                 .append("=============================");
+            return struk.toString();
+        }
         
         return String.format(
             "========== PENSHOP ==========\n" +
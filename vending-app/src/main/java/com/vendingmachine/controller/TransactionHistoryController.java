@@ -1,26 +1,27 @@
 package com.vendingmachine.controller;
 
 import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.StatistikPenjualan;
 import com.vendingmachine.model.Transaksi;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.vendingmachine.payment.PaymentService;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.net.URL;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.function.Function;
 
 /**
  * Controller untuk mengelola tampilan riwayat transaksi.
@@ -57,9 +58,12 @@ public class TransactionHistoryController implements Initializable {
     @FXML private Button clearHistoryButton;
 
     private MesinPenjual mesinPenjual;
-    private ObservableList<Transaksi> transactionData;
+    private PaymentService paymentService;
+    private TransactionLogList transactionData;
     private NumberFormat currencyFormat;
 
+    private static final DateTimeFormatter FORMAT_WAKTU = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
     /**
      * Inisialisasi controller dan setup komponen UI.
      * Dipanggil otomatis setelah FXML dimuat.
@@ -76,15 +80,11 @@ public class TransactionHistoryController implements Initializable {
         // Atur kolom tabel
         setupTableColumns();
         
-        // Inisialisasi data transaksi
-        transactionData = FXCollections.observableArrayList();
-        transactionTable.setItems(transactionData);
-        
         // Atur listener seleksi tabel untuk double-click melihat detail
         transactionTable.setRowFactory(tv -> {
             TableRow<Transaksi> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
-                if (event.getClickCount() == 2 && (!row.isEmpty())) {
+                if (event.getClickCount() == 2 && !row.isEmpty() && row.getItem() != null) {
                     showTransactionDetail(row.getItem());
                 }
             });
@@ -96,44 +96,35 @@ public class TransactionHistoryController implements Initializable {
      * Mengatur kolom-kolom tabel transaksi dan event handler.
      */
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("idTransaksi"));
+        idColumn.setCellValueFactory(cellData -> teksSel(cellData.getValue(), Transaksi::getIdTransaksi));
         
+        // Baris yang gagal dibaca dari riwayat bernilai null dan ditampilkan kosong
         itemColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getBarangYangDibeli().getNamaBarang()
-            )
+            teksSel(cellData.getValue(), t -> t.getJumlahItem() > 1
+                    ? t.getBarangYangDibeli().getNamaBarang() + " (+" + (t.getJumlahItem() - 1) + " lainnya)"
+                    : t.getBarangYangDibeli().getNamaBarang())
         );
         
         priceColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                formatCurrency(cellData.getValue().getBarangYangDibeli().getHargaBarang())
-            )
+            // Transaksi keranjang tidak memiliki satu harga satuan
+            teksSel(cellData.getValue(), t -> t.getJumlahItem() > 1
+                    ? "-" : formatCurrency(t.getBarangYangDibeli().getHargaBarang()))
         );
         
         quantityColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                String.valueOf(cellData.getValue().getKuantitas())
-            )
+            teksSel(cellData.getValue(), t -> String.valueOf(t.getKuantitas()))
         );
         
         totalColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                formatCurrency(cellData.getValue().getTotalHarga())
-            )
+            teksSel(cellData.getValue(), t -> formatCurrency(t.getTotalHarga()))
         );
         
         statusColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getStatus().getDisplayName()
-            )
+            teksSel(cellData.getValue(), t -> t.getStatus().getDisplayName())
         );
         
         dateColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getWaktuTransaksi().format(
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
-                )
-            )
+            teksSel(cellData.getValue(), t -> t.getWaktuTransaksi().format(FORMAT_WAKTU))
         );
         
         // Atur custom cell factory untuk kolom status untuk menambahkan styling
@@ -169,46 +160,66 @@ public class TransactionHistoryController implements Initializable {
         updateStatistics();
     }
 
+    /**
+     * Mengatur layanan pembayaran yang diteruskan ke tampilan utama saat kembali.
+     *
+     * @param paymentService Layanan pembayaran milik aplikasi
+     */
+    public void setPaymentService(PaymentService paymentService) {
+        this.paymentService = paymentService;
+    }
+
     /**
      * Memuat data transaksi dari MesinPenjual ke dalam tabel.
+     * Tabel diisi list virtual di atas pembaca riwayat, sehingga baris
+     * baru dibaca dari file saat ditampilkan.
      */
     private void loadTransactionData() {
         if (mesinPenjual != null) {
-            transactionData.setAll(mesinPenjual.getRiwayatTransaksi());
+            releaseTransactionData();
+            transactionData = new TransactionLogList(mesinPenjual.bukaPembacaRiwayat());
+            transactionTable.setItems(transactionData);
         }
     }
 
+    /**
+     * Melepas pembaca riwayat yang sedang dipakai tabel.
+     */
+    private void releaseTransactionData() {
+        if (transactionData != null) {
+            transactionTable.setItems(null);
+            transactionData.tutup();
+            transactionData = null;
+        }
+    }
+
+    /**
+     * Membuat nilai sel teks, kosong jika baris tidak dapat dibaca.
+     */
+    private static ObservableValue<String> teksSel(Transaksi transaksi, Function<Transaksi, String> nilai) {
+        return new SimpleStringProperty(transaksi == null ? "" : nilai.apply(transaksi));
+    }
+
     /**
      * Memperbarui statistik transaksi yang ditampilkan di UI.
-     * Menghitung total transaksi, pendapatan, dan transaksi sukses.
+     * Nilai diambil dari statistik berjalan MesinPenjual, tanpa menelusuri riwayat.
      */
     private void updateStatistics() {
         if (mesinPenjual == null) return;
         
-        List<Transaksi> allTransactions = mesinPenjual.getRiwayatTransaksi();
-        int totalTransactions = allTransactions.size();
-        
-        double totalRevenue = allTransactions.stream()
-            .filter(t -> t.getStatus() == Transaksi.StatusTransaksi.BERHASIL)
-            .mapToDouble(Transaksi::getTotalHarga)
-            .sum();
-            
-        long successfulTransactions = allTransactions.stream()
-            .filter(t -> t.getStatus() == Transaksi.StatusTransaksi.BERHASIL)
-            .count();
-        
-        totalTransactionsLabel.setText(String.valueOf(totalTransactions));
-        totalRevenueLabel.setText(formatCurrency(totalRevenue));
-        successfulTransactionsLabel.setText(String.valueOf(successfulTransactions));
+        StatistikPenjualan statistik = mesinPenjual.getStatistik();
+        totalTransactionsLabel.setText(String.valueOf(statistik.getJumlahTransaksi()));
+        totalRevenueLabel.setText(formatCurrency(statistik.getTotalPendapatan()));
+        successfulTransactionsLabel.setText(String.valueOf(statistik.getJumlahBerhasil()));
     }
 
     /**
      * Memformat angka menjadi format mata uang Rupiah.
      *
-     * @param amount Jumlah yang akan diformat
+     * @param amount Jumlah dalam Rupiah penuh
      * @return String dalam format mata uang Rupiah
      */
-    private String formatCurrency(double amount) {
+    private String formatCurrency(long amount) {
         return currencyFormat.format(amount);
     }
 
@@ -220,7 +231,7 @@ public class TransactionHistoryController implements Initializable {
     private void showTransactionDetail(Transaksi transaksi) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/vendingmachine/TransactionDetailView.fxml"));
-            Parent root = loader.load();
+            Parent root = FxmlTimer.muat(loader);
             
             TransactionDetailController controller = loader.getController();
             controller.setTransactionData(transaksi, transaksi.getBarangYangDibeli());
@@ -241,11 +252,13 @@ public class TransactionHistoryController implements Initializable {
     private void handleBackButton() {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/vendingmachine/MainView.fxml"));
-            Parent root = loader.load();
+            Parent root = FxmlTimer.muat(loader);
+            releaseTransactionData();
             
             // Atur MesinPenjual ke MainController
             MainController mainController = loader.getController();
             mainController.setMesinPenjual(mesinPenjual);
+            mainController.setPaymentService(paymentService);
             
             // Ganti scene
             Stage stage = (Stage) backButton.getScene().getWindow();
@@ -284,6 +297,7 @@ public class TransactionHistoryController implements Initializable {
         
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
+            releaseTransactionData();
             mesinPenjual.clearTransactionHistory();
             loadTransactionData();
             updateStatistics();
@@ -0,0 +1,77 @@
+package com.vendingmachine.controller;
+
+import com.vendingmachine.model.Transaksi;
+import com.vendingmachine.model.TransactionLogReader;
+import javafx.collections.ObservableListBase;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ObservableList virtual di atas {@link TransactionLogReader}.
+ * TableView hanya meminta baris yang sedang terlihat, sehingga hanya
+ * record tersebut yang dibaca dari riwayat. Record yang baru di-decode
+ * disimpan di cache kecil agar scroll bolak-balik tidak membaca ulang.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class TransactionLogList extends ObservableListBase<Transaksi> {
+
+    /** Jumlah transaksi yang disimpan di cache baris */
+    private static final int UKURAN_CACHE = 512;
+
+    private final TransactionLogReader reader;
+    private final int ukuran;
+    private final Map<Integer, Transaksi> cache = new LinkedHashMap<>(UKURAN_CACHE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Transaksi> eldest) {
+            return size() > UKURAN_CACHE;
+        }
+    };
+
+    /**
+     * @param reader Pembaca riwayat; ditutup bersama list ini
+     */
+    TransactionLogList(TransactionLogReader reader) {
+        this.reader = reader;
+        this.ukuran = (int) Math.min(Integer.MAX_VALUE, reader.getJumlah());
+    }
+
+    /**
+     * Mendapatkan transaksi pada baris tertentu.
+     *
+     * @return Transaksi, atau null jika record tidak dapat dibaca
+     */
+    @Override
+    public Transaksi get(int index) {
+        if (index < 0 || index >= ukuran) {
+            throw new IndexOutOfBoundsException("Indeks baris di luar jangkauan: " + index);
+        }
+        Transaksi transaksi = cache.get(index);
+        if (transaksi == null) {
+            try {
+                transaksi = reader.baca(index);
+                cache.put(index, transaksi);
+            } catch (IOException e) {
+                System.err.println("Error saat membaca riwayat baris " + index + ": " + e.getMessage());
+            }
+        }
+        return transaksi;
+    }
+
+    @Override
+    public int size() {
+        return ukuran;
+    }
+
+    /**
+     * Melepas pembaca riwayat dan cache baris.
+     */
+    void tutup() {
+        cache.clear();
+        reader.close();
+    }
+}
@@ -2,12 +2,11 @@ module com.vendingmachine {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.base;
+    requires transitive com.vendingmachine.core;
 
     opens com.vendingmachine to javafx.fxml;
     opens com.vendingmachine.controller to javafx.fxml;
-    opens com.vendingmachine.model to javafx.base;
 
     exports com.vendingmachine;
     exports com.vendingmachine.controller;
-    exports com.vendingmachine.model;
 }
@@ -0,0 +1,23 @@
+package com.vendingmachine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pengujian format harga pada kartu produk dan dialog pembayaran.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class MainControllerTest {
+
+    @Test
+    void formatCurrencyMemakaiTitikSebagaiPemisahRibuan() {
+        assertEquals("Rp10.000", MainController.formatCurrency(10_000));
+        assertEquals("Rp1.250.000", MainController.formatCurrency(1_250_000));
+        assertEquals("Rp500", MainController.formatCurrency(500));
+        assertEquals("Rp0", MainController.formatCurrency(0));
+    }
+}
@@ -0,0 +1,21 @@
+package com.vendingmachine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pengujian format harga pada detail transaksi dan struk.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class TransactionDetailControllerTest {
+
+    @Test
+    void formatCurrencyMenulisRupiahPenuh() {
+        assertEquals("Rp 10000", TransactionDetailController.formatCurrency(10_000));
+        assertEquals("Rp 0", TransactionDetailController.formatCurrency(0));
+    }
+}
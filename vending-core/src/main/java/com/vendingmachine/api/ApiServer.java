@@ -0,0 +1,385 @@
+package com.vendingmachine.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.Keranjang;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.Transaksi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * API HTTP tertanam untuk katalog, stok, dan pemesanan, di atas
+ * {@link MesinPenjual} dan server HTTP bawaan JDK (jdk.httpserver).
+ *
+ * Endpoint (semua respons berupa JSON):
+ * - GET  /api/barang            katalog lengkap
+ * - GET  /api/barang/{id}       satu barang
+ * - GET  /api/stok              stok semua barang: {"id": stok, ...}
+ * - GET  /api/stok/{id}         stok satu barang
+ * - POST /api/beli              {"id": "P001"}, membeli satu unit
+ * - POST /api/checkout          {"items": [{"id": "P001", "jumlah": 2}, ...]}
+ *
+ * Pembelian berhasil dijawab 201 dengan data transaksi; barang tidak ada
+ * 404; permintaan tidak valid 400; stok tidak cukup 409; mesin sudah ditutup
+ * 503; jurnal gagal ditulis 500. Setiap permintaan
+ * dilayani di virtual thread jika JVM mendukungnya (Java 21+), sehingga
+ * ribuan pemesanan yang menunggu fsync jurnal tidak menghabiskan thread
+ * platform; di Java 17 dipakai pool thread berukuran vending.api.threads.
+ *
+ * JSON ditulis field demi field dan dibaca dengan pengurai kecil, tanpa
+ * refleksi per permintaan.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class ApiServer {
+
+    /** Ukuran maksimum badan permintaan */
+    private static final int BATAS_BADAN = 64 * 1024;
+
+    /** Jumlah item maksimum dalam satu checkout */
+    private static final int BATAS_ITEM = 100;
+
+    private static final int BACKLOG = Integer.getInteger("vending.api.backlog", 1024);
+    private static final int THREAD_CADANGAN = Integer.getInteger("vending.api.threads", 64);
+
+    /**
+     * Galat yang langsung dijawab dengan kode HTTP tertentu.
+     */
+    private static final class GalatApi extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int kode;
+
+        GalatApi(int kode, String pesan) {
+            super(pesan, null, false, false);
+            this.kode = kode;
+        }
+    }
+
+    private final MesinPenjual mesinPenjual;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Membuat API untuk mesin penjual tertentu.
+     *
+     * @param mesinPenjual Mesin penjual yang dilayani
+     */
+    public ApiServer(MesinPenjual mesinPenjual) {
+        if (mesinPenjual == null) {
+            throw new IllegalArgumentException("Mesin penjual tidak boleh null!");
+        }
+        this.mesinPenjual = mesinPenjual;
+    }
+
+    /**
+     * Mulai mendengarkan di alamat tertentu.
+     *
+     * @param alamat Alamat dan port; port 0 memilih port bebas
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika server sudah berjalan
+     */
+    public synchronized void mulai(InetSocketAddress alamat) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("API sudah berjalan!");
+        }
+        HttpServer baru = HttpServer.create(alamat, BACKLOG);
+        baru.createContext("/api/", new Router());
+        executor = buatExecutor();
+        baru.setExecutor(executor);
+        baru.start();
+        server = baru;
+    }
+
+    /**
+     * Berhenti menerima permintaan baru dan menunggu sebentar agar
+     * permintaan yang sedang berjalan selesai.
+     */
+    public synchronized void hentikan() {
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Permintaan API belum selesai saat server dihentikan");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Mendapatkan port yang sedang didengarkan.
+     *
+     * @return Nomor port
+     * @throws IllegalStateException jika server tidak berjalan
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("API tidak berjalan!");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Membuat executor per-permintaan: virtual thread jika tersedia,
+     * selain itu pool thread daemon berukuran tetap. Refleksi hanya
+     * dipakai sekali di sini agar kode tetap dapat dikompilasi untuk Java 17.
+     */
+    private static ExecutorService buatExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger nomor = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, "vending-api-" + nomor.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            return Executors.newFixedThreadPool(Math.max(1, THREAD_CADANGAN), factory);
+        }
+    }
+
+    /**
+     * Mengarahkan permintaan ke endpoint berdasarkan metode dan path.
+     */
+    private final class Router implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            int kode;
+            String json;
+            try {
+                String[] bagian = exchange.getRequestURI().getPath().split("/");
+                // bagian[0] kosong, bagian[1] = "api"
+                String sumber = bagian.length > 2 ? bagian[2] : "";
+                String id = bagian.length > 3 ? bagian[3] : null;
+                if (bagian.length > 4) {
+                    throw new GalatApi(404, "Endpoint tidak ditemukan");
+                }
+                String metode = exchange.getRequestMethod();
+
+                switch (sumber) {
+                    case "barang":
+                        pastikanMetode(metode, "GET");
+                        json = id == null ? katalog() : barang(cari(id));
+                        kode = 200;
+                        break;
+                    case "stok":
+                        pastikanMetode(metode, "GET");
+                        json = id == null ? semuaStok() : stok(cari(id));
+                        kode = 200;
+                        break;
+                    case "beli":
+                        pastikanMetode(metode, "POST");
+                        json = beli(bacaBadan(exchange));
+                        kode = 201;
+                        break;
+                    case "checkout":
+                        pastikanMetode(metode, "POST");
+                        json = checkout(bacaBadan(exchange));
+                        kode = 201;
+                        break;
+                    default:
+                        throw new GalatApi(404, "Endpoint tidak ditemukan");
+                }
+            } catch (GalatApi e) {
+                kode = e.kode;
+                json = galat(e.getMessage());
+            } catch (IllegalArgumentException e) {
+                kode = 400;
+                json = galat(e.getMessage());
+            } catch (IllegalStateException e) {
+                kode = kodeKonflik(e);
+                json = galat(kode == 500 ? "Transaksi gagal disimpan" : e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error saat melayani API: " + e);
+                kode = 500;
+                json = galat("Kesalahan internal");
+            }
+            kirim(exchange, kode, json);
+        }
+    }
+
+    /**
+     * Menentukan kode HTTP untuk IllegalStateException dari mesin penjual:
+     * hanya konflik stok atau reservasi yang dijawab 409.
+     */
+    private int kodeKonflik(IllegalStateException e) {
+        if (mesinPenjual.isDitutup()) {
+            return 503;
+        }
+        if (e.getCause() instanceof IOException) {
+            System.err.println("Error saat melayani API: " + e.getMessage());
+            return 500;
+        }
+        return 409;
+    }
+
+    private String katalog() {
+        List<Barang> daftar = mesinPenjual.getDaftarBarang();
+        JsonWriter w = new JsonWriter(64 + daftar.size() * 96).mulaiArray();
+        for (Barang b : daftar) {
+            tulisBarang(w, b);
+        }
+        return w.akhiriArray().toString();
+    }
+
+    private String barang(Barang b) {
+        return tulisBarang(new JsonWriter(128), b).toString();
+    }
+
+    private String semuaStok() {
+        List<Barang> daftar = mesinPenjual.getDaftarBarang();
+        JsonWriter w = new JsonWriter(16 + daftar.size() * 24).mulaiObjek();
+        for (Barang b : daftar) {
+            w.field(b.getIdBarang(), b.getStokSekarang());
+        }
+        return w.akhiriObjek().toString();
+    }
+
+    private String stok(Barang b) {
+        return new JsonWriter(48).mulaiObjek()
+                .field("id", b.getIdBarang())
+                .field("stok", b.getStokSekarang())
+                .akhiriObjek().toString();
+    }
+
+    private String beli(Map<String, Object> badan) {
+        Barang b = cari(teks(badan, "id"));
+        Transaksi transaksi = mesinPenjual.prosesPembelian(b);
+        return tulisTransaksi(new JsonWriter(256), transaksi).toString();
+    }
+
+    private String checkout(Map<String, Object> badan) {
+        Object items = badan.get("items");
+        if (!(items instanceof List) || ((List<?>) items).isEmpty()) {
+            throw new IllegalArgumentException("Field 'items' harus berupa array yang tidak kosong");
+        }
+        List<?> daftar = (List<?>) items;
+        if (daftar.size() > BATAS_ITEM) {
+            throw new IllegalArgumentException("Maksimum " + BATAS_ITEM + " item per checkout");
+        }
+
+        Keranjang keranjang = new Keranjang();
+        for (Object o : daftar) {
+            if (!(o instanceof Map)) {
+                throw new IllegalArgumentException("Setiap item harus berupa objek");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> item = (Map<String, Object>) o;
+            Object jumlah = item.getOrDefault("jumlah", 1L);
+            if (!(jumlah instanceof Long) || (Long) jumlah <= 0 || (Long) jumlah > 1000) {
+                throw new IllegalArgumentException("Field 'jumlah' harus bilangan bulat 1-1000");
+            }
+            keranjang.tambah(cari(teks(item, "id")), ((Long) jumlah).intValue());
+        }
+        Transaksi transaksi = mesinPenjual.checkout(keranjang);
+        return tulisTransaksi(new JsonWriter(256), transaksi).toString();
+    }
+
+    private Barang cari(String id) {
+        Barang b = mesinPenjual.cariBarang(id);
+        if (b == null) {
+            throw new GalatApi(404, "Barang dengan ID " + id + " tidak ditemukan");
+        }
+        return b;
+    }
+
+    private static JsonWriter tulisBarang(JsonWriter w, Barang b) {
+        return w.mulaiObjek()
+                .field("id", b.getIdBarang())
+                .field("nama", b.getNamaBarang())
+                .field("harga", b.getHargaBarang())
+                .field("stok", b.getStokSekarang())
+                .field("gambar", b.getPathGambar())
+                .akhiriObjek();
+    }
+
+    private static JsonWriter tulisTransaksi(JsonWriter w, Transaksi t) {
+        w.mulaiObjek()
+                .field("id", t.getIdTransaksi())
+                .field("status", t.getStatus().name())
+                .field("waktu", t.getWaktuTransaksi().toString())
+                .field("total", t.getTotalHarga())
+                .nama("items").mulaiArray();
+        for (Transaksi.Item item : t.getItems()) {
+            w.mulaiObjek()
+                    .field("id", item.getBarang().getIdBarang())
+                    .field("nama", item.getBarang().getNamaBarang())
+                    .field("harga", item.getBarang().getHargaBarang())
+                    .field("jumlah", item.getKuantitas())
+                    .field("subtotal", item.getSubtotal())
+                    .akhiriObjek();
+        }
+        return w.akhiriArray().akhiriObjek();
+    }
+
+    private static String galat(String pesan) {
+        return new JsonWriter(64).mulaiObjek().field("error", pesan).akhiriObjek().toString();
+    }
+
+    private static void pastikanMetode(String metode, String diharapkan) {
+        if (!diharapkan.equals(metode)) {
+            throw new GalatApi(405, "Metode " + metode + " tidak didukung, gunakan " + diharapkan);
+        }
+    }
+
+    private static String teks(Map<String, Object> objek, String nama) {
+        Object nilai = objek.get(nama);
+        if (!(nilai instanceof String) || ((String) nilai).isEmpty()) {
+            throw new IllegalArgumentException("Field '" + nama + "' wajib diisi");
+        }
+        return (String) nilai;
+    }
+
+    private static Map<String, Object> bacaBadan(HttpExchange exchange) {
+        byte[] badan;
+        try (InputStream in = exchange.getRequestBody()) {
+            badan = in.readNBytes(BATAS_BADAN + 1);
+        } catch (IOException e) {
+            throw new GalatApi(400, "Badan permintaan tidak dapat dibaca");
+        }
+        if (badan.length > BATAS_BADAN) {
+            throw new GalatApi(413, "Badan permintaan terlalu besar");
+        }
+        Object json = JsonReader.urai(new String(badan, StandardCharsets.UTF_8));
+        if (!(json instanceof Map)) {
+            throw new IllegalArgumentException("Badan permintaan harus berupa objek JSON");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> objek = (Map<String, Object>) json;
+        return objek;
+    }
+
+    private static void kirim(HttpExchange exchange, int kode, String json) throws IOException {
+        byte[] badan = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(kode, badan.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(badan);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.vendingmachine.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pengurai JSON kecil untuk badan permintaan API.
+ * Hasilnya berupa Map (objek), List (array), String, Long atau Double
+ * (angka), Boolean, atau null. Permintaan API hanya berisi beberapa field,
+ * jadi pengurai ini sengaja sederhana dan tidak memetakan ke kelas.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+final class JsonReader {
+
+    /** Batas kedalaman objek/array bertingkat */
+    private static final int KEDALAMAN_MAKSIMUM = 16;
+
+    private final String teks;
+    private int posisi;
+
+    private JsonReader(String teks) {
+        this.teks = teks;
+    }
+
+    /**
+     * Mengurai teks JSON.
+     *
+     * @param teks Teks JSON
+     * @return Nilai hasil urai
+     * @throws IllegalArgumentException jika teks bukan JSON yang valid
+     */
+    static Object urai(String teks) {
+        JsonReader reader = new JsonReader(teks);
+        Object nilai = reader.bacaNilai(0);
+        reader.lewatiSpasi();
+        if (reader.posisi != teks.length()) {
+            throw reader.galat("Karakter berlebih setelah JSON");
+        }
+        return nilai;
+    }
+
+    private Object bacaNilai(int kedalaman) {
+        if (kedalaman > KEDALAMAN_MAKSIMUM) {
+            throw galat("JSON terlalu dalam");
+        }
+        lewatiSpasi();
+        if (posisi >= teks.length()) {
+            throw galat("JSON terpotong");
+        }
+        char c = teks.charAt(posisi);
+        switch (c) {
+            case '{':
+                return bacaObjek(kedalaman);
+            case '[':
+                return bacaArray(kedalaman);
+            case '"':
+                return bacaString();
+            case 't':
+                harapkan("true");
+                return Boolean.TRUE;
+            case 'f':
+                harapkan("false");
+                return Boolean.FALSE;
+            case 'n':
+                harapkan("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return bacaAngka();
+                }
+                throw galat("Karakter tidak terduga '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> bacaObjek(int kedalaman) {
+        Map<String, Object> objek = new LinkedHashMap<>();
+        posisi++;
+        lewatiSpasi();
+        if (coba('}')) {
+            return objek;
+        }
+        do {
+            lewatiSpasi();
+            if (posisi >= teks.length() || teks.charAt(posisi) != '"') {
+                throw galat("Nama field harus berupa string");
+            }
+            String nama = bacaString();
+            lewatiSpasi();
+            if (!coba(':')) {
+                throw galat("Tanda ':' tidak ditemukan");
+            }
+            objek.put(nama, bacaNilai(kedalaman + 1));
+            lewatiSpasi();
+        } while (coba(','));
+        if (!coba('}')) {
+            throw galat("Tanda '}' tidak ditemukan");
+        }
+        return objek;
+    }
+
+    private List<Object> bacaArray(int kedalaman) {
+        List<Object> array = new ArrayList<>();
+        posisi++;
+        lewatiSpasi();
+        if (coba(']')) {
+            return array;
+        }
+        do {
+            array.add(bacaNilai(kedalaman + 1));
+            lewatiSpasi();
+        } while (coba(','));
+        if (!coba(']')) {
+            throw galat("Tanda ']' tidak ditemukan");
+        }
+        return array;
+    }
+
+    private String bacaString() {
+        StringBuilder sb = new StringBuilder();
+        posisi++;
+        while (posisi < teks.length()) {
+            char c = teks.charAt(posisi++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (posisi >= teks.length()) {
+                break;
+            }
+            char e = teks.charAt(posisi++);
+            switch (e) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(e);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (posisi + 4 > teks.length()) {
+                        throw galat("Escape \\u terpotong");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(teks.substring(posisi, posisi + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw galat("Escape \\u tidak valid");
+                    }
+                    posisi += 4;
+                    break;
+                default:
+                    throw galat("Escape tidak valid");
+            }
+        }
+        throw galat("String tidak ditutup");
+    }
+
+    private Object bacaAngka() {
+        int awal = posisi;
+        boolean pecahan = false;
+        while (posisi < teks.length()) {
+            char c = teks.charAt(posisi);
+            if (c == '.' || c == 'e' || c == 'E') {
+                pecahan = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            posisi++;
+        }
+        String angka = teks.substring(awal, posisi);
+        try {
+            return pecahan ? (Object) Double.parseDouble(angka) : (Object) Long.parseLong(angka);
+        } catch (NumberFormatException e) {
+            throw galat("Angka tidak valid: " + angka);
+        }
+    }
+
+    private void harapkan(String kata) {
+        if (!teks.startsWith(kata, posisi)) {
+            throw galat("Nilai tidak dikenal");
+        }
+        posisi += kata.length();
+    }
+
+    private boolean coba(char c) {
+        if (posisi < teks.length() && teks.charAt(posisi) == c) {
+            posisi++;
+            return true;
+        }
+        return false;
+    }
+
+    private void lewatiSpasi() {
+        while (posisi < teks.length()) {
+            char c = teks.charAt(posisi);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            posisi++;
+        }
+    }
+
+    private IllegalArgumentException galat(String pesan) {
+        return new IllegalArgumentException(pesan + " (posisi " + posisi + ")");
+    }
+}
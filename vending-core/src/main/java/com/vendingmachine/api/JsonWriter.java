@@ -0,0 +1,132 @@
+package com.vendingmachine.api;
+
+/**
+ * Penulis JSON ringkas tanpa refleksi. Setiap tipe yang dikirim API
+ * ditulis field demi field oleh pemanggil, sehingga tidak ada pencarian
+ * getter atau anotasi per permintaan.
+ *
+ * Penulis mencatat kapan koma dibutuhkan; pemanggil cukup memanggil
+ * nama, nilai, dan pembuka/penutup objek atau array secara berurutan.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+final class JsonWriter {
+
+    private static final char[] HEKSA = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder sb;
+
+    /** Apakah elemen berikutnya di tingkat ini perlu didahului koma */
+    private boolean butuhKoma;
+
+    JsonWriter(int kapasitas) {
+        sb = new StringBuilder(kapasitas);
+    }
+
+    JsonWriter mulaiObjek() {
+        pemisah();
+        sb.append('{');
+        butuhKoma = false;
+        return this;
+    }
+
+    JsonWriter akhiriObjek() {
+        sb.append('}');
+        butuhKoma = true;
+        return this;
+    }
+
+    JsonWriter mulaiArray() {
+        pemisah();
+        sb.append('[');
+        butuhKoma = false;
+        return this;
+    }
+
+    JsonWriter akhiriArray() {
+        sb.append(']');
+        butuhKoma = true;
+        return this;
+    }
+
+    /**
+     * Menulis nama field; harus diikuti satu nilai, objek, atau array.
+     */
+    JsonWriter nama(String nama) {
+        pemisah();
+        tulisString(nama);
+        sb.append(':');
+        butuhKoma = false;
+        return this;
+    }
+
+    JsonWriter nilai(String nilai) {
+        pemisah();
+        if (nilai == null) {
+            sb.append("null");
+        } else {
+            tulisString(nilai);
+        }
+        butuhKoma = true;
+        return this;
+    }
+
+    JsonWriter nilai(long nilai) {
+        pemisah();
+        sb.append(nilai);
+        butuhKoma = true;
+        return this;
+    }
+
+    JsonWriter field(String nama, String nilai) {
+        return nama(nama).nilai(nilai);
+    }
+
+    JsonWriter field(String nama, long nilai) {
+        return nama(nama).nilai(nilai);
+    }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+
+    private void pemisah() {
+        if (butuhKoma) {
+            sb.append(',');
+        }
+    }
+
+    private void tulisString(String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEKSA[c >> 4]).append(HEKSA[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
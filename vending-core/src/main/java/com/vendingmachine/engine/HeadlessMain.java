@@ -0,0 +1,133 @@
+package com.vendingmachine.engine;
+
+import com.vendingmachine.model.DataPersistence;
+import com.vendingmachine.model.MesinPenjual;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Titik masuk mode headless: menjalankan mesin penjual tanpa JavaFX
+ * sampai proses dihentikan (Ctrl+C atau SIGTERM).
+ *
+ * Data dibaca dari direktori yang sama dengan aplikasi kiosk
+ * (properti vending.dataDir), sehingga node headless dan kiosk
+ * tidak boleh memakai direktori data yang sama secara bersamaan.
+ *
+ * API HTTP dijalankan di port vending.api.port (default 8080) dan
+ * alamat vending.api.host (default 127.0.0.1); nilai port negatif
+ * mematikan API. Endpoint /api/beli dan /api/checkout tidak memakai
+ * autentikasi, jadi API hanya dapat diakses dari mesin lokal kecuali
+ * sengaja dibuka, misalnya dengan -Dvending.api.host=0.0.0.0 di
+ * belakang firewall atau reverse proxy yang membatasi akses.
+ *
+ * Replikasi diatur dengan:
+ * - vending.replication.collector=host:port mengirim penjualan dan stok
+ *   mesin ini (ID vending.machineId) ke node pengumpul
+ * - vending.replication.listenPort menjalankan node pengumpul di port
+ *   tersebut, menyimpan data kiosk di vending.replication.dir (default
+ *   subdirektori "replika" di vending.dataDir)
+ *
+ * Metrik dalam format Prometheus disajikan di GET /metrics pada port
+ * vending.metrics.port dan alamat vending.metrics.host (default
+ * 127.0.0.1) jika port tersebut diisi.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class HeadlessMain {
+
+    private HeadlessMain() {
+    }
+
+    /**
+     * Metode main untuk menjalankan mesin penjual tanpa antarmuka grafis.
+     *
+     * @param args Argumen command line (tidak dipakai)
+     * @throws InterruptedException jika thread utama diinterupsi
+     * @throws IOException jika port API tidak dapat dibuka
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long mulai = System.nanoTime();
+
+        VendingEngine engine = new VendingEngine();
+        engine.mulai();
+        engine.pasangShutdownHook();
+
+        int port = Integer.getInteger("vending.api.port", 8080);
+        if (port >= 0) {
+            try {
+                InetSocketAddress alamat = new InetSocketAddress(
+                        System.getProperty("vending.api.host", "127.0.0.1"), port);
+                int portAktif = engine.mulaiApi(alamat).getPort();
+                System.out.println("API HTTP mendengarkan di " + alamat.getHostString() + ":" + portAktif);
+            } catch (IOException e) {
+                engine.hentikan();
+                throw e;
+            }
+        }
+
+        int portMetrik = Integer.getInteger("vending.metrics.port", -1);
+        if (portMetrik >= 0) {
+            try {
+                InetSocketAddress alamat = new InetSocketAddress(
+                        System.getProperty("vending.metrics.host", "127.0.0.1"), portMetrik);
+                int portAktif = engine.mulaiMetrik(alamat).getPort();
+                System.out.println("Metrik Prometheus tersedia di port " + portAktif + " (/metrics)");
+            } catch (IOException e) {
+                engine.hentikan();
+                throw e;
+            }
+        }
+
+        try {
+            mulaiReplikasi(engine);
+        } catch (IOException | RuntimeException e) {
+            engine.hentikan();
+            throw e;
+        }
+
+        MesinPenjual mesin = engine.getMesinPenjual();
+        Runtime runtime = Runtime.getRuntime();
+        long memoriMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        System.out.println("PENShop headless berjalan dalam "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mulai) + " ms ("
+                + mesin.getJumlahJenisBarang() + " barang, "
+                + mesin.getJumlahTransaksi() + " transaksi, heap " + memoriMb + " MB)");
+
+        engine.tungguBerhenti();
+        System.out.println("PENShop headless berhenti");
+    }
+
+    /**
+     * Menjalankan node pengumpul dan/atau pengirim replikasi sesuai system property.
+     *
+     * @throws IOException jika port pengumpul tidak dapat dibuka
+     * @throws IllegalArgumentException jika alamat pengumpul tidak berformat host:port
+     */
+    private static void mulaiReplikasi(VendingEngine engine) throws IOException {
+        int portPengumpul = Integer.getInteger("vending.replication.listenPort", -1);
+        if (portPengumpul >= 0) {
+            String dir = System.getProperty("vending.replication.dir");
+            Path direktori = dir != null ? Paths.get(dir) : DataPersistence.getDataDirectory().resolve("replika");
+            int portAktif = engine.mulaiPengumpul(direktori, new InetSocketAddress(portPengumpul)).getPort();
+            System.out.println("Pengumpul replikasi mendengarkan di port " + portAktif);
+        }
+
+        String pengumpul = System.getProperty("vending.replication.collector");
+        if (pengumpul != null && !pengumpul.isBlank()) {
+            int pemisah = pengumpul.lastIndexOf(':');
+            if (pemisah <= 0) {
+                throw new IllegalArgumentException("vending.replication.collector harus berformat host:port");
+            }
+            InetSocketAddress alamat = new InetSocketAddress(pengumpul.substring(0, pemisah),
+                    Integer.parseInt(pengumpul.substring(pemisah + 1)));
+            engine.mulaiReplikasi(Integer.getInteger("vending.machineId", 0), alamat);
+            System.out.println("Replikasi dikirim ke " + alamat);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.vendingmachine.engine;
+
+import com.vendingmachine.api.ApiServer;
+import com.vendingmachine.metrics.MetricsRegistry;
+import com.vendingmachine.metrics.MetricsServer;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.replication.PengirimReplikasi;
+import com.vendingmachine.replication.PengumpulReplikasi;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Siklus hidup mesin penjual tanpa antarmuka grafis, untuk dijalankan di
+ * server back-office atau dipakai aplikasi lain.
+ *
+ * Engine memegang satu {@link MesinPenjual}: dimulai sekali lewat
+ * {@link #mulai()}, dapat ditunggu sampai dihentikan, lalu dihentikan sekali
+ * lewat {@link #hentikan()} sehingga jurnal dan riwayat transaksi selalu
+ * ditutup dengan bersih. {@link #pasangShutdownHook()} menghentikan engine
+ * saat JVM dimatikan (Ctrl+C atau SIGTERM).
+ *
+ * API HTTP ({@link ApiServer}) dapat dijalankan di atas mesin yang sama
+ * lewat {@link #mulaiApi(InetSocketAddress)}; API dihentikan lebih dulu
+ * saat engine berhenti agar tidak ada pembelian baru setelah jurnal ditutup.
+ *
+ * Engine juga dapat mengirim penjualan dan stok mesinnya ke node pengumpul
+ * ({@link #mulaiReplikasi(int, InetSocketAddress)}), atau menjadi node
+ * pengumpul bagi kiosk lain ({@link #mulaiPengumpul(Path, InetSocketAddress)}).
+ *
+ * Saat dimulai, engine mendaftarkan gauge mesinnya ke
+ * {@link MetricsRegistry#getDefault()}; isi registry dapat diekspor dalam
+ * format Prometheus lewat {@link #mulaiMetrik(InetSocketAddress)}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class VendingEngine implements AutoCloseable {
+
+    /**
+     * Status siklus hidup engine.
+     */
+    public enum Status {
+        BARU,
+        BERJALAN,
+        BERHENTI
+    }
+
+    private final CountDownLatch sinyalBerhenti = new CountDownLatch(1);
+
+    private Status status = Status.BARU;
+    private MesinPenjual mesinPenjual;
+    private ApiServer api;
+    private PengirimReplikasi pengirim;
+    private PengumpulReplikasi pengumpul;
+    private MetricsServer metrik;
+    private Thread shutdownHook;
+
+    /**
+     * Memulai engine: memuat snapshot katalog, menerapkan jurnal, dan
+     * membuka riwayat transaksi.
+     *
+     * @throws IllegalStateException jika engine sudah pernah dimulai
+     */
+    public synchronized void mulai() {
+        if (status != Status.BARU) {
+            throw new IllegalStateException("Engine sudah pernah dimulai!");
+        }
+        mesinPenjual = new MesinPenjual();
+        daftarkanGauge(mesinPenjual);
+        status = Status.BERJALAN;
+    }
+
+    /**
+     * Menjalankan API HTTP untuk mesin penjual engine ini.
+     *
+     * @param alamat Alamat dan port yang didengarkan
+     * @return Server API yang berjalan
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika engine tidak berjalan atau API sudah berjalan
+     */
+    public synchronized ApiServer mulaiApi(InetSocketAddress alamat) throws IOException {
+        if (status != Status.BERJALAN) {
+            throw new IllegalStateException("Engine tidak sedang berjalan!");
+        }
+        if (api != null) {
+            throw new IllegalStateException("API sudah berjalan!");
+        }
+        ApiServer baru = new ApiServer(mesinPenjual);
+        baru.mulai(alamat);
+        api = baru;
+        return api;
+    }
+
+    /**
+     * Mulai mengirim penjualan dan stok mesin engine ini ke node pengumpul.
+     * Penyambungan berjalan di latar belakang dan diulang jika terputus.
+     *
+     * @param idMesin ID mesin yang dilaporkan ke pengumpul
+     * @param alamatPengumpul Alamat node pengumpul
+     * @return Pengirim replikasi yang berjalan
+     * @throws IllegalStateException jika engine tidak berjalan atau replikasi sudah berjalan
+     */
+    public synchronized PengirimReplikasi mulaiReplikasi(int idMesin, InetSocketAddress alamatPengumpul) {
+        if (status != Status.BERJALAN) {
+            throw new IllegalStateException("Engine tidak sedang berjalan!");
+        }
+        if (pengirim != null) {
+            throw new IllegalStateException("Replikasi sudah berjalan!");
+        }
+        PengirimReplikasi baru = new PengirimReplikasi(mesinPenjual, idMesin, alamatPengumpul);
+        baru.mulai();
+        pengirim = baru;
+        return pengirim;
+    }
+
+    /**
+     * Menjalankan node pengumpul replikasi untuk kiosk lain.
+     *
+     * @param direktori Direktori data replika setiap kiosk
+     * @param alamat Alamat dan port yang didengarkan
+     * @return Pengumpul replikasi yang berjalan
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika engine tidak berjalan atau pengumpul sudah berjalan
+     */
+    public synchronized PengumpulReplikasi mulaiPengumpul(Path direktori, InetSocketAddress alamat)
+            throws IOException {
+        if (status != Status.BERJALAN) {
+            throw new IllegalStateException("Engine tidak sedang berjalan!");
+        }
+        if (pengumpul != null) {
+            throw new IllegalStateException("Pengumpul replikasi sudah berjalan!");
+        }
+        PengumpulReplikasi baru = new PengumpulReplikasi(direktori);
+        baru.mulai(alamat);
+        pengumpul = baru;
+        return pengumpul;
+    }
+
+    /**
+     * Menjalankan endpoint GET /metrics berisi metrik aplikasi dalam format Prometheus.
+     *
+     * @param alamat Alamat dan port yang didengarkan
+     * @return Endpoint metrik yang berjalan
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika engine tidak berjalan atau endpoint sudah berjalan
+     */
+    public synchronized MetricsServer mulaiMetrik(InetSocketAddress alamat) throws IOException {
+        if (status != Status.BERJALAN) {
+            throw new IllegalStateException("Engine tidak sedang berjalan!");
+        }
+        if (metrik != null) {
+            throw new IllegalStateException("Endpoint metrik sudah berjalan!");
+        }
+        MetricsServer baru = new MetricsServer(MetricsRegistry.getDefault());
+        baru.mulai(alamat);
+        metrik = baru;
+        return metrik;
+    }
+
+    /**
+     * Mendaftarkan shutdown hook JVM yang menghentikan engine.
+     * Hook dilepas kembali jika engine dihentikan lebih dulu.
+     */
+    public synchronized void pasangShutdownHook() {
+        if (shutdownHook != null) {
+            return;
+        }
+        shutdownHook = new Thread(this::hentikan, "vending-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Menghentikan engine dan menutup mesin penjual. Aman dipanggil
+     * berulang kali dan dari thread mana pun.
+     */
+    public synchronized void hentikan() {
+        if (status == Status.BERHENTI) {
+            return;
+        }
+        try {
+            if (api != null) {
+                api.hentikan();
+                api = null;
+            }
+            if (pengirim != null) {
+                pengirim.hentikan();
+                pengirim = null;
+            }
+            if (pengumpul != null) {
+                pengumpul.hentikan();
+                pengumpul = null;
+            }
+            if (mesinPenjual != null) {
+                mesinPenjual.tutup();
+            }
+            if (metrik != null) {
+                metrik.hentikan();
+                metrik = null;
+            }
+        } finally {
+            status = Status.BERHENTI;
+            lepasShutdownHook();
+            sinyalBerhenti.countDown();
+        }
+    }
+
+    /**
+     * Menunggu sampai engine dihentikan.
+     *
+     * @throws InterruptedException jika thread diinterupsi saat menunggu
+     */
+    public void tungguBerhenti() throws InterruptedException {
+        sinyalBerhenti.await();
+    }
+
+    /**
+     * Menunggu sampai engine dihentikan, paling lama waktu tertentu.
+     *
+     * @param waktu Batas waktu tunggu
+     * @param satuan Satuan batas waktu
+     * @return true jika engine sudah berhenti
+     * @throws InterruptedException jika thread diinterupsi saat menunggu
+     */
+    public boolean tungguBerhenti(long waktu, TimeUnit satuan) throws InterruptedException {
+        return sinyalBerhenti.await(waktu, satuan);
+    }
+
+    /**
+     * Mendapatkan mesin penjual yang dijalankan engine.
+     *
+     * @return Mesin penjual
+     * @throws IllegalStateException jika engine tidak sedang berjalan
+     */
+    public synchronized MesinPenjual getMesinPenjual() {
+        if (status != Status.BERJALAN) {
+            throw new IllegalStateException("Engine tidak sedang berjalan!");
+        }
+        return mesinPenjual;
+    }
+
+    /**
+     * Mendapatkan status engine saat ini.
+     *
+     * @return Status engine
+     */
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Sama dengan {@link #hentikan()}.
+     */
+    @Override
+    public void close() {
+        hentikan();
+    }
+
+    /**
+     * Mendaftarkan nilai sesaat mesin dan JVM. Gauge yang sudah ada
+     * (misalnya dari engine sebelumnya) diarahkan ke mesin ini.
+     */
+    private static void daftarkanGauge(MesinPenjual mesin) {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        registry.gauge("vending_barang_jenis", "Jumlah jenis barang di katalog",
+                mesin::getJumlahJenisBarang);
+        registry.gauge("vending_reservasi_aktif", "Reservasi stok yang menunggu pembayaran",
+                mesin::getJumlahReservasi);
+        registry.gauge("vending_transaksi_riwayat", "Jumlah transaksi di riwayat",
+                mesin::getJumlahTransaksi);
+        Runtime runtime = Runtime.getRuntime();
+        registry.gauge("vending_jvm_heap_terpakai_bytes", "Heap JVM yang sedang terpakai",
+                () -> runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    private void lepasShutdownHook() {
+        if (shutdownHook == null || Thread.currentThread() == shutdownHook) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM sedang dimatikan; hook akan berjalan dan langsung kembali
+        }
+        shutdownHook = null;
+    }
+}
@@ -0,0 +1,212 @@
+package com.vendingmachine.fleet;
+
+import com.vendingmachine.model.DataPersistence;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.SumberDayaBersama;
+import com.vendingmachine.model.TransactionIdGenerator;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Menjalankan banyak {@link MesinPenjual} dalam satu JVM, misalnya untuk
+ * back-office yang melayani seluruh armada mesin di satu lokasi.
+ *
+ * Setiap mesin diidentifikasi dengan ID mesin (0 sampai
+ * {@link TransactionIdGenerator#MESIN_MAKSIMUM}) dan memiliki direktori data
+ * sendiri {@code <direktoriInduk>/mesin-<id>} berisi snapshot, jurnal, dan
+ * riwayatnya, sehingga satu mesin dapat dipindahkan atau dipulihkan tanpa
+ * menyentuh mesin lain. ID transaksi memuat ID mesin dan tetap unik di
+ * seluruh armada.
+ *
+ * Semua mesin memakai satu {@link SumberDayaBersama}: pembelian asinkron
+ * dijalankan di sejumlah shard berthread tunggal (vending.fleet.shards,
+ * default jumlah prosesor), reservasi dilepas oleh satu penjadwal, dan
+ * nama serta path gambar produk yang sama disimpan sekali. Mesin yang
+ * menganggur tidak memiliki thread sendiri.
+ *
+ * Direktori induk bawaan adalah vending.fleet.dir, atau subdirektori
+ * "armada" di vending.dataDir.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class FleetHost implements AutoCloseable {
+
+    private static final String AWALAN_DIREKTORI = "mesin-";
+
+    private final Path direktoriInduk;
+    private final SumberDayaBersama bersama;
+    private final Map<Integer, MesinPenjual> armada = new ConcurrentHashMap<>();
+    private boolean ditutup;
+
+    /**
+     * Membuat host armada dengan konfigurasi dari system property
+     * vending.fleet.dir dan vending.fleet.shards.
+     */
+    public FleetHost() {
+        this(direktoriBawaan(), Integer.getInteger("vending.fleet.shards",
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Membuat host armada.
+     *
+     * @param direktoriInduk Direktori tempat direktori data setiap mesin dibuat
+     * @param jumlahShard Jumlah thread pembelian asinkron untuk seluruh armada
+     * @throws IllegalArgumentException jika direktori null atau jumlah shard kurang dari 1
+     */
+    public FleetHost(Path direktoriInduk, int jumlahShard) {
+        if (direktoriInduk == null) {
+            throw new IllegalArgumentException("Direktori induk tidak boleh null!");
+        }
+        this.direktoriInduk = direktoriInduk;
+        this.bersama = new SumberDayaBersama(jumlahShard);
+    }
+
+    /**
+     * Membuka mesin dengan ID tertentu, atau mengembalikan mesin yang sudah
+     * terbuka. Mesin baru memuat snapshot dan menerapkan jurnal dari
+     * direktori datanya.
+     *
+     * @param idMesin ID mesin
+     * @return Mesin penjual dengan ID tersebut
+     * @throws IllegalArgumentException jika ID mesin di luar rentang
+     * @throws IllegalStateException jika host sudah ditutup
+     */
+    public synchronized MesinPenjual buka(int idMesin) {
+        if (ditutup) {
+            throw new IllegalStateException("Host armada sudah ditutup!");
+        }
+        if (idMesin < 0 || idMesin > TransactionIdGenerator.MESIN_MAKSIMUM) {
+            throw new IllegalArgumentException("ID mesin harus 0 sampai "
+                    + TransactionIdGenerator.MESIN_MAKSIMUM + ": " + idMesin);
+        }
+        MesinPenjual mesin = armada.get(idMesin);
+        if (mesin == null) {
+            mesin = new MesinPenjual(getDirektoriMesin(idMesin), idMesin, bersama);
+            armada.put(idMesin, mesin);
+        }
+        return mesin;
+    }
+
+    /**
+     * Membuka semua mesin yang sudah memiliki direktori data di direktori induk.
+     *
+     * @return Jumlah mesin yang terbuka setelahnya
+     * @throws IOException jika direktori induk tidak dapat dibaca
+     */
+    public synchronized int bukaSemua() throws IOException {
+        if (Files.isDirectory(direktoriInduk)) {
+            try (DirectoryStream<Path> isi = Files.newDirectoryStream(direktoriInduk, AWALAN_DIREKTORI + "*")) {
+                for (Path dir : isi) {
+                    Integer idMesin = idDariDirektori(dir);
+                    if (idMesin != null && Files.isDirectory(dir)) {
+                        buka(idMesin);
+                    }
+                }
+            }
+        }
+        return armada.size();
+    }
+
+    /**
+     * Mendapatkan mesin yang sedang terbuka tanpa membukanya.
+     *
+     * @param idMesin ID mesin
+     * @return Mesin penjual, atau null jika belum dibuka
+     */
+    public MesinPenjual get(int idMesin) {
+        return armada.get(idMesin);
+    }
+
+    /**
+     * Menutup satu mesin. Data mesin tetap ada dan dapat dibuka kembali.
+     *
+     * @param idMesin ID mesin
+     * @return true jika mesin sedang terbuka dan berhasil ditutup
+     */
+    public synchronized boolean tutup(int idMesin) {
+        MesinPenjual mesin = armada.remove(idMesin);
+        if (mesin == null) {
+            return false;
+        }
+        mesin.tutup();
+        return true;
+    }
+
+    /**
+     * Mendapatkan ID semua mesin yang sedang terbuka, terurut naik.
+     *
+     * @return List ID mesin
+     */
+    public List<Integer> getIdMesin() {
+        List<Integer> ids = new ArrayList<>(armada.keySet());
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * @return Jumlah mesin yang sedang terbuka
+     */
+    public int getJumlahMesin() {
+        return armada.size();
+    }
+
+    /**
+     * Mendapatkan direktori data mesin dengan ID tertentu.
+     *
+     * @param idMesin ID mesin
+     * @return Direktori data mesin
+     */
+    public Path getDirektoriMesin(int idMesin) {
+        return direktoriInduk.resolve(AWALAN_DIREKTORI + idMesin);
+    }
+
+    /**
+     * @return Sumber daya yang dipakai bersama semua mesin
+     */
+    public SumberDayaBersama getSumberDaya() {
+        return bersama;
+    }
+
+    /**
+     * Menutup semua mesin lalu menghentikan thread bersama. Aman dipanggil
+     * berulang kali.
+     */
+    @Override
+    public synchronized void close() {
+        if (ditutup) {
+            return;
+        }
+        ditutup = true;
+        for (Integer idMesin : getIdMesin()) {
+            tutup(idMesin);
+        }
+        bersama.close();
+    }
+
+    private static Integer idDariDirektori(Path dir) {
+        String nama = dir.getFileName().toString().substring(AWALAN_DIREKTORI.length());
+        try {
+            int idMesin = Integer.parseInt(nama);
+            return idMesin >= 0 && idMesin <= TransactionIdGenerator.MESIN_MAKSIMUM ? idMesin : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Path direktoriBawaan() {
+        String dir = System.getProperty("vending.fleet.dir");
+        return dir != null ? Paths.get(dir) : DataPersistence.getDataDirectory().resolve("armada");
+    }
+}
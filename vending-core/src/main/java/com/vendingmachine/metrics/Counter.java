@@ -0,0 +1,57 @@
+package com.vendingmachine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Penghitung yang hanya bertambah, misalnya jumlah pembelian berhasil.
+ * Penambahan tidak mengalokasikan objek dan tidak saling menunggu antar thread.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class Counter extends Metric {
+
+    private final LongAdder nilai = new LongAdder();
+
+    Counter(String nama, String bantuan) {
+        super(nama, bantuan);
+    }
+
+    /**
+     * Menambah penghitung dengan satu.
+     */
+    public void tambah() {
+        nilai.increment();
+    }
+
+    /**
+     * Menambah penghitung dengan jumlah tertentu.
+     *
+     * @param jumlah Jumlah penambahan, tidak boleh negatif
+     * @throws IllegalArgumentException jika jumlah negatif
+     */
+    public void tambah(long jumlah) {
+        if (jumlah < 0) {
+            throw new IllegalArgumentException("Penghitung tidak boleh berkurang!");
+        }
+        nilai.add(jumlah);
+    }
+
+    /**
+     * @return Nilai penghitung saat ini
+     */
+    public long getNilai() {
+        return nilai.sum();
+    }
+
+    @Override
+    void tulisPrometheus(StringBuilder out) {
+        out.append(getNama()).append(' ').append(getNilai()).append('\n');
+    }
+
+    @Override
+    String getJenisPrometheus() {
+        return "counter";
+    }
+}
@@ -0,0 +1,58 @@
+package com.vendingmachine.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Nilai sesaat yang dibaca dari sumbernya setiap kali diminta, misalnya
+ * jumlah reservasi aktif atau pemakaian heap.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class Gauge extends Metric {
+
+    private volatile LongSupplier sumber;
+
+    Gauge(String nama, String bantuan, LongSupplier sumber) {
+        super(nama, bantuan);
+        setSumber(sumber);
+    }
+
+    /**
+     * Mengganti sumber nilai, misalnya saat mesin dimuat ulang.
+     *
+     * @param sumber Sumber nilai
+     * @throws IllegalArgumentException jika sumber null
+     */
+    void setSumber(LongSupplier sumber) {
+        if (sumber == null) {
+            throw new IllegalArgumentException("Sumber gauge tidak boleh null!");
+        }
+        this.sumber = sumber;
+    }
+
+    /**
+     * @return Nilai saat ini
+     */
+    public long getNilai() {
+        return sumber.getAsLong();
+    }
+
+    @Override
+    void tulisPrometheus(StringBuilder out) {
+        out.append(getNama()).append(' ');
+        try {
+            out.append(getNilai());
+        } catch (RuntimeException e) {
+            // Sumber yang gagal dibaca (misalnya mesin sudah ditutup) tidak menggagalkan ekspor
+            out.append("NaN");
+        }
+        out.append('\n');
+    }
+
+    @Override
+    String getJenisPrometheus() {
+        return "gauge";
+    }
+}
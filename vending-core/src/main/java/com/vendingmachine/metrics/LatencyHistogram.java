@@ -0,0 +1,174 @@
+package com.vendingmachine.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram latensi bergaya HDR dengan bucket log-linear: setiap
+ * rentang pangkat dua (1-2 us, 2-4 us, ...) dibagi menjadi 32 bucket
+ * sama lebar, sehingga galat relatif persentil paling besar sekitar 3%
+ * dari 1 ns sampai ratusan tahun dengan 1888 penghitung tetap.
+ *
+ * {@link #catat(long)} hanya menaikkan satu elemen AtomicLongArray dan
+ * dua LongAdder tanpa mengalokasikan objek atau memegang lock, sehingga
+ * aman dipanggil di jalur pembelian dan fsync.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class LatencyHistogram extends Metric {
+
+    /** Jumlah bit untuk bucket linear di dalam satu rentang pangkat dua */
+    private static final int BIT_SUB = 5;
+    private static final int SUB = 1 << BIT_SUB;
+    private static final int JUMLAH_BUCKET = (64 - BIT_SUB) * SUB;
+
+    /** Batas bucket ekspor Prometheus dalam nanodetik (le) */
+    private static final long[] BATAS_EKSPOR = {
+        10_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+        100_000_000L, 250_000_000L, 500_000_000L,
+        1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    private final AtomicLongArray bucket = new AtomicLongArray(JUMLAH_BUCKET);
+    private final LongAdder jumlah = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maksNanos = new AtomicLong();
+
+    LatencyHistogram(String nama, String bantuan) {
+        super(nama, bantuan);
+    }
+
+    /**
+     * Mencatat satu durasi.
+     *
+     * @param durasiNanos Durasi dalam nanodetik; nilai negatif dicatat sebagai 0
+     */
+    public void catat(long durasiNanos) {
+        long nilai = Math.max(0, durasiNanos);
+        bucket.incrementAndGet(indeks(nilai));
+        jumlah.increment();
+        totalNanos.add(nilai);
+        if (nilai > maksNanos.get()) {
+            maksNanos.accumulateAndGet(nilai, Math::max);
+        }
+    }
+
+    /**
+     * Mencatat durasi sejak waktu mulai tertentu.
+     *
+     * @param mulaiNanos Hasil System.nanoTime() saat operasi dimulai
+     */
+    public void catatSejak(long mulaiNanos) {
+        catat(System.nanoTime() - mulaiNanos);
+    }
+
+    /**
+     * @return Jumlah durasi yang sudah dicatat
+     */
+    public long getJumlah() {
+        return jumlah.sum();
+    }
+
+    /**
+     * @return Total seluruh durasi dalam nanodetik
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return Durasi terlama dalam nanodetik
+     */
+    public long getMaksNanos() {
+        return maksNanos.get();
+    }
+
+    /**
+     * Mendapatkan perkiraan persentil durasi.
+     *
+     * @param persen Persentil, 0 sampai 100 (misalnya 99 untuk p99)
+     * @return Batas atas bucket yang memuat persentil tersebut dalam
+     *         nanodetik, atau 0 jika belum ada data
+     * @throws IllegalArgumentException jika persen di luar 0 sampai 100
+     */
+    public long getPersentilNanos(double persen) {
+        if (persen < 0 || persen > 100) {
+            throw new IllegalArgumentException("Persentil harus 0 sampai 100: " + persen);
+        }
+        long total = 0;
+        for (int i = 0; i < JUMLAH_BUCKET; i++) {
+            total += bucket.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * persen / 100.0));
+        long kumulatif = 0;
+        for (int i = 0; i < JUMLAH_BUCKET; i++) {
+            kumulatif += bucket.get(i);
+            if (kumulatif >= target) {
+                return Math.min(batasAtas(i) - 1, getMaksNanos());
+            }
+        }
+        return getMaksNanos();
+    }
+
+    @Override
+    void tulisPrometheus(StringBuilder out) {
+        // Bucket tetap dengan satuan detik; bucket internal yang melewati batas masuk ke batas berikutnya
+        long kumulatif = 0;
+        int i = 0;
+        for (long batas : BATAS_EKSPOR) {
+            while (i < JUMLAH_BUCKET && batasAtas(i) - 1 <= batas) {
+                kumulatif += bucket.get(i++);
+            }
+            out.append(getNama()).append("_bucket{le=\"").append(detik(batas)).append("\"} ")
+                    .append(kumulatif).append('\n');
+        }
+        while (i < JUMLAH_BUCKET) {
+            kumulatif += bucket.get(i++);
+        }
+        out.append(getNama()).append("_bucket{le=\"+Inf\"} ").append(kumulatif).append('\n');
+        out.append(getNama()).append("_sum ").append(detik(getTotalNanos())).append('\n');
+        out.append(getNama()).append("_count ").append(kumulatif).append('\n');
+    }
+
+    @Override
+    String getJenisPrometheus() {
+        return "histogram";
+    }
+
+    /**
+     * Indeks bucket untuk satu nilai: linear di bawah 2*SUB, selanjutnya
+     * SUB bucket per rentang pangkat dua.
+     */
+    static int indeks(long nilai) {
+        if (nilai < 2 * SUB) {
+            return (int) nilai;
+        }
+        int pangkat = 63 - Long.numberOfLeadingZeros(nilai);
+        int geser = pangkat - BIT_SUB;
+        return geser * SUB + (int) (nilai >>> geser);
+    }
+
+    /**
+     * Batas atas eksklusif bucket ke-i.
+     */
+    static long batasAtas(int i) {
+        if (i < 2 * SUB) {
+            return i + 1L;
+        }
+        int geser = i / SUB - 1;
+        long mantisa = i % SUB + SUB;
+        long atas = (mantisa + 1) << geser;
+        return atas > 0 ? atas : Long.MAX_VALUE;
+    }
+
+    private static String detik(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
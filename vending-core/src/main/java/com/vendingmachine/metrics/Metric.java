@@ -0,0 +1,53 @@
+package com.vendingmachine.metrics;
+
+import java.util.regex.Pattern;
+
+/**
+ * Dasar semua metrik di {@link MetricsRegistry}: nama berformat Prometheus
+ * dan teks bantuan yang menjelaskan isinya.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public abstract class Metric {
+
+    private static final Pattern NAMA_VALID = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final String nama;
+    private final String bantuan;
+
+    Metric(String nama, String bantuan) {
+        if (nama == null || !NAMA_VALID.matcher(nama).matches()) {
+            throw new IllegalArgumentException("Nama metrik tidak valid: " + nama);
+        }
+        this.nama = nama;
+        this.bantuan = bantuan == null ? "" : bantuan;
+    }
+
+    /**
+     * @return Nama metrik
+     */
+    public String getNama() {
+        return nama;
+    }
+
+    /**
+     * @return Teks bantuan metrik
+     */
+    public String getBantuan() {
+        return bantuan;
+    }
+
+    /**
+     * Menulis nilai metrik dalam format teks Prometheus, tanpa baris HELP dan TYPE.
+     *
+     * @param out Tujuan penulisan
+     */
+    abstract void tulisPrometheus(StringBuilder out);
+
+    /**
+     * @return Jenis metrik untuk baris TYPE Prometheus
+     */
+    abstract String getJenisPrometheus();
+}
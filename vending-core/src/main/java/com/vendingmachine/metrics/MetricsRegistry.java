@@ -0,0 +1,105 @@
+package com.vendingmachine.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Kumpulan metrik aplikasi yang dapat ditampilkan di panel admin atau
+ * diekspor dalam format Prometheus.
+ *
+ * Metrik didaftarkan sekali (biasanya di field static) lalu dipakai
+ * langsung, sehingga jalur yang diukur tidak perlu mencari di map.
+ * Mendaftarkan nama yang sama dua kali mengembalikan metrik yang sudah ada.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Metric> metrik = new ConcurrentHashMap<>();
+
+    /**
+     * @return Registry yang dipakai seluruh aplikasi
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Mendapatkan atau mendaftarkan penghitung.
+     *
+     * @param nama Nama metrik
+     * @param bantuan Teks bantuan
+     * @return Penghitung dengan nama tersebut
+     * @throws IllegalArgumentException jika nama sudah dipakai metrik jenis lain
+     */
+    public Counter counter(String nama, String bantuan) {
+        return daftar(nama, Counter.class, n -> new Counter(n, bantuan));
+    }
+
+    /**
+     * Mendapatkan atau mendaftarkan histogram latensi.
+     *
+     * @param nama Nama metrik, sebaiknya berakhiran _seconds
+     * @param bantuan Teks bantuan
+     * @return Histogram dengan nama tersebut
+     * @throws IllegalArgumentException jika nama sudah dipakai metrik jenis lain
+     */
+    public LatencyHistogram histogram(String nama, String bantuan) {
+        return daftar(nama, LatencyHistogram.class, n -> new LatencyHistogram(n, bantuan));
+    }
+
+    /**
+     * Mendaftarkan gauge; jika sudah ada, sumber nilainya diganti.
+     *
+     * @param nama Nama metrik
+     * @param bantuan Teks bantuan
+     * @param sumber Sumber nilai
+     * @return Gauge dengan nama tersebut
+     * @throws IllegalArgumentException jika nama sudah dipakai metrik jenis lain
+     */
+    public Gauge gauge(String nama, String bantuan, LongSupplier sumber) {
+        Gauge gauge = daftar(nama, Gauge.class, n -> new Gauge(n, bantuan, sumber));
+        gauge.setSumber(sumber);
+        return gauge;
+    }
+
+    /**
+     * Mendapatkan metrik berdasarkan nama.
+     *
+     * @param nama Nama metrik
+     * @return Metrik, atau null jika belum terdaftar
+     */
+    public Metric get(String nama) {
+        return metrik.get(nama);
+    }
+
+    /**
+     * @return Salinan semua metrik, terurut berdasarkan nama
+     */
+    public List<Metric> getMetrik() {
+        List<Metric> hasil = new ArrayList<>(metrik.values());
+        hasil.sort(Comparator.comparing(Metric::getNama));
+        return hasil;
+    }
+
+    private <T extends Metric> T daftar(String nama, Class<T> jenis, Function<String, T> pembuat) {
+        Metric hasil = metrik.get(nama);
+        if (hasil == null) {
+            hasil = metrik.computeIfAbsent(nama, pembuat);
+        }
+        if (!jenis.isInstance(hasil)) {
+            throw new IllegalArgumentException("Metrik " + nama + " sudah terdaftar sebagai "
+                    + hasil.getJenisPrometheus());
+        }
+        return jenis.cast(hasil);
+    }
+}
@@ -0,0 +1,100 @@
+package com.vendingmachine.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Endpoint HTTP lokal yang menyajikan isi {@link MetricsRegistry} dalam
+ * format teks Prometheus di GET /metrics.
+ *
+ * Permintaan dilayani satu per satu di thread server HTTP; penyusunan
+ * teks hanya membaca penghitung sehingga tidak mengganggu jalur pembelian.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class MetricsServer {
+
+    private final MetricsRegistry registry;
+    private HttpServer server;
+
+    /**
+     * Membuat endpoint untuk registry tertentu.
+     *
+     * @param registry Registry yang diekspor
+     */
+    public MetricsServer(MetricsRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry metrik tidak boleh null!");
+        }
+        this.registry = registry;
+    }
+
+    /**
+     * Mulai mendengarkan di alamat tertentu.
+     *
+     * @param alamat Alamat dan port; port 0 memilih port bebas
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika server sudah berjalan
+     */
+    public synchronized void mulai(InetSocketAddress alamat) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Endpoint metrik sudah berjalan!");
+        }
+        HttpServer baru = HttpServer.create(alamat, 0);
+        baru.createContext("/metrics", this::layani);
+        baru.start();
+        server = baru;
+    }
+
+    /**
+     * Menghentikan endpoint.
+     */
+    public synchronized void hentikan() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        server = null;
+    }
+
+    /**
+     * Mendapatkan port yang sedang didengarkan.
+     *
+     * @return Nomor port
+     * @throws IllegalStateException jika server tidak berjalan
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Endpoint metrik tidak berjalan!");
+        }
+        return server.getAddress().getPort();
+    }
+
+    private void layani(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String metode = exchange.getRequestMethod();
+            if (!"GET".equals(metode) && !"HEAD".equals(metode)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] badan = PrometheusExporter.keTeks(registry).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PrometheusExporter.CONTENT_TYPE);
+            if ("HEAD".equals(metode)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, badan.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(badan);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.vendingmachine.metrics;
+
+/**
+ * Menyusun isi registry dalam format teks eksposisi Prometheus 0.0.4.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class PrometheusExporter {
+
+    /** Content-Type untuk respons HTTP berisi teks Prometheus */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private PrometheusExporter() {
+    }
+
+    /**
+     * Menyusun teks Prometheus untuk semua metrik di registry.
+     *
+     * @param registry Registry sumber
+     * @return Teks berisi baris HELP, TYPE, dan nilai setiap metrik
+     */
+    public static String keTeks(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metrik : registry.getMetrik()) {
+            if (!metrik.getBantuan().isEmpty()) {
+                out.append("# HELP ").append(metrik.getNama()).append(' ')
+                        .append(metrik.getBantuan().replace("\\", "\\\\").replace("\n", "\\n"))
+                        .append('\n');
+            }
+            out.append("# TYPE ").append(metrik.getNama()).append(' ')
+                    .append(metrik.getJenisPrometheus()).append('\n');
+            metrik.tulisPrometheus(out);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,264 @@
+package com.vendingmachine.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Kelas model untuk merepresentasikan produk dalam vending machine.
+ * Menyimpan informasi lengkap tentang produk termasuk identitas,
+ * nama, harga, stok, dan path gambar.
+ * 
+ * Kelas ini tetap mengimplementasikan Serializable agar file data lama
+ * dapat dibaca saat migrasi; penyimpanan baru memakai format biner
+ * {@link RecordCodec}.
+ * 
+ * Harga disimpan sebagai long dalam Rupiah penuh (Rupiah tidak memakai
+ * pecahan), sehingga penjumlahan pendapatan selalu tepat. Bentuk serialisasi
+ * Java tetap mendeklarasikan harga sebagai double agar file lama tetap terbaca.
+ * 
+ * Stok dapat diubah dari banyak thread sekaligus: pengurangan stok memakai
+ * compare-and-set per barang, sehingga pembelian barang berbeda tidak
+ * saling menunggu dan stok tidak pernah menjadi negatif.
+ * 
+ * @author Tim Pengembang Vending Machine
+ * @version 2.0
+ * @since 2024
+ */
+public class Barang implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final AtomicIntegerFieldUpdater<Barang> STOK =
+            AtomicIntegerFieldUpdater.newUpdater(Barang.class, "stokSekarang");
+
+    /**
+     * Field serialisasi Java versi lama; harga di sana bertipe double
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("idBarang", String.class),
+        new ObjectStreamField("namaBarang", String.class),
+        new ObjectStreamField("hargaBarang", double.class),
+        new ObjectStreamField("stokSekarang", int.class),
+        new ObjectStreamField("pathGambar", String.class)
+    };
+
+    /**
+     * ID unik untuk mengidentifikasi barang
+     */
+    private String idBarang;
+
+    /**
+     * Nama barang yang akan ditampilkan
+     */
+    private String namaBarang;
+
+    /**
+     * Harga barang dalam Rupiah penuh
+     */
+    private long hargaBarang;
+
+    /**
+     * Jumlah stok barang yang tersedia saat ini; diubah secara atomik lewat {@link #STOK}
+     */
+    private volatile int stokSekarang;
+
+    /**
+     * Path relatif atau absolut ke file gambar produk
+     */
+    private String pathGambar;
+
+    /**
+     * Constructor untuk membuat objek Barang baru.
+     *
+     * @param idBarang ID unik barang
+     * @param namaBarang Nama barang
+     * @param hargaBarang Harga barang dalam Rupiah
+     * @param stokAwal Jumlah stok awal
+     * @param pathGambar Path ke file gambar produk
+     */
+    public Barang(String idBarang, String namaBarang, long hargaBarang, int stokAwal, String pathGambar) {
+        this.idBarang = idBarang;
+        this.namaBarang = namaBarang;
+        this.hargaBarang = hargaBarang;
+        this.stokSekarang = stokAwal;
+        this.pathGambar = pathGambar;
+    }
+
+    /**
+     * Mendapatkan ID barang.
+     *
+     * @return ID barang
+     */
+    public String getIdBarang() {
+        return idBarang;
+    }
+
+    /**
+     * Mengatur ID barang.
+     *
+     * @param idBarang ID barang baru
+     */
+    public void setIdBarang(String idBarang) {
+        this.idBarang = idBarang;
+    }
+
+    /**
+     * Mendapatkan nama barang.
+     *
+     * @return Nama barang
+     */
+    public String getNamaBarang() {
+        return namaBarang;
+    }
+
+    /**
+     * Mengatur nama barang.
+     *
+     * @param namaBarang Nama barang baru
+     */
+    public void setNamaBarang(String namaBarang) {
+        this.namaBarang = namaBarang;
+    }
+
+    /**
+     * Mendapatkan harga barang.
+     *
+     * @return Harga barang dalam Rupiah penuh
+     */
+    public long getHargaBarang() {
+        return hargaBarang;
+    }
+
+    /**
+     * Mengatur harga barang.
+     *
+     * @param hargaBarang Harga barang baru dalam Rupiah penuh
+     */
+    public void setHargaBarang(long hargaBarang) {
+        this.hargaBarang = hargaBarang;
+    }
+
+    /**
+     * Mendapatkan jumlah stok saat ini.
+     *
+     * @return Jumlah stok tersedia
+     */
+    public int getStokSekarang() {
+        return stokSekarang;
+    }
+
+    /**
+     * Mengatur jumlah stok.
+     *
+     * @param stokSekarang Jumlah stok baru
+     */
+    public void setStokSekarang(int stokSekarang) {
+        this.stokSekarang = stokSekarang;
+    }
+
+    /**
+     * Mendapatkan path gambar produk.
+     *
+     * @return Path ke file gambar
+     */
+    public String getPathGambar() {
+        return pathGambar;
+    }
+
+    /**
+     * Mengatur path gambar produk.
+     *
+     * @param pathGambar Path baru ke file gambar
+     */
+    public void setPathGambar(String pathGambar) {
+        this.pathGambar = pathGambar;
+    }
+
+    /**
+     * Mengurangi stok barang dengan jumlah tertentu.
+     * Memastikan stok tidak menjadi negatif.
+     *
+     * @param jumlah Jumlah yang akan dikurangi dari stok
+     * @throws IllegalArgumentException jika jumlah lebih besar dari stok tersedia
+     */
+    public void kurangiStok(int jumlah) {
+        if (jumlah < 0) {
+            throw new IllegalArgumentException("Jumlah tidak boleh negatif!");
+        }
+        if (!kurangiStokJikaCukup(jumlah)) {
+            throw new IllegalArgumentException("Jumlah yang diminta melebihi stok tersedia!");
+        }
+    }
+
+    /**
+     * Mengurangi stok secara atomik hanya jika stok mencukupi.
+     * Aman dipanggil dari banyak thread; tidak pernah menghasilkan stok negatif.
+     *
+     * @param jumlah Jumlah yang akan dikurangi dari stok, tidak boleh negatif
+     * @return true jika stok berhasil dikurangi, false jika stok tidak cukup
+     */
+    public boolean kurangiStokJikaCukup(int jumlah) {
+        while (true) {
+            int stok = stokSekarang;
+            if (jumlah > stok) {
+                return false;
+            }
+            if (STOK.compareAndSet(this, stok, stok - jumlah)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Menambahkan stok secara atomik, misalnya untuk mengembalikan stok
+     * pembelian yang gagal dicatat.
+     *
+     * @param jumlah Jumlah yang dikembalikan ke stok
+     */
+    public void tambahStok(int jumlah) {
+        if (jumlah < 0) {
+            throw new IllegalArgumentException("Jumlah tidak boleh negatif!");
+        }
+        STOK.addAndGet(this, jumlah);
+    }
+
+    /**
+     * Menulis Barang dalam bentuk serialisasi lama (harga sebagai double).
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("idBarang", idBarang);
+        fields.put("namaBarang", namaBarang);
+        fields.put("hargaBarang", (double) hargaBarang);
+        fields.put("stokSekarang", stokSekarang);
+        fields.put("pathGambar", pathGambar);
+        out.writeFields();
+    }
+
+    /**
+     * Membaca Barang dari file serialisasi lama; harga double dibulatkan ke Rupiah penuh.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        idBarang = (String) fields.get("idBarang", null);
+        namaBarang = (String) fields.get("namaBarang", null);
+        hargaBarang = Math.round(fields.get("hargaBarang", 0.0));
+        stokSekarang = fields.get("stokSekarang", 0);
+        pathGambar = (String) fields.get("pathGambar", null);
+    }
+
+    /**
+     * Mengembalikan representasi String dari objek Barang.
+     *
+     * @return String berisi informasi barang
+     */
+    @Override
+    public String toString() {
+        return String.format("Barang[ID=%s, Nama=%s, Harga=Rp %d, Stok=%d]",
+                           idBarang, namaBarang, hargaBarang, stokSekarang);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,605 @@
+package com.vendingmachine.model;
+
+import com.vendingmachine.metrics.Counter;
+import com.vendingmachine.metrics.LatencyHistogram;
+import com.vendingmachine.metrics.MetricsRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Kelas utilitas untuk mengelola persistensi data aplikasi vending machine.
+ * Menyediakan fungsi untuk menyimpan dan memuat data produk menggunakan
+ * format biner {@link RecordCodec} ke file sistem. File lama hasil
+ * serialisasi Java dibaca sekali lalu ditulis ulang dalam format baru.
+ * 
+ * Fitur yang disediakan:
+ * - Penyimpanan data produk ke file
+ * - Pemuatan data produk dari file
+ * - Penghapusan file data
+ * - Pengecekan keberadaan file data
+ * - Manajemen direktori penyimpanan otomatis
+ * - Penanda sekuens jurnal terakhir yang sudah tercakup dalam snapshot
+ * - Statistik penjualan berjalan yang berlaku pada sekuens tersebut
+ * - Penulisan atomik (file sementara + fsync + rename + fsync direktori)
+ *   dengan checksum dan satu generasi cadangan untuk pemulihan dari file rusak
+ *
+ * Direktori penyimpanan dapat diganti melalui system property
+ * {@code vending.dataDir}. Setiap operasi juga tersedia dengan direktori
+ * eksplisit, sehingga beberapa mesin dalam satu JVM masing-masing
+ * memiliki direktori data sendiri.
+ * 
+ * @author Tim Pengembang Vending Machine
+ * @version 2.0
+ * @since 2024
+ */
+public class DataPersistence {
+
+    private static final String DATA_FILE = "vending_data.dat";
+    private static final String JOURNAL_FILE = "vending_journal.log";
+    private static final String HISTORY_DIR = "riwayat";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final String CORRUPT_SUFFIX = ".rusak";
+
+    /** Penanda awal file snapshot berformat header ("VMSN") */
+    private static final int MAGIC = 0x564D534E;
+
+    /** Versi payload lama yang berisi serialisasi Java */
+    private static final int VERSI_SERIALISASI = 1;
+
+    /** Ukuran header: magic, versi, checksum CRC32, panjang payload */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+    private static final String DATA_DIR = System.getProperty("vending.dataDir",
+            System.getProperty("user.home") + File.separator + ".vending_machine");
+
+    private static final LatencyHistogram DURASI_SIMPAN = MetricsRegistry.getDefault().histogram(
+            "vending_snapshot_simpan_durasi_seconds", "Durasi saveData, termasuk fsync dan rename");
+    private static final LatencyHistogram DURASI_MUAT = MetricsRegistry.getDefault().histogram(
+            "vending_snapshot_muat_durasi_seconds", "Durasi loadData/loadSnapshot");
+    private static final Counter SIMPAN_GAGAL = MetricsRegistry.getDefault().counter(
+            "vending_snapshot_simpan_gagal_total", "Penyimpanan snapshot yang gagal");
+
+    /**
+     * Hasil pemuatan snapshot: daftar barang beserta sekuens jurnal
+     * terakhir yang sudah tercakup di dalamnya.
+     */
+    public static final class Snapshot {
+        private final List<Barang> daftarBarang;
+        private final long sekuensJurnal;
+        private final StatistikPenjualan statistik;
+
+        private final boolean formatLama;
+
+        Snapshot(List<Barang> daftarBarang, long sekuensJurnal) {
+            this(daftarBarang, sekuensJurnal, null, false);
+        }
+
+        Snapshot(List<Barang> daftarBarang, long sekuensJurnal, StatistikPenjualan statistik,
+                 boolean formatLama) {
+            this.daftarBarang = daftarBarang;
+            this.sekuensJurnal = sekuensJurnal;
+            this.statistik = statistik;
+            this.formatLama = formatLama;
+        }
+
+        /**
+         * @return Daftar barang dalam snapshot
+         */
+        public List<Barang> getDaftarBarang() {
+            return daftarBarang;
+        }
+
+        /**
+         * @return Sekuens jurnal terakhir yang sudah diterapkan ke snapshot
+         */
+        public long getSekuensJurnal() {
+            return sekuensJurnal;
+        }
+
+        /**
+         * @return Statistik penjualan sampai sekuens jurnal snapshot,
+         *         atau null jika snapshot dibuat sebelum statistik disimpan
+         */
+        public StatistikPenjualan getStatistik() {
+            return statistik;
+        }
+    }
+
+    /**
+     * Mendapatkan direktori data bawaan (vending.dataDir).
+     *
+     * @return Path direktori data
+     */
+    public static Path getDataDirectory() {
+        return Paths.get(DATA_DIR);
+    }
+
+    /**
+     * Mendapatkan lokasi file jurnal transaksi.
+     *
+     * @return Path file jurnal
+     */
+    public static Path getJournalFile() {
+        return getJournalFile(getDataDirectory());
+    }
+
+    /**
+     * Mendapatkan lokasi file jurnal transaksi di direktori data tertentu.
+     *
+     * @param dir Direktori data
+     * @return Path file jurnal
+     */
+    public static Path getJournalFile(Path dir) {
+        return dir.resolve(JOURNAL_FILE);
+    }
+
+    /**
+     * Mendapatkan direktori file segmen riwayat transaksi.
+     *
+     * @return Path direktori riwayat
+     */
+    public static Path getHistoryDirectory() {
+        return getHistoryDirectory(getDataDirectory());
+    }
+
+    /**
+     * Mendapatkan direktori file segmen riwayat di direktori data tertentu.
+     *
+     * @param dir Direktori data
+     * @return Path direktori riwayat
+     */
+    public static Path getHistoryDirectory(Path dir) {
+        return dir.resolve(HISTORY_DIR);
+    }
+
+    /**
+     * Menyimpan daftar barang ke file.
+     *
+     * @param daftarBarang List barang yang akan disimpan
+     * @return true jika berhasil, false jika gagal
+     */
+    public static boolean saveData(List<Barang> daftarBarang) {
+        return saveData(daftarBarang, 0);
+    }
+
+    /**
+     * Menyimpan daftar barang ke file beserta sekuens jurnal terakhir
+     * yang sudah tercakup, sehingga replay jurnal tidak menerapkan ulang
+     * perubahan yang sama.
+     *
+     * @param daftarBarang List barang yang akan disimpan
+     * @param sekuensJurnal Sekuens jurnal terakhir yang tercakup snapshot
+     * @return true jika berhasil, false jika gagal
+     */
+    public static boolean saveData(List<Barang> daftarBarang, long sekuensJurnal) {
+        return saveData(daftarBarang, sekuensJurnal, null);
+    }
+
+    /**
+     * Menyimpan daftar barang, sekuens jurnal, dan statistik penjualan
+     * yang berlaku pada sekuens tersebut.
+     *
+     * @param daftarBarang List barang yang akan disimpan
+     * @param sekuensJurnal Sekuens jurnal terakhir yang tercakup snapshot
+     * @param statistik Statistik penjualan, boleh null
+     * @return true jika berhasil, false jika gagal
+     */
+    public static boolean saveData(List<Barang> daftarBarang, long sekuensJurnal,
+                                   StatistikPenjualan statistik) {
+        return saveData(getDataDirectory(), daftarBarang, sekuensJurnal, statistik);
+    }
+
+    /**
+     * Menyimpan snapshot ke direktori data tertentu.
+     *
+     * @param dir Direktori data tujuan
+     * @param daftarBarang List barang yang akan disimpan
+     * @param sekuensJurnal Sekuens jurnal terakhir yang tercakup snapshot
+     * @param statistik Statistik penjualan, boleh null
+     * @return true jika berhasil, false jika gagal
+     */
+    public static boolean saveData(Path dir, List<Barang> daftarBarang, long sekuensJurnal,
+                                   StatistikPenjualan statistik) {
+        long mulai = System.nanoTime();
+        boolean berhasil = simpan(dir, daftarBarang, sekuensJurnal, statistik);
+        DURASI_SIMPAN.catatSejak(mulai);
+        if (!berhasil) {
+            SIMPAN_GAGAL.tambah();
+        }
+        return berhasil;
+    }
+
+    /**
+     * Isi {@link #saveData(Path, List, long, StatistikPenjualan)} tanpa pengukuran.
+     */
+    private static boolean simpan(Path dir, List<Barang> daftarBarang, long sekuensJurnal,
+                                  StatistikPenjualan statistik) {
+        try {
+            // Membuat direktori penyimpanan jika belum ada
+            Files.createDirectories(dir);
+
+            Path file = dir.resolve(DATA_FILE);
+            Path temp = dir.resolve(DATA_FILE + TEMP_SUFFIX);
+            Path backup = dir.resolve(DATA_FILE + BACKUP_SUFFIX);
+
+            // Encode ke memori lebih dulu agar checksum dapat dihitung
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 + daftarBarang.size() * 48);
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                RecordCodec.tulisVarLong(out, daftarBarang.size());
+                for (Barang barang : daftarBarang) {
+                    RecordCodec.tulisBarang(out, barang);
+                }
+                out.writeLong(sekuensJurnal);
+                if (statistik != null) {
+                    statistik.tulis(out);
+                }
+            }
+            byte[] payload = buffer.toByteArray();
+
+            // Tulis ke file sementara dan paksa ke disk sebelum dipindahkan
+            tulisFileSementara(temp, payload);
+
+            // Jadikan generasi sebelumnya cadangan tanpa memindahkan file utama,
+            // dan jangan menimpa cadangan yang baik dengan file utama yang rusak
+            if (Files.exists(file) && snapshotValid(file)) {
+                buatCadangan(file, backup);
+            }
+            pindahkan(temp, file);
+
+            // Rename baru tahan lama setelah direktori di-fsync; jurnal dikosongkan setelah ini
+            sinkronDirektori(dir);
+            System.out.println("Data berhasil disimpan ke: " + file.toAbsolutePath());
+            return true;
+        } catch (IOException e) {
+            // Log error untuk debugging
+            System.err.println("Error saat menyimpan data: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Memuat daftar barang dari file.
+     *
+     * @return List barang yang dimuat, atau list kosong jika file tidak ada
+     */
+    public static List<Barang> loadData() {
+        return loadSnapshot().getDaftarBarang();
+    }
+
+    /**
+     * Memuat snapshot daftar barang beserta sekuens jurnalnya.
+     * Jika file utama hilang atau checksum-nya tidak cocok, generasi
+     * sebelumnya (file cadangan) dipakai agar inventori tidak terhapus.
+     * File lama yang belum menyimpan sekuens dianggap bersekuens 0.
+     *
+     * @return Snapshot yang dimuat, berisi list kosong jika tidak ada file yang valid
+     */
+    public static Snapshot loadSnapshot() {
+        return loadSnapshot(getDataDirectory());
+    }
+
+    /**
+     * Memuat snapshot dari direktori data tertentu.
+     *
+     * @param dir Direktori data sumber
+     * @return Snapshot yang dimuat, berisi list kosong jika tidak ada file yang valid
+     */
+    public static Snapshot loadSnapshot(Path dir) {
+        long mulai = System.nanoTime();
+        try {
+            return muat(dir);
+        } finally {
+            DURASI_MUAT.catatSejak(mulai);
+        }
+    }
+
+    /**
+     * Isi {@link #loadSnapshot(Path)} tanpa pengukuran.
+     */
+    private static Snapshot muat(Path dir) {
+        Path file = dir.resolve(DATA_FILE);
+        Path backup = dir.resolve(DATA_FILE + BACKUP_SUFFIX);
+
+        // Periksa apakah file data ada sebelum mencoba membaca
+        if (!Files.exists(file) && !Files.exists(backup)) {
+            System.out.println("File data tidak ditemukan. Menggunakan data default.");
+            return new Snapshot(new ArrayList<>(), 0);
+        }
+
+        Snapshot snapshot = bacaSnapshot(file);
+        if (snapshot == null) {
+            if (Files.exists(file)) {
+                simpanFileRusak(file);
+            }
+            System.err.println("Snapshot utama tidak valid, mencoba generasi sebelumnya: " + backup);
+            snapshot = bacaSnapshot(backup);
+        }
+
+        if (snapshot == null) {
+            System.err.println("Tidak ada snapshot yang valid. Menggunakan daftar kosong.");
+            return new Snapshot(new ArrayList<>(), 0);
+        }
+
+        System.out.println("Data berhasil dimuat: " + snapshot.getDaftarBarang().size() + " produk");
+
+        // Migrasi satu kali: tulis ulang file berformat lama dalam format biner terbaru
+        if (snapshot.formatLama) {
+            System.out.println("Memigrasikan " + DATA_FILE + " ke format biner versi " + RecordCodec.VERSI_SKEMA);
+            saveData(dir, snapshot.getDaftarBarang(), snapshot.getSekuensJurnal(), snapshot.getStatistik());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Membaca dan memverifikasi satu file snapshot.
+     * Mendukung format berheader (dengan checksum) versi biner maupun
+     * serialisasi Java, serta file lama tanpa header.
+     *
+     * @param file File snapshot yang dibaca
+     * @return Snapshot, atau null jika file tidak ada atau rusak
+     */
+    private static Snapshot bacaSnapshot(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            byte[] isi = Files.readAllBytes(file);
+            ByteBuffer buffer = ByteBuffer.wrap(isi);
+
+            byte[] payload;
+            int versi;
+            if (isi.length >= HEADER_SIZE && buffer.getInt(0) == MAGIC) {
+                versi = buffer.getInt(4);
+                long checksum = buffer.getLong(8);
+                int panjang = buffer.getInt(16);
+                boolean versiDikenal = versi == VERSI_SERIALISASI
+                        || (versi >= RecordCodec.VERSI_HARGA_DOUBLE && versi <= RecordCodec.VERSI_SKEMA);
+                if (!versiDikenal || panjang != isi.length - HEADER_SIZE) {
+                    System.err.println("Header snapshot tidak valid: " + file);
+                    return null;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(isi, HEADER_SIZE, panjang);
+                if (crc.getValue() != checksum) {
+                    System.err.println("Checksum snapshot tidak cocok: " + file);
+                    return null;
+                }
+                payload = Arrays.copyOfRange(isi, HEADER_SIZE, isi.length);
+            } else {
+                // File dari versi sebelumnya, tanpa header dan checksum
+                payload = isi;
+                versi = VERSI_SERIALISASI;
+            }
+
+            if (versi == VERSI_SERIALISASI) {
+                return bacaPayloadSerialisasi(payload);
+            }
+            return bacaPayload(payload, versi);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Handle error saat membaca file atau class tidak ditemukan
+            System.err.println("Error saat memuat data dari " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Mengurai payload biner menjadi Snapshot.
+     *
+     * @param payload Byte hasil encode daftar barang dan sekuens
+     * @param versi Versi skema payload; versi lama ditandai untuk dimigrasikan
+     * @return Snapshot hasil penguraian
+     */
+    private static Snapshot bacaPayload(byte[] payload, int versi) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int jumlah = (int) RecordCodec.bacaVarLong(in);
+        List<Barang> daftarBarang = new ArrayList<>(jumlah);
+        for (int i = 0; i < jumlah; i++) {
+            daftarBarang.add(RecordCodec.bacaBarang(in, versi));
+        }
+        long sekuensJurnal = in.readLong();
+
+        // Statistik adalah bagian opsional di akhir payload
+        StatistikPenjualan statistik = null;
+        if (in.available() > 0) {
+            statistik = StatistikPenjualan.baca(in);
+        }
+        return new Snapshot(daftarBarang, sekuensJurnal, statistik, versi < RecordCodec.VERSI_SKEMA);
+    }
+
+    /**
+     * Mengurai payload serialisasi Java dari versi sebelumnya menjadi Snapshot.
+     *
+     * @param payload Byte hasil serialisasi daftar barang dan sekuens
+     * @return Snapshot hasil penguraian, ditandai untuk dimigrasikan
+     */
+    @SuppressWarnings("unchecked")
+    private static Snapshot bacaPayloadSerialisasi(byte[] payload) throws IOException, ClassNotFoundException {
+        // Menggunakan try-with-resources untuk auto-close stream
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            // Cast object yang dibaca menjadi List<Barang>
+            List<Barang> daftarBarang = (List<Barang>) ois.readObject();
+            long sekuensJurnal = bacaSekuensJurnal(ois);
+            return new Snapshot(daftarBarang, sekuensJurnal, null, true);
+        }
+    }
+
+    /**
+     * Membaca sekuens jurnal yang ditulis setelah daftar barang.
+     * File dari versi sebelumnya tidak memilikinya sehingga dianggap 0.
+     *
+     * @param ois Stream snapshot yang sudah membaca daftar barang
+     * @return Sekuens jurnal, atau 0 untuk file lama
+     */
+    private static long bacaSekuensJurnal(ObjectInputStream ois) throws IOException {
+        try {
+            return ois.readLong();
+        } catch (EOFException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Menulis header, checksum, dan payload ke file sementara lalu
+     * memaksanya ke disk (fsync).
+     *
+     * @param temp File sementara tujuan
+     * @param payload Isi snapshot
+     */
+    private static void tulisFileSementara(Path temp, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(RecordCodec.VERSI_SKEMA);
+        header.putLong(crc.getValue());
+        header.putInt(payload.length);
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer isi = ByteBuffer.wrap(payload);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (isi.hasRemaining()) {
+                channel.write(isi);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Memeriksa apakah file snapshot utama masih layak dijadikan cadangan:
+     * header dan checksum cocok, atau file lama tanpa header dapat dibaca.
+     *
+     * @param file File snapshot utama
+     * @return true jika file valid
+     */
+    private static boolean snapshotValid(Path file) throws IOException {
+        byte[] isi = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(isi);
+        if (isi.length >= HEADER_SIZE && buffer.getInt(0) == MAGIC) {
+            int panjang = buffer.getInt(16);
+            if (panjang != isi.length - HEADER_SIZE) {
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(isi, HEADER_SIZE, panjang);
+            return crc.getValue() == buffer.getLong(8);
+        }
+        return bacaSnapshot(file) != null;
+    }
+
+    /**
+     * Menjadikan isi file utama sebagai cadangan lewat hard link (atau salinan
+     * jika sistem file tidak mendukungnya) yang lalu di-rename atomik ke
+     * lokasi cadangan, sehingga file utama tidak pernah hilang.
+     *
+     * @param file File snapshot utama
+     * @param backup Lokasi file cadangan
+     */
+    private static void buatCadangan(Path file, Path backup) throws IOException {
+        Path sementara = backup.resolveSibling(backup.getFileName() + TEMP_SUFFIX);
+        Files.deleteIfExists(sementara);
+        try {
+            Files.createLink(sementara, file);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(file, sementara);
+            try (FileChannel channel = FileChannel.open(sementara, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        pindahkan(sementara, backup);
+    }
+
+    /**
+     * Memindahkan file dan menimpa tujuan, secara atomik jika sistem file mendukungnya.
+     */
+    private static void pindahkan(Path sumber, Path tujuan) throws IOException {
+        try {
+            Files.move(sumber, tujuan, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Sistem file tanpa rename atomik: tetap ada cadangan jika gagal di tengah
+            Files.move(sumber, tujuan, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Memaksa entri direktori (hasil rename) ke disk. Windows tidak dapat
+     * membuka direktori sebagai file, sehingga langkah ini dilewati di sana.
+     *
+     * @param dir Direktori yang di-fsync
+     */
+    private static void sinkronDirektori(Path dir) throws IOException {
+        if (System.getProperty("os.name", "").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Menyalin file snapshot yang rusak agar bisa diperiksa nanti,
+     * karena file utama akan tertimpa pada penyimpanan berikutnya.
+     *
+     * @param file File snapshot yang rusak
+     */
+    private static void simpanFileRusak(Path file) {
+        try {
+            Files.copy(file, file.resolveSibling(file.getFileName() + CORRUPT_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Gagal menyalin snapshot rusak: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menghapus file data.
+     *
+     * @return true jika berhasil dihapus, false jika gagal
+     */
+    public static boolean deleteData() {
+        File file = new File(DATA_DIR + File.separator + DATA_FILE);
+        File backup = new File(DATA_DIR + File.separator + DATA_FILE + BACKUP_SUFFIX);
+        if (backup.exists()) {
+            backup.delete();
+        }
+        if (file.exists()) {
+            return file.delete();
+        }
+        return false;
+    }
+
+    /**
+     * Mengecek apakah file data ada.
+     *
+     * @return true jika file data ada, false jika tidak
+     */
+    public static boolean dataExists() {
+        File file = new File(DATA_DIR + File.separator + DATA_FILE);
+        return file.exists();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.vendingmachine.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keranjang belanja untuk membeli beberapa barang dan kuantitas sekaligus.
+ * Isi keranjang dibayar lewat {@link MesinPenjual#checkout(Keranjang)} sebagai
+ * satu transaksi: stok semua item dikurangi bersama atau tidak sama sekali,
+ * dan transaksi dicatat dengan satu record jurnal.
+ *
+ * Barang yang sama ditambahkan ke baris yang sama, dengan urutan baris
+ * sesuai urutan penambahan. Keranjang dimiliki satu pembeli dan tidak aman
+ * dipakai dari banyak thread sekaligus.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class Keranjang {
+
+    /** Kuantitas per ID barang, sesuai urutan penambahan */
+    private final Map<String, Integer> kuantitas = new LinkedHashMap<>();
+
+    /** Barang per ID, untuk harga dan nama saat ditampilkan */
+    private final Map<String, Barang> barang = new LinkedHashMap<>();
+
+    /**
+     * Menambahkan barang ke keranjang.
+     *
+     * @param item Barang yang ditambahkan
+     * @param jumlah Jumlah unit yang ditambahkan
+     * @throws IllegalArgumentException jika barang null atau jumlah tidak positif
+     */
+    public void tambah(Barang item, int jumlah) {
+        if (item == null) {
+            throw new IllegalArgumentException("Barang tidak boleh null!");
+        }
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus lebih dari 0!");
+        }
+        barang.put(item.getIdBarang(), item);
+        kuantitas.merge(item.getIdBarang(), jumlah, Math::addExact);
+    }
+
+    /**
+     * Mengatur jumlah unit satu barang; jumlah 0 menghapus barang dari keranjang.
+     *
+     * @param idBarang ID barang
+     * @param jumlah Jumlah unit baru
+     * @throws IllegalArgumentException jika jumlah negatif atau barang tidak ada di keranjang
+     */
+    public void setKuantitas(String idBarang, int jumlah) {
+        if (jumlah < 0) {
+            throw new IllegalArgumentException("Jumlah tidak boleh negatif!");
+        }
+        if (!kuantitas.containsKey(idBarang)) {
+            throw new IllegalArgumentException("Barang dengan ID " + idBarang + " tidak ada di keranjang!");
+        }
+        if (jumlah == 0) {
+            hapus(idBarang);
+        } else {
+            kuantitas.put(idBarang, jumlah);
+        }
+    }
+
+    /**
+     * Menghapus satu barang dari keranjang.
+     *
+     * @param idBarang ID barang
+     * @return true jika barang ada dan dihapus
+     */
+    public boolean hapus(String idBarang) {
+        barang.remove(idBarang);
+        return kuantitas.remove(idBarang) != null;
+    }
+
+    /**
+     * Mengosongkan keranjang.
+     */
+    public void kosongkan() {
+        barang.clear();
+        kuantitas.clear();
+    }
+
+    /**
+     * Mengecek apakah keranjang kosong.
+     *
+     * @return true jika tidak ada barang di keranjang
+     */
+    public boolean isEmpty() {
+        return kuantitas.isEmpty();
+    }
+
+    /**
+     * Mendapatkan isi keranjang sebagai item transaksi.
+     *
+     * @return List item sesuai urutan penambahan (salinan, tidak dapat diubah)
+     */
+    public List<Transaksi.Item> getItems() {
+        List<Transaksi.Item> items = new ArrayList<>(kuantitas.size());
+        for (Map.Entry<String, Integer> e : kuantitas.entrySet()) {
+            items.add(new Transaksi.Item(barang.get(e.getKey()), e.getValue()));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Mendapatkan jumlah seluruh unit di keranjang.
+     *
+     * @return Total unit
+     */
+    public int getJumlahUnit() {
+        int total = 0;
+        for (int jumlah : kuantitas.values()) {
+            total += jumlah;
+        }
+        return total;
+    }
+
+    /**
+     * Mendapatkan total harga keranjang berdasarkan harga barang saat ini.
+     *
+     * @return Total harga dalam Rupiah penuh
+     */
+    public long getTotalHarga() {
+        long total = 0;
+        for (Map.Entry<String, Integer> e : kuantitas.entrySet()) {
+            total += barang.get(e.getKey()).getHargaBarang() * e.getValue();
+        }
+        return total;
+    }
+}
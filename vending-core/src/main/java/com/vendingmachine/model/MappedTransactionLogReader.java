@@ -0,0 +1,204 @@
+package com.vendingmachine.model;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Pembaca riwayat yang memetakan file segmen dan indeksnya ke memori
+ * (FileChannel.map). Posisi record ke-n diambil langsung dari indeks
+ * berlebar tetap, lalu payload di-decode dari buffer yang dipetakan
+ * tanpa disalin ke array perantara.
+ *
+ * Segmen dipetakan saat record di dalamnya pertama kali dibaca, sehingga
+ * membuka pembaca tidak bergantung pada panjang riwayat.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+final class MappedTransactionLogReader implements TransactionLogReader {
+
+    /**
+     * Satu segmen yang tercakup pembaca, dengan jumlah record dan
+     * ukuran file saat pembaca dibuka.
+     */
+    static final class Bagian {
+        private final Path segmen;
+        private final Path indeks;
+        private final int jumlah;
+        private final long ukuran;
+
+        Bagian(Path segmen, Path indeks, int jumlah, long ukuran) {
+            this.segmen = segmen;
+            this.indeks = indeks;
+            this.jumlah = jumlah;
+            this.ukuran = ukuran;
+        }
+    }
+
+    private final TransactionStore store;
+    private final RecordCodec.KamusProduk kamus;
+    private final Bagian[] bagian;
+    /** Nomor urut global record pertama di setiap bagian */
+    private final long[] awal;
+    private final long jumlah;
+
+    private final MappedByteBuffer[] data;
+    private final MappedByteBuffer[] indeks;
+    private final CRC32 crc = new CRC32();
+
+    MappedTransactionLogReader(TransactionStore store, List<Bagian> daftarBagian,
+                               RecordCodec.KamusProduk kamus) {
+        this.store = store;
+        this.kamus = kamus;
+        this.bagian = daftarBagian.toArray(new Bagian[0]);
+        this.awal = new long[bagian.length];
+        long total = 0;
+        for (int i = 0; i < bagian.length; i++) {
+            awal[i] = total;
+            total += bagian[i].jumlah;
+        }
+        this.jumlah = total;
+        this.data = new MappedByteBuffer[bagian.length];
+        this.indeks = new MappedByteBuffer[bagian.length];
+    }
+
+    @Override
+    public long getJumlah() {
+        return jumlah;
+    }
+
+    @Override
+    public synchronized Transaksi baca(long nomor) throws IOException {
+        int i = bagianUntuk(nomor);
+        DataInputStream in = new DataInputStream(new BufferInput(payload(i, nomor)));
+        int versi = data[i].getInt(TransactionStore.POSISI_VERSI);
+        if (versi == TransactionStore.VERSI_LAMA) {
+            in.readLong();
+            return RecordCodec.bacaTransaksiVersi1(in);
+        }
+        RecordCodec.bacaSekuensTransaksi(in);
+        return RecordCodec.bacaTransaksi(in, kamus, versi);
+    }
+
+    /**
+     * Membaca sekuens jurnal asal transaksi ke-n tanpa men-decode sisa record.
+     * Sekuens naik seiring nomor urut, sehingga dapat dicari secara biner.
+     *
+     * @param nomor Nomor urut transaksi, mulai dari 0
+     * @return Sekuens jurnal transaksi tersebut
+     * @throws IndexOutOfBoundsException jika nomor di luar jangkauan
+     * @throws IOException jika record tidak dapat dibaca
+     */
+    synchronized long bacaSekuens(long nomor) throws IOException {
+        int i = bagianUntuk(nomor);
+        ByteBuffer payload = payload(i, nomor);
+        if (data[i].getInt(TransactionStore.POSISI_VERSI) == TransactionStore.VERSI_LAMA) {
+            return payload.getLong(0);
+        }
+        return RecordCodec.bacaSekuensTransaksi(new DataInputStream(new BufferInput(payload)));
+    }
+
+    /**
+     * Mencari segmen yang memuat transaksi ke-n dan memetakannya.
+     */
+    private int bagianUntuk(long nomor) throws IOException {
+        if (nomor < 0 || nomor >= jumlah) {
+            throw new IndexOutOfBoundsException("Indeks transaksi di luar jangkauan: " + nomor);
+        }
+        int i = Arrays.binarySearch(awal, nomor);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        petakan(i);
+        return i;
+    }
+
+    /**
+     * Mengambil payload record ke-n dari segmen yang sudah dipetakan
+     * setelah panjang dan CRC-nya diperiksa.
+     */
+    private ByteBuffer payload(int i, long nomor) throws IOException {
+        int lokal = (int) (nomor - awal[i]);
+        int posisi = (int) indeks[i].getLong(lokal * TransactionStore.UKURAN_ENTRI_INDEKS);
+        ByteBuffer segmen = data[i];
+        int panjang = segmen.getInt(posisi);
+        int crcTersimpan = segmen.getInt(posisi + 4);
+        int awalPayload = posisi + TransactionStore.HEADER_RECORD;
+        if (panjang <= 0 || awalPayload + panjang > segmen.capacity()) {
+            throw new IOException("Record riwayat tidak valid di " + bagian[i].segmen.getFileName());
+        }
+
+        ByteBuffer payload = segmen.slice(awalPayload, panjang);
+        crc.reset();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != crcTersimpan) {
+            throw new IOException("CRC record riwayat tidak cocok di " + bagian[i].segmen.getFileName());
+        }
+        return payload;
+    }
+
+    /**
+     * Melepas referensi ke buffer yang dipetakan; pemetaan dibebaskan
+     * oleh garbage collector.
+     */
+    @Override
+    public synchronized void close() {
+        Arrays.fill(data, null);
+        Arrays.fill(indeks, null);
+    }
+
+    /**
+     * Memetakan segmen dan indeksnya jika belum dipetakan.
+     */
+    private void petakan(int i) throws IOException {
+        if (data[i] != null) {
+            return;
+        }
+        Bagian b = bagian[i];
+        store.pastikanIndeks(b.segmen, b.jumlah);
+        try (FileChannel channel = FileChannel.open(b.indeks, StandardOpenOption.READ)) {
+            indeks[i] = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    (long) b.jumlah * TransactionStore.UKURAN_ENTRI_INDEKS);
+        }
+        try (FileChannel channel = FileChannel.open(b.segmen, StandardOpenOption.READ)) {
+            data[i] = channel.map(FileChannel.MapMode.READ_ONLY, 0, b.ukuran);
+        }
+    }
+
+    /**
+     * InputStream di atas ByteBuffer agar DataInput dapat membaca
+     * langsung dari memori yang dipetakan.
+     */
+    private static final class BufferInput extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
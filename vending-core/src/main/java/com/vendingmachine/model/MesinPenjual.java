@@ -0,0 +1,1705 @@
+package com.vendingmachine.model;
+
+import com.vendingmachine.metrics.Counter;
+import com.vendingmachine.metrics.LatencyHistogram;
+import com.vendingmachine.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Kelas model utama untuk sistem vending machine.
+ * Mengelola logika bisnis untuk operasi produk dan transaksi,
+ * termasuk manajemen inventori dan pemrosesan pembelian.
+ * 
+ * Fitur yang disediakan:
+ * - Manajemen daftar produk (CRUD operations)
+ * - Validasi dan pemrosesan transaksi pembelian, termasuk keranjang beberapa barang
+ * - Manajemen stok produk
+ * - Riwayat transaksi yang tersimpan permanen dalam file segmen
+ * - Integrasi dengan sistem persistensi data
+ * - Jurnal tulis-di-depan sehingga setiap penjualan hanya berupa satu append
+ * 
+ * Pembelian aman dipanggil dari banyak thread sekaligus (UI kiosk, callback
+ * pembayaran, pesanan jarak jauh). Stok dikurangi dengan compare-and-set per
+ * barang sehingga pembelian barang berbeda tidak saling menunggu. Pembelian
+ * hanya memegang read lock bersama; write lock dipakai oleh operasi admin dan
+ * pemadatan jurnal agar snapshot katalog selalu konsisten dengan sekuens jurnal.
+ * 
+ * {@link #prosesPembelianAsync(Barang)} menjalankan pembelian beserta tulis
+ * ke disk di executor tersendiri, sehingga thread UI tidak pernah menunggu I/O.
+ * Dengan vending.journal.fsync=group, penjualan yang datang bersamaan
+ * dipaksa ke disk dengan satu fsync per batch; pembelian tetap menunggu
+ * batch-nya tersimpan kecuali vending.journal.durableAck=false.
+ * 
+ * Selama pembayaran berlangsung, stok dapat dipesan lewat
+ * {@link #reservasi(Barang)}: satu unit ditahan sebagai transaksi PENDING,
+ * lalu dikonfirmasi menjadi penjualan atau dilepas kembali. Reservasi yang
+ * tidak diselesaikan dilepas otomatis setelah batas waktunya.
+ * 
+ * Banyak mesin dapat berjalan dalam satu JVM lewat
+ * {@link #MesinPenjual(Path, int, SumberDayaBersama)}: setiap mesin memiliki
+ * direktori data dan ID transaksi sendiri, sedangkan thread pembelian
+ * asinkron, penjadwal reservasi, dan metadata produk dipakai bersama.
+ * 
+ * @author Tim Pengembang Vending Machine
+ * @version 2.0
+ * @since 2024
+ */
+public class MesinPenjual {
+
+    /**
+     * Jumlah record jurnal sebelum katalog dipadatkan menjadi snapshot baru
+     */
+    private static final int BATAS_PEMADATAN = Integer.getInteger("vending.journal.compactEvery", 1000);
+
+    /**
+     * Jumlah transaksi terbaru yang tetap disimpan di memori
+     */
+    private static final int BATAS_RIWAYAT_MEMORI = Integer.getInteger("vending.history.memoryLimit", 500);
+
+    /**
+     * Ukuran maksimum satu file segmen riwayat transaksi dalam byte
+     */
+    private static final long UKURAN_SEGMEN_RIWAYAT = Long.getLong("vending.history.segmentBytes",
+            8L * 1024 * 1024);
+
+    /**
+     * Jumlah thread executor pembelian asinkron
+     */
+    private static final int THREAD_PEMBELIAN = Integer.getInteger("vending.purchase.threads", 2);
+
+    /**
+     * Lama reservasi stok sebelum dilepas otomatis, dalam detik. Harus lebih
+     * lama dari batas waktu pembayaran agar pembayaran yang berhasil tidak
+     * kehilangan reservasinya.
+     */
+    private static final long TTL_RESERVASI_DETIK = Long.getLong("vending.reservation.ttlSeconds", 180);
+
+    /**
+     * Apakah pembelian menunggu record jurnalnya dipaksa ke disk sebelum
+     * kembali. Hanya berpengaruh pada kebijakan fsync "group"; jika false,
+     * pembelian langsung kembali dan record ditulis oleh flusher jurnal.
+     */
+    private static final boolean KONFIRMASI_TAHAN_LAMA =
+            Boolean.parseBoolean(System.getProperty("vending.journal.durableAck", "true"));
+
+    private static final LatencyHistogram DURASI_PEMBELIAN = MetricsRegistry.getDefault().histogram(
+            "vending_pembelian_durasi_seconds", "Durasi prosesPembelian, termasuk menunggu jurnal");
+    private static final LatencyHistogram DURASI_CHECKOUT = MetricsRegistry.getDefault().histogram(
+            "vending_checkout_durasi_seconds", "Durasi checkout keranjang, termasuk menunggu jurnal");
+    private static final Counter PEMBELIAN_BERHASIL = MetricsRegistry.getDefault().counter(
+            "vending_pembelian_berhasil_total", "Pembelian dan checkout yang tercatat");
+    private static final Counter PEMBELIAN_GAGAL = MetricsRegistry.getDefault().counter(
+            "vending_pembelian_gagal_total", "Pembelian dan checkout yang ditolak atau gagal dicatat");
+    private static final Counter PENYIMPANAN_TERTUNDA = MetricsRegistry.getDefault().counter(
+            "vending_penyimpanan_tertunda_total", "Penjualan yang tercatat tetapi belum dapat dipastikan tersimpan di disk");
+
+    /**
+     * Direktori snapshot, jurnal, dan riwayat milik mesin ini
+     */
+    private final Path direktoriData;
+
+    /**
+     * Pembuat ID transaksi; ID mesin di dalamnya membuat ID unik antar mesin
+     */
+    private final TransactionIdGenerator generatorId;
+
+    /**
+     * Sumber daya yang dipakai bersama mesin lain; null jika mesin
+     * memiliki thread sendiri
+     */
+    private final SumberDayaBersama bersama;
+
+    /**
+     * Bernilai true setelah {@link #tutup()}; pembelian asinkron baru ditolak
+     */
+    private volatile boolean ditutup;
+
+    /**
+     * Indeks katalog barang berdasarkan ID untuk pencarian O(1) tanpa lock.
+     */
+    private final Map<String, Barang> katalogBarang;
+
+    /**
+     * Urutan barang sesuai urutan penambahan (dipakai untuk grid produk).
+     * List tidak dapat diubah dan diganti utuh setiap kali katalog berubah,
+     * sehingga pembaca tidak perlu lock.
+     */
+    private volatile List<Barang> urutanBarang = Collections.emptyList();
+
+    /**
+     * Transaksi terbaru yang disimpan di memori (jumlahnya dibatasi).
+     * Riwayat lengkap berada di riwayatStore dan dibaca secara streaming.
+     */
+    private final ConcurrentLinkedDeque<Transaksi> riwayatTerbaru;
+
+    /**
+     * Jumlah elemen riwayatTerbaru; size() pada deque konkuren bernilai O(n)
+     */
+    private final AtomicInteger jumlahRiwayatTerbaru = new AtomicInteger();
+
+    /**
+     * Read lock dipegang bersama oleh pembelian selama stok dan jurnal diubah;
+     * write lock dipegang operasi katalog, pemadatan, dan pemuatan ulang
+     */
+    private final ReadWriteLock kunciKatalog = new ReentrantReadWriteLock();
+
+    /**
+     * Penyimpanan permanen riwayat transaksi; null jika gagal dibuka
+     */
+    private volatile TransactionStore riwayatStore;
+
+    /**
+     * Bernilai true jika ada transaksi yang gagal masuk ke riwayatStore,
+     * sehingga jurnal tidak boleh dikosongkan sampai replay berikutnya
+     */
+    private volatile boolean riwayatTertinggal;
+
+    /**
+     * Transaksi yang sudah tercatat di jurnal tetapi belum ditulis ke
+     * riwayatStore. Diisi di bawah monitor jurnal sehingga urutannya sama
+     * dengan urutan sekuens; dikosongkan oleh satu thread sekaligus di luar
+     * monitor tersebut.
+     */
+    private final ConcurrentLinkedQueue<RiwayatTertunda> antreanRiwayat = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Dipegang thread yang sedang menulis antreanRiwayat ke riwayatStore.
+     * Pembelian hanya mencoba mengambilnya; jika sedang dipegang, transaksinya
+     * ditulis oleh pemegang lock sehingga pembelian tidak saling menunggu I/O.
+     */
+    private final ReentrantLock kunciPenulisRiwayat = new ReentrantLock();
+
+    /**
+     * Jurnal penjualan; null jika jurnal gagal dibuka sehingga setiap
+     * perubahan kembali disimpan sebagai snapshot penuh
+     */
+    private volatile TransactionJournal jurnal;
+
+    /**
+     * Sekuens jurnal yang tercakup pada snapshot terakhir yang dimuat
+     */
+    private long sekuensSnapshot;
+
+    /**
+     * Statistik penjualan berjalan, diperbarui setiap kali transaksi dicatat
+     */
+    private final StatistikPenjualan statistik = new StatistikPenjualan();
+
+    /**
+     * Bernilai true jika snapshot belum menyimpan statistik, sehingga statistik
+     * dibangun sekali dari riwayat lengkap setelah jurnal diterapkan
+     */
+    private boolean statistikPerluDibangun;
+
+    /**
+     * Executor untuk pembelian asinkron; dibuat saat pertama kali dipakai.
+     */
+    private ExecutorService executorPembelian;
+
+    /**
+     * Reservasi stok yang masih menunggu pembayaran, per ID transaksi.
+     * Reservasi hanya ada di memori; snapshot menyimpan stok ditambah unit
+     * yang sedang dipesan, sehingga reservasi yang hilang karena aplikasi
+     * berhenti otomatis kembali menjadi stok.
+     */
+    private final Map<String, Reservasi> reservasiAktif = new ConcurrentHashMap<>();
+
+    /**
+     * Penjadwal pelepasan reservasi yang kedaluwarsa; dibuat saat pertama kali dipakai.
+     */
+    private ScheduledExecutorService penjadwalReservasi;
+
+    /**
+     * Satu reservasi stok: transaksi PENDING beserta jadwal kedaluwarsanya.
+     */
+    private static final class Reservasi {
+        private final Transaksi transaksi;
+        private volatile ScheduledFuture<?> kedaluwarsa;
+
+        Reservasi(Transaksi transaksi) {
+            this.transaksi = transaksi;
+        }
+    }
+
+    /**
+     * Satu transaksi yang menunggu ditulis ke riwayatStore beserta sekuens jurnalnya.
+     */
+    private static final class RiwayatTertunda {
+        private final Transaksi transaksi;
+        private final long sekuens;
+
+        RiwayatTertunda(Transaksi transaksi, long sekuens) {
+            this.transaksi = transaksi;
+            this.sekuens = sekuens;
+        }
+    }
+
+    /**
+     * Constructor untuk membuat objek MesinPenjual baru.
+     * Menginisialisasi daftar barang dan riwayat transaksi.
+     * Memuat snapshot dari file jika ada, lalu menerapkan ulang
+     * penjualan yang tercatat di jurnal setelah snapshot tersebut.
+     * Riwayat transaksi dibuka dari file segmen tanpa memuat seluruhnya.
+     * Data disimpan di direktori vending.dataDir dan ID transaksi memakai
+     * ID mesin vending.machineId.
+     */
+    public MesinPenjual() {
+        this(DataPersistence.getDataDirectory(), TransactionIdGenerator.getDefault(), null);
+    }
+
+    /**
+     * Constructor untuk salah satu dari banyak mesin dalam satu JVM.
+     * Mesin memakai direktori data sendiri dan ID transaksi dengan ID
+     * mesinnya, sedangkan thread dan metadata produk diambil dari
+     * sumber daya bersama.
+     *
+     * @param direktoriData Direktori snapshot, jurnal, dan riwayat mesin ini
+     * @param idMesin ID mesin, 0 sampai {@link TransactionIdGenerator#MESIN_MAKSIMUM}
+     * @param bersama Sumber daya bersama semua mesin
+     * @throws IllegalArgumentException jika direktori atau sumber daya null,
+     *         atau ID mesin di luar rentang
+     */
+    public MesinPenjual(Path direktoriData, int idMesin, SumberDayaBersama bersama) {
+        this(direktoriData, new TransactionIdGenerator(idMesin), wajibAda(bersama));
+        this.executorPembelian = bersama.getShard(idMesin);
+        this.penjadwalReservasi = bersama.getPenjadwalReservasi();
+    }
+
+    private MesinPenjual(Path direktoriData, TransactionIdGenerator generatorId, SumberDayaBersama bersama) {
+        if (direktoriData == null) {
+            throw new IllegalArgumentException("Direktori data tidak boleh null!");
+        }
+        this.direktoriData = direktoriData;
+        this.generatorId = generatorId;
+        this.bersama = bersama;
+        this.riwayatTerbaru = new ConcurrentLinkedDeque<>();
+        this.katalogBarang = new ConcurrentHashMap<>();
+
+        // Coba muat data dari file
+        DataPersistence.Snapshot snapshot = DataPersistence.loadSnapshot(direktoriData);
+        List<Barang> loadedData = snapshot.getDaftarBarang();
+        if (loadedData != null && !loadedData.isEmpty()) {
+            isiKatalog(loadedData);
+            System.out.println("Data produk dimuat dari file: " + katalogBarang.size() + " produk");
+        } else {
+            System.out.println("Tidak ada data tersimpan, menggunakan daftar kosong");
+        }
+
+        sekuensSnapshot = snapshot.getSekuensJurnal();
+        muatStatistik(snapshot);
+        bukaRiwayat();
+        bukaJurnal();
+        muatRiwayatTerbaru();
+        bangunStatistikJikaPerlu();
+    }
+
+    private static SumberDayaBersama wajibAda(SumberDayaBersama bersama) {
+        if (bersama == null) {
+            throw new IllegalArgumentException("Sumber daya bersama tidak boleh null!");
+        }
+        return bersama;
+    }
+
+    /**
+     * Menambahkan barang baru ke dalam inventaris.
+     *
+     * @param barang Objek Barang yang akan ditambahkan
+     * @throws IllegalArgumentException jika barang null atau ID sudah ada
+     */
+    public void tambahBarang(Barang barang) {
+        if (barang == null) {
+            throw new IllegalArgumentException("Barang tidak boleh null!");
+        }
+
+        kunciKatalog.writeLock().lock();
+        try {
+            kanonikkan(barang);
+            // Periksa apakah ID barang sudah ada
+            if (katalogBarang.putIfAbsent(barang.getIdBarang(), barang) != null) {
+                throw new IllegalArgumentException("Barang dengan ID " + barang.getIdBarang() + " sudah ada!");
+            }
+            List<Barang> urutan = new ArrayList<>(urutanBarang);
+            urutan.add(barang);
+            urutanBarang = Collections.unmodifiableList(urutan);
+
+            // Simpan data ke file
+            saveData();
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Menghapus barang dari inventaris berdasarkan ID.
+     *
+     * Barang yang masih memiliki reservasi aktif tidak dapat dihapus, karena
+     * konfirmasinya akan mencatat penjualan barang yang dilewati saat replay.
+     *
+     * @param idBarang ID barang yang akan dihapus
+     * @return true jika berhasil dihapus, false jika tidak ditemukan
+     * @throws IllegalStateException jika ada unit barang yang sedang dipesan
+     */
+    public boolean hapusBarang(String idBarang) {
+        if (idBarang == null) {
+            return false;
+        }
+
+        kunciKatalog.writeLock().lock();
+        try {
+            Barang barang = katalogBarang.get(idBarang);
+            if (barang != null && hitungDipesan(barang) > 0) {
+                throw new IllegalStateException("Barang " + barang.getNamaBarang()
+                        + " sedang dipesan dan belum dapat dihapus!");
+            }
+            Barang removed = katalogBarang.remove(idBarang);
+            if (removed != null) {
+                List<Barang> urutan = new ArrayList<>(urutanBarang);
+                urutan.remove(removed);
+                urutanBarang = Collections.unmodifiableList(urutan);
+
+                // Simpan data ke file
+                saveData();
+                return true;
+            }
+            return false;
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Memperbarui data barang yang sudah ada dengan data baru.
+     * Stok pada data baru adalah stok fisik di mesin, termasuk unit yang
+     * sedang dipesan reservasi; stok yang dapat dijual menjadi stok fisik
+     * dikurangi unit yang dipesan, sehingga unit tersebut tidak terjual dua kali.
+     *
+     * @param idBarang ID barang yang akan diperbarui
+     * @param dataBaru Objek Barang dengan data yang telah diperbarui
+     * @throws IllegalArgumentException jika barang tidak ditemukan atau
+     *         stok baru lebih kecil dari unit yang sedang dipesan
+     */
+    public void updateBarang(String idBarang, Barang dataBaru) {
+        if (dataBaru == null) {
+            throw new IllegalArgumentException("Data baru tidak boleh null!");
+        }
+
+        kunciKatalog.writeLock().lock();
+        try {
+            Barang barang = cariBarang(idBarang);
+            if (barang == null) {
+                throw new IllegalArgumentException("Barang dengan ID " + idBarang + " tidak ditemukan!");
+            }
+
+            // ID baru tidak boleh bentrok dengan barang lain
+            String idBaru = dataBaru.getIdBarang();
+            boolean idBerubah = !idBarang.equals(idBaru);
+            if (idBerubah && katalogBarang.containsKey(idBaru)) {
+                throw new IllegalArgumentException("Barang dengan ID " + idBaru + " sudah ada!");
+            }
+
+            // Unit yang dipesan sudah keluar dari stok dan akan kembali jika reservasi dilepas
+            int dipesan = hitungDipesan(barang);
+            if (dataBaru.getStokSekarang() < dipesan) {
+                throw new IllegalArgumentException("Stok " + barang.getNamaBarang() + " tidak boleh kurang dari "
+                        + dipesan + " unit yang sedang dipesan!");
+            }
+
+            // Perbarui semua atribut barang
+            barang.setIdBarang(idBaru);
+            barang.setNamaBarang(dataBaru.getNamaBarang());
+            barang.setHargaBarang(dataBaru.getHargaBarang());
+            barang.setStokSekarang(dataBaru.getStokSekarang() - dipesan);
+            barang.setPathGambar(dataBaru.getPathGambar());
+            kanonikkan(barang);
+            idBaru = barang.getIdBarang();
+
+            // Ganti kunci indeks jika ID berubah; posisi barang di grid tidak berubah
+            if (idBerubah) {
+                katalogBarang.remove(idBarang);
+                katalogBarang.put(idBaru, barang);
+            }
+
+            // Simpan data ke file
+            saveData();
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mendapatkan stok fisik barang: stok yang dapat dijual ditambah unit
+     * yang sedang dipesan reservasi. Nilai ini yang diharapkan
+     * {@link #updateBarang(String, Barang)} sebagai stok baru.
+     *
+     * @param idBarang ID barang
+     * @return Stok fisik, atau 0 jika barang tidak ditemukan
+     */
+    public int getStokFisik(String idBarang) {
+        kunciKatalog.writeLock().lock();
+        try {
+            Barang barang = cariBarang(idBarang);
+            return barang == null ? 0 : barang.getStokSekarang() + hitungDipesan(barang);
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Menghitung unit barang yang sedang dipesan reservasi aktif.
+     * Dipanggil di bawah write lock sehingga reservasi tidak berubah.
+     */
+    private int hitungDipesan(Barang barang) {
+        int jumlah = 0;
+        for (Reservasi reservasi : reservasiAktif.values()) {
+            for (Transaksi.Item item : reservasi.transaksi.getItems()) {
+                if (item.getBarang() == barang) {
+                    jumlah += item.getKuantitas();
+                }
+            }
+        }
+        return jumlah;
+    }
+
+    /**
+     * Mencari barang berdasarkan ID menggunakan indeks katalog (O(1)).
+     *
+     * @param idBarang ID barang yang dicari
+     * @return Objek Barang jika ditemukan, null jika tidak ditemukan
+     */
+    public Barang cariBarang(String idBarang) {
+        if (idBarang == null) {
+            return null;
+        }
+        return katalogBarang.get(idBarang);
+    }
+
+    /**
+     * Mendapatkan seluruh daftar barang yang tersedia.
+     * Urutan mengikuti urutan penambahan barang ke katalog.
+     *
+     * @return List berisi semua barang
+     */
+    public List<Barang> getDaftarBarang() {
+        return new ArrayList<>(urutanBarang); // Mengembalikan salinan untuk enkapsulasi
+    }
+
+    /**
+     * Mendapatkan riwayat semua transaksi.
+     * Seluruh riwayat dibaca dari file segmen ke dalam list baru; untuk
+     * riwayat yang sangat besar gunakan {@link #forEachTransaksi(Consumer)}.
+     *
+     * @return List berisi semua transaksi
+     */
+    public List<Transaksi> getRiwayatTransaksi() {
+        List<Transaksi> semua = new ArrayList<>();
+        forEachTransaksi(semua::add);
+        return semua;
+    }
+
+    /**
+     * Menelusuri seluruh riwayat transaksi secara streaming, dari yang
+     * terlama ke yang terbaru, tanpa memuat semuanya ke memori.
+     *
+     * @param konsumen Penerima setiap transaksi
+     */
+    public void forEachTransaksi(Consumer<Transaksi> konsumen) {
+        tuntaskanRiwayat();
+        TransactionStore store = riwayatStore;
+        if (store == null) {
+            new ArrayList<>(riwayatTerbaru).forEach(konsumen);
+            return;
+        }
+        try {
+            store.forEach(konsumen);
+        } catch (IOException e) {
+            System.err.println("Error saat membaca riwayat transaksi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Membuka pembaca riwayat dengan akses acak untuk tampilan riwayat.
+     * Membuka pembaca tidak membaca record apa pun; record dibaca dari
+     * file yang dipetakan ke memori hanya saat dibutuhkan. Pembaca wajib
+     * ditutup pemanggil setelah tidak dipakai.
+     *
+     * @return Pembaca riwayat transaksi
+     */
+    public TransactionLogReader bukaPembacaRiwayat() {
+        tuntaskanRiwayat();
+        TransactionStore store = riwayatStore;
+        if (store != null) {
+            try {
+                return store.bukaPembaca();
+            } catch (IOException e) {
+                System.err.println("Error saat membuka pembaca riwayat: " + e.getMessage());
+            }
+        }
+        return TransactionLogReader.dariList(new ArrayList<>(riwayatTerbaru));
+    }
+
+    /**
+     * Membaca penjualan tercatat yang sekuens jurnalnya lebih besar dari
+     * sekuens tertentu, dari yang terlama. Dipakai replikasi untuk mengirim
+     * penjualan yang belum diterima node pengumpul; riwayat tetap lengkap
+     * meskipun jurnal sudah dipadatkan.
+     *
+     * @param sekuens Sekuens jurnal terakhir yang sudah diterima pemanggil
+     * @param maksimum Jumlah transaksi maksimum yang dibaca
+     * @param konsumen Penerima setiap transaksi beserta sekuens jurnalnya
+     * @return Jumlah transaksi yang dibaca, 0 jika riwayat tidak tersedia
+     * @throws IOException jika riwayat tidak dapat dibaca
+     */
+    public int bacaPenjualanSetelah(long sekuens, int maksimum, ObjLongConsumer<Transaksi> konsumen)
+            throws IOException {
+        tuntaskanRiwayat();
+        TransactionStore store = riwayatStore;
+        if (store == null) {
+            return 0;
+        }
+        return store.bacaSetelah(sekuens, maksimum, konsumen);
+    }
+
+    /**
+     * Mendapatkan statistik penjualan berjalan (jumlah transaksi per status,
+     * pendapatan, dan penjualan per produk). Nilainya selalu terkini dan
+     * dibaca dalam O(1) tanpa menelusuri riwayat.
+     *
+     * @return Statistik penjualan
+     */
+    public StatistikPenjualan getStatistik() {
+        return statistik;
+    }
+
+    /**
+     * Mendapatkan transaksi yang paling akhir dicatat.
+     *
+     * @return Transaksi terakhir, atau null jika belum ada transaksi
+     */
+    public Transaksi getTransaksiTerakhir() {
+        return riwayatTerbaru.peekLast();
+    }
+
+    /**
+     * Mendapatkan daftar transaksi (alias untuk getRiwayatTransaksi).
+     *
+     * @return List berisi semua transaksi
+     */
+    public List<Transaksi> getDaftarTransaksi() {
+        return getRiwayatTransaksi();
+    }
+
+    /**
+     * Menghapus semua riwayat transaksi.
+     */
+    public void clearTransactionHistory() {
+        kunciKatalog.writeLock().lock();
+        try {
+            riwayatTerbaru.clear();
+            jumlahRiwayatTerbaru.set(0);
+            statistik.reset();
+            if (riwayatStore == null) {
+                return;
+            }
+
+            // Kosongkan jurnal dulu agar transaksi lama tidak dipulihkan kembali
+            saveData();
+            try {
+                riwayatStore.clear();
+            } catch (IOException e) {
+                System.err.println("Error saat menghapus riwayat transaksi: " + e.getMessage());
+            }
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Memproses pembelian barang.
+     * Validasi stok, kurangi stok, dan catat transaksi.
+     * Aman dipanggil dari banyak thread: stok dipesan lebih dulu secara
+     * atomik, sehingga dua pembeli tidak pernah mendapatkan unit terakhir
+     * yang sama. Jika pencatatan ke jurnal gagal, stok dikembalikan.
+     * Kegagalan fsync setelah penjualan tercatat tidak membatalkan penjualan;
+     * lihat {@link #isPenyimpananTertunda()}.
+     *
+     * @param barang Objek Barang yang akan dibeli
+     * @return Transaksi yang tercatat
+     * @throws IllegalArgumentException jika barang null atau tidak valid
+     * @throws IllegalStateException jika stok tidak tersedia
+     */
+    public Transaksi prosesPembelian(Barang barang) {
+        long mulai = System.nanoTime();
+        try {
+            Transaksi transaksi = beli(barang);
+            PEMBELIAN_BERHASIL.tambah();
+            return transaksi;
+        } catch (RuntimeException e) {
+            PEMBELIAN_GAGAL.tambah();
+            throw e;
+        } finally {
+            DURASI_PEMBELIAN.catatSejak(mulai);
+        }
+    }
+
+    /**
+     * Isi {@link #prosesPembelian(Barang)} tanpa pengukuran.
+     */
+    private Transaksi beli(Barang barang) {
+        // Validasi parameter input tidak boleh null
+        if (barang == null) {
+            throw new IllegalArgumentException("Barang tidak boleh null!");
+        }
+
+        pastikanTerbuka();
+        pulihkanJurnal();
+        Transaksi transaksi;
+        long sekuens;
+        kunciKatalog.readLock().lock();
+        try {
+            // Cari di bawah lock agar barang tidak dihapus di antara pencarian dan penjualan
+            Barang barangDiInventaris = cariBarang(barang.getIdBarang());
+            if (barangDiInventaris == null) {
+                throw new IllegalArgumentException("Barang tidak ditemukan di inventaris!");
+            }
+
+            // Pesan 1 unit stok secara atomik; gagal berarti stok sudah habis
+            if (!barangDiInventaris.kurangiStokJikaCukup(1)) {
+                throw new IllegalStateException("Stok barang " + barangDiInventaris.getNamaBarang() + " habis!");
+            }
+
+            // Buat objek transaksi baru untuk mencatat pembelian
+            transaksi = transaksiBaru(barangDiInventaris, 1);
+
+            // Catat ke jurnal dan riwayat; jika jurnal gagal, stok dikembalikan
+            try {
+                sekuens = catatKeLedger(transaksi);
+            } catch (IllegalStateException e) {
+                barangDiInventaris.tambahStok(1);
+                throw e;
+            }
+            statistik.catat(transaksi);
+        } finally {
+            kunciKatalog.readLock().unlock();
+        }
+
+        setelahPenjualan(transaksi, sekuens);
+        return transaksi;
+    }
+
+    /**
+     * Membeli seluruh isi keranjang sebagai satu transaksi.
+     * Stok semua item dikurangi bersama: jika salah satu item tidak cukup,
+     * stok item yang sudah dikurangi dikembalikan dan tidak ada yang terjual.
+     * Transaksi dicatat dengan satu record jurnal dan satu record riwayat,
+     * sehingga biaya persistensinya sama dengan pembelian satu barang.
+     *
+     * @param keranjang Keranjang berisi barang yang dibeli
+     * @return Transaksi yang tercatat
+     * @throws IllegalArgumentException jika keranjang kosong atau berisi barang
+     *         yang tidak ada di inventaris
+     * @throws IllegalStateException jika stok salah satu barang tidak cukup
+     */
+    public Transaksi checkout(Keranjang keranjang) {
+        long mulai = System.nanoTime();
+        try {
+            Transaksi transaksi = beliKeranjang(keranjang);
+            PEMBELIAN_BERHASIL.tambah();
+            return transaksi;
+        } catch (RuntimeException e) {
+            PEMBELIAN_GAGAL.tambah();
+            throw e;
+        } finally {
+            DURASI_CHECKOUT.catatSejak(mulai);
+        }
+    }
+
+    /**
+     * Isi {@link #checkout(Keranjang)} tanpa pengukuran.
+     */
+    private Transaksi beliKeranjang(Keranjang keranjang) {
+        if (keranjang == null || keranjang.isEmpty()) {
+            throw new IllegalArgumentException("Keranjang tidak boleh kosong!");
+        }
+
+        pastikanTerbuka();
+        pulihkanJurnal();
+        Transaksi transaksi;
+        long sekuens;
+        kunciKatalog.readLock().lock();
+        try {
+            // Pakai objek barang dari inventaris, bukan salinan di keranjang; dicari
+            // di bawah lock agar tidak ada barang yang dihapus sebelum stoknya dipesan
+            List<Transaksi.Item> items = new ArrayList<>();
+            for (Transaksi.Item item : keranjang.getItems()) {
+                Barang barangDiInventaris = cariBarang(item.getBarang().getIdBarang());
+                if (barangDiInventaris == null) {
+                    throw new IllegalArgumentException("Barang " + item.getBarang().getNamaBarang()
+                            + " tidak ditemukan di inventaris!");
+                }
+                items.add(new Transaksi.Item(barangDiInventaris, item.getKuantitas()));
+            }
+
+            // Pesan stok setiap item; jika satu gagal, kembalikan yang sudah dipesan
+            for (int i = 0; i < items.size(); i++) {
+                Transaksi.Item item = items.get(i);
+                if (!item.getBarang().kurangiStokJikaCukup(item.getKuantitas())) {
+                    kembalikanStok(items, i);
+                    throw new IllegalStateException("Stok barang " + item.getBarang().getNamaBarang()
+                            + " tidak cukup!");
+                }
+            }
+
+            transaksi = transaksiBaru(items);
+            try {
+                sekuens = catatKeLedger(transaksi);
+            } catch (IllegalStateException e) {
+                kembalikanStok(items, items.size());
+                throw e;
+            }
+            statistik.catat(transaksi);
+        } finally {
+            kunciKatalog.readLock().unlock();
+        }
+
+        setelahPenjualan(transaksi, sekuens);
+        return transaksi;
+    }
+
+    /**
+     * Membeli isi keranjang di executor pembelian, termasuk penulisan ke disk.
+     *
+     * @param keranjang Keranjang berisi barang yang dibeli
+     * @return Future berisi transaksi yang tercatat, atau selesai dengan
+     *         IllegalArgumentException/IllegalStateException seperti
+     *         {@link #checkout(Keranjang)}
+     */
+    public CompletableFuture<Transaksi> checkoutAsync(Keranjang keranjang) {
+        // Item disalin sekarang agar keranjang bebas diubah pemanggil setelahnya
+        Keranjang salinan = new Keranjang();
+        for (Transaksi.Item item : keranjang.getItems()) {
+            salinan.tambah(item.getBarang(), item.getKuantitas());
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                pastikanTerbuka();
+                return checkout(salinan);
+            }, getExecutorPembelian());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Mesin penjual sudah ditutup!"));
+        }
+    }
+
+    /**
+     * Memesan satu unit barang selama pembayaran berlangsung. Stok langsung
+     * dikurangi sehingga pembeli lain tidak dapat mengambil unit yang sama,
+     * dan transaksi berstatus PENDING sampai dikonfirmasi atau dilepas.
+     * Reservasi dilepas otomatis setelah vending.reservation.ttlSeconds
+     * (default 180 detik).
+     *
+     * Reservasi tidak menulis ke disk, sehingga murah dipanggil dari thread UI.
+     *
+     * @param barang Objek Barang yang akan dipesan
+     * @return Transaksi PENDING; ID-nya dipakai untuk konfirmasi atau pembatalan
+     * @throws IllegalArgumentException jika barang null atau tidak ada di inventaris
+     * @throws IllegalStateException jika stok tidak tersedia
+     */
+    public Transaksi reservasi(Barang barang) {
+        if (barang == null) {
+            throw new IllegalArgumentException("Barang tidak boleh null!");
+        }
+        pastikanTerbuka();
+
+        Transaksi transaksi;
+        Reservasi reservasi;
+        kunciKatalog.readLock().lock();
+        try {
+            Barang barangDiInventaris = cariBarang(barang.getIdBarang());
+            if (barangDiInventaris == null) {
+                throw new IllegalArgumentException("Barang tidak ditemukan di inventaris!");
+            }
+            if (!barangDiInventaris.kurangiStokJikaCukup(1)) {
+                throw new IllegalStateException("Stok barang " + barangDiInventaris.getNamaBarang() + " habis!");
+            }
+            transaksi = transaksiBaru(barangDiInventaris, 1);
+            reservasi = new Reservasi(transaksi);
+            reservasiAktif.put(transaksi.getIdTransaksi(), reservasi);
+            statistik.catat(transaksi);
+        } finally {
+            kunciKatalog.readLock().unlock();
+        }
+
+        String idTransaksi = transaksi.getIdTransaksi();
+        try {
+            reservasi.kedaluwarsa = getPenjadwalReservasi().schedule(() -> {
+                if (batalkanReservasi(idTransaksi)) {
+                    System.out.println("Reservasi " + idTransaksi + " kedaluwarsa, stok dikembalikan");
+                }
+            }, TTL_RESERVASI_DETIK, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            batalkanReservasi(idTransaksi);
+            throw new IllegalStateException("Mesin penjual sudah ditutup!");
+        }
+        return transaksi;
+    }
+
+    /**
+     * Mengonfirmasi reservasi menjadi penjualan setelah pembayaran berhasil.
+     * Stok tidak dikurangi lagi; transaksi dicatat ke jurnal dan riwayat
+     * dengan status BERHASIL.
+     *
+     * @param idTransaksi ID transaksi reservasi
+     * @return Transaksi yang tercatat
+     * @throws IllegalStateException jika reservasi sudah dilepas, kedaluwarsa,
+     *         atau gagal dicatat ke jurnal
+     */
+    public Transaksi konfirmasiReservasi(String idTransaksi) {
+        pastikanTerbuka();
+        pulihkanJurnal();
+        Transaksi transaksi;
+        long sekuens;
+        kunciKatalog.readLock().lock();
+        try {
+            Reservasi reservasi = reservasiAktif.remove(idTransaksi);
+            if (reservasi == null) {
+                throw new IllegalStateException("Reservasi " + idTransaksi + " tidak ditemukan atau sudah kedaluwarsa!");
+            }
+            hentikanJadwal(reservasi);
+            transaksi = reservasi.transaksi;
+
+            try {
+                sekuens = catatKeLedger(transaksi);
+            } catch (IllegalStateException e) {
+                kembalikanStok(transaksi.getItems(), transaksi.getJumlahItem());
+                transaksi.setStatus(Transaksi.StatusTransaksi.BATAL);
+                statistik.ubahStatus(transaksi, Transaksi.StatusTransaksi.PENDING);
+                throw e;
+            }
+            statistik.ubahStatus(transaksi, Transaksi.StatusTransaksi.PENDING);
+        } finally {
+            kunciKatalog.readLock().unlock();
+        }
+
+        setelahPenjualan(transaksi, sekuens);
+        return transaksi;
+    }
+
+    /**
+     * Mengonfirmasi reservasi di executor pembelian, termasuk penulisan ke disk.
+     *
+     * @param idTransaksi ID transaksi reservasi
+     * @return Future berisi transaksi yang tercatat, atau selesai dengan
+     *         IllegalStateException seperti {@link #konfirmasiReservasi(String)}
+     */
+    public CompletableFuture<Transaksi> konfirmasiReservasiAsync(String idTransaksi) {
+        try {
+            return CompletableFuture.supplyAsync(() -> konfirmasiReservasi(idTransaksi), getExecutorPembelian());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Mesin penjual sudah ditutup!"));
+        }
+    }
+
+    /**
+     * Melepas reservasi karena pembayaran dibatalkan, gagal, atau kedaluwarsa.
+     * Unit yang dipesan dikembalikan ke stok dan transaksi berstatus BATAL.
+     *
+     * @param idTransaksi ID transaksi reservasi
+     * @return true jika reservasi dilepas; false jika sudah dikonfirmasi atau dilepas
+     */
+    public boolean batalkanReservasi(String idTransaksi) {
+        kunciKatalog.readLock().lock();
+        try {
+            Reservasi reservasi = reservasiAktif.remove(idTransaksi);
+            if (reservasi == null) {
+                return false;
+            }
+            hentikanJadwal(reservasi);
+            lepas(reservasi);
+            return true;
+        } finally {
+            kunciKatalog.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memeriksa apakah jurnal sedang gagal ditulis dan belum dapat dipulihkan.
+     * Selama keadaan ini, penjualan yang sudah dikonfirmasi tetap sah tetapi
+     * belum dapat dipastikan tersimpan di disk, dan pembelian baru ditolak.
+     * Pemulihan dicoba ulang setiap kali ada pembelian baru.
+     *
+     * @return true jika ada penjualan yang penyimpanannya tertunda
+     */
+    public boolean isPenyimpananTertunda() {
+        TransactionJournal jurnalAktif = jurnal;
+        return jurnalAktif != null && jurnalAktif.isGagal();
+    }
+
+    /**
+     * Mendapatkan jurnal aktif; hanya untuk pengujian di paket ini.
+     *
+     * @return Jurnal aktif, atau null jika mesin berjalan tanpa jurnal
+     */
+    TransactionJournal getJurnal() {
+        return jurnal;
+    }
+
+    /**
+     * Mendapatkan jumlah reservasi yang masih menunggu pembayaran.
+     *
+     * @return Jumlah reservasi aktif
+     */
+    public int getJumlahReservasi() {
+        return reservasiAktif.size();
+    }
+
+    /**
+     * Menyelesaikan pencatatan penjualan di luar lock: menunggu fsync jurnal
+     * (selalu untuk kebijakan "always", atau group commit jika diminta),
+     * cache riwayat terbaru, dan pemadatan jurnal berkala.
+     *
+     * Stok, statistik, dan riwayat sudah berubah saat metode ini dipanggil,
+     * sehingga kegagalan fsync tidak dilempar ke pemanggil: pembeli yang
+     * mengulang akan membeli dua kali. Jurnal dipulihkan lewat snapshot;
+     * jika snapshot juga gagal, penjualan tetap berhasil dan
+     * {@link #isPenyimpananTertunda()} bernilai true.
+     *
+     * @param transaksi Transaksi yang baru tercatat
+     * @param sekuens Sekuens jurnal transaksi, 0 jika tanpa jurnal
+     */
+    private void setelahPenjualan(Transaksi transaksi, long sekuens) {
+        TransactionJournal jurnalAktif = jurnal;
+        if (jurnalAktif != null && sekuens > 0 && (KONFIRMASI_TAHAN_LAMA
+                || jurnalAktif.getSyncPolicy() == TransactionJournal.SyncPolicy.SETIAP_RECORD)) {
+            // Di luar lock dan monitor jurnal agar pembelian lain dapat ikut dalam fsync yang sama
+            try {
+                jurnalAktif.tungguTahanLama(sekuens);
+            } catch (IOException e) {
+                if (!pulihkanJurnal()) {
+                    PENYIMPANAN_TERTUNDA.tambah();
+                    System.err.println("Transaksi " + transaksi.getIdTransaksi()
+                            + " tercatat tetapi belum dapat dipastikan tersimpan di disk: " + e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                // Record tetap ditulis jurnal; penjualan tidak dibatalkan
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Tambahkan transaksi ke cache riwayat terbaru untuk tracking
+        tambahKeRiwayatTerbaru(transaksi);
+
+        // Tanpa jurnal, simpan snapshot penuh; dengan jurnal, padatkan secara berkala
+        if (jurnalAktif == null || jurnalAktif.getJumlahEntri() >= BATAS_PEMADATAN) {
+            padatkan();
+        }
+    }
+
+    /**
+     * Mengembalikan unit reservasi ke stok, menandai transaksinya BATAL,
+     * dan memindahkannya dari hitungan PENDING ke BATAL di statistik.
+     */
+    private void lepas(Reservasi reservasi) {
+        Transaksi transaksi = reservasi.transaksi;
+        kembalikanStok(transaksi.getItems(), transaksi.getJumlahItem());
+        transaksi.setStatus(Transaksi.StatusTransaksi.BATAL);
+        statistik.ubahStatus(transaksi, Transaksi.StatusTransaksi.PENDING);
+    }
+
+    /**
+     * Mengembalikan stok n item pertama dari daftar.
+     */
+    private static void kembalikanStok(List<Transaksi.Item> items, int n) {
+        for (int i = 0; i < n; i++) {
+            items.get(i).getBarang().tambahStok(items.get(i).getKuantitas());
+        }
+    }
+
+    private static void hentikanJadwal(Reservasi reservasi) {
+        ScheduledFuture<?> kedaluwarsa = reservasi.kedaluwarsa;
+        if (kedaluwarsa != null) {
+            kedaluwarsa.cancel(false);
+        }
+    }
+
+    /**
+     * Melepas semua reservasi aktif. Dipanggil di bawah write lock.
+     */
+    private void lepasSemuaReservasi() {
+        for (Reservasi reservasi : reservasiAktif.values()) {
+            hentikanJadwal(reservasi);
+            lepas(reservasi);
+        }
+        reservasiAktif.clear();
+    }
+
+    /**
+     * Mendapatkan penjadwal reservasi, membuatnya jika belum ada.
+     * Jadwal yang dibatalkan langsung dibuang dari antrean, sehingga ribuan
+     * reservasi yang dikonfirmasi tidak menumpuk di penjadwal.
+     */
+    private synchronized ScheduledExecutorService getPenjadwalReservasi() {
+        // Penjadwal bersama tetap berjalan untuk mesin lain, jadi periksa di sini
+        if (ditutup) {
+            throw new RejectedExecutionException("Mesin penjual sudah ditutup!");
+        }
+        if (penjadwalReservasi == null) {
+            ScheduledThreadPoolExecutor penjadwal = new ScheduledThreadPoolExecutor(1, tugas -> {
+                Thread thread = new Thread(tugas, "vending-reservasi");
+                thread.setDaemon(true);
+                return thread;
+            });
+            penjadwal.setRemoveOnCancelPolicy(true);
+            penjadwalReservasi = penjadwal;
+        }
+        return penjadwalReservasi;
+    }
+
+    /**
+     * Mendapatkan daftar barang untuk snapshot. Unit yang sedang dipesan
+     * dihitung sebagai stok, karena reservasi tidak bertahan setelah restart.
+     * Dipanggil di bawah write lock sehingga reservasi tidak berubah.
+     */
+    private List<Barang> getDaftarBarangUntukSnapshot() {
+        List<Barang> daftar = getDaftarBarang();
+        if (reservasiAktif.isEmpty()) {
+            return daftar;
+        }
+
+        Map<Barang, Integer> dipesan = new IdentityHashMap<>();
+        for (Reservasi reservasi : reservasiAktif.values()) {
+            for (Transaksi.Item item : reservasi.transaksi.getItems()) {
+                dipesan.merge(item.getBarang(), item.getKuantitas(), Integer::sum);
+            }
+        }
+        List<Barang> hasil = new ArrayList<>(daftar.size());
+        for (Barang barang : daftar) {
+            Integer jumlah = dipesan.get(barang);
+            hasil.add(jumlah == null ? barang : new Barang(barang.getIdBarang(), barang.getNamaBarang(),
+                    barang.getHargaBarang(), barang.getStokSekarang() + jumlah, barang.getPathGambar()));
+        }
+        return hasil;
+    }
+
+    /**
+     * Mendapatkan statistik untuk snapshot. Reservasi aktif tidak ikut
+     * dihitung sebagai PENDING karena tidak bertahan setelah restart, sama
+     * seperti unitnya yang dikembalikan ke stok di snapshot.
+     * Dipanggil di bawah write lock sehingga reservasi tidak berubah.
+     */
+    private StatistikPenjualan getStatistikUntukSnapshot() {
+        if (reservasiAktif.isEmpty()) {
+            return statistik;
+        }
+        StatistikPenjualan hasil = new StatistikPenjualan();
+        hasil.salinDari(statistik);
+        for (Reservasi reservasi : reservasiAktif.values()) {
+            hasil.lupakan(reservasi.transaksi);
+        }
+        return hasil;
+    }
+
+    /**
+     * Memproses pembelian di executor pembelian, termasuk penulisan jurnal,
+     * riwayat, dan snapshot. Cocok dipanggil dari thread UI; hasilnya
+     * dilaporkan lewat CompletableFuture yang diselesaikan di thread executor,
+     * sehingga pemanggil UI harus memindahkan pembaruan tampilan ke thread UI.
+     *
+     * @param barang Objek Barang yang akan dibeli
+     * @return Future berisi transaksi yang tercatat, atau selesai dengan
+     *         IllegalArgumentException/IllegalStateException seperti
+     *         {@link #prosesPembelian(Barang)}
+     */
+    public CompletableFuture<Transaksi> prosesPembelianAsync(Barang barang) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                pastikanTerbuka();
+                return prosesPembelian(barang);
+            }, getExecutorPembelian());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Mesin penjual sudah ditutup!"));
+        }
+    }
+
+    /**
+     * Mendapatkan jumlah total barang yang tersedia.
+     *
+     * @return Jumlah jenis barang yang berbeda
+     */
+    public int getJumlahJenisBarang() {
+        return katalogBarang.size();
+    }
+
+    /**
+     * Mendapatkan jumlah total transaksi yang telah dilakukan.
+     *
+     * @return Jumlah transaksi
+     */
+    public int getJumlahTransaksi() {
+        tuntaskanRiwayat();
+        TransactionStore store = riwayatStore;
+        if (store == null) {
+            return jumlahRiwayatTerbaru.get();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, store.getJumlahRecord());
+    }
+
+    /**
+     * Memeriksa apakah mesin sudah ditutup lewat {@link #tutup()}.
+     *
+     * @return true jika mesin tidak lagi menerima pembelian
+     */
+    public boolean isDitutup() {
+        return ditutup;
+    }
+
+    /**
+     * Menutup jurnal dan riwayat transaksi. Dipanggil saat aplikasi berhenti.
+     * Penjualan yang sudah tercatat tetap di jurnal dan diterapkan ulang
+     * saat aplikasi dijalankan kembali.
+     */
+    public void tutup() {
+        // Selesaikan pembelian asinkron yang sedang berjalan sebelum jurnal ditutup
+        ditutup = true;
+        ExecutorService executor;
+        ScheduledExecutorService penjadwal;
+        synchronized (this) {
+            executor = executorPembelian;
+            penjadwal = penjadwalReservasi;
+        }
+        if (bersama != null) {
+            // Thread bersama tetap hidup untuk mesin lain; cukup tunggu pembelian
+            // mesin ini yang sudah masuk antrean shard. Jadwal reservasinya
+            // dibatalkan oleh lepasSemuaReservasi di bawah.
+            tungguShard(executor);
+        } else {
+            if (penjadwal != null) {
+                penjadwal.shutdownNow();
+            }
+            if (executor != null) {
+                executor.shutdown();
+                try {
+                    if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                        System.err.println("Pembelian asinkron belum selesai saat mesin ditutup");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        kunciKatalog.writeLock().lock();
+        try {
+            // Reservasi tidak bertahan setelah mesin ditutup
+            lepasSemuaReservasi();
+            tuntaskanRiwayat();
+            if (jurnal != null) {
+                jurnal.close();
+            }
+            if (riwayatStore != null) {
+                riwayatStore.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saat menutup jurnal: " + e.getMessage());
+        } finally {
+            jurnal = null;
+            riwayatStore = null;
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Menunggu semua tugas yang sudah masuk ke shard berthread tunggal
+     * selesai, dengan mengantrekan tugas kosong di belakangnya.
+     */
+    private static void tungguShard(ExecutorService shard) {
+        try {
+            shard.submit(() -> { }).get(10, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shard sudah dihentikan sehingga tidak ada pembelian yang tersisa
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Pembelian asinkron belum selesai saat mesin ditutup");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Menolak pembelian yang baru dijalankan setelah mesin ditutup.
+     *
+     * @throws IllegalStateException jika mesin sudah ditutup
+     */
+    private void pastikanTerbuka() {
+        if (ditutup) {
+            throw new IllegalStateException("Mesin penjual sudah ditutup!");
+        }
+    }
+
+    /**
+     * Membuat transaksi satu barang dengan ID dari generator mesin ini.
+     */
+    private Transaksi transaksiBaru(Barang barang, int kuantitas) {
+        return new Transaksi(generatorId.nextIdTeks(), barang, kuantitas,
+                Transaksi.StatusTransaksi.PENDING, LocalDateTime.now());
+    }
+
+    /**
+     * Membuat transaksi keranjang dengan ID dari generator mesin ini.
+     */
+    private Transaksi transaksiBaru(List<Transaksi.Item> items) {
+        return new Transaksi(generatorId.nextIdTeks(), items,
+                Transaksi.StatusTransaksi.PENDING, LocalDateTime.now());
+    }
+
+    /**
+     * Menyeragamkan metadata barang ke kamus bersama jika mesin memakainya.
+     */
+    private void kanonikkan(Barang barang) {
+        if (bersama != null) {
+            bersama.kanonikkan(barang);
+        }
+    }
+
+    /**
+     * Mendapatkan direktori data mesin ini.
+     *
+     * @return Direktori snapshot, jurnal, dan riwayat
+     */
+    public Path getDirektoriData() {
+        return direktoriData;
+    }
+
+    /**
+     * Mendapatkan executor pembelian, membuatnya jika belum ada.
+     * Thread-nya daemon agar tidak menahan JVM saat aplikasi keluar.
+     */
+    private synchronized ExecutorService getExecutorPembelian() {
+        // Jangan membuat pool baru yang tidak akan pernah dihentikan tutup()
+        if (ditutup) {
+            throw new RejectedExecutionException("Mesin penjual sudah ditutup!");
+        }
+        if (executorPembelian == null) {
+            AtomicInteger nomor = new AtomicInteger();
+            executorPembelian = Executors.newFixedThreadPool(THREAD_PEMBELIAN, tugas -> {
+                Thread thread = new Thread(tugas, "vending-pembelian-" + nomor.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executorPembelian;
+    }
+
+    /**
+     * Menyimpan data barang ke file sebagai snapshot baru.
+     * Dipanggil otomatis setiap kali katalog diubah dan saat jurnal
+     * sudah mencapai batas pemadatan. Setelah snapshot berhasil ditulis
+     * dan riwayat transaksi sudah aman di disk, jurnal dikosongkan.
+     *
+     * Dijalankan di bawah write lock sehingga tidak ada pembelian yang sedang
+     * berjalan: stok di snapshot tepat mencakup jurnal sampai sekuens terakhir,
+     * dan tidak ada record baru yang ikut terhapus saat jurnal dikosongkan.
+     */
+    private void saveData() {
+        kunciKatalog.writeLock().lock();
+        try {
+            if (jurnal != null) {
+                sekuensSnapshot = jurnal.getSekuensTerakhir();
+            }
+            boolean tersimpan = DataPersistence.saveData(direktoriData, getDaftarBarangUntukSnapshot(),
+                    sekuensSnapshot, getStatistikUntukSnapshot());
+            if (tersimpan && jurnal != null && riwayatAman()) {
+                try {
+                    jurnal.reset();
+                } catch (IOException e) {
+                    System.err.println("Error saat mengosongkan jurnal: " + e.getMessage());
+                }
+            }
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Memulihkan jurnal yang menolak append karena penulisan sebelumnya gagal:
+     * snapshot yang mencakup seluruh penjualan di memori ditulis, lalu jurnal
+     * beserta ekornya yang mungkin rusak dikosongkan. Tidak boleh dipanggil
+     * sambil memegang read lock katalog.
+     *
+     * @return true jika jurnal tidak lagi dalam keadaan gagal
+     */
+    private boolean pulihkanJurnal() {
+        TransactionJournal jurnalAktif = jurnal;
+        if (jurnalAktif == null || !jurnalAktif.isGagal()) {
+            return true;
+        }
+        kunciKatalog.writeLock().lock();
+        try {
+            // Thread lain mungkin sudah memulihkannya saat kita menunggu lock
+            if (jurnalAktif.isGagal()) {
+                System.err.println("Jurnal gagal ditulis, memulihkan lewat snapshot");
+                saveData();
+            }
+            return !jurnalAktif.isGagal();
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Memadatkan jurnal menjadi snapshot jika masih diperlukan.
+     * Beberapa thread dapat mencapai batas bersamaan; hanya yang pertama
+     * mendapatkan write lock yang benar-benar menulis snapshot.
+     */
+    private void padatkan() {
+        kunciKatalog.writeLock().lock();
+        try {
+            if (jurnal == null || jurnal.getJumlahEntri() >= BATAS_PEMADATAN) {
+                saveData();
+            }
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Memuat ulang data dari file, termasuk penjualan yang masih ada di jurnal.
+     */
+    public void reloadData() {
+        kunciKatalog.writeLock().lock();
+        try {
+            // Stok di snapshot sudah mencakup unit yang dipesan
+            lepasSemuaReservasi();
+            DataPersistence.Snapshot snapshot = DataPersistence.loadSnapshot(direktoriData);
+            katalogBarang.clear();
+            urutanBarang = Collections.emptyList();
+            isiKatalog(snapshot.getDaftarBarang());
+            sekuensSnapshot = snapshot.getSekuensJurnal();
+            muatStatistik(snapshot);
+
+            if (jurnal != null) {
+                try {
+                    jurnal.replay(sekuensSnapshot, entri -> terapkanEntri(entri, Long.MAX_VALUE));
+                } catch (IOException e) {
+                    System.err.println("Error saat membaca jurnal: " + e.getMessage());
+                }
+            }
+            bangunStatistikJikaPerlu();
+        } finally {
+            kunciKatalog.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Membuka jurnal dan menerapkan ulang penjualan setelah snapshot terakhir.
+     * Jika jurnal gagal dibuka, mesin tetap berjalan dengan snapshot penuh.
+     */
+    private void bukaJurnal() {
+        try {
+            jurnal = new TransactionJournal(DataPersistence.getJournalFile(direktoriData),
+                    TransactionJournal.SyncPolicy.dariKonfigurasi(System.getProperty("vending.journal.fsync")),
+                    Integer.getInteger("vending.journal.fsyncInterval", 32),
+                    Long.getLong("vending.journal.groupCommitMs", 0),
+                    Integer.getInteger("vending.journal.groupCommitBatch", 256));
+            long sekuensRiwayat = riwayatStore != null ? riwayatStore.getSekuensTerakhir() : Long.MAX_VALUE;
+            int dibaca = jurnal.replay(sekuensSnapshot, entri -> terapkanEntri(entri, sekuensRiwayat));
+            if (dibaca > 0) {
+                System.out.println("Penjualan dipulihkan dari jurnal: " + dibaca + " record");
+            }
+        } catch (IOException e) {
+            System.err.println("Error saat membuka jurnal: " + e.getMessage());
+            jurnal = null;
+        }
+    }
+
+    /**
+     * Menerapkan satu entri jurnal: stok dan statistik diperbarui jika entri
+     * lebih baru dari snapshot, dan transaksi disimpan ke riwayat jika belum ada di sana.
+     *
+     * @param entri Entri jurnal yang diterapkan ulang
+     * @param sekuensRiwayat Sekuens jurnal terakhir yang sudah ada di riwayatStore
+     */
+    private void terapkanEntri(TransactionJournal.Entri entri, long sekuensRiwayat) {
+        List<Transaksi.Item> items = new ArrayList<>(entri.getJumlahItem());
+        for (int i = 0; i < entri.getJumlahItem(); i++) {
+            Barang barang = cariBarang(entri.getIdBarang(i));
+            if (barang == null) {
+                System.err.println("Barang " + entri.getIdBarang(i) + " di jurnal tidak ada di katalog, dilewati");
+                continue;
+            }
+            items.add(new Transaksi.Item(barang, entri.getKuantitas(i)));
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+
+        Transaksi transaksi = new Transaksi(entri.getIdTransaksi(), items,
+                Transaksi.StatusTransaksi.BERHASIL, entri.getWaktu());
+        if (entri.getSekuens() > sekuensSnapshot) {
+            for (Transaksi.Item item : items) {
+                Barang barang = item.getBarang();
+                barang.setStokSekarang(Math.max(0, barang.getStokSekarang() - item.getKuantitas()));
+            }
+            if (!statistikPerluDibangun) {
+                statistik.catat(transaksi);
+            }
+        }
+        if (entri.getSekuens() > sekuensRiwayat) {
+            tambahKeRiwayatTerbaru(transaksi);
+            simpanKeStore(transaksi, entri.getSekuens());
+        }
+    }
+
+    /**
+     * Memuat statistik dari snapshot, atau menandainya untuk dibangun ulang
+     * dari riwayat jika snapshot berasal dari versi yang belum menyimpannya.
+     *
+     * @param snapshot Snapshot yang baru dimuat
+     */
+    private void muatStatistik(DataPersistence.Snapshot snapshot) {
+        if (snapshot.getStatistik() != null) {
+            statistik.salinDari(snapshot.getStatistik());
+            statistikPerluDibangun = false;
+        } else {
+            statistik.reset();
+            statistikPerluDibangun = true;
+        }
+    }
+
+    /**
+     * Membangun statistik dari seluruh riwayat satu kali, lalu menyimpannya
+     * ke snapshot agar start berikutnya tidak perlu menelusuri riwayat lagi.
+     */
+    private void bangunStatistikJikaPerlu() {
+        if (!statistikPerluDibangun) {
+            return;
+        }
+        statistik.reset();
+        forEachTransaksi(statistik::catat);
+        statistikPerluDibangun = false;
+        if (statistik.getJumlahTransaksi() > 0) {
+            System.out.println("Statistik penjualan dibangun dari riwayat: "
+                    + statistik.getJumlahTransaksi() + " transaksi");
+            saveData();
+        }
+    }
+
+    /**
+     * Membuka penyimpanan riwayat transaksi di direktori data.
+     */
+    private void bukaRiwayat() {
+        try {
+            riwayatStore = new TransactionStore(DataPersistence.getHistoryDirectory(direktoriData),
+                    UKURAN_SEGMEN_RIWAYAT);
+        } catch (IOException e) {
+            System.err.println("Error saat membuka riwayat transaksi: " + e.getMessage());
+            riwayatStore = null;
+        }
+    }
+
+    /**
+     * Mengisi cache riwayat terbaru dari segmen aktif tanpa membaca seluruh riwayat.
+     */
+    private void muatRiwayatTerbaru() {
+        if (riwayatStore == null) {
+            return;
+        }
+        riwayatTerbaru.clear();
+        jumlahRiwayatTerbaru.set(0);
+        try {
+            riwayatStore.forEachSegmenAktif(this::tambahKeRiwayatTerbaru);
+        } catch (IOException e) {
+            System.err.println("Error saat membaca riwayat transaksi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menyimpan transaksi ke riwayatStore.
+     *
+     * @param transaksi Transaksi yang disimpan
+     * @param sekuens Sekuens jurnal asal transaksi
+     */
+    private void simpanKeStore(Transaksi transaksi, long sekuens) {
+        if (riwayatStore == null) {
+            return;
+        }
+        try {
+            riwayatStore.append(transaksi, sekuens);
+        } catch (IOException e) {
+            // Transaksi masih aman di jurnal dan akan disimpan ulang saat replay
+            System.err.println("Error saat menyimpan riwayat transaksi: " + e.getMessage());
+            riwayatTertinggal = true;
+        }
+    }
+
+    /**
+     * Menambahkan transaksi ke cache terbaru dengan tetap menjaga batas ukurannya.
+     * Tanpa lock; ukuran dapat sesaat melebihi batas saat banyak thread menambah bersamaan.
+     *
+     * @param transaksi Transaksi yang ditambahkan
+     */
+    private void tambahKeRiwayatTerbaru(Transaksi transaksi) {
+        riwayatTerbaru.addLast(transaksi);
+        if (jumlahRiwayatTerbaru.incrementAndGet() > BATAS_RIWAYAT_MEMORI
+                && riwayatTerbaru.pollFirst() != null) {
+            jumlahRiwayatTerbaru.decrementAndGet();
+        }
+    }
+
+    /**
+     * Memastikan semua transaksi di jurnal sudah tersimpan permanen di riwayatStore,
+     * sebagai syarat sebelum jurnal dikosongkan.
+     *
+     * @return true jika jurnal aman untuk dikosongkan
+     */
+    private boolean riwayatAman() {
+        tuntaskanRiwayat();
+        if (riwayatStore == null) {
+            return true;
+        }
+        if (riwayatTertinggal) {
+            return false;
+        }
+        try {
+            riwayatStore.force();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saat menyimpan riwayat transaksi: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Mencatat penjualan ke jurnal lalu ke riwayatStore.
+     * Transaksi keranjang dicatat sebagai satu record jurnal.
+     * Di bawah monitor jurnal hanya sekuens dibagikan dan transaksi
+     * dimasukkan ke antreanRiwayat, agar urutan record di riwayatStore sama
+     * dengan urutan sekuens jurnal; replay mengandalkan sekuens terbesar di
+     * riwayatStore untuk tahu record mana yang belum tersimpan. Penulisan ke
+     * riwayatStore dilakukan setelah monitor dilepas oleh
+     * {@link #tulisRiwayatTertunda()}, dan fsync ditunggu oleh
+     * {@link #setelahPenjualan(Transaksi, long)}.
+     *
+     * @param transaksi Transaksi yang akan dicatat
+     * @return Sekuens jurnal transaksi, atau 0 jika jurnal tidak aktif
+     * @throws IllegalStateException jika jurnal gagal ditulis
+     */
+    private long catatKeLedger(Transaksi transaksi) {
+        TransactionJournal jurnalAktif = jurnal;
+        if (jurnalAktif == null) {
+            transaksi.setStatus(Transaksi.StatusTransaksi.BERHASIL);
+            antreanRiwayat.add(new RiwayatTertunda(transaksi, 0));
+            tulisRiwayatTertunda();
+            return 0;
+        }
+        long sekuens;
+        synchronized (jurnalAktif) {
+            try {
+                if (transaksi.getJumlahItem() == 1) {
+                    sekuens = jurnalAktif.appendPenjualan(transaksi.getBarangYangDibeli().getIdBarang(),
+                            transaksi.getKuantitas(), transaksi.getIdTransaksi(), transaksi.getWaktuTransaksi());
+                } else {
+                    List<Transaksi.Item> items = transaksi.getItems();
+                    String[] idBarang = new String[items.size()];
+                    int[] kuantitas = new int[items.size()];
+                    for (int i = 0; i < idBarang.length; i++) {
+                        idBarang[i] = items.get(i).getBarang().getIdBarang();
+                        kuantitas[i] = items.get(i).getKuantitas();
+                    }
+                    sekuens = jurnalAktif.appendPenjualanKeranjang(transaksi.getIdTransaksi(),
+                            transaksi.getWaktuTransaksi(), idBarang, kuantitas);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Gagal mencatat transaksi ke jurnal: " + e.getMessage(), e);
+            }
+            transaksi.setStatus(Transaksi.StatusTransaksi.BERHASIL);
+            antreanRiwayat.add(new RiwayatTertunda(transaksi, sekuens));
+        }
+        tulisRiwayatTertunda();
+        return sekuens;
+    }
+
+    /**
+     * Menulis antreanRiwayat ke riwayatStore jika belum ada thread lain yang
+     * sedang menulisnya. Jika sudah ada, thread tersebut akan ikut menulis
+     * transaksi pemanggil sebelum melepas lock, karena antrean diperiksa
+     * ulang setiap kali lock dilepas. Dipanggil pembelian sambil memegang
+     * read lock katalog, sehingga antrean sudah kosong saat write lock didapat.
+     */
+    private void tulisRiwayatTertunda() {
+        do {
+            if (!kunciPenulisRiwayat.tryLock()) {
+                return;
+            }
+            try {
+                kosongkanAntreanRiwayat();
+            } finally {
+                kunciPenulisRiwayat.unlock();
+            }
+        } while (!antreanRiwayat.isEmpty());
+    }
+
+    /**
+     * Menunggu sampai semua transaksi di antreanRiwayat tertulis ke riwayatStore,
+     * sebelum riwayat dibaca, dikosongkan, atau ditutup.
+     */
+    private void tuntaskanRiwayat() {
+        kunciPenulisRiwayat.lock();
+        try {
+            kosongkanAntreanRiwayat();
+        } finally {
+            kunciPenulisRiwayat.unlock();
+        }
+    }
+
+    /**
+     * Menulis antreanRiwayat ke riwayatStore sesuai urutan sekuens.
+     * Pemanggil wajib memegang kunciPenulisRiwayat.
+     */
+    private void kosongkanAntreanRiwayat() {
+        RiwayatTertunda tertunda;
+        while ((tertunda = antreanRiwayat.poll()) != null) {
+            simpanKeStore(tertunda.transaksi, tertunda.sekuens);
+        }
+    }
+
+    /**
+     * Mengisi indeks katalog dari daftar barang dengan mempertahankan urutannya.
+     *
+     * @param daftarBarang Daftar barang sumber
+     */
+    private void isiKatalog(List<Barang> daftarBarang) {
+        List<Barang> urutan = new ArrayList<>(urutanBarang);
+        for (Barang barang : daftarBarang) {
+            kanonikkan(barang);
+            if (katalogBarang.putIfAbsent(barang.getIdBarang(), barang) == null) {
+                urutan.add(barang);
+            }
+        }
+        urutanBarang = Collections.unmodifiableList(urutan);
+    }
+}
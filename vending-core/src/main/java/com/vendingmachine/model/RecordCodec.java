@@ -0,0 +1,292 @@
+package com.vendingmachine.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec biner untuk Barang dan Transaksi, pengganti serialisasi Java.
+ * Format ditulis manual melalui DataOutput sehingga tidak menyertakan
+ * deskriptor class, dan bilangan bulat ditulis sebagai varint agar ringkas.
+ *
+ * Versi skema:
+ * - 1: serialisasi Java (hanya dibaca untuk migrasi)
+ * - 2: format biner dengan harga double
+ * - 3: format biner dengan harga long (Rupiah penuh) sebagai varint
+ * - 4: transaksi berisi daftar item (indeks produk, harga, kuantitas per item)
+ *
+ * Transaksi tidak membawa salinan penuh Barang; identitas produk
+ * (ID, nama, path gambar) disimpan sekali di {@link KamusProduk} dan
+ * record transaksi cukup merujuk indeksnya.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+final class RecordCodec {
+
+    /** Versi skema record yang ditulis saat ini */
+    static final int VERSI_SKEMA = 4;
+
+    /** Versi skema biner terakhir yang menyimpan harga sebagai double */
+    static final int VERSI_HARGA_DOUBLE = 2;
+
+    /** Versi skema terakhir yang menyimpan tepat satu item per transaksi */
+    static final int VERSI_SATU_ITEM = 3;
+
+    private RecordCodec() {
+    }
+
+    /**
+     * Kamus identitas produk untuk interning ID, nama, dan path gambar.
+     * Setiap kombinasi unik mendapat indeks tetap yang dirujuk oleh record transaksi.
+     * Saat dibaca, transaksi dengan produk dan harga yang sama berbagi satu objek Barang.
+     */
+    static final class KamusProduk {
+        private final List<String[]> entri = new ArrayList<>();
+        private final Map<String, Integer> indeks = new HashMap<>();
+        private final Map<String, Barang> barangBersama = new HashMap<>();
+
+        /**
+         * Mencari indeks identitas produk.
+         *
+         * @return Indeks, atau -1 jika belum terdaftar
+         */
+        synchronized int cari(String idBarang, String namaBarang, String pathGambar) {
+            Integer i = indeks.get(kunci(idBarang, namaBarang, pathGambar));
+            return i == null ? -1 : i;
+        }
+
+        /**
+         * Mendaftarkan identitas produk baru.
+         *
+         * @return Indeks entri baru
+         */
+        synchronized int daftarkan(String idBarang, String namaBarang, String pathGambar) {
+            int i = entri.size();
+            entri.add(new String[] { idBarang.intern(), namaBarang, pathGambar });
+            indeks.put(kunci(idBarang, namaBarang, pathGambar), i);
+            return i;
+        }
+
+        /**
+         * Mendapatkan jumlah entri di kamus.
+         */
+        synchronized int ukuran() {
+            return entri.size();
+        }
+
+        /**
+         * Mendapatkan objek Barang bersama untuk entri dan harga tertentu.
+         *
+         * @throws IOException jika indeks tidak ada di kamus
+         */
+        synchronized Barang barang(int i, long harga) throws IOException {
+            if (i < 0 || i >= entri.size()) {
+                throw new IOException("Indeks produk tidak ada di kamus: " + i);
+            }
+            String kunci = i + "@" + harga;
+            Barang barang = barangBersama.get(kunci);
+            if (barang == null) {
+                String[] e = entri.get(i);
+                barang = new Barang(e[0], e[1], harga, 0, e[2]);
+                barangBersama.put(kunci, barang);
+            }
+            return barang;
+        }
+
+        /**
+         * Menulis satu entri kamus.
+         */
+        static void tulisEntri(DataOutput out, String idBarang, String namaBarang, String pathGambar)
+                throws IOException {
+            out.writeUTF(idBarang);
+            out.writeUTF(namaBarang);
+            out.writeUTF(pathGambar);
+        }
+
+        /**
+         * Membaca satu entri kamus lalu mendaftarkannya.
+         */
+        void bacaEntri(DataInput in) throws IOException {
+            String idBarang = in.readUTF();
+            String namaBarang = in.readUTF();
+            String pathGambar = in.readUTF();
+            daftarkan(idBarang, namaBarang, pathGambar);
+        }
+
+        private static String kunci(String idBarang, String namaBarang, String pathGambar) {
+            return idBarang + '\u0000' + namaBarang + '\u0000' + pathGambar;
+        }
+    }
+
+    /**
+     * Menulis satu Barang lengkap (dipakai untuk snapshot katalog).
+     */
+    static void tulisBarang(DataOutput out, Barang barang) throws IOException {
+        out.writeUTF(barang.getIdBarang());
+        out.writeUTF(barang.getNamaBarang());
+        tulisVarLong(out, barang.getHargaBarang());
+        tulisVarLong(out, barang.getStokSekarang());
+        out.writeUTF(teks(barang.getPathGambar()));
+    }
+
+    /**
+     * Membaca satu Barang lengkap.
+     *
+     * @param versi Versi skema data yang dibaca
+     */
+    static Barang bacaBarang(DataInput in, int versi) throws IOException {
+        String idBarang = in.readUTF();
+        String namaBarang = in.readUTF();
+        long harga = bacaHarga(in, versi);
+        int stok = (int) bacaVarLong(in);
+        String pathGambar = in.readUTF();
+        return new Barang(idBarang, namaBarang, harga, stok, pathGambar);
+    }
+
+    /**
+     * Menulis record transaksi. Identitas produk setiap item harus sudah terdaftar di kamus.
+     *
+     * @param indeksProduk Indeks identitas produk di kamus, sejajar dengan item transaksi
+     */
+    static void tulisTransaksi(DataOutput out, Transaksi transaksi, int[] indeksProduk, long sekuensJurnal)
+            throws IOException {
+        tulisVarLong(out, sekuensJurnal);
+        out.writeUTF(transaksi.getIdTransaksi());
+        List<Transaksi.Item> items = transaksi.getItems();
+        tulisVarLong(out, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Transaksi.Item item = items.get(i);
+            tulisVarLong(out, indeksProduk[i]);
+            tulisVarLong(out, item.getBarang().getHargaBarang());
+            tulisVarLong(out, item.getKuantitas());
+        }
+        out.writeByte(transaksi.getStatus().ordinal());
+        tulisVarLong(out, keMilis(transaksi.getWaktuTransaksi()));
+    }
+
+    /**
+     * Membaca sekuens jurnal di awal record transaksi.
+     */
+    static long bacaSekuensTransaksi(DataInput in) throws IOException {
+        return bacaVarLong(in);
+    }
+
+    /**
+     * Membaca sisa record transaksi setelah sekuens jurnal.
+     *
+     * @param versi Versi skema segmen yang dibaca
+     */
+    static Transaksi bacaTransaksi(DataInput in, KamusProduk kamus, int versi) throws IOException {
+        String idTransaksi = in.readUTF();
+        if (versi <= VERSI_SATU_ITEM) {
+            int indeksProduk = (int) bacaVarLong(in);
+            long harga = bacaHarga(in, versi);
+            int kuantitas = (int) bacaVarLong(in);
+            Transaksi.StatusTransaksi status = Transaksi.StatusTransaksi.values()[in.readByte()];
+            long waktu = bacaVarLong(in);
+            return new Transaksi(idTransaksi, kamus.barang(indeksProduk, harga), kuantitas, status,
+                    dariMilis(waktu));
+        }
+
+        int jumlahItem = (int) bacaVarLong(in);
+        if (jumlahItem <= 0) {
+            throw new IOException("Transaksi " + idTransaksi + " tidak berisi item");
+        }
+        List<Transaksi.Item> items = new ArrayList<>(jumlahItem);
+        for (int i = 0; i < jumlahItem; i++) {
+            int indeksProduk = (int) bacaVarLong(in);
+            long harga = bacaVarLong(in);
+            int kuantitas = (int) bacaVarLong(in);
+            items.add(new Transaksi.Item(kamus.barang(indeksProduk, harga), kuantitas));
+        }
+        Transaksi.StatusTransaksi status = Transaksi.StatusTransaksi.values()[in.readByte()];
+        long waktu = bacaVarLong(in);
+        if (jumlahItem == 1) {
+            Transaksi.Item item = items.get(0);
+            return new Transaksi(idTransaksi, item.getBarang(), item.getKuantitas(), status, dariMilis(waktu));
+        }
+        return new Transaksi(idTransaksi, items, status, dariMilis(waktu));
+    }
+
+    /**
+     * Membaca record transaksi skema versi 1 (segmen riwayat lama) yang
+     * membawa salinan lengkap data barang. Sekuens jurnal sudah dibaca pemanggil.
+     */
+    static Transaksi bacaTransaksiVersi1(DataInput in) throws IOException {
+        String idTransaksi = in.readUTF();
+        String idBarang = in.readUTF();
+        String namaBarang = in.readUTF();
+        long harga = Math.round(in.readDouble());
+        String pathGambar = in.readUTF();
+        int kuantitas = in.readInt();
+        Transaksi.StatusTransaksi status = Transaksi.StatusTransaksi.values()[in.readByte()];
+        long waktu = in.readLong();
+
+        Barang barang = new Barang(idBarang, namaBarang, harga, 0, pathGambar);
+        return new Transaksi(idTransaksi, barang, kuantitas, status, dariMilis(waktu));
+    }
+
+    /**
+     * Membaca harga sesuai versi skema: double untuk versi 2
+     * (dibulatkan ke Rupiah penuh), varint untuk versi sesudahnya.
+     */
+    private static long bacaHarga(DataInput in, int versi) throws IOException {
+        if (versi <= VERSI_HARGA_DOUBLE) {
+            return Math.round(in.readDouble());
+        }
+        return bacaVarLong(in);
+    }
+
+    /**
+     * Menulis bilangan bulat non-negatif sebagai varint (7 bit per byte).
+     */
+    static void tulisVarLong(DataOutput out, long nilai) throws IOException {
+        while ((nilai & ~0x7FL) != 0) {
+            out.writeByte((int) ((nilai & 0x7F) | 0x80));
+            nilai >>>= 7;
+        }
+        out.writeByte((int) nilai);
+    }
+
+    /**
+     * Membaca varint yang ditulis oleh {@link #tulisVarLong(DataOutput, long)}.
+     */
+    static long bacaVarLong(DataInput in) throws IOException {
+        long hasil = 0;
+        for (int geser = 0; geser < 64; geser += 7) {
+            byte b = in.readByte();
+            hasil |= (long) (b & 0x7F) << geser;
+            if ((b & 0x80) == 0) {
+                return hasil;
+            }
+        }
+        throw new IOException("Varint terlalu panjang");
+    }
+
+    /**
+     * Mengubah waktu transaksi menjadi milidetik epoch (UTC).
+     */
+    static long keMilis(LocalDateTime waktu) {
+        return waktu.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Mengubah milidetik epoch (UTC) kembali menjadi waktu transaksi.
+     */
+    static LocalDateTime dariMilis(long milis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(milis), ZoneOffset.UTC);
+    }
+
+    private static String teks(String nilai) {
+        return nilai == null ? "" : nilai;
+    }
+}
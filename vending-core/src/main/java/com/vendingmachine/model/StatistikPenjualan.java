@@ -0,0 +1,287 @@
+package com.vendingmachine.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistik penjualan yang diperbarui setiap kali transaksi dicatat,
+ * sehingga ringkasan (jumlah transaksi, pendapatan, penjualan per produk)
+ * dapat dibaca dalam O(1) tanpa menelusuri riwayat.
+ *
+ * Penghitung memakai LongAdder agar pembelian dari banyak thread tidak
+ * saling berebut satu variabel. Pendapatan dan unit per produk hanya
+ * menghitung transaksi berstatus BERHASIL.
+ *
+ * Statistik disimpan bersama snapshot katalog dan dilengkapi dari jurnal
+ * saat start, sama seperti stok. Hitungan PENDING dan BATAL berasal dari
+ * reservasi, yang tidak disimpan di riwayat; jika statistik dibangun ulang
+ * dari riwayat, hanya transaksi BERHASIL yang kembali terhitung.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class StatistikPenjualan {
+
+    /**
+     * Ringkasan penjualan satu produk.
+     */
+    public static final class Produk {
+        private final String idBarang;
+        private final long unitTerjual;
+        private final long pendapatan;
+
+        Produk(String idBarang, long unitTerjual, long pendapatan) {
+            this.idBarang = idBarang;
+            this.unitTerjual = unitTerjual;
+            this.pendapatan = pendapatan;
+        }
+
+        public String getIdBarang() {
+            return idBarang;
+        }
+
+        public long getUnitTerjual() {
+            return unitTerjual;
+        }
+
+        /**
+         * @return Pendapatan dari produk ini dalam Rupiah penuh
+         */
+        public long getPendapatan() {
+            return pendapatan;
+        }
+    }
+
+    /**
+     * Penghitung unit dan pendapatan satu produk.
+     */
+    private static final class Akumulator {
+        private final LongAdder unit = new LongAdder();
+        private final LongAdder pendapatan = new LongAdder();
+    }
+
+    private static final Transaksi.StatusTransaksi[] STATUS = Transaksi.StatusTransaksi.values();
+
+    private final LongAdder[] jumlahPerStatus = new LongAdder[STATUS.length];
+    private final LongAdder pendapatan = new LongAdder();
+    private final Map<String, Akumulator> perProduk = new ConcurrentHashMap<>();
+
+    /**
+     * Membuat statistik kosong.
+     */
+    public StatistikPenjualan() {
+        for (int i = 0; i < jumlahPerStatus.length; i++) {
+            jumlahPerStatus[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Mencatat satu transaksi sesuai statusnya saat ini.
+     *
+     * @param transaksi Transaksi yang dicatat
+     */
+    public void catat(Transaksi transaksi) {
+        jumlahPerStatus[transaksi.getStatus().ordinal()].increment();
+        if (transaksi.getStatus() == Transaksi.StatusTransaksi.BERHASIL) {
+            tambahPenjualan(transaksi, 1);
+        }
+    }
+
+    /**
+     * Menghapus transaksi yang sudah dicatat, kebalikan dari {@link #catat(Transaksi)}.
+     *
+     * @param transaksi Transaksi dengan status yang sama seperti saat dicatat
+     */
+    void lupakan(Transaksi transaksi) {
+        jumlahPerStatus[transaksi.getStatus().ordinal()].decrement();
+        if (transaksi.getStatus() == Transaksi.StatusTransaksi.BERHASIL) {
+            tambahPenjualan(transaksi, -1);
+        }
+    }
+
+    /**
+     * Memindahkan transaksi yang sudah dicatat dari status lama ke status barunya.
+     *
+     * @param transaksi Transaksi yang statusnya sudah diubah
+     * @param statusLama Status transaksi sebelum diubah
+     */
+    public void ubahStatus(Transaksi transaksi, Transaksi.StatusTransaksi statusLama) {
+        Transaksi.StatusTransaksi statusBaru = transaksi.getStatus();
+        if (statusLama == statusBaru) {
+            return;
+        }
+        jumlahPerStatus[statusLama.ordinal()].decrement();
+        jumlahPerStatus[statusBaru.ordinal()].increment();
+        if (statusLama == Transaksi.StatusTransaksi.BERHASIL) {
+            tambahPenjualan(transaksi, -1);
+        } else if (statusBaru == Transaksi.StatusTransaksi.BERHASIL) {
+            tambahPenjualan(transaksi, 1);
+        }
+    }
+
+    /**
+     * Mengosongkan seluruh statistik.
+     */
+    public void reset() {
+        for (LongAdder jumlah : jumlahPerStatus) {
+            jumlah.reset();
+        }
+        pendapatan.reset();
+        perProduk.clear();
+    }
+
+    /**
+     * Mendapatkan jumlah transaksi yang tercatat di riwayat. Reservasi yang
+     * masih PENDING atau dilepas menjadi BATAL tidak pernah masuk riwayat,
+     * sehingga tidak dihitung di sini; jumlahnya tersedia lewat
+     * {@link #getJumlah(Transaksi.StatusTransaksi)}.
+     *
+     * @return Jumlah transaksi
+     */
+    public long getJumlahTransaksi() {
+        long total = 0;
+        for (Transaksi.StatusTransaksi status : STATUS) {
+            if (status != Transaksi.StatusTransaksi.PENDING && status != Transaksi.StatusTransaksi.BATAL) {
+                total += jumlahPerStatus[status.ordinal()].sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Mendapatkan jumlah transaksi dengan status tertentu.
+     *
+     * @param status Status transaksi
+     * @return Jumlah transaksi berstatus tersebut
+     */
+    public long getJumlah(Transaksi.StatusTransaksi status) {
+        return jumlahPerStatus[status.ordinal()].sum();
+    }
+
+    /**
+     * @return Jumlah transaksi berhasil
+     */
+    public long getJumlahBerhasil() {
+        return getJumlah(Transaksi.StatusTransaksi.BERHASIL);
+    }
+
+    /**
+     * @return Jumlah transaksi batal
+     */
+    public long getJumlahBatal() {
+        return getJumlah(Transaksi.StatusTransaksi.BATAL);
+    }
+
+    /**
+     * Mendapatkan total pendapatan dari transaksi berhasil.
+     *
+     * @return Pendapatan dalam Rupiah penuh
+     */
+    public long getTotalPendapatan() {
+        return pendapatan.sum();
+    }
+
+    /**
+     * Mendapatkan ringkasan penjualan satu produk.
+     *
+     * @param idBarang ID barang
+     * @return Ringkasan produk; bernilai nol jika produk belum pernah terjual
+     */
+    public Produk getProduk(String idBarang) {
+        Akumulator akumulator = perProduk.get(idBarang);
+        if (akumulator == null) {
+            return new Produk(idBarang, 0, 0);
+        }
+        return new Produk(idBarang, akumulator.unit.sum(), akumulator.pendapatan.sum());
+    }
+
+    /**
+     * Mendapatkan ringkasan penjualan seluruh produk yang pernah terjual.
+     *
+     * @return Map ID barang ke ringkasannya (salinan, tidak dapat diubah)
+     */
+    public Map<String, Produk> getPerProduk() {
+        Map<String, Produk> hasil = new LinkedHashMap<>();
+        for (Map.Entry<String, Akumulator> e : perProduk.entrySet()) {
+            hasil.put(e.getKey(), new Produk(e.getKey(), e.getValue().unit.sum(), e.getValue().pendapatan.sum()));
+        }
+        return Collections.unmodifiableMap(hasil);
+    }
+
+    /**
+     * Mengganti isi statistik ini dengan salinan statistik lain.
+     */
+    void salinDari(StatistikPenjualan sumber) {
+        reset();
+        for (int i = 0; i < jumlahPerStatus.length; i++) {
+            jumlahPerStatus[i].add(sumber.jumlahPerStatus[i].sum());
+        }
+        pendapatan.add(sumber.pendapatan.sum());
+        for (Map.Entry<String, Akumulator> e : sumber.perProduk.entrySet()) {
+            Akumulator akumulator = akumulator(e.getKey());
+            akumulator.unit.add(e.getValue().unit.sum());
+            akumulator.pendapatan.add(e.getValue().pendapatan.sum());
+        }
+    }
+
+    /**
+     * Menulis statistik untuk disimpan di snapshot.
+     * Pemanggil harus memastikan tidak ada pembelian yang sedang berjalan.
+     */
+    void tulis(DataOutput out) throws IOException {
+        RecordCodec.tulisVarLong(out, jumlahPerStatus.length);
+        for (LongAdder jumlah : jumlahPerStatus) {
+            RecordCodec.tulisVarLong(out, jumlah.sum());
+        }
+        RecordCodec.tulisVarLong(out, pendapatan.sum());
+        RecordCodec.tulisVarLong(out, perProduk.size());
+        for (Map.Entry<String, Akumulator> e : perProduk.entrySet()) {
+            out.writeUTF(e.getKey());
+            RecordCodec.tulisVarLong(out, e.getValue().unit.sum());
+            RecordCodec.tulisVarLong(out, e.getValue().pendapatan.sum());
+        }
+    }
+
+    /**
+     * Membaca statistik yang ditulis oleh {@link #tulis(DataOutput)}.
+     */
+    static StatistikPenjualan baca(DataInput in) throws IOException {
+        StatistikPenjualan statistik = new StatistikPenjualan();
+        int jumlahStatus = (int) RecordCodec.bacaVarLong(in);
+        for (int i = 0; i < jumlahStatus; i++) {
+            long jumlah = RecordCodec.bacaVarLong(in);
+            if (i < statistik.jumlahPerStatus.length) {
+                statistik.jumlahPerStatus[i].add(jumlah);
+            }
+        }
+        statistik.pendapatan.add(RecordCodec.bacaVarLong(in));
+        int jumlahProduk = (int) RecordCodec.bacaVarLong(in);
+        for (int i = 0; i < jumlahProduk; i++) {
+            Akumulator akumulator = statistik.akumulator(in.readUTF());
+            akumulator.unit.add(RecordCodec.bacaVarLong(in));
+            akumulator.pendapatan.add(RecordCodec.bacaVarLong(in));
+        }
+        return statistik;
+    }
+
+    private void tambahPenjualan(Transaksi transaksi, int arah) {
+        for (Transaksi.Item item : transaksi.getItems()) {
+            long subtotal = item.getSubtotal();
+            pendapatan.add(arah * subtotal);
+            Akumulator akumulator = akumulator(item.getBarang().getIdBarang());
+            akumulator.unit.add((long) arah * item.getKuantitas());
+            akumulator.pendapatan.add(arah * subtotal);
+        }
+    }
+
+    private Akumulator akumulator(String idBarang) {
+        return perProduk.computeIfAbsent(idBarang, id -> new Akumulator());
+    }
+}
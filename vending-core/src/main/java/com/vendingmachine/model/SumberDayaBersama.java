@@ -0,0 +1,146 @@
+package com.vendingmachine.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sumber daya yang dipakai bersama oleh banyak {@link MesinPenjual} dalam
+ * satu JVM, sehingga jumlah thread dan memori metadata tidak tumbuh
+ * sebanding dengan jumlah mesin.
+ *
+ * Isinya:
+ * - Shard executor pembelian asinkron: setiap mesin dipetakan ke satu
+ *   shard berthread tunggal menurut ID mesinnya, sehingga pembelian
+ *   asinkron satu mesin tetap berurutan dan seribu mesin cukup dilayani
+ *   beberapa thread.
+ * - Satu penjadwal pelepasan reservasi untuk semua mesin.
+ * - Kamus metadata produk: nama, path gambar, dan ID barang yang sama di
+ *   banyak mesin disimpan sebagai satu objek String.
+ *
+ * Mesin yang memakai sumber daya bersama tidak mematikan thread-nya saat
+ * ditutup; thread baru dihentikan oleh {@link #close()} setelah semua mesin
+ * ditutup.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class SumberDayaBersama implements AutoCloseable {
+
+    private final ExecutorService[] shard;
+    private final ScheduledThreadPoolExecutor penjadwalReservasi;
+    private final Map<String, String> kamusMetadata = new ConcurrentHashMap<>();
+
+    /**
+     * Membuat sumber daya bersama dengan sejumlah shard pembelian.
+     *
+     * @param jumlahShard Jumlah thread pembelian asinkron, minimal 1
+     * @throws IllegalArgumentException jika jumlah shard kurang dari 1
+     */
+    public SumberDayaBersama(int jumlahShard) {
+        if (jumlahShard < 1) {
+            throw new IllegalArgumentException("Jumlah shard minimal 1!");
+        }
+        shard = new ExecutorService[jumlahShard];
+        for (int i = 0; i < jumlahShard; i++) {
+            String nama = "vending-shard-" + i;
+            shard[i] = Executors.newSingleThreadExecutor(tugas -> {
+                Thread thread = new Thread(tugas, nama);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        penjadwalReservasi = new ScheduledThreadPoolExecutor(1, tugas -> {
+            Thread thread = new Thread(tugas, "vending-reservasi");
+            thread.setDaemon(true);
+            return thread;
+        });
+        penjadwalReservasi.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Mendapatkan shard executor untuk mesin tertentu. Mesin yang sama
+     * selalu mendapatkan shard yang sama.
+     *
+     * @param idMesin ID mesin
+     * @return Executor berthread tunggal milik shard mesin tersebut
+     */
+    ExecutorService getShard(int idMesin) {
+        return shard[Math.floorMod(idMesin, shard.length)];
+    }
+
+    /**
+     * Mendapatkan penjadwal reservasi yang dipakai semua mesin.
+     *
+     * @return Penjadwal reservasi bersama
+     */
+    ScheduledExecutorService getPenjadwalReservasi() {
+        return penjadwalReservasi;
+    }
+
+    /**
+     * Mengembalikan satu objek String bersama untuk teks metadata yang sama.
+     *
+     * @param teks Nama, path gambar, atau ID barang; boleh null
+     * @return Objek String kanonik dengan isi yang sama, atau null
+     */
+    public String kanonik(String teks) {
+        if (teks == null) {
+            return null;
+        }
+        String ada = kamusMetadata.putIfAbsent(teks, teks);
+        return ada != null ? ada : teks;
+    }
+
+    /**
+     * Menyeragamkan metadata satu barang ke objek String bersama.
+     * Stok dan harga tetap milik masing-masing mesin.
+     *
+     * @param barang Barang milik salah satu mesin
+     */
+    void kanonikkan(Barang barang) {
+        barang.setIdBarang(kanonik(barang.getIdBarang()));
+        barang.setNamaBarang(kanonik(barang.getNamaBarang()));
+        barang.setPathGambar(kanonik(barang.getPathGambar()));
+    }
+
+    /**
+     * @return Jumlah shard pembelian asinkron
+     */
+    public int getJumlahShard() {
+        return shard.length;
+    }
+
+    /**
+     * @return Jumlah teks metadata berbeda di kamus bersama
+     */
+    public int getUkuranKamus() {
+        return kamusMetadata.size();
+    }
+
+    /**
+     * Menghentikan semua thread bersama. Dipanggil setelah semua mesin
+     * yang memakainya ditutup.
+     */
+    @Override
+    public void close() {
+        penjadwalReservasi.shutdownNow();
+        for (ExecutorService executor : shard) {
+            executor.shutdown();
+        }
+        try {
+            for (ExecutorService executor : shard) {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    System.err.println("Pembelian asinkron belum selesai saat sumber daya bersama ditutup");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
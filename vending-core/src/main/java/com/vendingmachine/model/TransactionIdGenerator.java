@@ -0,0 +1,136 @@
+package com.vendingmachine.model;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pembuat ID transaksi bergaya Snowflake: unik antar thread dan antar mesin,
+ * murah dibuat, dan terurut menurut waktu.
+ *
+ * Susunan bit ID (63 bit, selalu positif):
+ * - 41 bit: milidetik sejak {@link #EPOCH} (cukup sampai sekitar 69 tahun)
+ * - 10 bit: ID mesin (0-1023), dari properti vending.machineId
+ * - 12 bit: nomor urut dalam milidetik yang sama (0-4095)
+ *
+ * Waktu dan nomor urut disimpan bersama dalam satu AtomicLong dan dinaikkan
+ * dengan compare-and-set, jadi tidak ada lock. Jika nomor urut dalam satu
+ * milidetik habis, atau jam sistem mundur, waktu logis dipinjam maju 1 ms
+ * sehingga ID tetap naik monoton tanpa menunggu jam.
+ *
+ * Bentuk teks: "TRX-" diikuti 16 digit heksadesimal huruf besar. Lebarnya
+ * tetap, sehingga urutan teks sama dengan urutan waktu.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class TransactionIdGenerator {
+
+    /** Awal penghitungan waktu ID: 2024-01-01T00:00:00Z */
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    /** Prefix teks ID transaksi */
+    public static final String PREFIX = "TRX-";
+
+    private static final int BIT_URUTAN = 12;
+    private static final int BIT_MESIN = 10;
+    private static final long MASK_URUTAN = (1L << BIT_URUTAN) - 1;
+
+    /** ID mesin terbesar yang diizinkan */
+    public static final int MESIN_MAKSIMUM = (1 << BIT_MESIN) - 1;
+
+    private static final char[] HEKSA = "0123456789ABCDEF".toCharArray();
+
+    private static final TransactionIdGenerator DEFAULT =
+            new TransactionIdGenerator(Integer.getInteger("vending.machineId", 0));
+
+    private final long bagianMesin;
+
+    /** (milidetik sejak EPOCH << BIT_URUTAN) | nomor urut, untuk ID terakhir */
+    private final AtomicLong terakhir = new AtomicLong();
+
+    /**
+     * Membuat generator untuk satu mesin.
+     *
+     * @param idMesin ID mesin, unik di antara semua mesin yang berbagi data
+     * @throws IllegalArgumentException jika ID mesin di luar 0-1023
+     */
+    public TransactionIdGenerator(int idMesin) {
+        if (idMesin < 0 || idMesin > MESIN_MAKSIMUM) {
+            throw new IllegalArgumentException("ID mesin harus di antara 0 dan " + MESIN_MAKSIMUM + "!");
+        }
+        this.bagianMesin = (long) idMesin << BIT_URUTAN;
+    }
+
+    /**
+     * Mendapatkan generator bawaan proses ini, dengan ID mesin dari
+     * properti vending.machineId (default 0).
+     *
+     * @return Generator bawaan
+     */
+    public static TransactionIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Menghasilkan ID numerik berikutnya.
+     *
+     * @return ID baru, selalu lebih besar dari ID sebelumnya dari generator ini
+     */
+    public long nextId() {
+        long sekarang = (System.currentTimeMillis() - EPOCH) << BIT_URUTAN;
+        while (true) {
+            long lama = terakhir.get();
+            long baru = Math.max(sekarang, lama + 1);
+            if (terakhir.compareAndSet(lama, baru)) {
+                long milis = baru >>> BIT_URUTAN;
+                return (milis << (BIT_MESIN + BIT_URUTAN)) | bagianMesin | (baru & MASK_URUTAN);
+            }
+        }
+    }
+
+    /**
+     * Menghasilkan ID transaksi berikutnya dalam bentuk teks.
+     *
+     * @return ID dengan format TRX- diikuti 16 digit heksadesimal
+     */
+    public String nextIdTeks() {
+        return keTeks(nextId());
+    }
+
+    /**
+     * Mengubah ID numerik menjadi bentuk teks berlebar tetap.
+     *
+     * @param id ID numerik
+     * @return ID dalam bentuk teks
+     */
+    public static String keTeks(long id) {
+        char[] teks = new char[PREFIX.length() + 16];
+        PREFIX.getChars(0, PREFIX.length(), teks, 0);
+        for (int i = teks.length - 1; i >= PREFIX.length(); i--) {
+            teks[i] = HEKSA[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(teks);
+    }
+
+    /**
+     * Mendapatkan waktu pembuatan ID (milidetik epoch Unix).
+     *
+     * @param id ID numerik
+     * @return Waktu pembuatan ID
+     */
+    public static long getWaktuMilis(long id) {
+        return (id >>> (BIT_MESIN + BIT_URUTAN)) + EPOCH;
+    }
+
+    /**
+     * Mendapatkan ID mesin yang tersimpan dalam ID.
+     *
+     * @param id ID numerik
+     * @return ID mesin
+     */
+    public static int getIdMesin(long id) {
+        return (int) ((id >>> BIT_URUTAN) & MESIN_MAKSIMUM);
+    }
+}
@@ -0,0 +1,807 @@
+package com.vendingmachine.model;
+
+import com.vendingmachine.metrics.LatencyHistogram;
+import com.vendingmachine.metrics.MetricsRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Jurnal tulis-di-depan (write-ahead journal) untuk perubahan stok dan transaksi.
+ * Setiap penjualan dicatat sebagai satu record kecil yang ditambahkan di akhir file,
+ * sehingga biaya persistensi satu penjualan hanya satu operasi append,
+ * bukan penulisan ulang seluruh katalog.
+ *
+ * Format setiap record:
+ * - int panjang payload
+ * - int CRC32 dari payload
+ * - payload: long sekuens, byte tipe, lalu field sesuai tipe
+ *
+ * Tipe record:
+ * - penjualan: String ID barang, int kuantitas, String ID transaksi, long waktu
+ * - penjualan keranjang: String ID transaksi, long waktu, int jumlah item,
+ *   lalu String ID barang dan int kuantitas untuk setiap item
+ *
+ * Record yang terpotong (misalnya karena listrik padam saat menulis) dikenali
+ * lewat CRC dan dibuang saat replay. Jurnal dipadatkan secara berkala dengan
+ * menulis snapshot katalog lalu mengosongkan file jurnal.
+ *
+ * Dengan kebijakan GRUP (group commit), record tidak langsung ditulis ke file
+ * melainkan diantrekan di memori. Thread flusher menulis seluruh antrean
+ * dengan satu write dan satu fsync per jendela batch, yaitu setelah record
+ * tertua menunggu paling lama jendela tersebut atau antrean mencapai ukuran
+ * batch maksimum. Saat tidak ada pembelian bersamaan, record langsung ditulis
+ * tanpa menunggu jendela. Pemanggil yang membutuhkan kepastian tersimpan menunggu
+ * lewat {@link #tungguTahanLama(long)}; pemanggil lain langsung lanjut.
+ *
+ * Dengan kebijakan SETIAP_RECORD, append hanya menulis record ke file dan
+ * fsync dilakukan oleh {@link #tungguTahanLama(long)} di luar monitor jurnal,
+ * sehingga satu fsync dapat mencakup record beberapa pembelian bersamaan.
+ *
+ * Jika penulisan atau fsync gagal dan isi file tidak lagi dapat dipastikan,
+ * jurnal masuk keadaan gagal ({@link #isGagal()}) dan menolak append berikutnya.
+ * Pemilik jurnal memulihkannya dengan menulis snapshot yang mencakup
+ * {@link #getSekuensTerakhir()} lalu memanggil {@link #reset()}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class TransactionJournal implements AutoCloseable {
+
+    /** Tipe record untuk penjualan barang (pengurangan stok + transaksi) */
+    static final byte TIPE_PENJUALAN = 1;
+
+    /** Tipe record untuk penjualan beberapa barang dalam satu transaksi */
+    static final byte TIPE_PENJUALAN_KERANJANG = 2;
+
+    /**
+     * Kebijakan sinkronisasi (fsync) jurnal ke disk.
+     */
+    public enum SyncPolicy {
+        /** Paksa ke disk setiap kali record ditulis (paling aman) */
+        SETIAP_RECORD,
+
+        /** Paksa ke disk setiap beberapa record */
+        BERKALA,
+
+        /** Serahkan sepenuhnya ke sistem operasi */
+        TIDAK_PERNAH,
+
+        /** Antrekan record dan tulis serta paksa ke disk sekali per jendela batch */
+        GRUP;
+
+        /**
+         * Membaca kebijakan dari nilai konfigurasi (always, batch, never, group).
+         *
+         * @param nilai Nilai konfigurasi
+         * @return Kebijakan yang sesuai, default SETIAP_RECORD
+         */
+        public static SyncPolicy dariKonfigurasi(String nilai) {
+            if (nilai == null) {
+                return SETIAP_RECORD;
+            }
+            switch (nilai.trim().toLowerCase()) {
+                case "batch":
+                    return BERKALA;
+                case "never":
+                    return TIDAK_PERNAH;
+                case "group":
+                    return GRUP;
+                default:
+                    return SETIAP_RECORD;
+            }
+        }
+    }
+
+    /**
+     * Satu entri jurnal hasil replay. Entri penjualan biasa berisi satu item;
+     * entri penjualan keranjang berisi satu atau lebih item.
+     */
+    public static final class Entri {
+        private final long sekuens;
+        private final byte tipe;
+        private final String[] idBarang;
+        private final int[] kuantitas;
+        private final String idTransaksi;
+        private final LocalDateTime waktu;
+
+        Entri(long sekuens, byte tipe, String[] idBarang, int[] kuantitas,
+              String idTransaksi, LocalDateTime waktu) {
+            this.sekuens = sekuens;
+            this.tipe = tipe;
+            this.idBarang = idBarang;
+            this.kuantitas = kuantitas;
+            this.idTransaksi = idTransaksi;
+            this.waktu = waktu;
+        }
+
+        public long getSekuens() {
+            return sekuens;
+        }
+
+        public byte getTipe() {
+            return tipe;
+        }
+
+        /**
+         * @return Jumlah item dalam entri
+         */
+        public int getJumlahItem() {
+            return idBarang.length;
+        }
+
+        /**
+         * @param i Nomor item, mulai dari 0
+         * @return ID barang item ke-i
+         */
+        public String getIdBarang(int i) {
+            return idBarang[i];
+        }
+
+        /**
+         * @param i Nomor item, mulai dari 0
+         * @return Kuantitas item ke-i
+         */
+        public int getKuantitas(int i) {
+            return kuantitas[i];
+        }
+
+        public String getIdTransaksi() {
+            return idTransaksi;
+        }
+
+        public LocalDateTime getWaktu() {
+            return waktu;
+        }
+    }
+
+    /** Ukuran header record (panjang + CRC) dalam byte */
+    private static final int HEADER_RECORD = 8;
+
+    /** Batas wajar ukuran payload, untuk mendeteksi header yang rusak */
+    private static final int PAYLOAD_MAKSIMUM = 64 * 1024;
+
+    private static final LatencyHistogram DURASI_FSYNC = MetricsRegistry.getDefault().histogram(
+            "vending_jurnal_fsync_durasi_seconds", "Durasi fsync jurnal transaksi");
+
+    private final Path file;
+    private final FileChannel channel;
+    private final SyncPolicy syncPolicy;
+    private final int intervalSync;
+
+    private final ByteArrayOutputStream bufferPayload = new ByteArrayOutputStream(128);
+    private final DataOutputStream outPayload = new DataOutputStream(bufferPayload);
+    private final CRC32 crc = new CRC32();
+
+    private long sekuensTerakhir;
+    private int jumlahEntri;
+    private int belumDisinkron;
+
+    /** Jendela batch kebijakan GRUP dalam nanodetik */
+    private final long jendelaGrupNanos;
+    private final int maksBatchGrup;
+
+    /**
+     * Record yang sudah dibingkai tetapi belum ditulis ke file (kebijakan GRUP).
+     * Dijaga monitor jurnal.
+     */
+    private ByteArrayOutputStream antrean = new ByteArrayOutputStream(4096);
+    private int jumlahAntrean;
+    private long waktuAntreanPertama;
+    private boolean ditutup;
+
+    /**
+     * Menjaga urutan penulisan antrean ke channel. Selalu diambil sambil
+     * memegang monitor jurnal; flusher melepas monitor setelah lock ini
+     * didapat sehingga record baru tetap bisa diantrekan selama fsync.
+     */
+    private final ReentrantLock kunciTulis = new ReentrantLock();
+
+    /** Monitor untuk pemanggil yang menunggu record tersimpan permanen */
+    private final Object kunciTahanLama = new Object();
+    private long sekuensTahanLama;
+    private volatile IOException galatTulis;
+
+    /** Sekuens terakhir yang sudah ditulis ke channel (kebijakan SETIAP_RECORD) */
+    private volatile long sekuensTertulis;
+
+    private final Thread flusher;
+
+    /** Jumlah record di batch terakhir; hanya dipakai thread flusher */
+    private int ukuranBatchTerakhir;
+
+    /**
+     * Membuka (atau membuat) file jurnal.
+     *
+     * @param file Lokasi file jurnal
+     * @param syncPolicy Kebijakan fsync
+     * @param intervalSync Jumlah record per fsync untuk kebijakan BERKALA
+     * @throws IOException jika file tidak dapat dibuka
+     */
+    public TransactionJournal(Path file, SyncPolicy syncPolicy, int intervalSync) throws IOException {
+        this(file, syncPolicy, intervalSync, 0, 256);
+    }
+
+    /**
+     * Membuka (atau membuat) file jurnal dengan pengaturan group commit.
+     *
+     * @param file Lokasi file jurnal
+     * @param syncPolicy Kebijakan fsync
+     * @param intervalSync Jumlah record per fsync untuk kebijakan BERKALA
+     * @param jendelaGrupMilis Waktu tunggu maksimum record di antrean untuk kebijakan GRUP;
+     *                         0 berarti batch hanya terbentuk dari record yang datang selama fsync
+     * @param maksBatchGrup Jumlah record yang langsung memicu penulisan untuk kebijakan GRUP
+     * @throws IOException jika file tidak dapat dibuka
+     */
+    public TransactionJournal(Path file, SyncPolicy syncPolicy, int intervalSync,
+                              long jendelaGrupMilis, int maksBatchGrup) throws IOException {
+        this.file = file;
+        this.syncPolicy = syncPolicy;
+        this.intervalSync = Math.max(1, intervalSync);
+        this.jendelaGrupNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, jendelaGrupMilis));
+        this.maksBatchGrup = Math.max(1, maksBatchGrup);
+        Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (syncPolicy == SyncPolicy.GRUP) {
+            flusher = new Thread(this::jalankanFlusher, "vending-jurnal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Membaca ulang seluruh record yang valid dari awal file dan
+     * meneruskannya ke konsumen; konsumen yang memutuskan record mana yang
+     * belum tercakup snapshot. Ekor file yang rusak dipotong.
+     *
+     * @param sekuensSnapshot Sekuens terakhir yang tercakup snapshot, dipakai
+     *                        sebagai batas bawah penomoran record berikutnya
+     * @param konsumen Penerima setiap entri valid
+     * @return Jumlah entri valid di jurnal
+     * @throws IOException jika file tidak dapat dibaca
+     */
+    public synchronized int replay(long sekuensSnapshot, Consumer<Entri> konsumen) throws IOException {
+        tulisAntrean();
+        sekuensTerakhir = Math.max(sekuensTerakhir, sekuensSnapshot);
+        jumlahEntri = 0;
+
+        long posisiValid = 0;
+        int dibaca = 0;
+        channel.position(0);
+        // Stream sengaja tidak ditutup karena akan ikut menutup channel
+        InputStream raw = Channels.newInputStream(channel);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw));
+
+        while (true) {
+            Entri entri;
+            int panjang;
+            try {
+                panjang = in.readInt();
+                int crcTersimpan = in.readInt();
+                if (panjang <= 0 || panjang > PAYLOAD_MAKSIMUM) {
+                    break;
+                }
+                byte[] payload = new byte[panjang];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload, 0, panjang);
+                if ((int) crc.getValue() != crcTersimpan) {
+                    break;
+                }
+                entri = decode(payload);
+            } catch (EOFException e) {
+                break;
+            }
+            if (entri == null) {
+                break;
+            }
+
+            posisiValid += HEADER_RECORD + panjang;
+            jumlahEntri++;
+            sekuensTerakhir = Math.max(sekuensTerakhir, entri.getSekuens());
+            konsumen.accept(entri);
+            dibaca++;
+        }
+
+        if (posisiValid < channel.size()) {
+            System.err.println("Jurnal rusak setelah byte " + posisiValid + ", ekor file dibuang");
+            channel.truncate(posisiValid);
+        }
+        channel.position(posisiValid);
+        return dibaca;
+    }
+
+    /**
+     * Mencatat satu penjualan ke jurnal.
+     *
+     * @param idBarang ID barang yang terjual
+     * @param kuantitas Jumlah unit yang terjual
+     * @param idTransaksi ID transaksi
+     * @param waktu Waktu transaksi
+     * @return Sekuens record yang ditulis
+     * @throws IOException jika penulisan gagal
+     */
+    public synchronized long appendPenjualan(String idBarang, int kuantitas, String idTransaksi,
+                                             LocalDateTime waktu) throws IOException {
+        long sekuens = sekuensTerakhir + 1;
+
+        bufferPayload.reset();
+        outPayload.writeLong(sekuens);
+        outPayload.writeByte(TIPE_PENJUALAN);
+        outPayload.writeUTF(idBarang);
+        outPayload.writeInt(kuantitas);
+        outPayload.writeUTF(idTransaksi);
+        outPayload.writeLong(waktu.toInstant(ZoneOffset.UTC).toEpochMilli());
+        outPayload.flush();
+
+        tulisRecord(bufferPayload.toByteArray(), sekuens);
+        sekuensTerakhir = sekuens;
+        jumlahEntri++;
+        return sekuens;
+    }
+
+    /**
+     * Mencatat penjualan beberapa barang sebagai satu record, sehingga
+     * seluruh item diterapkan bersama saat replay.
+     *
+     * @param idTransaksi ID transaksi
+     * @param waktu Waktu transaksi
+     * @param idBarang ID barang setiap item
+     * @param kuantitas Kuantitas setiap item, sejajar dengan idBarang
+     * @return Sekuens record yang ditulis
+     * @throws IOException jika penulisan gagal
+     */
+    public synchronized long appendPenjualanKeranjang(String idTransaksi, LocalDateTime waktu,
+                                                      String[] idBarang, int[] kuantitas) throws IOException {
+        if (idBarang.length == 0 || idBarang.length != kuantitas.length) {
+            throw new IllegalArgumentException("Item keranjang tidak valid!");
+        }
+        long sekuens = sekuensTerakhir + 1;
+
+        bufferPayload.reset();
+        outPayload.writeLong(sekuens);
+        outPayload.writeByte(TIPE_PENJUALAN_KERANJANG);
+        outPayload.writeUTF(idTransaksi);
+        outPayload.writeLong(waktu.toInstant(ZoneOffset.UTC).toEpochMilli());
+        outPayload.writeInt(idBarang.length);
+        for (int i = 0; i < idBarang.length; i++) {
+            outPayload.writeUTF(idBarang[i]);
+            outPayload.writeInt(kuantitas[i]);
+        }
+        outPayload.flush();
+
+        byte[] payload = bufferPayload.toByteArray();
+        if (payload.length > PAYLOAD_MAKSIMUM) {
+            throw new IOException("Transaksi keranjang terlalu besar untuk satu record jurnal");
+        }
+        tulisRecord(payload, sekuens);
+        sekuensTerakhir = sekuens;
+        jumlahEntri++;
+        return sekuens;
+    }
+
+    /**
+     * Menunggu sampai record dengan sekuens tertentu sudah dipaksa ke disk.
+     * Pada kebijakan GRUP menunggu batch flusher; pada kebijakan SETIAP_RECORD
+     * menjalankan fsync sendiri kecuali fsync thread lain sudah mencakup record
+     * tersebut. Pada kebijakan lain langsung kembali.
+     * Jangan dipanggil sambil memegang monitor jurnal.
+     *
+     * @param sekuens Sekuens yang dikembalikan append
+     * @throws IOException jika record gagal dipaksa ke disk
+     * @throws InterruptedException jika thread diinterupsi saat menunggu
+     */
+    public void tungguTahanLama(long sekuens) throws IOException, InterruptedException {
+        if (syncPolicy == SyncPolicy.SETIAP_RECORD) {
+            sinkronSampai(sekuens);
+            return;
+        }
+        if (syncPolicy != SyncPolicy.GRUP) {
+            return;
+        }
+        synchronized (kunciTahanLama) {
+            while (sekuensTahanLama < sekuens) {
+                if (galatTulis != null) {
+                    throw galatTulis;
+                }
+                kunciTahanLama.wait();
+            }
+        }
+    }
+
+    /**
+     * Menulis dan memaksa ke disk seluruh record yang masih diantrekan,
+     * tanpa menunggu jendela batch.
+     *
+     * @throws IOException jika penulisan gagal
+     */
+    public synchronized void flush() throws IOException {
+        tulisAntrean();
+    }
+
+    /**
+     * Mengosongkan jurnal setelah snapshot yang mencakup seluruh sekuens sampai
+     * {@link #getSekuensTerakhir()} berhasil ditulis. Record yang masih
+     * diantrekan ditulis lebih dulu agar pemanggil yang menunggunya tetap
+     * mendapat konfirmasi. Penomoran sekuens tetap dilanjutkan.
+     *
+     * Jika jurnal dalam keadaan gagal, antrean dibuang karena isinya sudah
+     * tercakup snapshot, ekor file yang mungkin tertulis sebagian ikut dipotong,
+     * dan jurnal kembali menerima append.
+     *
+     * @throws IOException jika file tidak dapat dipotong
+     */
+    public synchronized void reset() throws IOException {
+        if (galatTulis != null) {
+            ambilAntrean();
+        } else {
+            tulisAntrean();
+        }
+        kunciTulis.lock();
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+        } finally {
+            kunciTulis.unlock();
+        }
+        jumlahEntri = 0;
+        belumDisinkron = 0;
+        synchronized (kunciTahanLama) {
+            sekuensTahanLama = sekuensTerakhir;
+            sekuensTertulis = sekuensTerakhir;
+            galatTulis = null;
+            kunciTahanLama.notifyAll();
+        }
+        // Bangunkan flusher yang berhenti sejak batch gagal
+        notifyAll();
+    }
+
+    /**
+     * Memeriksa apakah jurnal menolak append karena penulisan sebelumnya gagal.
+     * Keadaan ini hanya berakhir lewat {@link #reset()}.
+     *
+     * @return true jika jurnal dalam keadaan gagal
+     */
+    public boolean isGagal() {
+        return galatTulis != null;
+    }
+
+    /**
+     * Mendapatkan kebijakan fsync jurnal.
+     *
+     * @return Kebijakan fsync
+     */
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    /**
+     * Mendapatkan sekuens record terakhir yang pernah ditulis atau dibaca.
+     *
+     * @return Sekuens terakhir
+     */
+    public synchronized long getSekuensTerakhir() {
+        return sekuensTerakhir;
+    }
+
+    /**
+     * Mendapatkan jumlah record di jurnal sejak pemadatan terakhir.
+     *
+     * @return Jumlah record
+     */
+    public synchronized int getJumlahEntri() {
+        return jumlahEntri;
+    }
+
+    /**
+     * Mendapatkan lokasi file jurnal.
+     *
+     * @return Path file jurnal
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Menutup jurnal dan memastikan semua record sudah ada di disk.
+     *
+     * @throws IOException jika penutupan gagal
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        ditutup = true;
+        notifyAll();
+        if (channel.isOpen()) {
+            try {
+                if (galatTulis == null) {
+                    tulisAntrean();
+                }
+            } finally {
+                kunciTulis.lock();
+                try {
+                    channel.force(true);
+                    channel.close();
+                } finally {
+                    kunciTulis.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Menulis header dan payload record lalu menerapkan kebijakan fsync.
+     * Pada kebijakan GRUP record hanya ditambahkan ke antrean; pada kebijakan
+     * SETIAP_RECORD fsync ditunda ke {@link #tungguTahanLama(long)}.
+     */
+    private void tulisRecord(byte[] payload, long sekuens) throws IOException {
+        if (galatTulis != null) {
+            // Penulisan sebelumnya mungkin tersisa sebagian; record baru akan terbuang saat replay
+            throw new IOException("Jurnal gagal ditulis sebelumnya: " + galatTulis.getMessage(), galatTulis);
+        }
+        crc.reset();
+        crc.update(payload, 0, payload.length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_RECORD + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+
+        if (syncPolicy == SyncPolicy.GRUP) {
+            if (ditutup) {
+                throw new IOException("Jurnal sudah ditutup");
+            }
+            antrean.write(buffer.array(), 0, buffer.capacity());
+            if (jumlahAntrean++ == 0) {
+                waktuAntreanPertama = System.nanoTime();
+                notifyAll();
+            } else if (jumlahAntrean >= maksBatchGrup) {
+                notifyAll();
+            }
+            return;
+        }
+
+        buffer.flip();
+        kunciTulis.lock();
+        try {
+            long posisiAwal = channel.position();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                // Buang record yang tertulis sebagian agar record berikutnya tetap terbaca saat replay
+                try {
+                    channel.truncate(posisiAwal);
+                    channel.position(posisiAwal);
+                } catch (IOException galatPotong) {
+                    e.addSuppressed(galatPotong);
+                    tandaiGagal(e);
+                }
+                throw e;
+            }
+        } finally {
+            kunciTulis.unlock();
+        }
+        sekuensTertulis = sekuens;
+
+        if (syncPolicy == SyncPolicy.BERKALA && ++belumDisinkron >= intervalSync) {
+            belumDisinkron = 0;
+            try {
+                sinkron();
+            } catch (IOException e) {
+                // Record ini sudah tertulis; pemanggil tidak boleh mengira penjualannya batal
+                System.err.println("Error saat fsync jurnal: " + e.getMessage());
+                tandaiGagal(e);
+            }
+        }
+    }
+
+    /**
+     * Memaksa record sampai sekuens tertentu ke disk untuk kebijakan
+     * SETIAP_RECORD. Hanya satu thread yang menjalankan fsync pada satu waktu;
+     * thread lain yang recordnya sudah ikut tercakup langsung kembali.
+     */
+    private void sinkronSampai(long sekuens) throws IOException {
+        synchronized (kunciTahanLama) {
+            if (sekuensTahanLama >= sekuens) {
+                return;
+            }
+            if (galatTulis != null) {
+                throw galatTulis;
+            }
+            // Dibaca sebelum fsync: semua record sampai sekuens ini sudah ada di channel
+            long sampaiSekuens = sekuensTertulis;
+            try {
+                sinkron();
+            } catch (IOException e) {
+                tandaiGagal(e);
+                throw e;
+            }
+            sekuensTahanLama = Math.max(sekuensTahanLama, sampaiSekuens);
+        }
+    }
+
+    /**
+     * Menandai jurnal gagal dan membangunkan pemanggil yang menunggu
+     * tahan lama agar menerima galatnya.
+     */
+    void tandaiGagal(IOException e) {
+        synchronized (kunciTahanLama) {
+            if (galatTulis == null) {
+                galatTulis = e;
+            }
+            kunciTahanLama.notifyAll();
+        }
+    }
+
+    /**
+     * Memaksa isi jurnal ke disk dan mencatat durasinya.
+     */
+    private void sinkron() throws IOException {
+        long mulai = System.nanoTime();
+        try {
+            channel.force(false);
+        } finally {
+            DURASI_FSYNC.catatSejak(mulai);
+        }
+    }
+
+    /**
+     * Menulis seluruh antrean secara sinkron. Pemanggil memegang monitor jurnal.
+     */
+    private void tulisAntrean() throws IOException {
+        if (jumlahAntrean == 0) {
+            return;
+        }
+        if (galatTulis != null) {
+            throw new IOException("Jurnal gagal ditulis sebelumnya: " + galatTulis.getMessage(), galatTulis);
+        }
+        kunciTulis.lock();
+        tulisBatch(ambilAntrean(), sekuensTerakhir);
+    }
+
+    /**
+     * Mengambil isi antrean dan mengosongkannya. Pemanggil memegang monitor jurnal.
+     */
+    private byte[] ambilAntrean() {
+        byte[] batch = antrean.toByteArray();
+        if (antrean.size() > 1024 * 1024) {
+            // Jangan simpan buffer sebesar lonjakan terbesar selamanya
+            antrean = new ByteArrayOutputStream(4096);
+        } else {
+            antrean.reset();
+        }
+        jumlahAntrean = 0;
+        return batch;
+    }
+
+    /**
+     * Menulis satu batch dengan satu write dan satu fsync, lalu membangunkan
+     * pemanggil yang menunggu. Pemanggil sudah mengambil kunciTulis;
+     * kunci dilepas di sini.
+     */
+    private void tulisBatch(byte[] batch, long sampaiSekuens) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            sinkron();
+        } catch (IOException e) {
+            tandaiGagal(e);
+            throw e;
+        } finally {
+            kunciTulis.unlock();
+        }
+        synchronized (kunciTahanLama) {
+            sekuensTahanLama = Math.max(sekuensTahanLama, sampaiSekuens);
+            kunciTahanLama.notifyAll();
+        }
+    }
+
+    /**
+     * Loop thread flusher kebijakan GRUP: menunggu record pertama, menunggu
+     * sampai jendela batch habis atau batch penuh, lalu menulis seluruh antrean.
+     * Jendela hanya ditunggu jika batch terakhir berisi lebih dari satu record,
+     * yaitu saat ada pembelian bersamaan; pembelian tunggal langsung ditulis
+     * dan record yang datang selama fsync-nya menjadi batch berikutnya.
+     * Setelah satu batch gagal, flusher berhenti menulis sampai {@link #reset()}
+     * karena record berikutnya akan terletak setelah bagian yang rusak.
+     */
+    private void jalankanFlusher() {
+        while (true) {
+            byte[] batch;
+            long sampaiSekuens;
+            synchronized (this) {
+                try {
+                    while ((jumlahAntrean == 0 || galatTulis != null) && !ditutup) {
+                        wait();
+                    }
+                    if (jumlahAntrean == 0 || galatTulis != null) {
+                        return;
+                    }
+                    boolean sibuk = ukuranBatchTerakhir > 1;
+                    long sisa;
+                    while (sibuk && !ditutup && jumlahAntrean < maksBatchGrup
+                            && (sisa = waktuAntreanPertama + jendelaGrupNanos - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, sisa);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (jumlahAntrean == 0 || !channel.isOpen()) {
+                    continue;
+                }
+                // Ambil kunciTulis sebelum melepas monitor agar urutan batch terjaga
+                kunciTulis.lock();
+                ukuranBatchTerakhir = jumlahAntrean;
+                batch = ambilAntrean();
+                sampaiSekuens = sekuensTerakhir;
+            }
+            try {
+                tulisBatch(batch, sampaiSekuens);
+            } catch (IOException e) {
+                System.err.println("Error saat menulis batch jurnal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mengubah payload record menjadi objek Entri.
+     *
+     * @return Entri hasil decode, atau null jika tipe record tidak dikenal
+     */
+    private static Entri decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long sekuens = in.readLong();
+        byte tipe = in.readByte();
+        if (tipe == TIPE_PENJUALAN) {
+            String idBarang = in.readUTF();
+            int kuantitas = in.readInt();
+            String idTransaksi = in.readUTF();
+            LocalDateTime waktu = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC);
+            return new Entri(sekuens, tipe, new String[] { idBarang }, new int[] { kuantitas }, idTransaksi, waktu);
+        }
+        if (tipe == TIPE_PENJUALAN_KERANJANG) {
+            String idTransaksi = in.readUTF();
+            LocalDateTime waktu = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC);
+            int jumlah = in.readInt();
+            if (jumlah <= 0) {
+                return null;
+            }
+            String[] idBarang = new String[jumlah];
+            int[] kuantitas = new int[jumlah];
+            for (int i = 0; i < jumlah; i++) {
+                idBarang[i] = in.readUTF();
+                kuantitas[i] = in.readInt();
+            }
+            return new Entri(sekuens, tipe, idBarang, kuantitas, idTransaksi, waktu);
+        }
+        return null;
+    }
+}
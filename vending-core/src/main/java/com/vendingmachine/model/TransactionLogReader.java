@@ -0,0 +1,69 @@
+package com.vendingmachine.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pembaca riwayat transaksi dengan akses acak berdasarkan nomor urut.
+ * Dipakai tampilan riwayat agar hanya record yang sedang terlihat
+ * yang dibaca dan di-decode, bukan seluruh riwayat sekaligus.
+ *
+ * Isi pembaca tetap sejak dibuka; transaksi baru memerlukan pembaca baru.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public interface TransactionLogReader extends AutoCloseable {
+
+    /**
+     * Mendapatkan jumlah transaksi yang dapat dibaca.
+     *
+     * @return Jumlah transaksi
+     */
+    long getJumlah();
+
+    /**
+     * Membaca transaksi ke-n, dihitung dari yang terlama.
+     *
+     * @param indeks Nomor urut transaksi, mulai dari 0
+     * @return Transaksi pada nomor urut tersebut
+     * @throws IndexOutOfBoundsException jika indeks di luar jangkauan
+     * @throws IOException jika record tidak dapat dibaca
+     */
+    Transaksi baca(long indeks) throws IOException;
+
+    /**
+     * Melepas sumber daya pembaca.
+     */
+    @Override
+    void close();
+
+    /**
+     * Membuat pembaca dari salinan list transaksi di memori.
+     * Dipakai jika penyimpanan riwayat tidak tersedia.
+     *
+     * @param daftar Daftar transaksi
+     * @return Pembaca atas salinan daftar
+     */
+    static TransactionLogReader dariList(List<Transaksi> daftar) {
+        List<Transaksi> salinan = new ArrayList<>(daftar);
+        return new TransactionLogReader() {
+            @Override
+            public long getJumlah() {
+                return salinan.size();
+            }
+
+            @Override
+            public Transaksi baca(long indeks) {
+                return salinan.get((int) indeks);
+            }
+
+            @Override
+            public void close() {
+                salinan.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,722 @@
+package com.vendingmachine.model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+
+/**
+ * Penyimpanan riwayat transaksi yang tahan restart.
+ * Transaksi ditambahkan di akhir file segmen; setelah segmen mencapai
+ * ukuran maksimum, segmen ditutup (jumlah record dicatat di header)
+ * dan segmen baru dibuka. Pembacaan dilakukan secara streaming sehingga
+ * jutaan transaksi dapat disimpan tanpa harus dimuat seluruhnya ke heap.
+ *
+ * Format file segmen:
+ * - header: int magic, int versi, int jumlah record (-1 jika masih aktif), int cadangan,
+ *   long sekuens jurnal terakhir (diisi saat segmen ditutup)
+ * - record: int panjang payload, int CRC32, payload
+ *
+ * Payload versi 2 ke atas ditulis oleh {@link RecordCodec}; identitas produk
+ * disimpan sekali di file kamus produk dan record hanya merujuk indeksnya.
+ * Segmen versi 1 (payload berisi salinan lengkap data barang), versi 2
+ * (harga double), dan versi 3 (satu item per transaksi) tetap dapat dibaca;
+ * segmen aktif berformat lama ditutup saat start.
+ *
+ * Setiap record menyimpan sekuens jurnal asalnya, sehingga replay jurnal
+ * dapat melengkapi transaksi yang belum sempat masuk ke segmen.
+ *
+ * Setiap segmen memiliki file indeks pendamping (.idx) berisi posisi byte
+ * setiap record sebagai long 8 byte. Karena lebarnya tetap, record ke-n dapat
+ * ditemukan langsung tanpa memindai segmen; {@link #bukaPembaca()} memakai
+ * indeks ini untuk membaca riwayat secara acak lewat memory-mapped file.
+ * Indeks segmen aktif disusun ulang saat start, indeks segmen tertutup yang
+ * hilang disusun ulang saat pertama kali dibutuhkan.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 2.0
+ * @since 2024
+ */
+public class TransactionStore implements AutoCloseable {
+
+    /** Penanda awal file segmen ("VMTR") */
+    private static final int MAGIC = 0x564D5452;
+    static final int VERSI_LAMA = 1;
+    static final int HEADER_SEGMEN = 24;
+    static final int POSISI_VERSI = 4;
+    private static final int POSISI_JUMLAH = 8;
+    private static final int POSISI_SEKUENS = 16;
+    private static final int SEGMEN_AKTIF = -1;
+    static final int HEADER_RECORD = 8;
+    private static final int PAYLOAD_MAKSIMUM = 64 * 1024;
+
+    private static final String PREFIX_SEGMEN = "segmen-";
+    private static final String SUFFIX_SEGMEN = ".log";
+    private static final String SUFFIX_INDEKS = ".idx";
+    private static final String FILE_KAMUS = "kamus-produk.dat";
+    private static final String FILE_BATAS = "batas-segmen.dat";
+
+    /** Ukuran satu entri indeks posisi record dalam byte */
+    static final int UKURAN_ENTRI_INDEKS = 8;
+
+    /**
+     * Informasi satu segmen yang sudah ditutup.
+     */
+    private static final class Segmen {
+        private final Path file;
+        private final int jumlahRecord;
+
+        Segmen(Path file, int jumlahRecord) {
+            this.file = file;
+            this.jumlahRecord = jumlahRecord;
+        }
+    }
+
+    private final Path direktori;
+    private final long ukuranSegmenMaksimum;
+    private final List<Segmen> segmenTertutup = new ArrayList<>();
+    private final RecordCodec.KamusProduk kamus = new RecordCodec.KamusProduk();
+
+    private final ByteArrayOutputStream bufferPayload = new ByteArrayOutputStream(256);
+    private final DataOutputStream outPayload = new DataOutputStream(bufferPayload);
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channelKamus;
+    private FileChannel channelAktif;
+    private FileChannel channelIndeks;
+    private final ByteBuffer bufferIndeks = ByteBuffer.allocate(UKURAN_ENTRI_INDEKS);
+    private Path fileAktif;
+    private int nomorAktif;
+    private int jumlahAktif;
+    private long sekuensTerakhir;
+
+    /**
+     * Membuka penyimpanan riwayat di direktori yang diberikan.
+     * Segmen aktif dipindai untuk menghitung record dan membuang ekor yang rusak;
+     * segmen yang sudah ditutup cukup dibaca header-nya.
+     *
+     * @param direktori Direktori tempat file segmen disimpan
+     * @param ukuranSegmenMaksimum Ukuran maksimum satu segmen dalam byte
+     * @throws IOException jika direktori atau segmen tidak dapat dibuka
+     */
+    public TransactionStore(Path direktori, long ukuranSegmenMaksimum) throws IOException {
+        this.direktori = direktori;
+        this.ukuranSegmenMaksimum = ukuranSegmenMaksimum;
+        Files.createDirectories(direktori);
+        bukaKamus();
+
+        List<Path> files = daftarFileSegmen();
+        int batas = bacaBatas();
+        while (!files.isEmpty() && nomorDari(files.get(0)) < batas) {
+            // Sisa riwayat yang sudah dihapus tetapi file-nya masih terkunci saat itu
+            hapusSegmen(files.remove(0));
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            ByteBuffer header = bacaHeader(file);
+            int jumlah = header == null ? SEGMEN_AKTIF : header.getInt(POSISI_JUMLAH);
+            int versi = header == null ? RecordCodec.VERSI_SKEMA : header.getInt(POSISI_VERSI);
+            boolean terakhir = i == files.size() - 1;
+            if (terakhir && jumlah == SEGMEN_AKTIF && versi == RecordCodec.VERSI_SKEMA) {
+                bukaSegmenAktif(file, nomorDari(file));
+            } else if (jumlah == SEGMEN_AKTIF) {
+                // Segmen yang tidak sempat ditutup, atau segmen aktif berformat lama:
+                // hitung lalu tutup agar record baru masuk ke segmen berformat terbaru
+                long[] hasil = new long[2];
+                LongStream.Builder posisi = LongStream.builder();
+                int dihitung = pindaiSegmen(file, null, hasil, posisi);
+                tulisIndeks(fileIndeks(file), posisi.build().toArray());
+                tulisPenutupKeHeader(file, dihitung, hasil[1]);
+                segmenTertutup.add(new Segmen(file, dihitung));
+                sekuensTerakhir = Math.max(sekuensTerakhir, hasil[1]);
+            } else {
+                segmenTertutup.add(new Segmen(file, jumlah));
+                sekuensTerakhir = Math.max(sekuensTerakhir, header.getLong(POSISI_SEKUENS));
+            }
+        }
+
+        if (channelAktif == null) {
+            int nomorBaru = files.isEmpty() ? Math.max(1, batas) : nomorDari(files.get(files.size() - 1)) + 1;
+            buatSegmenBaru(nomorBaru);
+        }
+    }
+
+    /**
+     * Menambahkan satu transaksi ke segmen aktif.
+     * Tidak melakukan fsync; daya tahan dijamin oleh jurnal tulis-di-depan
+     * sampai {@link #force()} dipanggil sebelum jurnal dipadatkan.
+     *
+     * @param transaksi Transaksi yang disimpan
+     * @param sekuensJurnal Sekuens record jurnal asal transaksi
+     * @throws IOException jika penulisan gagal
+     */
+    public synchronized void append(Transaksi transaksi, long sekuensJurnal) throws IOException {
+        if (channelAktif.size() >= ukuranSegmenMaksimum) {
+            tutupSegmenAktif();
+            buatSegmenBaru(nomorAktif + 1);
+        }
+
+        List<Transaksi.Item> items = transaksi.getItems();
+        int[] indeksProduk = new int[items.size()];
+        for (int i = 0; i < indeksProduk.length; i++) {
+            indeksProduk[i] = indeksProduk(items.get(i).getBarang());
+        }
+
+        bufferPayload.reset();
+        RecordCodec.tulisTransaksi(outPayload, transaksi, indeksProduk, sekuensJurnal);
+        outPayload.flush();
+        long posisi = channelAktif.position();
+        tulisDenganHeader(channelAktif, bufferPayload.toByteArray());
+
+        bufferIndeks.clear();
+        bufferIndeks.putLong(posisi);
+        bufferIndeks.flip();
+        while (bufferIndeks.hasRemaining()) {
+            channelIndeks.write(bufferIndeks);
+        }
+
+        jumlahAktif++;
+        sekuensTerakhir = Math.max(sekuensTerakhir, sekuensJurnal);
+    }
+
+    /**
+     * Membaca seluruh transaksi secara streaming dari segmen tertua ke terbaru.
+     * Hanya satu record yang berada di memori pada satu waktu.
+     *
+     * @param konsumen Penerima setiap transaksi
+     * @throws IOException jika segmen tidak dapat dibaca
+     */
+    public void forEach(Consumer<Transaksi> konsumen) throws IOException {
+        List<Path> files;
+        synchronized (this) {
+            files = new ArrayList<>();
+            for (Segmen segmen : segmenTertutup) {
+                files.add(segmen.file);
+            }
+            files.add(fileAktif);
+        }
+        for (Path file : files) {
+            pindaiSegmen(file, konsumen);
+        }
+    }
+
+    /**
+     * Membaca transaksi yang ada di segmen aktif saja.
+     * Dipakai untuk mengisi cache riwayat terbaru saat start tanpa
+     * membaca seluruh riwayat.
+     *
+     * @param konsumen Penerima setiap transaksi
+     * @throws IOException jika segmen tidak dapat dibaca
+     */
+    public void forEachSegmenAktif(Consumer<Transaksi> konsumen) throws IOException {
+        Path file;
+        synchronized (this) {
+            file = fileAktif;
+        }
+        pindaiSegmen(file, konsumen);
+    }
+
+    /**
+     * Membuka pembaca riwayat berbasis memory-mapped file untuk akses acak.
+     * Pembaca melihat riwayat sebagaimana adanya saat dibuka; transaksi yang
+     * ditambahkan sesudahnya memerlukan pembaca baru. Biaya membuka tidak
+     * bergantung pada jumlah transaksi karena segmen baru dipetakan saat
+     * record di dalamnya pertama kali dibaca.
+     *
+     * @return Pembaca riwayat
+     * @throws IOException jika kondisi segmen tidak dapat dibaca
+     */
+    public TransactionLogReader bukaPembaca() throws IOException {
+        return bukaPembacaMapped();
+    }
+
+    /**
+     * Membaca transaksi yang sekuens jurnalnya lebih besar dari sekuens
+     * tertentu, dari yang terlama, paling banyak sejumlah maksimum.
+     * Transaksi pertama dicari secara biner lewat indeks segmen, sehingga
+     * biayanya tidak bergantung pada panjang riwayat sebelum sekuens tersebut.
+     * Dipakai replikasi untuk melanjutkan pengiriman dari offset terakhir.
+     *
+     * @param sekuens Sekuens jurnal terakhir yang sudah diterima pemanggil
+     * @param maksimum Jumlah transaksi maksimum yang dibaca
+     * @param konsumen Penerima setiap transaksi beserta sekuens jurnalnya
+     * @return Jumlah transaksi yang dibaca
+     * @throws IOException jika segmen tidak dapat dibaca
+     */
+    public int bacaSetelah(long sekuens, int maksimum, ObjLongConsumer<Transaksi> konsumen) throws IOException {
+        if (getSekuensTerakhir() <= sekuens || maksimum <= 0) {
+            return 0;
+        }
+        try (MappedTransactionLogReader pembaca = bukaPembacaMapped()) {
+            long bawah = 0;
+            long atas = pembaca.getJumlah();
+            while (bawah < atas) {
+                long tengah = (bawah + atas) >>> 1;
+                if (pembaca.bacaSekuens(tengah) <= sekuens) {
+                    bawah = tengah + 1;
+                } else {
+                    atas = tengah;
+                }
+            }
+
+            int dibaca = 0;
+            for (long i = bawah; i < pembaca.getJumlah() && dibaca < maksimum; i++) {
+                konsumen.accept(pembaca.baca(i), pembaca.bacaSekuens(i));
+                dibaca++;
+            }
+            return dibaca;
+        }
+    }
+
+    private synchronized MappedTransactionLogReader bukaPembacaMapped() throws IOException {
+        List<MappedTransactionLogReader.Bagian> bagian = new ArrayList<>();
+        for (Segmen segmen : segmenTertutup) {
+            if (segmen.jumlahRecord > 0) {
+                bagian.add(new MappedTransactionLogReader.Bagian(segmen.file, fileIndeks(segmen.file),
+                        segmen.jumlahRecord, Files.size(segmen.file)));
+            }
+        }
+        if (jumlahAktif > 0) {
+            bagian.add(new MappedTransactionLogReader.Bagian(fileAktif, fileIndeks(fileAktif),
+                    jumlahAktif, channelAktif.position()));
+        }
+        return new MappedTransactionLogReader(this, bagian, kamus);
+    }
+
+    /**
+     * Memastikan file indeks segmen berisi posisi untuk seluruh record,
+     * menyusunnya ulang dari isi segmen jika belum lengkap.
+     *
+     * @param file File segmen
+     * @param jumlah Jumlah record yang harus tercakup indeks
+     * @throws IOException jika segmen atau indeks tidak dapat dibaca
+     */
+    synchronized void pastikanIndeks(Path file, int jumlah) throws IOException {
+        Path indeks = fileIndeks(file);
+        if (Files.exists(indeks) && Files.size(indeks) >= (long) jumlah * UKURAN_ENTRI_INDEKS) {
+            return;
+        }
+        LongStream.Builder posisi = LongStream.builder();
+        pindaiSegmen(file, null, new long[2], posisi);
+        tulisIndeks(indeks, posisi.build().toArray());
+    }
+
+    /**
+     * Memaksa kamus produk dan segmen aktif ke disk.
+     * Wajib dipanggil sebelum jurnal dikosongkan.
+     *
+     * @throws IOException jika fsync gagal
+     */
+    public synchronized void force() throws IOException {
+        channelKamus.force(false);
+        channelAktif.force(false);
+    }
+
+    /**
+     * Menghapus seluruh riwayat transaksi dan memulai dari segmen baru.
+     * Kamus produk dipertahankan karena hanya berisi identitas produk.
+     *
+     * Nomor segmen baru dicatat sebagai batas lebih dulu, sehingga segmen lama
+     * yang belum bisa dihapus (misalnya masih dipetakan oleh pembaca di Windows)
+     * tetap diabaikan dan dihapus saat start berikutnya.
+     *
+     * @throws IOException jika batas segmen tidak dapat ditulis
+     */
+    public synchronized void clear() throws IOException {
+        channelAktif.close();
+        channelIndeks.close();
+        int nomorBaru = nomorAktif + 1;
+        tulisBatas(nomorBaru);
+        for (Path file : daftarFileSegmen()) {
+            hapusSegmen(file);
+        }
+        segmenTertutup.clear();
+        sekuensTerakhir = 0;
+        buatSegmenBaru(nomorBaru);
+    }
+
+    /**
+     * Mendapatkan jumlah seluruh transaksi yang tersimpan.
+     *
+     * @return Jumlah transaksi
+     */
+    public synchronized long getJumlahRecord() {
+        long total = jumlahAktif;
+        for (Segmen segmen : segmenTertutup) {
+            total += segmen.jumlahRecord;
+        }
+        return total;
+    }
+
+    /**
+     * Mendapatkan sekuens jurnal terbesar yang sudah tersimpan.
+     *
+     * @return Sekuens jurnal terakhir yang tersimpan
+     */
+    public synchronized long getSekuensTerakhir() {
+        return sekuensTerakhir;
+    }
+
+    /**
+     * Menutup segmen aktif dan kamus produk.
+     *
+     * @throws IOException jika penutupan gagal
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channelAktif != null && channelAktif.isOpen()) {
+            channelAktif.force(true);
+            channelAktif.close();
+        }
+        if (channelIndeks != null && channelIndeks.isOpen()) {
+            channelIndeks.close();
+        }
+        if (channelKamus != null && channelKamus.isOpen()) {
+            channelKamus.force(true);
+            channelKamus.close();
+        }
+    }
+
+    /**
+     * Mendapatkan indeks identitas produk di kamus, mendaftarkannya jika belum ada.
+     * Entri kamus ditulis sebelum record yang merujuknya.
+     */
+    private int indeksProduk(Barang barang) throws IOException {
+        String pathGambar = barang.getPathGambar() == null ? "" : barang.getPathGambar();
+        int indeks = kamus.cari(barang.getIdBarang(), barang.getNamaBarang(), pathGambar);
+        if (indeks >= 0) {
+            return indeks;
+        }
+
+        bufferPayload.reset();
+        RecordCodec.KamusProduk.tulisEntri(outPayload, barang.getIdBarang(), barang.getNamaBarang(), pathGambar);
+        outPayload.flush();
+        tulisDenganHeader(channelKamus, bufferPayload.toByteArray());
+        return kamus.daftarkan(barang.getIdBarang(), barang.getNamaBarang(), pathGambar);
+    }
+
+    /**
+     * Membuka file kamus produk dan memuat seluruh entrinya ke memori.
+     * Entri terakhir yang terpotong dibuang.
+     */
+    private void bukaKamus() throws IOException {
+        channelKamus = FileChannel.open(direktori.resolve(FILE_KAMUS), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long posisiValid = 0;
+        byte[] isi = new byte[(int) channelKamus.size()];
+        ByteBuffer buffer = ByteBuffer.wrap(isi);
+        while (buffer.hasRemaining() && channelKamus.read(buffer, buffer.position()) >= 0) {
+            // baca seluruh kamus
+        }
+
+        ByteBuffer baca = ByteBuffer.wrap(isi);
+        CRC32 crcBaca = new CRC32();
+        while (baca.remaining() >= HEADER_RECORD) {
+            int panjang = baca.getInt();
+            int crcTersimpan = baca.getInt();
+            if (panjang <= 0 || panjang > baca.remaining()) {
+                break;
+            }
+            crcBaca.reset();
+            crcBaca.update(isi, baca.position(), panjang);
+            if ((int) crcBaca.getValue() != crcTersimpan) {
+                break;
+            }
+            kamus.bacaEntri(new DataInputStream(new ByteArrayInputStream(isi, baca.position(), panjang)));
+            baca.position(baca.position() + panjang);
+            posisiValid = baca.position();
+        }
+
+        if (posisiValid < channelKamus.size()) {
+            System.err.println("Kamus produk rusak setelah byte " + posisiValid + ", ekor file dibuang");
+            channelKamus.truncate(posisiValid);
+        }
+        channelKamus.position(posisiValid);
+    }
+
+    /**
+     * Membuka segmen aktif yang sudah ada, menghitung record, dan memotong ekor rusak.
+     */
+    private void bukaSegmenAktif(Path file, int nomor) throws IOException {
+        long[] hasil = new long[2];
+        LongStream.Builder posisi = LongStream.builder();
+        int jumlah = pindaiSegmen(file, null, hasil, posisi);
+        long posisiValid = hasil[0];
+
+        Path indeks = fileIndeks(file);
+        tulisIndeks(indeks, posisi.build().toArray());
+        channelIndeks = FileChannel.open(indeks, StandardOpenOption.WRITE);
+        channelIndeks.position(channelIndeks.size());
+
+        channelAktif = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (posisiValid < channelAktif.size()) {
+            System.err.println("Segmen riwayat rusak setelah byte " + posisiValid + ", ekor file dibuang");
+            channelAktif.truncate(posisiValid);
+        }
+        channelAktif.position(posisiValid);
+        fileAktif = file;
+        nomorAktif = nomor;
+        jumlahAktif = jumlah;
+        sekuensTerakhir = Math.max(sekuensTerakhir, hasil[1]);
+    }
+
+    /**
+     * Membuat file segmen baru lengkap dengan header-nya.
+     */
+    private void buatSegmenBaru(int nomor) throws IOException {
+        Path file = direktori.resolve(String.format("%s%08d%s", PREFIX_SEGMEN, nomor, SUFFIX_SEGMEN));
+        channelAktif = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SEGMEN);
+        header.putInt(MAGIC);
+        header.putInt(RecordCodec.VERSI_SKEMA);
+        header.putInt(SEGMEN_AKTIF);
+        header.putInt(0);
+        header.putLong(0);
+        header.flip();
+        while (header.hasRemaining()) {
+            channelAktif.write(header);
+        }
+        channelIndeks = FileChannel.open(fileIndeks(file), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        fileAktif = file;
+        nomorAktif = nomor;
+        jumlahAktif = 0;
+    }
+
+    /**
+     * Menutup segmen aktif dengan mencatat jumlah record di header.
+     * Kamus produk dipaksa ke disk lebih dulu karena segmen tertutup
+     * dapat merujuk entri-entrinya.
+     */
+    private void tutupSegmenAktif() throws IOException {
+        channelKamus.force(false);
+        channelIndeks.force(false);
+        channelIndeks.close();
+        channelAktif.close();
+        tulisPenutupKeHeader(fileAktif, jumlahAktif, sekuensTerakhir);
+        segmenTertutup.add(new Segmen(fileAktif, jumlahAktif));
+    }
+
+    /**
+     * Menulis header record (panjang dan CRC) diikuti payload ke channel.
+     */
+    private void tulisDenganHeader(FileChannel channel, byte[] payload) throws IOException {
+        crc.reset();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_RECORD + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Membaca record dalam satu segmen secara streaming.
+     *
+     * @param file File segmen
+     * @param konsumen Penerima transaksi, boleh null jika hanya menghitung
+     * @return Jumlah record valid
+     */
+    private int pindaiSegmen(Path file, Consumer<Transaksi> konsumen) throws IOException {
+        return pindaiSegmen(file, konsumen, new long[2], null);
+    }
+
+    /**
+     * @param hasil Keluaran: [0] posisi akhir record valid terakhir, [1] sekuens jurnal terbesar
+     * @param posisiRecord Penerima posisi byte setiap record valid, boleh null
+     */
+    private int pindaiSegmen(Path file, Consumer<Transaksi> konsumen, long[] hasil,
+                             LongConsumer posisiRecord) throws IOException {
+        int jumlah = 0;
+        hasil[0] = HEADER_SEGMEN;
+        CRC32 crcBaca = new CRC32();
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Bukan file segmen riwayat: " + file);
+            }
+            int versi = in.readInt();
+            in.readInt(); // jumlah record
+            in.readInt(); // cadangan
+            in.readLong(); // sekuens terakhir
+
+            while (true) {
+                int panjang;
+                byte[] payload;
+                try {
+                    panjang = in.readInt();
+                    int crcTersimpan = in.readInt();
+                    if (panjang <= 0 || panjang > PAYLOAD_MAKSIMUM) {
+                        break;
+                    }
+                    payload = new byte[panjang];
+                    in.readFully(payload);
+                    crcBaca.reset();
+                    crcBaca.update(payload, 0, panjang);
+                    if ((int) crcBaca.getValue() != crcTersimpan) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+
+                // Record yang merujuk entri kamus yang hilang dianggap ekor rusak
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                long sekuens;
+                Transaksi transaksi;
+                try {
+                    if (versi == VERSI_LAMA) {
+                        sekuens = record.readLong();
+                        transaksi = RecordCodec.bacaTransaksiVersi1(record);
+                    } else {
+                        sekuens = RecordCodec.bacaSekuensTransaksi(record);
+                        transaksi = RecordCodec.bacaTransaksi(record, kamus, versi);
+                    }
+                } catch (IOException e) {
+                    break;
+                }
+
+                if (konsumen != null) {
+                    konsumen.accept(transaksi);
+                }
+                if (posisiRecord != null) {
+                    posisiRecord.accept(hasil[0]);
+                }
+                jumlah++;
+                hasil[0] += HEADER_RECORD + panjang;
+                hasil[1] = Math.max(hasil[1], sekuens);
+            }
+        } catch (EOFException e) {
+            // Header tidak lengkap: segmen dianggap kosong
+        }
+        return jumlah;
+    }
+
+    /**
+     * Membaca header segmen.
+     *
+     * @return Header, atau null jika tidak lengkap atau bukan segmen riwayat
+     */
+    private static ByteBuffer bacaHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SEGMEN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // baca sampai header penuh
+            }
+            if (header.position() < HEADER_SEGMEN || header.getInt(0) != MAGIC) {
+                return null;
+            }
+            return header;
+        }
+    }
+
+    /**
+     * Mencatat jumlah record dan sekuens terakhir di header sehingga segmen
+     * tidak perlu dipindai lagi saat start berikutnya.
+     */
+    private static void tulisPenutupKeHeader(Path file, int jumlah, long sekuens) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SEGMEN - POSISI_JUMLAH);
+            buffer.putInt(jumlah);
+            buffer.putInt(0);
+            buffer.putLong(sekuens);
+            buffer.flip();
+            channel.write(buffer, POSISI_JUMLAH);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Menulis ulang seluruh file indeks dari daftar posisi record.
+     */
+    private static void tulisIndeks(Path indeks, long[] posisi) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(posisi.length * UKURAN_ENTRI_INDEKS);
+        buffer.asLongBuffer().put(posisi);
+        try (FileChannel channel = FileChannel.open(indeks, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Membaca nomor segmen terkecil yang masih berlaku setelah riwayat dihapus.
+     */
+    private int bacaBatas() throws IOException {
+        Path file = direktori.resolve(FILE_BATAS);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] isi = Files.readAllBytes(file);
+        return isi.length < 4 ? 0 : ByteBuffer.wrap(isi).getInt();
+    }
+
+    private void tulisBatas(int nomor) throws IOException {
+        try (FileChannel channel = FileChannel.open(direktori.resolve(FILE_BATAS), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, nomor));
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Menghapus segmen beserta indeksnya. Kegagalan hanya dicatat karena
+     * segmen di bawah batas akan dicoba dihapus lagi saat start berikutnya.
+     */
+    private static void hapusSegmen(Path file) {
+        try {
+            Files.deleteIfExists(fileIndeks(file));
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Segmen riwayat lama belum dapat dihapus: " + file.getFileName());
+        }
+    }
+
+    private static Path fileIndeks(Path segmen) {
+        String nama = segmen.getFileName().toString();
+        return segmen.resolveSibling(nama.substring(0, nama.length() - SUFFIX_SEGMEN.length()) + SUFFIX_INDEKS);
+    }
+
+    private List<Path> daftarFileSegmen() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(direktori,
+                PREFIX_SEGMEN + "*" + SUFFIX_SEGMEN)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static int nomorDari(Path file) {
+        String nama = file.getFileName().toString();
+        return Integer.parseInt(nama.substring(PREFIX_SEGMEN.length(), nama.length() - SUFFIX_SEGMEN.length()));
+    }
+}
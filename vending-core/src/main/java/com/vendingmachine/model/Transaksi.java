@@ -0,0 +1,404 @@
+package com.vendingmachine.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Kelas model untuk merepresentasikan transaksi pembelian dalam vending machine.
+ * Setiap transaksi mencatat informasi lengkap tentang pembelian termasuk
+ * produk yang dibeli, kuantitas, status, waktu, dan total harga.
+ * 
+ * Satu transaksi dapat berisi beberapa item (pembelian lewat {@link Keranjang}).
+ * Untuk transaksi satu item, {@link #getBarangYangDibeli()} dan
+ * {@link #getKuantitas()} tetap bermakna seperti sebelumnya; untuk transaksi
+ * keranjang keduanya berisi barang pertama dan total unit, sedangkan
+ * rincian lengkap ada di {@link #getItems()}.
+ * 
+ * Riwayat transaksi disimpan ke file segmen dalam format biner
+ * {@link RecordCodec}, bukan melalui serialisasi Java.
+ * 
+ * @author Tim Pengembang Vending Machine
+ * @version 2.0
+ * @since 2024
+ */
+public class Transaksi implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DateTimeFormatter FORMAT_WAKTU = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
+    /**
+     * Enum untuk status transaksi dalam sistem vending machine.
+     * Menentukan kondisi akhir dari sebuah transaksi pembelian.
+     * 
+     * Status yang tersedia:
+     * - BERHASIL: Transaksi berhasil diselesaikan
+     * - BATAL: Transaksi dibatalkan oleh sistem atau pengguna
+     * - PENDING: Transaksi sedang dalam proses
+     * 
+     * @author Tim Pengembang Vending Machine
+     * @version 1.0
+     * @since 2024
+     */
+    public enum StatusTransaksi {
+        /** Transaksi berhasil diselesaikan */
+        BERHASIL("Berhasil"),
+        
+        /** Transaksi dibatalkan oleh sistem atau pengguna */
+        BATAL("Batal"),
+        
+        /** Transaksi sedang dalam proses */
+        PENDING("Pending");
+
+        /** Nama tampilan yang user-friendly untuk status */
+        private final String displayName;
+
+        /**
+         * Konstruktor untuk StatusTransaksi.
+         * 
+         * @param displayName Nama tampilan yang akan ditampilkan ke pengguna
+         */
+        StatusTransaksi(String displayName) {
+            this.displayName = displayName;
+        }
+
+        /**
+         * Mendapatkan nama tampilan yang user-friendly untuk status transaksi.
+         * 
+         * @return String nama tampilan status transaksi
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Satu baris item dalam transaksi: barang dan jumlah unitnya.
+     */
+    public static final class Item implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Barang barang;
+        private final int kuantitas;
+
+        /**
+         * Membuat item transaksi.
+         *
+         * @param barang Barang yang dibeli
+         * @param kuantitas Jumlah unit
+         * @throws IllegalArgumentException jika barang null atau kuantitas tidak positif
+         */
+        public Item(Barang barang, int kuantitas) {
+            if (barang == null) {
+                throw new IllegalArgumentException("Barang tidak boleh null!");
+            }
+            if (kuantitas <= 0) {
+                throw new IllegalArgumentException("Kuantitas harus lebih dari 0!");
+            }
+            this.barang = barang;
+            this.kuantitas = kuantitas;
+        }
+
+        public Barang getBarang() {
+            return barang;
+        }
+
+        public int getKuantitas() {
+            return kuantitas;
+        }
+
+        /**
+         * @return Harga barang x kuantitas dalam Rupiah penuh
+         */
+        public long getSubtotal() {
+            return barang.getHargaBarang() * kuantitas;
+        }
+    }
+
+    /**
+     * ID unik transaksi yang di-generate otomatis
+     */
+    private String idTransaksi;
+
+    /**
+     * Objek barang yang dibeli dalam transaksi ini (barang pertama untuk transaksi keranjang)
+     */
+    private Barang barangYangDibeli;
+
+    /**
+     * Jumlah barang yang dibeli (total unit untuk transaksi keranjang)
+     */
+    private int kuantitas;
+
+    /**
+     * Rincian item untuk transaksi keranjang; null untuk transaksi satu item
+     * agar riwayat yang panjang tidak membawa list tambahan per transaksi
+     */
+    private List<Item> items;
+
+    /**
+     * Status transaksi (berhasil/batal/pending)
+     */
+    private StatusTransaksi status;
+
+    /**
+     * Waktu kapan transaksi terjadi
+     */
+    private LocalDateTime waktuTransaksi;
+
+    /**
+     * Constructor untuk membuat objek Transaksi baru.
+     * ID transaksi di-generate otomatis oleh {@link TransactionIdGenerator}.
+     *
+     * @param barangYangDibeli Objek Barang yang dibeli
+     * @param kuantitas Jumlah barang yang dibeli
+     */
+    public Transaksi(Barang barangYangDibeli, int kuantitas) {
+        this.barangYangDibeli = barangYangDibeli;
+        this.kuantitas = kuantitas;
+        this.status = StatusTransaksi.PENDING;
+        this.waktuTransaksi = LocalDateTime.now();
+        this.idTransaksi = generateIdTransaksi();
+    }
+
+    /**
+     * Constructor untuk transaksi beberapa item sekaligus.
+     * ID transaksi di-generate otomatis oleh {@link TransactionIdGenerator}.
+     *
+     * @param items Item yang dibeli, minimal satu
+     * @throws IllegalArgumentException jika daftar item kosong
+     */
+    public Transaksi(List<Item> items) {
+        this(generateIdTransaksi(), items, StatusTransaksi.PENDING, LocalDateTime.now());
+    }
+
+    /**
+     * Constructor untuk backward compatibility
+     *
+     * @param barangYangDibeli Objek Barang yang dibeli
+     */
+    public Transaksi(Barang barangYangDibeli) {
+        this(barangYangDibeli, 1);
+    }
+
+    /**
+     * Constructor untuk memulihkan transaksi yang sudah tercatat sebelumnya,
+     * misalnya saat replay jurnal. ID dan waktu tidak di-generate ulang.
+     *
+     * @param idTransaksi ID transaksi yang tercatat
+     * @param barangYangDibeli Objek Barang yang dibeli
+     * @param kuantitas Jumlah barang yang dibeli
+     * @param status Status transaksi
+     * @param waktuTransaksi Waktu transaksi yang tercatat
+     */
+    Transaksi(String idTransaksi, Barang barangYangDibeli, int kuantitas,
+              StatusTransaksi status, LocalDateTime waktuTransaksi) {
+        this.idTransaksi = idTransaksi;
+        this.barangYangDibeli = barangYangDibeli;
+        this.kuantitas = kuantitas;
+        this.status = status;
+        this.waktuTransaksi = waktuTransaksi;
+    }
+
+    /**
+     * Constructor untuk memulihkan transaksi beberapa item yang sudah tercatat,
+     * termasuk transaksi yang diterima lewat replikasi dari mesin lain.
+     *
+     * @param idTransaksi ID transaksi yang tercatat
+     * @param items Item yang dibeli, minimal satu
+     * @param status Status transaksi
+     * @param waktuTransaksi Waktu transaksi yang tercatat
+     * @throws IllegalArgumentException jika daftar item kosong
+     */
+    public Transaksi(String idTransaksi, List<Item> items, StatusTransaksi status, LocalDateTime waktuTransaksi) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Transaksi harus berisi minimal satu item!");
+        }
+        this.idTransaksi = idTransaksi;
+        this.barangYangDibeli = items.get(0).getBarang();
+        this.status = status;
+        this.waktuTransaksi = waktuTransaksi;
+        if (items.size() == 1) {
+            this.kuantitas = items.get(0).getKuantitas();
+        } else {
+            int total = 0;
+            for (Item item : items) {
+                total += item.getKuantitas();
+            }
+            this.kuantitas = total;
+            this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        }
+    }
+
+    /**
+     * Menghasilkan ID transaksi unik yang terurut menurut waktu.
+     * ID lama berformat TRX-yyyyMMddHHmmssSSS tetap dapat dibaca dari riwayat.
+     *
+     * @return ID transaksi dengan format TRX- diikuti 16 digit heksadesimal
+     */
+    private static String generateIdTransaksi() {
+        return TransactionIdGenerator.getDefault().nextIdTeks();
+    }
+
+    /**
+     * Mendapatkan ID transaksi.
+     *
+     * @return ID transaksi
+     */
+    public String getIdTransaksi() {
+        return idTransaksi;
+    }
+
+    /**
+     * Mendapatkan barang yang dibeli.
+     *
+     * @return Objek Barang yang dibeli; barang pertama untuk transaksi keranjang
+     */
+    public Barang getBarangYangDibeli() {
+        return barangYangDibeli;
+    }
+
+    /**
+     * Mendapatkan waktu transaksi.
+     *
+     * @return LocalDateTime kapan transaksi terjadi
+     */
+    public LocalDateTime getWaktuTransaksi() {
+        return waktuTransaksi;
+    }
+
+    /**
+     * Mendapatkan kuantitas barang yang dibeli.
+     *
+     * @return Jumlah barang yang dibeli; total unit untuk transaksi keranjang
+     */
+    public int getKuantitas() {
+        return kuantitas;
+    }
+
+    /**
+     * Mengatur kuantitas barang yang dibeli.
+     *
+     * @param kuantitas Jumlah barang yang dibeli
+     * @throws IllegalStateException jika transaksi berisi lebih dari satu item
+     */
+    public void setKuantitas(int kuantitas) {
+        if (items != null) {
+            throw new IllegalStateException("Kuantitas transaksi keranjang diatur per item!");
+        }
+        this.kuantitas = kuantitas;
+    }
+
+    /**
+     * Mendapatkan status transaksi.
+     *
+     * @return Status transaksi
+     */
+    public StatusTransaksi getStatus() {
+        return status;
+    }
+
+    /**
+     * Mengatur status transaksi.
+     *
+     * @param status Status transaksi baru
+     */
+    public void setStatus(StatusTransaksi status) {
+        this.status = status;
+    }
+
+    /**
+     * Mendapatkan rincian item transaksi.
+     *
+     * @return List item (tidak dapat diubah); berisi satu item untuk transaksi biasa
+     */
+    public List<Item> getItems() {
+        if (items != null) {
+            return items;
+        }
+        return List.of(new Item(barangYangDibeli, kuantitas));
+    }
+
+    /**
+     * Mendapatkan jumlah baris item dalam transaksi.
+     *
+     * @return Jumlah item; 1 untuk transaksi biasa
+     */
+    public int getJumlahItem() {
+        return items == null ? 1 : items.size();
+    }
+
+    /**
+     * Mendapatkan total harga transaksi (harga barang x kuantitas, dijumlahkan per item).
+     *
+     * @return Total harga transaksi dalam Rupiah penuh
+     */
+    public long getTotalHarga() {
+        if (items == null) {
+            return barangYangDibeli.getHargaBarang() * kuantitas;
+        }
+        long total = 0;
+        for (Item item : items) {
+            total += item.getSubtotal();
+        }
+        return total;
+    }
+
+    /**
+     * Mendapatkan detail transaksi dalam format String yang mudah dibaca.
+     *
+     * @return String berisi ringkasan transaksi
+     */
+    public String getDetailTransaksi() {
+        if (items != null) {
+            StringBuilder sb = new StringBuilder("=== DETAIL TRANSAKSI ===\n");
+            sb.append(String.format("ID Transaksi  : %s\n", idTransaksi));
+            for (Item item : items) {
+                sb.append(String.format("Barang        : %s x%d @ Rp %d = Rp %d\n",
+                        item.getBarang().getNamaBarang(), item.getKuantitas(),
+                        item.getBarang().getHargaBarang(), item.getSubtotal()));
+            }
+            sb.append(String.format("Total Harga   : Rp %d\n", getTotalHarga()));
+            sb.append(String.format("Status        : %s\n", status.getDisplayName()));
+            sb.append(String.format("Waktu         : %s\n", waktuTransaksi.format(FORMAT_WAKTU)));
+            sb.append("========================");
+            return sb.toString();
+        }
+        return String.format(
+            "=== DETAIL TRANSAKSI ===\n" +
+            "ID Transaksi  : %s\n" +
+            "Barang        : %s\n" +
+            "Harga Satuan  : Rp %d\n" +
+            "Kuantitas     : %d\n" +
+            "Total Harga   : Rp %d\n" +
+            "Status        : %s\n" +
+            "Waktu         : %s\n" +
+            "========================",
+            idTransaksi,
+            barangYangDibeli.getNamaBarang(),
+            barangYangDibeli.getHargaBarang(),
+            kuantitas,
+            getTotalHarga(),
+            status.getDisplayName(),
+            waktuTransaksi.format(FORMAT_WAKTU)
+        );
+    }
+
+    /**
+     * Mengembalikan representasi String dari objek Transaksi.
+     *
+     * @return String berisi informasi transaksi
+     */
+    @Override
+    public String toString() {
+        return String.format("Transaksi[ID=%s, Barang=%s, Waktu=%s]",
+                           idTransaksi,
+                           barangYangDibeli.getNamaBarang(),
+                           waktuTransaksi.format(FORMAT_WAKTU));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.vendingmachine.payment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Gateway pembayaran lokal di dalam proses, pengganti gateway QRIS sungguhan
+ * untuk demo dan pengujian. Setiap pembayaran dikonfirmasi setelah latensi
+ * tertentu, dan dapat dibuat gagal secara acak dengan peluang tertentu.
+ *
+ * Konfigurasi bawaan dibaca dari properti sistem:
+ * - vending.payment.latencyMs: latensi konfirmasi (default 800)
+ * - vending.payment.failureRate: peluang pembayaran ditolak, 0.0-1.0 (default 0)
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class LocalPaymentGateway implements PaymentGateway {
+
+    /**
+     * Satu pembayaran yang sedang berjalan.
+     */
+    private static final class Sesi {
+        private final CompletableFuture<StatusPembayaran> hasil = new CompletableFuture<>();
+        private final List<Consumer<StatusPembayaran>> pendengar = new CopyOnWriteArrayList<>();
+        private volatile ScheduledFuture<?> konfirmasi;
+    }
+
+    private final long latensiMilis;
+    private final double peluangGagal;
+    private final Map<String, Sesi> sesiAktif = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService penjadwal;
+
+    /**
+     * Membuat gateway lokal dengan konfigurasi dari properti sistem.
+     */
+    public LocalPaymentGateway() {
+        this(Long.getLong("vending.payment.latencyMs", 800),
+             Double.parseDouble(System.getProperty("vending.payment.failureRate", "0")));
+    }
+
+    /**
+     * Membuat gateway lokal dengan latensi dan peluang gagal tertentu.
+     *
+     * @param latensiMilis Waktu sampai pembayaran dikonfirmasi, dalam milidetik
+     * @param peluangGagal Peluang pembayaran ditolak (0.0-1.0)
+     * @throws IllegalArgumentException jika parameter di luar jangkauan
+     */
+    public LocalPaymentGateway(long latensiMilis, double peluangGagal) {
+        if (latensiMilis < 0) {
+            throw new IllegalArgumentException("Latensi tidak boleh negatif!");
+        }
+        if (peluangGagal < 0 || peluangGagal > 1) {
+            throw new IllegalArgumentException("Peluang gagal harus di antara 0 dan 1!");
+        }
+        this.latensiMilis = latensiMilis;
+        this.peluangGagal = peluangGagal;
+        this.penjadwal = Executors.newSingleThreadScheduledExecutor(tugas -> {
+            Thread thread = new Thread(tugas, "vending-payment-lokal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<StatusPembayaran> bayar(PermintaanPembayaran permintaan,
+                                                     Consumer<StatusPembayaran> pendengar) {
+        boolean[] baru = new boolean[1];
+        Sesi sesi = sesiAktif.computeIfAbsent(permintaan.getReferensi(), ref -> {
+            baru[0] = true;
+            return new Sesi();
+        });
+        if (pendengar != null) {
+            sesi.pendengar.add(pendengar);
+        }
+
+        if (baru[0]) {
+            kirim(sesi, StatusPembayaran.MENUNGGU);
+            sesi.konfirmasi = penjadwal.schedule(() -> {
+                boolean ditolak = peluangGagal > 0 && ThreadLocalRandom.current().nextDouble() < peluangGagal;
+                selesaikan(permintaan.getReferensi(), ditolak ? StatusPembayaran.GAGAL : StatusPembayaran.BERHASIL);
+            }, latensiMilis, TimeUnit.MILLISECONDS);
+        } else if (pendengar != null) {
+            pendengar.accept(StatusPembayaran.MENUNGGU);
+        }
+        return sesi.hasil;
+    }
+
+    @Override
+    public void batalkan(String referensi) {
+        selesaikan(referensi, StatusPembayaran.DIBATALKAN);
+    }
+
+    /**
+     * Menghentikan thread penjadwal gateway.
+     */
+    public void tutup() {
+        penjadwal.shutdownNow();
+    }
+
+    private void selesaikan(String referensi, StatusPembayaran status) {
+        Sesi sesi = sesiAktif.remove(referensi);
+        if (sesi == null) {
+            return;
+        }
+        ScheduledFuture<?> konfirmasi = sesi.konfirmasi;
+        if (konfirmasi != null) {
+            konfirmasi.cancel(false);
+        }
+        kirim(sesi, status);
+        sesi.hasil.complete(status);
+    }
+
+    private static void kirim(Sesi sesi, StatusPembayaran status) {
+        for (Consumer<StatusPembayaran> pendengar : sesi.pendengar) {
+            try {
+                pendengar.accept(status);
+            } catch (RuntimeException e) {
+                System.err.println("Error pada pendengar pembayaran: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.vendingmachine.payment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Antarmuka ke penyedia pembayaran (misalnya gateway QRIS).
+ *
+ * Gateway bekerja secara asinkron: {@link #bayar(PermintaanPembayaran, Consumer)}
+ * langsung kembali, perubahan status dilaporkan ke pendengar, dan future
+ * diselesaikan dengan status akhir begitu gateway mengonfirmasi. Future yang
+ * selesai secara exceptional menandakan gangguan komunikasi sementara; pemanggil
+ * boleh mengulang permintaan dengan referensi yang sama.
+ *
+ * Implementasi harus aman dipanggil dari banyak thread. Pendengar dan future
+ * dapat dipanggil dari thread milik gateway, bukan thread UI.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public interface PaymentGateway {
+
+    /**
+     * Memulai (atau melanjutkan, untuk referensi yang sama) sebuah pembayaran.
+     *
+     * @param permintaan Data pembayaran
+     * @param pendengar Menerima setiap perubahan status, termasuk status akhir
+     * @return Future berisi status akhir pembayaran
+     */
+    CompletableFuture<StatusPembayaran> bayar(PermintaanPembayaran permintaan,
+                                              Consumer<StatusPembayaran> pendengar);
+
+    /**
+     * Membatalkan pembayaran yang belum selesai. Tidak berpengaruh jika
+     * pembayaran sudah selesai atau referensi tidak dikenal.
+     *
+     * @param referensi Referensi pembayaran
+     */
+    void batalkan(String referensi);
+}
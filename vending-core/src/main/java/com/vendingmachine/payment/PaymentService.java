@@ -0,0 +1,159 @@
+package com.vendingmachine.payment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Layanan pembayaran di atas {@link PaymentGateway} yang menambahkan
+ * kebijakan batas waktu dan pengulangan.
+ *
+ * - Gangguan komunikasi (future gateway selesai secara exceptional) diulang
+ *   sampai jumlah percobaan maksimum, dengan jeda yang bertambah setiap kali.
+ *   Permintaan diulang dengan referensi yang sama sehingga tidak menagih dua kali.
+ * - Jika tidak ada status akhir sampai batas waktu, pembayaran dibatalkan di
+ *   gateway dan hasilnya KEDALUWARSA.
+ *
+ * Konfigurasi bawaan dibaca dari properti sistem:
+ * - vending.payment.timeoutSeconds: batas waktu pembayaran (default 120)
+ * - vending.payment.maxAttempts: jumlah percobaan maksimum (default 3)
+ * - vending.payment.retryDelayMs: jeda dasar antar percobaan (default 500)
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class PaymentService {
+
+    private final PaymentGateway gateway;
+    private final long batasWaktuMilis;
+    private final int maksPercobaan;
+    private final long jedaUlangMilis;
+    private final ScheduledExecutorService penjadwal;
+
+    /**
+     * Membuat layanan pembayaran dengan kebijakan dari properti sistem.
+     *
+     * @param gateway Gateway pembayaran yang dipakai
+     */
+    public PaymentService(PaymentGateway gateway) {
+        this(gateway,
+             TimeUnit.SECONDS.toMillis(Long.getLong("vending.payment.timeoutSeconds", 120)),
+             Integer.getInteger("vending.payment.maxAttempts", 3),
+             Long.getLong("vending.payment.retryDelayMs", 500));
+    }
+
+    /**
+     * Membuat layanan pembayaran dengan kebijakan tertentu.
+     *
+     * @param gateway Gateway pembayaran yang dipakai
+     * @param batasWaktuMilis Batas waktu sampai pembayaran dianggap kedaluwarsa
+     * @param maksPercobaan Jumlah percobaan maksimum saat gateway terganggu
+     * @param jedaUlangMilis Jeda dasar sebelum percobaan ulang
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public PaymentService(PaymentGateway gateway, long batasWaktuMilis, int maksPercobaan, long jedaUlangMilis) {
+        if (gateway == null) {
+            throw new IllegalArgumentException("Gateway pembayaran tidak boleh null!");
+        }
+        if (batasWaktuMilis <= 0 || maksPercobaan < 1 || jedaUlangMilis < 0) {
+            throw new IllegalArgumentException("Kebijakan pembayaran tidak valid!");
+        }
+        this.gateway = gateway;
+        this.batasWaktuMilis = batasWaktuMilis;
+        this.maksPercobaan = maksPercobaan;
+        this.jedaUlangMilis = jedaUlangMilis;
+        this.penjadwal = Executors.newSingleThreadScheduledExecutor(tugas -> {
+            Thread thread = new Thread(tugas, "vending-payment-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Memulai pembayaran. Future selesai dengan status akhir begitu gateway
+     * mengonfirmasi, dibatalkan, gagal, atau batas waktu habis; future ini
+     * tidak pernah selesai secara exceptional.
+     *
+     * @param permintaan Data pembayaran
+     * @param pendengar Menerima status MENUNGGU lalu tepat satu status akhir;
+     *                  dipanggil dari thread gateway atau thread timer
+     * @return Future berisi status akhir pembayaran
+     */
+    public CompletableFuture<StatusPembayaran> bayar(PermintaanPembayaran permintaan,
+                                                     Consumer<StatusPembayaran> pendengar) {
+        CompletableFuture<StatusPembayaran> hasil = new CompletableFuture<>();
+
+        ScheduledFuture<?> batasWaktu = penjadwal.schedule(() -> {
+            if (hasil.complete(StatusPembayaran.KEDALUWARSA)) {
+                gateway.batalkan(permintaan.getReferensi());
+            }
+        }, batasWaktuMilis, TimeUnit.MILLISECONDS);
+
+        hasil.whenComplete((status, error) -> {
+            batasWaktu.cancel(false);
+            if (pendengar != null) {
+                pendengar.accept(status);
+            }
+        });
+
+        // Status akhir hanya dilaporkan sekali, lewat hasil
+        Consumer<StatusPembayaran> penerus = status -> {
+            if (pendengar != null && !status.isSelesai() && !hasil.isDone()) {
+                pendengar.accept(status);
+            }
+        };
+        coba(permintaan, penerus, 1, hasil);
+        return hasil;
+    }
+
+    /**
+     * Membatalkan pembayaran yang belum selesai.
+     *
+     * @param referensi Referensi pembayaran
+     */
+    public void batalkan(String referensi) {
+        gateway.batalkan(referensi);
+    }
+
+    /**
+     * Menghentikan thread timer layanan.
+     */
+    public void tutup() {
+        penjadwal.shutdownNow();
+    }
+
+    private void coba(PermintaanPembayaran permintaan, Consumer<StatusPembayaran> penerus,
+                      int percobaan, CompletableFuture<StatusPembayaran> hasil) {
+        if (hasil.isDone()) {
+            return;
+        }
+
+        CompletableFuture<StatusPembayaran> respons;
+        try {
+            respons = gateway.bayar(permintaan, penerus);
+        } catch (RuntimeException e) {
+            respons = CompletableFuture.failedFuture(e);
+        }
+
+        respons.whenComplete((status, error) -> {
+            if (error == null) {
+                hasil.complete(status);
+                return;
+            }
+            if (percobaan >= maksPercobaan) {
+                System.err.println("Pembayaran " + permintaan.getReferensi() + " gagal setelah "
+                        + percobaan + " percobaan: " + error.getMessage());
+                hasil.complete(StatusPembayaran.GAGAL);
+                return;
+            }
+            System.err.println("Gateway pembayaran terganggu, mencoba lagi (" + percobaan + "): "
+                    + error.getMessage());
+            penjadwal.schedule(() -> coba(permintaan, penerus, percobaan + 1, hasil),
+                    jedaUlangMilis * percobaan, TimeUnit.MILLISECONDS);
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.vendingmachine.payment;
+
+/**
+ * Data satu permintaan pembayaran yang dikirim ke {@link PaymentGateway}.
+ * Referensi dipakai gateway untuk mengenali pembayaran yang sama saat
+ * permintaan diulang, sehingga pengulangan tidak menagih dua kali.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public final class PermintaanPembayaran {
+
+    private final String referensi;
+    private final long jumlah;
+    private final String deskripsi;
+
+    /**
+     * Membuat permintaan pembayaran.
+     *
+     * @param referensi Referensi unik pembayaran (misalnya ID transaksi)
+     * @param jumlah Jumlah tagihan dalam Rupiah penuh
+     * @param deskripsi Keterangan yang ditampilkan ke pembeli
+     * @throws IllegalArgumentException jika referensi kosong atau jumlah tidak positif
+     */
+    public PermintaanPembayaran(String referensi, long jumlah, String deskripsi) {
+        if (referensi == null || referensi.isBlank()) {
+            throw new IllegalArgumentException("Referensi pembayaran tidak boleh kosong!");
+        }
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah pembayaran harus lebih dari 0!");
+        }
+        this.referensi = referensi;
+        this.jumlah = jumlah;
+        this.deskripsi = deskripsi;
+    }
+
+    public String getReferensi() {
+        return referensi;
+    }
+
+    /**
+     * @return Jumlah tagihan dalam Rupiah penuh
+     */
+    public long getJumlah() {
+        return jumlah;
+    }
+
+    public String getDeskripsi() {
+        return deskripsi;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PermintaanPembayaran{referensi='%s', jumlah=Rp %d}", referensi, jumlah);
+    }
+}
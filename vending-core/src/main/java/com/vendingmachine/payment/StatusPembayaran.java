@@ -0,0 +1,57 @@
+package com.vendingmachine.payment;
+
+/**
+ * Status pembayaran yang dilaporkan oleh {@link PaymentGateway}.
+ *
+ * Status yang tersedia:
+ * - MENUNGGU: QR sudah diterbitkan, pembayaran belum diterima
+ * - BERHASIL: Pembayaran dikonfirmasi gateway
+ * - GAGAL: Pembayaran ditolak gateway
+ * - DIBATALKAN: Pembayaran dibatalkan oleh pembeli atau sistem
+ * - KEDALUWARSA: Tidak ada konfirmasi sampai batas waktu habis
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public enum StatusPembayaran {
+    /** QR sudah diterbitkan, pembayaran belum diterima */
+    MENUNGGU("Menunggu Pembayaran"),
+
+    /** Pembayaran dikonfirmasi gateway */
+    BERHASIL("Berhasil"),
+
+    /** Pembayaran ditolak gateway */
+    GAGAL("Gagal"),
+
+    /** Pembayaran dibatalkan oleh pembeli atau sistem */
+    DIBATALKAN("Dibatalkan"),
+
+    /** Tidak ada konfirmasi sampai batas waktu habis */
+    KEDALUWARSA("Kedaluwarsa");
+
+    /** Nama tampilan yang user-friendly untuk status */
+    private final String displayName;
+
+    StatusPembayaran(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Mendapatkan nama tampilan status pembayaran.
+     *
+     * @return String nama tampilan status
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Mengecek apakah status ini merupakan hasil akhir pembayaran.
+     *
+     * @return true jika status tidak akan berubah lagi
+     */
+    public boolean isSelesai() {
+        return this != MENUNGGU;
+    }
+}
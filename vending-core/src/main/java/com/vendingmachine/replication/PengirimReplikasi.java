@@ -0,0 +1,360 @@
+package com.vendingmachine.replication;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.MesinPenjual;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sisi kiosk replikasi: mengalirkan penjualan dan stok satu
+ * {@link MesinPenjual} ke {@link PengumpulReplikasi} di back office.
+ *
+ * Satu thread menjalankan Selector dengan SocketChannel non-blocking.
+ * Setelah tersambung, pengumpul memberi tahu sekuens jurnal terakhir yang
+ * sudah ia simpan, lalu penjualan setelah sekuens itu dibaca dari riwayat
+ * mesin dan dikirim per batch (vending.replication.batch, default 256
+ * transaksi). Paling banyak vending.replication.window batch (default 4)
+ * boleh belum di-ACK sekaligus. Karena sumbernya riwayat permanen, koneksi
+ * yang putus atau aplikasi yang di-restart cukup tersambung ulang dan
+ * melanjutkan dari offset yang dilaporkan pengumpul, tanpa ada penjualan
+ * yang hilang atau terkirim dua kali.
+ *
+ * Penjualan baru diperiksa setiap vending.replication.intervalMs (default
+ * 100 ms) dan stok katalog setiap vending.replication.stockIntervalMs
+ * (default 1000 ms); stok hanya dikirim jika berubah. Koneksi yang gagal
+ * dicoba lagi setiap vending.replication.retryMs (default 1000 ms).
+ *
+ * Replikasi membutuhkan jurnal aktif: penjualan yang dicatat tanpa jurnal
+ * tidak memiliki sekuens dan tidak ikut dikirim.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class PengirimReplikasi implements AutoCloseable {
+
+    private static final int UKURAN_BATCH = Integer.getInteger("vending.replication.batch", 256);
+    private static final int JENDELA_BATCH = Integer.getInteger("vending.replication.window", 4);
+    private static final long INTERVAL_MS = Long.getLong("vending.replication.intervalMs", 100);
+    private static final long INTERVAL_STOK_MS = Long.getLong("vending.replication.stockIntervalMs", 1000);
+    private static final long JEDA_ULANG_MS = Long.getLong("vending.replication.retryMs", 1000);
+
+    private final MesinPenjual mesin;
+    private final int idMesin;
+    private final InetSocketAddress pengumpul;
+    private final Object jeda = new Object();
+
+    private volatile boolean berjalan;
+    private volatile boolean terhubung;
+    private volatile long sekuensTerkirim;
+    private volatile long sekuensDiakui;
+    private volatile Selector selector;
+    private Thread thread;
+
+    // Status sesi; hanya diakses thread replikasi
+    private final ArrayDeque<ByteBuffer> keluar = new ArrayDeque<>();
+    private final ArrayDeque<Long> belumDiakui = new ArrayDeque<>();
+    private ByteBuffer masuk;
+    private boolean siap;
+    private byte[] stokTerkirim;
+    private long waktuCekStok;
+
+    /**
+     * Membuat pengirim replikasi untuk satu mesin.
+     *
+     * @param mesin Mesin penjual sumber
+     * @param idMesin ID mesin yang dilaporkan ke pengumpul
+     * @param pengumpul Alamat node pengumpul
+     * @throws IllegalArgumentException jika mesin atau alamat null
+     */
+    public PengirimReplikasi(MesinPenjual mesin, int idMesin, InetSocketAddress pengumpul) {
+        if (mesin == null || pengumpul == null) {
+            throw new IllegalArgumentException("Mesin dan alamat pengumpul tidak boleh null!");
+        }
+        this.mesin = mesin;
+        this.idMesin = idMesin;
+        this.pengumpul = pengumpul;
+    }
+
+    /**
+     * Menjalankan thread replikasi. Penyambungan dilakukan di latar
+     * belakang, sehingga pengumpul yang belum aktif tidak menghambat kiosk.
+     *
+     * @throws IllegalStateException jika pengirim sudah pernah dijalankan
+     */
+    public synchronized void mulai() {
+        if (thread != null) {
+            throw new IllegalStateException("Pengirim replikasi sudah berjalan!");
+        }
+        berjalan = true;
+        thread = new Thread(this::jalankan, "vending-replikasi-" + idMesin);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Menghentikan replikasi dan menutup koneksi. Penjualan yang belum
+     * terkirim dikirim pada sesi berikutnya.
+     */
+    public synchronized void hentikan() {
+        berjalan = false;
+        Selector aktif = selector;
+        if (aktif != null) {
+            aktif.wakeup();
+        }
+        synchronized (jeda) {
+            jeda.notifyAll();
+        }
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sama dengan {@link #hentikan()}.
+     */
+    @Override
+    public void close() {
+        hentikan();
+    }
+
+    /**
+     * @return true jika sesi dengan pengumpul sedang aktif
+     */
+    public boolean isTerhubung() {
+        return terhubung;
+    }
+
+    /**
+     * @return Sekuens jurnal terakhir yang sudah dikirim ke pengumpul
+     */
+    public long getSekuensTerkirim() {
+        return sekuensTerkirim;
+    }
+
+    /**
+     * @return Sekuens jurnal terakhir yang sudah disimpan permanen oleh pengumpul
+     */
+    public long getSekuensDiakui() {
+        return sekuensDiakui;
+    }
+
+    private void jalankan() {
+        boolean galatDilaporkan = false;
+        while (berjalan) {
+            try {
+                sesi();
+                galatDilaporkan = false;
+            } catch (IOException e) {
+                // Pengumpul yang mati dicoba terus; cukup dilaporkan sekali sampai tersambung lagi
+                if (!galatDilaporkan) {
+                    System.err.println("Replikasi ke " + pengumpul + " terputus: " + e.getMessage());
+                    galatDilaporkan = true;
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error pada replikasi: " + e.getMessage());
+            }
+            terhubung = false;
+            if (berjalan) {
+                synchronized (jeda) {
+                    try {
+                        jeda.wait(JEDA_ULANG_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        berjalan = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Menjalankan satu sesi sampai koneksi putus atau pengirim dihentikan.
+     */
+    private void sesi() throws IOException {
+        keluar.clear();
+        belumDiakui.clear();
+        masuk = ByteBuffer.allocate(4096);
+        siap = false;
+        stokTerkirim = null;
+
+        try (Selector sel = Selector.open(); SocketChannel channel = SocketChannel.open()) {
+            selector = sel;
+            if (!berjalan) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key;
+            if (channel.connect(pengumpul)) {
+                key = channel.register(sel, SelectionKey.OP_READ);
+                sapa();
+            } else {
+                key = channel.register(sel, SelectionKey.OP_CONNECT);
+            }
+
+            while (berjalan) {
+                sel.select(INTERVAL_MS);
+                if (key.isValid() && key.isConnectable() && channel.finishConnect()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    sapa();
+                }
+                if (key.isValid() && key.isReadable()) {
+                    baca(channel);
+                }
+                if (siap) {
+                    isiBatch();
+                    periksaStok();
+                }
+                tulis(channel);
+                if (key.isValid() && channel.isConnected()) {
+                    key.interestOps(keluar.isEmpty() ? SelectionKey.OP_READ
+                            : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+                sel.selectedKeys().clear();
+            }
+        } finally {
+            selector = null;
+        }
+    }
+
+    private void sapa() throws IOException {
+        terhubung = true;
+        keluar.add(ProtokolReplikasi.bingkai(ProtokolReplikasi.HALO, out -> {
+            out.writeInt(ProtokolReplikasi.VERSI);
+            out.writeInt(idMesin);
+        }));
+    }
+
+    private void baca(SocketChannel channel) throws IOException {
+        masuk = ProtokolReplikasi.siapkanRuang(masuk);
+        if (channel.read(masuk) < 0) {
+            throw new IOException("Koneksi ditutup oleh pengumpul");
+        }
+        masuk.flip();
+        try {
+            ProtokolReplikasi.Bingkai bingkai;
+            while ((bingkai = ProtokolReplikasi.ambil(masuk)) != null) {
+                terima(bingkai);
+            }
+        } finally {
+            masuk.compact();
+        }
+    }
+
+    private void terima(ProtokolReplikasi.Bingkai bingkai) throws IOException {
+        switch (bingkai.tipe) {
+            case ProtokolReplikasi.LANJUT:
+                // Lanjutkan dari yang sudah tersimpan di pengumpul, bukan dari yang terakhir dikirim
+                long offset = bingkai.isi.readLong();
+                sekuensTerkirim = offset;
+                sekuensDiakui = offset;
+                siap = true;
+                waktuCekStok = 0;
+                break;
+            case ProtokolReplikasi.ACK:
+                long diakui = bingkai.isi.readLong();
+                sekuensDiakui = Math.max(sekuensDiakui, diakui);
+                while (!belumDiakui.isEmpty() && belumDiakui.peekFirst() <= diakui) {
+                    belumDiakui.pollFirst();
+                }
+                break;
+            default:
+                throw new IOException("Tipe bingkai replikasi tidak dikenal: " + bingkai.tipe);
+        }
+    }
+
+    /**
+     * Mengantrekan batch penjualan berikutnya selama jendela ACK belum penuh.
+     * Batch baru hanya disusun setelah antrean keluar terkirim, sehingga
+     * koneksi yang lambat tidak menumpuk data di memori.
+     */
+    private void isiBatch() throws IOException {
+        while (keluar.isEmpty() && belumDiakui.size() < JENDELA_BATCH) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(UKURAN_BATCH * 64);
+            DataOutputStream out = new DataOutputStream(buffer);
+            long[] terakhir = {sekuensTerkirim};
+            IOException[] galat = new IOException[1];
+            int jumlah = mesin.bacaPenjualanSetelah(sekuensTerkirim, UKURAN_BATCH, (transaksi, sekuens) -> {
+                try {
+                    ProtokolReplikasi.tulisTransaksi(out, transaksi, sekuens);
+                    terakhir[0] = sekuens;
+                } catch (IOException e) {
+                    galat[0] = e;
+                }
+            });
+            if (galat[0] != null) {
+                throw galat[0];
+            }
+            if (jumlah == 0) {
+                return;
+            }
+            out.flush();
+            byte[] isi = buffer.toByteArray();
+            keluar.add(ProtokolReplikasi.bingkai(ProtokolReplikasi.PENJUALAN, o -> {
+                o.writeInt(jumlah);
+                o.write(isi);
+            }));
+            sekuensTerkirim = terakhir[0];
+            belumDiakui.add(terakhir[0]);
+        }
+    }
+
+    /**
+     * Mengirim stok seluruh katalog jika berubah sejak terakhir dikirim.
+     */
+    private void periksaStok() throws IOException {
+        long sekarang = System.currentTimeMillis();
+        if (sekarang - waktuCekStok < INTERVAL_STOK_MS) {
+            return;
+        }
+        waktuCekStok = sekarang;
+
+        List<Barang> daftar = mesin.getDaftarBarang();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(daftar.size() * 48 + 4);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(daftar.size());
+        for (Barang barang : daftar) {
+            ProtokolReplikasi.tulisBarang(out, barang);
+        }
+        out.flush();
+        byte[] isi = buffer.toByteArray();
+        if (Arrays.equals(isi, stokTerkirim)) {
+            return;
+        }
+        keluar.add(ProtokolReplikasi.bingkai(ProtokolReplikasi.STOK, o -> {
+            o.writeLong(sekarang);
+            o.write(isi);
+        }));
+        stokTerkirim = isi;
+    }
+
+    private void tulis(SocketChannel channel) throws IOException {
+        if (!channel.isConnected()) {
+            return;
+        }
+        while (!keluar.isEmpty()) {
+            ByteBuffer buffer = keluar.peekFirst();
+            channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                break;
+            }
+            keluar.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package com.vendingmachine.replication;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.DataPersistence;
+import com.vendingmachine.model.TransactionStore;
+import com.vendingmachine.model.Transaksi;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Node pengumpul replikasi di back office: menerima penjualan dan stok
+ * dari banyak kiosk ({@link PengirimReplikasi}) lewat satu thread Selector
+ * dengan channel non-blocking.
+ *
+ * Data setiap kiosk disimpan di {@code <direktoriInduk>/mesin-<id>},
+ * susunan yang sama dengan {@link com.vendingmachine.fleet.FleetHost}:
+ * - riwayat penjualan di {@link TransactionStore}; sekuens jurnal terbesar
+ *   di sana adalah offset yang dilaporkan saat kiosk tersambung ulang,
+ *   sehingga offset tetap benar setelah pengumpul di-restart
+ * - stok terakhir sebagai snapshot {@link DataPersistence}
+ *
+ * Setiap batch penjualan di-fsync sekali lalu di-ACK. Transaksi dengan
+ * sekuens yang sudah tersimpan diabaikan, sehingga batch yang dikirim ulang
+ * setelah koneksi putus tidak tercatat dua kali.
+ *
+ * Thread Selector hanya membaca dan menulis socket. Penulisan ke disk
+ * (append dan fsync riwayat, snapshot stok) dijalankan satu thread worker
+ * per mesin sesuai urutan bingkai diterima, sehingga fsync satu kiosk tidak
+ * menahan kiosk lain; balasannya dikembalikan ke thread Selector untuk
+ * dikirim. Laporan stok yang menumpuk selama worker sibuk disimpan sekali,
+ * hanya yang terbaru.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+public class PengumpulReplikasi implements AutoCloseable {
+
+    private static final String AWALAN_DIREKTORI = "mesin-";
+    private static final long UKURAN_SEGMEN = Long.getLong("vending.history.segmentBytes", 8L * 1024 * 1024);
+
+    /**
+     * Data replika satu mesin kiosk.
+     */
+    private static final class Replika {
+        private final Path direktori;
+        private final TransactionStore riwayat;
+        private final ExecutorService worker;
+        /** Stok terbaru yang belum disimpan ke snapshot; null jika sudah tersimpan */
+        private final AtomicReference<List<Barang>> stokTertunda = new AtomicReference<>();
+        private volatile List<Barang> stok;
+        private Koneksi koneksi;
+
+        Replika(int idMesin, Path direktori) throws IOException {
+            this.direktori = direktori;
+            this.riwayat = new TransactionStore(DataPersistence.getHistoryDirectory(direktori), UKURAN_SEGMEN);
+            this.stok = Collections.unmodifiableList(DataPersistence.loadSnapshot(direktori).getDaftarBarang());
+            String nama = "vending-pengumpul-" + idMesin;
+            this.worker = Executors.newSingleThreadExecutor(tugas -> {
+                Thread thread = new Thread(tugas, nama);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Pekerjaan worker replika yang dapat gagal karena I/O.
+     */
+    @FunctionalInterface
+    private interface TugasDisk {
+        void jalankan() throws IOException;
+    }
+
+    /**
+     * Status satu koneksi kiosk.
+     */
+    private static final class Koneksi {
+        private final SocketChannel channel;
+        private final ArrayDeque<ByteBuffer> keluar = new ArrayDeque<>();
+        private ByteBuffer masuk = ByteBuffer.allocate(64 * 1024);
+        private Replika replika;
+
+        Koneksi(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final Path direktoriInduk;
+    private final Map<Integer, Replika> replika = new ConcurrentHashMap<>();
+
+    /** Pekerjaan dari worker replika yang harus dijalankan di thread Selector */
+    private final ConcurrentLinkedQueue<Runnable> tugasSelector = new ConcurrentLinkedQueue<>();
+
+    private ServerSocketChannel server;
+    private Selector selector;
+    private Thread thread;
+    private volatile boolean berjalan;
+
+    /**
+     * Membuat pengumpul yang menyimpan data replika di direktori tertentu.
+     *
+     * @param direktoriInduk Direktori tempat direktori setiap mesin dibuat
+     * @throws IllegalArgumentException jika direktori null
+     */
+    public PengumpulReplikasi(Path direktoriInduk) {
+        if (direktoriInduk == null) {
+            throw new IllegalArgumentException("Direktori induk tidak boleh null!");
+        }
+        this.direktoriInduk = direktoriInduk;
+    }
+
+    /**
+     * Mulai mendengarkan koneksi kiosk.
+     *
+     * @param alamat Alamat dan port yang didengarkan; port 0 memilih port bebas
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika pengumpul sudah berjalan
+     */
+    public synchronized void mulai(InetSocketAddress alamat) throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("Pengumpul replikasi sudah berjalan!");
+        }
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try {
+            server.bind(alamat);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+        berjalan = true;
+        thread = new Thread(this::jalankan, "vending-pengumpul");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return Port yang didengarkan, atau -1 jika belum berjalan
+     */
+    public synchronized int getPort() {
+        return server != null ? server.socket().getLocalPort() : -1;
+    }
+
+    /**
+     * Menghentikan pengumpul, memutus semua kiosk, dan menutup riwayat replika.
+     */
+    public synchronized void hentikan() {
+        if (thread == null) {
+            return;
+        }
+        berjalan = false;
+        selector.wakeup();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Replika r : replika.values()) {
+            // Batch yang sudah diterima tetap disimpan meskipun tidak lagi di-ACK
+            r.worker.shutdown();
+            try {
+                if (!r.worker.awaitTermination(5, TimeUnit.SECONDS)) {
+                    System.err.println("Penyimpanan replika belum selesai saat pengumpul dihentikan");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                r.riwayat.close();
+            } catch (IOException e) {
+                System.err.println("Error saat menutup riwayat replika: " + e.getMessage());
+            }
+        }
+        replika.clear();
+    }
+
+    /**
+     * Sama dengan {@link #hentikan()}.
+     */
+    @Override
+    public void close() {
+        hentikan();
+    }
+
+    /**
+     * Mendapatkan ID mesin yang pernah mengirim data sejak pengumpul berjalan, terurut naik.
+     *
+     * @return List ID mesin
+     */
+    public List<Integer> getIdMesin() {
+        List<Integer> ids = new ArrayList<>(replika.keySet());
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Mendapatkan sekuens jurnal terakhir yang sudah tersimpan untuk satu mesin.
+     *
+     * @param idMesin ID mesin
+     * @return Sekuens terakhir, atau 0 jika mesin belum pernah tersambung
+     */
+    public long getSekuensTersimpan(int idMesin) {
+        Replika r = replika.get(idMesin);
+        return r != null ? r.riwayat.getSekuensTerakhir() : 0;
+    }
+
+    /**
+     * Mendapatkan stok terakhir yang dilaporkan satu mesin.
+     *
+     * @param idMesin ID mesin
+     * @return Daftar barang beserta stoknya, kosong jika belum ada laporan
+     */
+    public List<Barang> getStok(int idMesin) {
+        Replika r = replika.get(idMesin);
+        return r != null ? r.stok : Collections.emptyList();
+    }
+
+    /**
+     * Menelusuri riwayat penjualan satu mesin yang sudah direplikasi.
+     *
+     * @param idMesin ID mesin
+     * @param konsumen Penerima setiap transaksi
+     * @throws IOException jika riwayat tidak dapat dibaca
+     */
+    public void forEachTransaksi(int idMesin, Consumer<Transaksi> konsumen) throws IOException {
+        Replika r = replika.get(idMesin);
+        if (r != null) {
+            r.riwayat.forEach(konsumen);
+        }
+    }
+
+    private void jalankan() {
+        try {
+            while (berjalan) {
+                selector.select();
+                Runnable tugas;
+                while ((tugas = tugasSelector.poll()) != null) {
+                    tugas.run();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        // Koneksi lama yang baru saja digantikan koneksi baru
+                        continue;
+                    }
+                    Koneksi koneksi = (Koneksi) key.attachment();
+                    try {
+                        if (key.isAcceptable()) {
+                            terimaKoneksi();
+                            continue;
+                        }
+                        if (key.isReadable()) {
+                            baca(koneksi);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            tulis(koneksi);
+                        }
+                        if (key.isValid()) {
+                            key.interestOps(koneksi.keluar.isEmpty() ? SelectionKey.OP_READ
+                                    : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        }
+                    } catch (IOException e) {
+                        System.err.println("Koneksi replikasi ditutup: " + e.getMessage());
+                        putuskan(koneksi);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            System.err.println("Error pada pengumpul replikasi: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Koneksi) {
+                    putuskan((Koneksi) key.attachment());
+                }
+            }
+            try {
+                server.close();
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("Error saat menutup pengumpul replikasi: " + e.getMessage());
+            }
+        }
+    }
+
+    private void terimaKoneksi() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Koneksi(channel));
+        }
+    }
+
+    private void baca(Koneksi koneksi) throws IOException {
+        koneksi.masuk = ProtokolReplikasi.siapkanRuang(koneksi.masuk);
+        if (koneksi.channel.read(koneksi.masuk) < 0) {
+            throw new IOException("kiosk memutus koneksi");
+        }
+        koneksi.masuk.flip();
+        try {
+            ProtokolReplikasi.Bingkai bingkai;
+            while ((bingkai = ProtokolReplikasi.ambil(koneksi.masuk)) != null) {
+                terima(koneksi, bingkai);
+            }
+        } finally {
+            koneksi.masuk.compact();
+        }
+        // Balasan ditulis langsung; sisanya menunggu OP_WRITE
+        tulis(koneksi);
+    }
+
+    private void terima(Koneksi koneksi, ProtokolReplikasi.Bingkai bingkai) throws IOException {
+        if (bingkai.tipe == ProtokolReplikasi.HALO) {
+            sapa(koneksi, bingkai);
+            return;
+        }
+        Replika r = koneksi.replika;
+        if (r == null) {
+            throw new IOException("bingkai " + bingkai.tipe + " diterima sebelum HALO");
+        }
+        switch (bingkai.tipe) {
+            case ProtokolReplikasi.PENJUALAN:
+                simpanPenjualan(koneksi, r, bingkai);
+                break;
+            case ProtokolReplikasi.STOK:
+                simpanStok(koneksi, r, bingkai);
+                break;
+            default:
+                throw new IOException("tipe bingkai tidak dikenal: " + bingkai.tipe);
+        }
+    }
+
+    private void sapa(Koneksi koneksi, ProtokolReplikasi.Bingkai bingkai) throws IOException {
+        int versi = bingkai.isi.readInt();
+        int idMesin = bingkai.isi.readInt();
+        if (versi != ProtokolReplikasi.VERSI) {
+            throw new IOException("versi protokol " + versi + " dari mesin " + idMesin + " tidak didukung");
+        }
+        if (koneksi.replika != null) {
+            throw new IOException("HALO dikirim dua kali oleh mesin " + idMesin);
+        }
+        Replika r = replika.get(idMesin);
+        if (r == null) {
+            r = new Replika(idMesin, direktoriInduk.resolve(AWALAN_DIREKTORI + idMesin));
+            replika.put(idMesin, r);
+        }
+        if (r.koneksi != null) {
+            // Koneksi lama yang belum terdeteksi putus digantikan koneksi baru
+            putuskan(r.koneksi);
+        }
+        r.koneksi = koneksi;
+        koneksi.replika = r;
+
+        // Offset dibaca worker setelah batch koneksi lama yang masih antre tersimpan
+        Replika replikaMesin = r;
+        kerjakan(koneksi, replikaMesin, () -> {
+            long offset = replikaMesin.riwayat.getSekuensTerakhir();
+            balas(koneksi, ProtokolReplikasi.bingkai(ProtokolReplikasi.LANJUT, out -> out.writeLong(offset)));
+            System.out.println("Mesin " + idMesin + " tersambung untuk replikasi, melanjutkan setelah sekuens "
+                    + offset);
+        });
+    }
+
+    private void simpanPenjualan(Koneksi koneksi, Replika r, ProtokolReplikasi.Bingkai bingkai) {
+        // Payload bingkai adalah salinan, sehingga aman didekode di worker
+        kerjakan(koneksi, r, () -> {
+            int jumlah = bingkai.isi.readInt();
+            for (int i = 0; i < jumlah; i++) {
+                long sekuens = bingkai.isi.readLong();
+                Transaksi transaksi = ProtokolReplikasi.bacaTransaksi(bingkai.isi);
+                // Batch yang dikirim ulang setelah koneksi putus dilewati
+                if (sekuens > r.riwayat.getSekuensTerakhir()) {
+                    r.riwayat.append(transaksi, sekuens);
+                }
+            }
+            r.riwayat.force();
+            long diakui = r.riwayat.getSekuensTerakhir();
+            balas(koneksi, ProtokolReplikasi.bingkai(ProtokolReplikasi.ACK, out -> out.writeLong(diakui)));
+        });
+    }
+
+    private void simpanStok(Koneksi koneksi, Replika r, ProtokolReplikasi.Bingkai bingkai) throws IOException {
+        bingkai.isi.readLong(); // waktu pengambilan stok di kiosk
+        int jumlah = bingkai.isi.readInt();
+        List<Barang> daftar = new ArrayList<>(Math.min(jumlah, 4096));
+        for (int i = 0; i < jumlah; i++) {
+            daftar.add(ProtokolReplikasi.bacaBarang(bingkai.isi));
+        }
+        r.stok = Collections.unmodifiableList(daftar);
+        // Snapshot hanya dijadwalkan jika belum ada yang menunggu; yang menunggu akan menyimpan stok terbaru
+        if (r.stokTertunda.getAndSet(r.stok) == null) {
+            kerjakan(koneksi, r, () -> {
+                List<Barang> terbaru = r.stokTertunda.getAndSet(null);
+                DataPersistence.saveData(r.direktori, terbaru, r.riwayat.getSekuensTerakhir(), null);
+            });
+        }
+    }
+
+    /**
+     * Menjalankan pekerjaan disk di worker replika. Jika gagal, koneksi kiosk
+     * diputus agar kiosk tersambung ulang dan mengirim ulang dari offset yang tersimpan.
+     */
+    private void kerjakan(Koneksi koneksi, Replika r, TugasDisk tugas) {
+        try {
+            r.worker.execute(() -> {
+                try {
+                    tugas.jalankan();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Error saat menyimpan replika: " + e.getMessage());
+                    keSelector(() -> putuskan(koneksi));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pengumpul sedang dihentikan
+            putuskan(koneksi);
+        }
+    }
+
+    /**
+     * Mengirim balasan dari worker lewat thread Selector.
+     */
+    private void balas(Koneksi koneksi, ByteBuffer bingkai) {
+        keSelector(() -> {
+            if (!koneksi.channel.isOpen()) {
+                return;
+            }
+            koneksi.keluar.add(bingkai);
+            SelectionKey key = koneksi.channel.keyFor(selector);
+            if (key != null && key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        });
+    }
+
+    private void keSelector(Runnable tugas) {
+        tugasSelector.add(tugas);
+        selector.wakeup();
+    }
+
+    private static void tulis(Koneksi koneksi) throws IOException {
+        while (!koneksi.keluar.isEmpty()) {
+            ByteBuffer buffer = koneksi.keluar.peekFirst();
+            koneksi.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return;
+            }
+            koneksi.keluar.pollFirst();
+        }
+    }
+
+    private void putuskan(Koneksi koneksi) {
+        if (koneksi == null) {
+            return;
+        }
+        if (koneksi.replika != null && koneksi.replika.koneksi == koneksi) {
+            koneksi.replika.koneksi = null;
+        }
+        try {
+            koneksi.channel.close();
+        } catch (IOException e) {
+            System.err.println("Error saat menutup koneksi replikasi: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.vendingmachine.replication;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.Transaksi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Format bingkai protokol replikasi antara mesin kiosk dan node pengumpul.
+ *
+ * Setiap bingkai: int panjang (tidak termasuk 4 byte panjang itu sendiri),
+ * byte tipe, lalu payload yang ditulis dengan DataOutputStream.
+ *
+ * Alur satu sesi:
+ * - kiosk mengirim HALO (versi protokol, ID mesin)
+ * - pengumpul membalas LANJUT berisi sekuens jurnal terakhir yang sudah
+ *   ia simpan untuk mesin tersebut
+ * - kiosk mengirim PENJUALAN berisi satu batch transaksi setelah sekuens
+ *   itu, dan STOK setiap kali stok atau katalog berubah
+ * - pengumpul membalas ACK setelah satu batch tersimpan permanen
+ *
+ * Waktu transaksi dikirim sebagai milidetik epoch dengan offset UTC,
+ * sama seperti di file riwayat.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+final class ProtokolReplikasi {
+
+    static final int VERSI = 1;
+
+    static final byte HALO = 1;
+    static final byte LANJUT = 2;
+    static final byte PENJUALAN = 3;
+    static final byte STOK = 4;
+    static final byte ACK = 5;
+
+    /** Panjang bingkai maksimum; bingkai yang lebih besar dianggap rusak */
+    static final int BINGKAI_MAKSIMUM = 16 * 1024 * 1024;
+
+    private ProtokolReplikasi() {
+    }
+
+    /**
+     * Penulis payload satu bingkai.
+     */
+    interface IsiBingkai {
+        void tulis(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Satu bingkai yang sudah diterima utuh.
+     */
+    static final class Bingkai {
+        final byte tipe;
+        final DataInputStream isi;
+
+        Bingkai(byte tipe, DataInputStream isi) {
+            this.tipe = tipe;
+            this.isi = isi;
+        }
+    }
+
+    /**
+     * Menyusun bingkai siap kirim.
+     *
+     * @param tipe Tipe bingkai
+     * @param isi Penulis payload
+     * @return Buffer berisi bingkai lengkap, siap dibaca
+     */
+    static ByteBuffer bingkai(byte tipe, IsiBingkai isi) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(0);
+        out.writeByte(tipe);
+        isi.tulis(out);
+        out.flush();
+        ByteBuffer hasil = ByteBuffer.wrap(buffer.toByteArray());
+        hasil.putInt(0, hasil.remaining() - 4);
+        return hasil;
+    }
+
+    /**
+     * Mengambil satu bingkai utuh dari buffer masuk yang sedang dalam mode baca.
+     * Jika bingkai belum lengkap, posisi buffer tidak berubah.
+     *
+     * @param masuk Buffer berisi byte yang sudah diterima
+     * @return Bingkai, atau null jika belum lengkap
+     * @throws IOException jika panjang bingkai tidak valid
+     */
+    static Bingkai ambil(ByteBuffer masuk) throws IOException {
+        if (masuk.remaining() < 4) {
+            return null;
+        }
+        int panjang = masuk.getInt(masuk.position());
+        if (panjang < 1 || panjang > BINGKAI_MAKSIMUM) {
+            throw new IOException("Panjang bingkai replikasi tidak valid: " + panjang);
+        }
+        if (masuk.remaining() < 4 + panjang) {
+            return null;
+        }
+        masuk.position(masuk.position() + 4);
+        byte tipe = masuk.get();
+        byte[] payload = new byte[panjang - 1];
+        masuk.get(payload);
+        return new Bingkai(tipe, new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    /**
+     * Memastikan buffer masuk (mode tulis) cukup untuk bingkai berikutnya,
+     * memperbesarnya jika bingkai lebih panjang dari kapasitasnya.
+     *
+     * @param masuk Buffer masuk dalam mode tulis
+     * @return Buffer yang sama, atau buffer baru yang lebih besar berisi data yang sama
+     */
+    static ByteBuffer siapkanRuang(ByteBuffer masuk) {
+        if (masuk.hasRemaining()) {
+            return masuk;
+        }
+        int panjang = masuk.position() >= 4 ? masuk.getInt(0) : 0;
+        int perlu = Math.max(masuk.capacity() * 2, Math.min(4 + panjang, BINGKAI_MAKSIMUM + 4));
+        ByteBuffer baru = ByteBuffer.allocate(perlu);
+        masuk.flip();
+        baru.put(masuk);
+        return baru;
+    }
+
+    /**
+     * Menulis satu transaksi beserta sekuens jurnalnya. Nama dan harga
+     * barang ikut dikirim agar pengumpul dapat menyimpan riwayat lengkap
+     * tanpa katalog mesin.
+     */
+    static void tulisTransaksi(DataOutputStream out, Transaksi transaksi, long sekuens) throws IOException {
+        out.writeLong(sekuens);
+        out.writeUTF(transaksi.getIdTransaksi());
+        out.writeLong(transaksi.getWaktuTransaksi().toInstant(ZoneOffset.UTC).toEpochMilli());
+        out.writeByte(transaksi.getStatus().ordinal());
+        List<Transaksi.Item> items = transaksi.getItems();
+        out.writeInt(items.size());
+        for (Transaksi.Item item : items) {
+            Barang barang = item.getBarang();
+            out.writeUTF(barang.getIdBarang());
+            out.writeUTF(teks(barang.getNamaBarang()));
+            out.writeLong(barang.getHargaBarang());
+            out.writeUTF(teks(barang.getPathGambar()));
+            out.writeInt(item.getKuantitas());
+        }
+    }
+
+    /**
+     * Membaca satu transaksi setelah sekuens jurnalnya dibaca pemanggil.
+     */
+    static Transaksi bacaTransaksi(DataInputStream in) throws IOException {
+        String idTransaksi = in.readUTF();
+        LocalDateTime waktu = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC);
+        int status = in.readByte();
+        Transaksi.StatusTransaksi[] semuaStatus = Transaksi.StatusTransaksi.values();
+        if (status < 0 || status >= semuaStatus.length) {
+            throw new IOException("Status transaksi " + idTransaksi + " tidak dikenal: " + status);
+        }
+        int jumlahItem = in.readInt();
+        if (jumlahItem <= 0) {
+            throw new IOException("Transaksi " + idTransaksi + " tidak berisi item");
+        }
+        List<Transaksi.Item> items = new ArrayList<>(Math.min(jumlahItem, 1024));
+        for (int i = 0; i < jumlahItem; i++) {
+            Barang barang = new Barang(in.readUTF(), in.readUTF(), in.readLong(), 0, in.readUTF());
+            items.add(new Transaksi.Item(barang, in.readInt()));
+        }
+        return new Transaksi(idTransaksi, items, semuaStatus[status], waktu);
+    }
+
+    /**
+     * Menulis satu barang beserta stoknya.
+     */
+    static void tulisBarang(DataOutputStream out, Barang barang) throws IOException {
+        out.writeUTF(barang.getIdBarang());
+        out.writeUTF(teks(barang.getNamaBarang()));
+        out.writeLong(barang.getHargaBarang());
+        out.writeInt(barang.getStokSekarang());
+        out.writeUTF(teks(barang.getPathGambar()));
+    }
+
+    /**
+     * Membaca satu barang beserta stoknya.
+     */
+    static Barang bacaBarang(DataInputStream in) throws IOException {
+        return new Barang(in.readUTF(), in.readUTF(), in.readLong(), in.readInt(), in.readUTF());
+    }
+
+    private static String teks(String nilai) {
+        return nilai == null ? "" : nilai;
+    }
+}
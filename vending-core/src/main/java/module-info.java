@@ -0,0 +1,12 @@
+module com.vendingmachine.core {
+    requires java.base;
+    requires jdk.httpserver;
+
+    exports com.vendingmachine.api;
+    exports com.vendingmachine.engine;
+    exports com.vendingmachine.fleet;
+    exports com.vendingmachine.metrics;
+    exports com.vendingmachine.model;
+    exports com.vendingmachine.payment;
+    exports com.vendingmachine.replication;
+}
@@ -0,0 +1,86 @@
+package com.vendingmachine.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.SumberDayaBersama;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pengujian kode HTTP yang dijawab {@link ApiServer}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class ApiServerTest {
+
+    @TempDir
+    Path direktori;
+
+    private SumberDayaBersama bersama;
+    private MesinPenjual mesin;
+    private ApiServer api;
+
+    @BeforeEach
+    void mulai() throws IOException {
+        bersama = new SumberDayaBersama(1);
+        mesin = new MesinPenjual(direktori, 1, bersama);
+        mesin.tambahBarang(new Barang("P001", "Kopi Hitam", 10000, 1, "/images/kopi.png"));
+        api = new ApiServer(mesin);
+        api.mulai(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void hentikan() {
+        api.hentikan();
+        mesin.tutup();
+        bersama.close();
+    }
+
+    private int post(String path, String badan) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + api.getPort() + path);
+        HttpURLConnection koneksi = (HttpURLConnection) url.openConnection();
+        try {
+            koneksi.setRequestMethod("POST");
+            koneksi.setDoOutput(true);
+            try (OutputStream out = koneksi.getOutputStream()) {
+                out.write(badan.getBytes(StandardCharsets.UTF_8));
+            }
+            return koneksi.getResponseCode();
+        } finally {
+            koneksi.disconnect();
+        }
+    }
+
+    @Test
+    void stokHabisDijawab409() throws IOException {
+        assertEquals(201, post("/api/beli", "{\"id\": \"P001\"}"));
+        assertEquals(409, post("/api/beli", "{\"id\": \"P001\"}"));
+    }
+
+    @Test
+    void mesinDitutupDijawab503() throws IOException {
+        mesin.tutup();
+        assertEquals(503, post("/api/beli", "{\"id\": \"P001\"}"));
+    }
+
+    @Test
+    void badanTidakValidDijawab400() throws IOException {
+        assertEquals(400, post("/api/beli", "bukan json"));
+    }
+}
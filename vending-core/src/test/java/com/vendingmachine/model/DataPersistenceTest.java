@@ -0,0 +1,63 @@
+package com.vendingmachine.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pengujian penyimpanan snapshot dan cadangan {@link DataPersistence}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class DataPersistenceTest {
+
+    @TempDir
+    Path direktori;
+
+    private static List<Barang> katalog(int stok) {
+        return List.of(new Barang("P001", "Kopi Hitam", 10000, stok, "/images/kopi.png"));
+    }
+
+    private void rusakkanFileUtama() throws IOException {
+        Path file = direktori.resolve("vending_data.dat");
+        byte[] isi = Files.readAllBytes(file);
+        isi[isi.length - 1] ^= 0x7F;
+        Files.write(file, isi);
+    }
+
+    @Test
+    void generasiSebelumnyaMenjadiCadangan() throws IOException {
+        assertTrue(DataPersistence.saveData(direktori, katalog(5), 1, null));
+        assertTrue(DataPersistence.saveData(direktori, katalog(4), 2, null));
+
+        rusakkanFileUtama();
+        DataPersistence.Snapshot snapshot = DataPersistence.loadSnapshot(direktori);
+        assertEquals(5, snapshot.getDaftarBarang().get(0).getStokSekarang());
+        assertEquals(1, snapshot.getSekuensJurnal());
+    }
+
+    @Test
+    void fileUtamaRusakTidakMenimpaCadangan() throws IOException {
+        assertTrue(DataPersistence.saveData(direktori, katalog(5), 1, null));
+        assertTrue(DataPersistence.saveData(direktori, katalog(4), 2, null));
+        rusakkanFileUtama();
+
+        // Simpan berikutnya mempertahankan cadangan yang masih baik
+        assertTrue(DataPersistence.saveData(direktori, katalog(3), 3, null));
+        assertTrue(Files.exists(direktori.resolve("vending_data.dat")));
+        rusakkanFileUtama();
+
+        DataPersistence.Snapshot snapshot = DataPersistence.loadSnapshot(direktori);
+        assertEquals(5, snapshot.getDaftarBarang().get(0).getStokSekarang());
+        assertEquals(1, snapshot.getSekuensJurnal());
+    }
+}
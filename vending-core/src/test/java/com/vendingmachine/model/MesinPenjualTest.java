@@ -0,0 +1,237 @@
+package com.vendingmachine.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pengujian reservasi stok dan statistik {@link MesinPenjual}.
+ * Surefire menjalankan pengujian dengan vending.reservation.ttlSeconds=1.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class MesinPenjualTest {
+
+    @TempDir
+    Path direktori;
+
+    private SumberDayaBersama bersama;
+    private MesinPenjual mesin;
+
+    @BeforeEach
+    void buka() {
+        bersama = new SumberDayaBersama(1);
+        mesin = bukaMesin();
+        mesin.tambahBarang(new Barang("P001", "Kopi Hitam", 10000, 5, "/images/kopi.png"));
+    }
+
+    @AfterEach
+    void tutup() {
+        mesin.tutup();
+        bersama.close();
+    }
+
+    private MesinPenjual bukaMesin() {
+        return new MesinPenjual(direktori, 1, bersama);
+    }
+
+    private Barang kopi() {
+        return mesin.cariBarang("P001");
+    }
+
+    @Test
+    void reservasiDihitungSebagaiPending() {
+        mesin.reservasi(kopi());
+
+        StatistikPenjualan statistik = mesin.getStatistik();
+        assertEquals(1, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(0, statistik.getJumlahBerhasil());
+        assertEquals(0, statistik.getTotalPendapatan());
+        assertEquals(4, kopi().getStokSekarang());
+    }
+
+    @Test
+    void konfirmasiMemindahkanPendingKeBerhasil() {
+        Transaksi transaksi = mesin.reservasi(kopi());
+        mesin.konfirmasiReservasi(transaksi.getIdTransaksi());
+
+        StatistikPenjualan statistik = mesin.getStatistik();
+        assertEquals(0, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(1, statistik.getJumlahBerhasil());
+        assertEquals(1, statistik.getJumlahTransaksi());
+        assertEquals(10000, statistik.getTotalPendapatan());
+        assertEquals(4, kopi().getStokSekarang());
+    }
+
+    @Test
+    void pembatalanMemindahkanPendingKeBatal() {
+        Transaksi transaksi = mesin.reservasi(kopi());
+        assertTrue(mesin.batalkanReservasi(transaksi.getIdTransaksi()));
+
+        StatistikPenjualan statistik = mesin.getStatistik();
+        assertEquals(0, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(1, statistik.getJumlahBatal());
+        // Reservasi yang dilepas tidak ada di riwayat dan tidak menambah total transaksi
+        assertEquals(0, statistik.getJumlahTransaksi());
+        assertEquals(0, statistik.getTotalPendapatan());
+        assertEquals(5, kopi().getStokSekarang());
+    }
+
+    @Test
+    void reservasiKedaluwarsaMemindahkanPendingKeBatal() throws InterruptedException {
+        Transaksi transaksi = mesin.reservasi(kopi());
+
+        long batas = System.nanoTime() + 10_000_000_000L;
+        while (mesin.getJumlahReservasi() > 0 && System.nanoTime() < batas) {
+            Thread.sleep(50);
+        }
+
+        StatistikPenjualan statistik = mesin.getStatistik();
+        assertEquals(0, mesin.getJumlahReservasi());
+        assertEquals(Transaksi.StatusTransaksi.BATAL, transaksi.getStatus());
+        assertEquals(0, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(1, statistik.getJumlahBatal());
+        assertEquals(5, kopi().getStokSekarang());
+        assertThrows(IllegalStateException.class, () -> mesin.konfirmasiReservasi(transaksi.getIdTransaksi()));
+    }
+
+    @Test
+    void snapshotTidakMenyimpanReservasiAktifSebagaiPending() {
+        mesin.prosesPembelian(kopi());
+        mesin.reservasi(kopi());
+        // Menambah barang menulis snapshot selagi reservasi masih aktif
+        mesin.tambahBarang(new Barang("P002", "Teh Manis", 8000, 3, "/images/teh.png"));
+        mesin.tutup();
+
+        mesin = bukaMesin();
+        StatistikPenjualan statistik = mesin.getStatistik();
+        assertEquals(0, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(1, statistik.getJumlahBerhasil());
+        assertEquals(10000, statistik.getTotalPendapatan());
+        assertEquals(4, kopi().getStokSekarang());
+    }
+
+    @Test
+    void updateStokMemperhitungkanUnitYangDipesan() {
+        Transaksi transaksi = mesin.reservasi(kopi());
+        assertEquals(5, mesin.getStokFisik("P001"));
+
+        // Admin menghitung 10 unit fisik, satu di antaranya sedang dipesan
+        mesin.updateBarang("P001", new Barang("P001", "Kopi Hitam", 10000, 10, "/images/kopi.png"));
+        assertEquals(9, kopi().getStokSekarang());
+        assertEquals(10, mesin.getStokFisik("P001"));
+
+        assertTrue(mesin.batalkanReservasi(transaksi.getIdTransaksi()));
+        assertEquals(10, kopi().getStokSekarang());
+    }
+
+    @Test
+    void updateStokDiBawahUnitYangDipesanDitolak() {
+        mesin.reservasi(kopi());
+        mesin.reservasi(kopi());
+
+        assertThrows(IllegalArgumentException.class, () -> mesin.updateBarang("P001",
+                new Barang("P001", "Kopi Hitam", 10000, 1, "/images/kopi.png")));
+        assertEquals(3, kopi().getStokSekarang());
+    }
+
+    @Test
+    void pembelianBerikutnyaMemulihkanJurnalYangGagal() {
+        mesin.prosesPembelian(kopi());
+        mesin.getJurnal().tandaiGagal(new IOException("disk penuh"));
+        assertTrue(mesin.isPenyimpananTertunda());
+
+        // Snapshot menggantikan jurnal yang gagal, lalu pembelian dicatat seperti biasa
+        mesin.prosesPembelian(kopi());
+        assertFalse(mesin.isPenyimpananTertunda());
+        assertEquals(3, kopi().getStokSekarang());
+        mesin.tutup();
+
+        mesin = bukaMesin();
+        assertEquals(3, kopi().getStokSekarang());
+        assertEquals(2, mesin.getStatistik().getJumlahBerhasil());
+    }
+
+    @Test
+    void reservasiDitolakSetelahMesinDitutup() {
+        mesin.tutup();
+
+        assertThrows(IllegalStateException.class, () -> mesin.reservasi(kopi()));
+        assertEquals(5, kopi().getStokSekarang());
+        assertEquals(0, mesin.getJumlahReservasi());
+    }
+
+    @Test
+    void pembelianAsinkronDitolakSetelahMesinDitutup() {
+        mesin.tutup();
+
+        CompletableFuture<Transaksi> hasil = mesin.prosesPembelianAsync(kopi());
+        ExecutionException galat = assertThrows(ExecutionException.class, hasil::get);
+        assertTrue(galat.getCause() instanceof IllegalStateException);
+        assertEquals(5, kopi().getStokSekarang());
+    }
+
+    @Test
+    void barangYangSedangDipesanTidakDapatDihapus() {
+        Transaksi transaksi = mesin.reservasi(kopi());
+
+        assertThrows(IllegalStateException.class, () -> mesin.hapusBarang("P001"));
+        assertEquals(4, kopi().getStokSekarang());
+
+        assertTrue(mesin.batalkanReservasi(transaksi.getIdTransaksi()));
+        assertTrue(mesin.hapusBarang("P001"));
+    }
+
+    @Test
+    void pembelianParalelDicatatKeRiwayatSesuaiUrutanSekuens() throws Exception {
+        int jumlahThread = 8;
+        int pembelianPerThread = 50;
+        mesin.updateBarang("P001", new Barang("P001", "Kopi Hitam", 10000,
+                jumlahThread * pembelianPerThread, "/images/kopi.png"));
+
+        CountDownLatch mulai = new CountDownLatch(1);
+        List<Thread> daftarThread = new ArrayList<>();
+        for (int i = 0; i < jumlahThread; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    mulai.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < pembelianPerThread; j++) {
+                    mesin.prosesPembelian(kopi());
+                }
+            });
+            thread.start();
+            daftarThread.add(thread);
+        }
+        mulai.countDown();
+        for (Thread thread : daftarThread) {
+            thread.join();
+        }
+
+        List<Long> daftarSekuens = new ArrayList<>();
+        mesin.bacaPenjualanSetelah(0, Integer.MAX_VALUE, (transaksi, sekuens) -> daftarSekuens.add(sekuens));
+        assertEquals(jumlahThread * pembelianPerThread, daftarSekuens.size());
+        for (int i = 1; i < daftarSekuens.size(); i++) {
+            assertEquals(daftarSekuens.get(i - 1) + 1, daftarSekuens.get(i));
+        }
+        assertEquals(0, kopi().getStokSekarang());
+    }
+}
@@ -0,0 +1,220 @@
+package com.vendingmachine.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pengujian migrasi file data berformat lama: snapshot serialisasi Java
+ * dan biner versi 2 di {@link DataPersistence}, serta segmen riwayat
+ * versi 3 (satu item per transaksi) di {@link TransactionStore}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class MigrasiFormatTest {
+
+    private static final int MAGIC_SNAPSHOT = 0x564D534E;
+    private static final int VERSI_SERIALISASI = 1;
+
+    @TempDir
+    Path direktori;
+
+    private static ArrayList<Barang> katalogLama() {
+        ArrayList<Barang> daftar = new ArrayList<>();
+        daftar.add(new Barang("P001", "Kopi Hitam", 10000, 5, "/images/kopi.png"));
+        daftar.add(new Barang("P002", "Teh Manis", 7500, 12, "/images/teh.png"));
+        return daftar;
+    }
+
+    private Path fileData() {
+        return direktori.resolve("vending_data.dat");
+    }
+
+    private static byte[] serialisasi(List<Barang> daftar, Long sekuensJurnal) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(daftar);
+            if (sekuensJurnal != null) {
+                out.writeLong(sekuensJurnal);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] denganHeader(int versi, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer buffer = ByteBuffer.allocate(20 + payload.length);
+        buffer.putInt(MAGIC_SNAPSHOT);
+        buffer.putInt(versi);
+        buffer.putLong(crc.getValue());
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+        return buffer.array();
+    }
+
+    /**
+     * Memastikan katalog hasil migrasi sama dengan katalog lama dan file
+     * sudah ditulis ulang dalam format biner terbaru.
+     */
+    private void pastikanTermigrasi(DataPersistence.Snapshot snapshot, long sekuensJurnal) throws IOException {
+        for (DataPersistence.Snapshot s : List.of(snapshot, DataPersistence.loadSnapshot(direktori))) {
+            List<Barang> daftar = s.getDaftarBarang();
+            assertEquals(2, daftar.size());
+            assertEquals("P001", daftar.get(0).getIdBarang());
+            assertEquals("Kopi Hitam", daftar.get(0).getNamaBarang());
+            assertEquals(10000, daftar.get(0).getHargaBarang());
+            assertEquals(5, daftar.get(0).getStokSekarang());
+            assertEquals("P002", daftar.get(1).getIdBarang());
+            assertEquals(7500, daftar.get(1).getHargaBarang());
+            assertEquals(12, daftar.get(1).getStokSekarang());
+            assertEquals("/images/teh.png", daftar.get(1).getPathGambar());
+            assertEquals(sekuensJurnal, s.getSekuensJurnal());
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(fileData()));
+        assertEquals(MAGIC_SNAPSHOT, header.getInt(0));
+        assertEquals(RecordCodec.VERSI_SKEMA, header.getInt(4));
+    }
+
+    @Test
+    void snapshotSerialisasiJavaTanpaHeaderDimigrasikan() throws IOException {
+        // File dari versi paling awal: daftar barang saja, tanpa sekuens jurnal
+        Files.write(fileData(), serialisasi(katalogLama(), null));
+
+        pastikanTermigrasi(DataPersistence.loadSnapshot(direktori), 0);
+    }
+
+    @Test
+    void snapshotSerialisasiJavaBerheaderDimigrasikan() throws IOException {
+        Files.write(fileData(), denganHeader(VERSI_SERIALISASI, serialisasi(katalogLama(), 42L)));
+
+        pastikanTermigrasi(DataPersistence.loadSnapshot(direktori), 42);
+    }
+
+    @Test
+    void snapshotBinerHargaDoubleDimigrasikan() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        List<Barang> daftar = katalogLama();
+        RecordCodec.tulisVarLong(out, daftar.size());
+        for (Barang barang : daftar) {
+            out.writeUTF(barang.getIdBarang());
+            out.writeUTF(barang.getNamaBarang());
+            // Harga versi 2 berupa double dan dibulatkan ke Rupiah penuh saat dibaca
+            out.writeDouble(barang.getHargaBarang() + 0.4);
+            RecordCodec.tulisVarLong(out, barang.getStokSekarang());
+            out.writeUTF(barang.getPathGambar());
+        }
+        out.writeLong(7);
+        Files.write(fileData(), denganHeader(RecordCodec.VERSI_HARGA_DOUBLE, bytes.toByteArray()));
+
+        pastikanTermigrasi(DataPersistence.loadSnapshot(direktori), 7);
+    }
+
+    @Test
+    void segmenRiwayatVersi3TetapDapatDibaca() throws IOException {
+        Barang kopi = new Barang("P001", "Kopi Hitam", 10000, 5, "/images/kopi.png");
+        LocalDateTime waktu = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        try (TransactionStore store = new TransactionStore(direktori, 1024 * 1024)) {
+            // Mendaftarkan kopi di kamus produk sebagai indeks 0
+            store.append(transaksi("T1", kopi, 1, waktu), 1);
+        }
+        Path segmen = satuSegmen();
+        tulisSegmenVersi3(segmen, kopi, waktu);
+
+        try (TransactionStore store = new TransactionStore(direktori, 1024 * 1024)) {
+            assertEquals(2, store.getJumlahRecord());
+            assertEquals(2, store.getSekuensTerakhir());
+            // Record baru masuk ke segmen baru berformat terbaru
+            store.append(transaksi("T3", kopi, 3, waktu), 3);
+        }
+
+        try (TransactionStore store = new TransactionStore(direktori, 1024 * 1024)) {
+            List<Transaksi> daftar = new ArrayList<>();
+            store.forEach(daftar::add);
+            assertEquals(3, daftar.size());
+            assertEquals("T1", daftar.get(0).getIdTransaksi());
+            assertEquals("T2", daftar.get(1).getIdTransaksi());
+            assertEquals(2, daftar.get(1).getKuantitas());
+            assertEquals(10000, daftar.get(1).getBarangYangDibeli().getHargaBarang());
+            assertEquals("Kopi Hitam", daftar.get(1).getBarangYangDibeli().getNamaBarang());
+            assertEquals(Transaksi.StatusTransaksi.BERHASIL, daftar.get(1).getStatus());
+            assertEquals(waktu, daftar.get(1).getWaktuTransaksi());
+            assertEquals("T3", daftar.get(2).getIdTransaksi());
+
+            List<Long> sekuens = new ArrayList<>();
+            store.bacaSetelah(1, Integer.MAX_VALUE, (transaksi, s) -> sekuens.add(s));
+            assertEquals(List.of(2L, 3L), sekuens);
+        }
+    }
+
+    private static Transaksi transaksi(String id, Barang barang, int kuantitas, LocalDateTime waktu) {
+        return new Transaksi(id, List.of(new Transaksi.Item(barang, kuantitas)),
+                Transaksi.StatusTransaksi.BERHASIL, waktu);
+    }
+
+    private Path satuSegmen() throws IOException {
+        List<Path> segmen = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(direktori, "segmen-*.log")) {
+            stream.forEach(segmen::add);
+        }
+        assertEquals(1, segmen.size());
+        return segmen.get(0);
+    }
+
+    /**
+     * Menulis ulang segmen aktif sebagai segmen versi 3 berisi T1 dan T2,
+     * dengan record satu item yang merujuk indeks 0 di kamus produk.
+     */
+    private static void tulisSegmenVersi3(Path segmen, Barang barang, LocalDateTime waktu) throws IOException {
+        ByteArrayOutputStream isi = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(isi);
+        byte[] header = Files.readAllBytes(segmen);
+        ByteBuffer.wrap(header).putInt(TransactionStore.POSISI_VERSI, RecordCodec.VERSI_SATU_ITEM);
+        out.write(header, 0, TransactionStore.HEADER_SEGMEN);
+        tulisRecordVersi3(out, 1, "T1", barang.getHargaBarang(), 1, waktu);
+        tulisRecordVersi3(out, 2, "T2", barang.getHargaBarang(), 2, waktu);
+        out.flush();
+        Files.write(segmen, isi.toByteArray());
+        Files.deleteIfExists(segmen.resolveSibling(segmen.getFileName().toString().replace(".log", ".idx")));
+    }
+
+    private static void tulisRecordVersi3(DataOutputStream out, long sekuens, String id, long harga,
+                                          int kuantitas, LocalDateTime waktu) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(bytes);
+        RecordCodec.tulisVarLong(payload, sekuens);
+        payload.writeUTF(id);
+        RecordCodec.tulisVarLong(payload, 0);
+        RecordCodec.tulisVarLong(payload, harga);
+        RecordCodec.tulisVarLong(payload, kuantitas);
+        payload.writeByte(Transaksi.StatusTransaksi.BERHASIL.ordinal());
+        RecordCodec.tulisVarLong(payload, RecordCodec.keMilis(waktu));
+        payload.flush();
+
+        byte[] data = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        out.writeInt(data.length);
+        out.writeInt((int) crc.getValue());
+        out.write(data);
+    }
+}
@@ -0,0 +1,177 @@
+package com.vendingmachine.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pengujian pemulihan {@link MesinPenjual} dari jurnal setelah aplikasi
+ * berhenti mendadak: ekor jurnal yang terpotong atau CRC-nya salah,
+ * replay di atas snapshot, dan restart setelah pemadatan jurnal.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class PemulihanJurnalTest {
+
+    @TempDir
+    Path direktori;
+
+    private SumberDayaBersama bersama;
+    private MesinPenjual mesin;
+
+    @BeforeEach
+    void buka() {
+        bersama = new SumberDayaBersama(1);
+        mesin = bukaMesin();
+        mesin.tambahBarang(new Barang("P001", "Kopi Hitam", 10000, 10, "/images/kopi.png"));
+    }
+
+    @AfterEach
+    void tutup() {
+        mesin.tutup();
+        bersama.close();
+    }
+
+    private MesinPenjual bukaMesin() {
+        return new MesinPenjual(direktori, 1, bersama);
+    }
+
+    private void bukaUlang() {
+        mesin.tutup();
+        mesin = bukaMesin();
+    }
+
+    private void beli(int jumlah) {
+        for (int i = 0; i < jumlah; i++) {
+            mesin.prosesPembelian(mesin.cariBarang("P001"));
+        }
+    }
+
+    private Path fileJurnal() {
+        return DataPersistence.getJournalFile(direktori);
+    }
+
+    private List<Long> sekuensRiwayat() throws IOException {
+        List<Long> daftar = new ArrayList<>();
+        mesin.bacaPenjualanSetelah(0, Integer.MAX_VALUE, (transaksi, sekuens) -> daftar.add(sekuens));
+        return daftar;
+    }
+
+    /**
+     * Memastikan stok, jumlah riwayat, dan sekuens riwayat 1..jumlah tanpa celah atau duplikat.
+     */
+    private void pastikanKeadaan(int stok, int jumlahTransaksi) throws IOException {
+        assertEquals(stok, mesin.cariBarang("P001").getStokSekarang());
+        assertEquals(jumlahTransaksi, mesin.getJumlahTransaksi());
+        List<Long> daftar = sekuensRiwayat();
+        assertEquals(jumlahTransaksi, daftar.size());
+        for (int i = 0; i < daftar.size(); i++) {
+            assertEquals(i + 1, daftar.get(i));
+        }
+    }
+
+    @Test
+    void ekorTerpotongDibuangSaatReplay() throws IOException {
+        beli(3);
+        mesin.tutup();
+        long ukuranValid = Files.size(fileJurnal());
+
+        // Record keempat terputus di tengah payload saat listrik padam
+        try (DataOutputStream out = new DataOutputStream(
+                Files.newOutputStream(fileJurnal(), StandardOpenOption.APPEND))) {
+            out.writeInt(40);
+            out.writeInt(0x1234);
+            out.write(new byte[10]);
+        }
+        mesin = bukaMesin();
+
+        pastikanKeadaan(7, 3);
+        assertEquals(ukuranValid, Files.size(fileJurnal()));
+
+        // Penjualan baru ditulis setelah ekor dipotong dan ikut dipulihkan
+        beli(1);
+        bukaUlang();
+        pastikanKeadaan(6, 4);
+    }
+
+    @Test
+    void recordDenganCrcSalahDibuangSaatReplay() throws IOException {
+        beli(3);
+        mesin.tutup();
+        byte[] isi = Files.readAllBytes(fileJurnal());
+
+        // Salinan record terakhir yang payload-nya rusak; panjangnya utuh tetapi CRC tidak cocok
+        int awalTerakhir = 0;
+        for (int posisi = 0; posisi < isi.length; ) {
+            awalTerakhir = posisi;
+            posisi += 8 + ByteBuffer.wrap(isi, posisi, 4).getInt();
+        }
+        byte[] rusak = new byte[isi.length - awalTerakhir];
+        System.arraycopy(isi, awalTerakhir, rusak, 0, rusak.length);
+        rusak[rusak.length - 1] ^= 0x5A;
+        try (OutputStream out = Files.newOutputStream(fileJurnal(), StandardOpenOption.APPEND)) {
+            out.write(rusak);
+        }
+        mesin = bukaMesin();
+
+        pastikanKeadaan(7, 3);
+        assertEquals(isi.length, Files.size(fileJurnal()));
+
+        beli(2);
+        bukaUlang();
+        pastikanKeadaan(5, 5);
+    }
+
+    @Test
+    void replaySetelahSnapshotTidakMenerapkanUlangRecordLama() throws IOException {
+        beli(2);
+        byte[] jurnalLama = Files.readAllBytes(fileJurnal());
+
+        // Perubahan katalog menulis snapshot yang mencakup sekuens 2 lalu mengosongkan jurnal
+        mesin.tambahBarang(new Barang("P002", "Teh Manis", 8000, 5, "/images/teh.png"));
+        beli(1);
+        mesin.tutup();
+
+        // Seolah aplikasi berhenti setelah snapshot ditulis tetapi sebelum jurnal dikosongkan
+        byte[] jurnalBaru = Files.readAllBytes(fileJurnal());
+        try (OutputStream out = Files.newOutputStream(fileJurnal())) {
+            out.write(jurnalLama);
+            out.write(jurnalBaru);
+        }
+        mesin = bukaMesin();
+
+        pastikanKeadaan(7, 3);
+        assertEquals(5, mesin.cariBarang("P002").getStokSekarang());
+    }
+
+    @Test
+    void restartSetelahPemadatanMelanjutkanSekuens() throws IOException {
+        beli(4);
+        mesin.tambahBarang(new Barang("P002", "Teh Manis", 8000, 5, "/images/teh.png"));
+        assertEquals(0, Files.size(fileJurnal()));
+
+        bukaUlang();
+        pastikanKeadaan(6, 4);
+
+        // Sekuens berikutnya dilanjutkan dari snapshot, bukan dimulai lagi dari 1
+        beli(2);
+        bukaUlang();
+        pastikanKeadaan(4, 6);
+        assertEquals(5, mesin.cariBarang("P002").getStokSekarang());
+    }
+}
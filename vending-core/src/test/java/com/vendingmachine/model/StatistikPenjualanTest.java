@@ -0,0 +1,83 @@
+package com.vendingmachine.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pengujian penghitung status dan pendapatan {@link StatistikPenjualan}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class StatistikPenjualanTest {
+
+    private static Transaksi transaksi(Transaksi.StatusTransaksi status) {
+        Barang kopi = new Barang("P001", "Kopi Hitam", 10000, 5, "/images/kopi.png");
+        return new Transaksi("TRX-1", List.of(new Transaksi.Item(kopi, 2)), status, LocalDateTime.now());
+    }
+
+    @Test
+    void ubahStatusPendingKeBerhasilMenambahPendapatan() {
+        StatistikPenjualan statistik = new StatistikPenjualan();
+        Transaksi transaksi = transaksi(Transaksi.StatusTransaksi.PENDING);
+        statistik.catat(transaksi);
+        assertEquals(1, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(0, statistik.getTotalPendapatan());
+
+        transaksi.setStatus(Transaksi.StatusTransaksi.BERHASIL);
+        statistik.ubahStatus(transaksi, Transaksi.StatusTransaksi.PENDING);
+
+        assertEquals(0, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(1, statistik.getJumlahBerhasil());
+        assertEquals(1, statistik.getJumlahTransaksi());
+        assertEquals(20000, statistik.getTotalPendapatan());
+        assertEquals(2, statistik.getProduk("P001").getUnitTerjual());
+    }
+
+    @Test
+    void ubahStatusPendingKeBatalTidakMenambahPendapatan() {
+        StatistikPenjualan statistik = new StatistikPenjualan();
+        Transaksi transaksi = transaksi(Transaksi.StatusTransaksi.PENDING);
+        statistik.catat(transaksi);
+
+        transaksi.setStatus(Transaksi.StatusTransaksi.BATAL);
+        statistik.ubahStatus(transaksi, Transaksi.StatusTransaksi.PENDING);
+
+        assertEquals(0, statistik.getJumlah(Transaksi.StatusTransaksi.PENDING));
+        assertEquals(1, statistik.getJumlahBatal());
+        assertEquals(0, statistik.getTotalPendapatan());
+        assertEquals(0, statistik.getProduk("P001").getUnitTerjual());
+    }
+
+    @Test
+    void ubahStatusDariBerhasilMengurangiPendapatan() {
+        StatistikPenjualan statistik = new StatistikPenjualan();
+        Transaksi transaksi = transaksi(Transaksi.StatusTransaksi.BERHASIL);
+        statistik.catat(transaksi);
+
+        transaksi.setStatus(Transaksi.StatusTransaksi.BATAL);
+        statistik.ubahStatus(transaksi, Transaksi.StatusTransaksi.BERHASIL);
+
+        assertEquals(0, statistik.getJumlahBerhasil());
+        assertEquals(1, statistik.getJumlahBatal());
+        assertEquals(0, statistik.getTotalPendapatan());
+        assertEquals(0, statistik.getProduk("P001").getPendapatan());
+    }
+
+    @Test
+    void ubahStatusKeStatusSamaTidakMengubahApaPun() {
+        StatistikPenjualan statistik = new StatistikPenjualan();
+        Transaksi transaksi = transaksi(Transaksi.StatusTransaksi.BERHASIL);
+        statistik.catat(transaksi);
+
+        statistik.ubahStatus(transaksi, Transaksi.StatusTransaksi.BERHASIL);
+
+        assertEquals(1, statistik.getJumlahBerhasil());
+        assertEquals(20000, statistik.getTotalPendapatan());
+    }
+}
@@ -0,0 +1,70 @@
+package com.vendingmachine.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pengujian keadaan gagal dan pemulihan {@link TransactionJournal}.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class TransactionJournalTest {
+
+    @TempDir
+    Path direktori;
+
+    private TransactionJournal buka() throws IOException {
+        return new TransactionJournal(direktori.resolve("journal.log"),
+                TransactionJournal.SyncPolicy.SETIAP_RECORD, 1);
+    }
+
+    private static long jual(TransactionJournal jurnal, String idTransaksi) throws IOException {
+        return jurnal.appendPenjualan("P001", 1, idTransaksi, LocalDateTime.now());
+    }
+
+    @Test
+    void jurnalGagalMenolakAppendSampaiReset() throws Exception {
+        try (TransactionJournal jurnal = buka()) {
+            jurnal.tungguTahanLama(jual(jurnal, "T1"));
+            jurnal.tandaiGagal(new IOException("disk penuh"));
+
+            assertTrue(jurnal.isGagal());
+            assertThrows(IOException.class, () -> jual(jurnal, "T2"));
+
+            jurnal.reset();
+            assertFalse(jurnal.isGagal());
+            long sekuens = jual(jurnal, "T3");
+            jurnal.tungguTahanLama(sekuens);
+            assertEquals(2, sekuens);
+        }
+
+        List<String> dibaca = new ArrayList<>();
+        try (TransactionJournal jurnal = buka()) {
+            jurnal.replay(0, entri -> dibaca.add(entri.getIdTransaksi()));
+        }
+        assertEquals(List.of("T3"), dibaca);
+    }
+
+    @Test
+    void recordYangBelumDisinkronGagalSaatJurnalGagal() throws Exception {
+        try (TransactionJournal jurnal = buka()) {
+            long sekuens = jual(jurnal, "T1");
+            jurnal.tandaiGagal(new IOException("disk penuh"));
+
+            assertThrows(IOException.class, () -> jurnal.tungguTahanLama(sekuens));
+        }
+    }
+}
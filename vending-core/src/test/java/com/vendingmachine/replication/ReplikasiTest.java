@@ -0,0 +1,150 @@
+package com.vendingmachine.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vendingmachine.model.Barang;
+import com.vendingmachine.model.DataPersistence;
+import com.vendingmachine.model.MesinPenjual;
+import com.vendingmachine.model.SumberDayaBersama;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pengujian replikasi antara {@link PengirimReplikasi} dan
+ * {@link PengumpulReplikasi} dalam satu JVM lewat localhost, termasuk
+ * restart pengumpul dan restart kiosk.
+ *
+ * @author Tim Pengembang Vending Machine
+ * @version 1.0
+ * @since 2024
+ */
+class ReplikasiTest {
+
+    private static final int ID_MESIN = 7;
+
+    @TempDir
+    Path direktori;
+
+    private SumberDayaBersama bersama;
+    private MesinPenjual mesin;
+    private PengumpulReplikasi pengumpul;
+    private PengirimReplikasi pengirim;
+    private InetSocketAddress alamat;
+
+    @BeforeEach
+    void buka() throws IOException {
+        bersama = new SumberDayaBersama(1);
+        mesin = bukaMesin();
+        mesin.tambahBarang(new Barang("P001", "Kopi Hitam", 10000, 100, "/images/kopi.png"));
+        pengumpul = bukaPengumpul(new InetSocketAddress("127.0.0.1", 0));
+        alamat = new InetSocketAddress("127.0.0.1", pengumpul.getPort());
+        pengirim = bukaPengirim();
+    }
+
+    @AfterEach
+    void tutup() {
+        pengirim.hentikan();
+        pengumpul.hentikan();
+        mesin.tutup();
+        bersama.close();
+    }
+
+    private MesinPenjual bukaMesin() {
+        return new MesinPenjual(direktori.resolve("kiosk"), ID_MESIN, bersama);
+    }
+
+    private PengumpulReplikasi bukaPengumpul(InetSocketAddress alamatPengumpul) throws IOException {
+        PengumpulReplikasi baru = new PengumpulReplikasi(direktori.resolve("pengumpul"));
+        baru.mulai(alamatPengumpul);
+        return baru;
+    }
+
+    private PengirimReplikasi bukaPengirim() {
+        PengirimReplikasi baru = new PengirimReplikasi(mesin, ID_MESIN, alamat);
+        baru.mulai();
+        return baru;
+    }
+
+    private void beli(int jumlah) {
+        for (int i = 0; i < jumlah; i++) {
+            mesin.prosesPembelian(mesin.cariBarang("P001"));
+        }
+    }
+
+    @Test
+    void replikasiBertahanSaatPengumpulDanKioskDiRestart() throws Exception {
+        beli(20);
+        tungguTersinkron();
+
+        // Restart pengumpul di port yang sama; penjualan selama mati menyusul
+        pengumpul.hentikan();
+        beli(15);
+        pengumpul = bukaPengumpul(alamat);
+        tungguTersinkron();
+
+        // Restart kiosk: mesin dibuka ulang dari jurnal dan riwayatnya
+        pengirim.hentikan();
+        mesin.tutup();
+        mesin = bukaMesin();
+        beli(10);
+        pengirim = bukaPengirim();
+        tungguTersinkron();
+
+        List<String> idKiosk = new ArrayList<>();
+        List<Long> sekuensKiosk = new ArrayList<>();
+        mesin.bacaPenjualanSetelah(0, Integer.MAX_VALUE, (transaksi, sekuens) -> {
+            idKiosk.add(transaksi.getIdTransaksi());
+            sekuensKiosk.add(sekuens);
+        });
+        List<String> idReplika = new ArrayList<>();
+        pengumpul.forEachTransaksi(ID_MESIN, transaksi -> idReplika.add(transaksi.getIdTransaksi()));
+
+        assertEquals(45, idKiosk.size());
+        for (int i = 1; i < sekuensKiosk.size(); i++) {
+            assertEquals(sekuensKiosk.get(i - 1) + 1, sekuensKiosk.get(i));
+        }
+        assertEquals(idKiosk, idReplika);
+        assertEquals(sekuensKiosk.get(sekuensKiosk.size() - 1), pengumpul.getSekuensTersimpan(ID_MESIN));
+    }
+
+    @Test
+    void stokTerakhirTersimpanDiPengumpul() throws Exception {
+        beli(3);
+        tunggu(() -> !pengumpul.getStok(ID_MESIN).isEmpty()
+                && pengumpul.getStok(ID_MESIN).get(0).getStokSekarang() == 97);
+
+        // Snapshot stok sudah tersimpan saat pengumpul selesai dihentikan
+        pengirim.hentikan();
+        pengumpul.hentikan();
+        List<Barang> tersimpan = DataPersistence.loadSnapshot(
+                direktori.resolve("pengumpul").resolve("mesin-" + ID_MESIN)).getDaftarBarang();
+        assertEquals(1, tersimpan.size());
+        assertEquals(97, tersimpan.get(0).getStokSekarang());
+    }
+
+    private void tungguTersinkron() throws IOException, InterruptedException {
+        long[] terakhir = new long[1];
+        mesin.bacaPenjualanSetelah(0, Integer.MAX_VALUE, (transaksi, sekuens) -> terakhir[0] = sekuens);
+        tunggu(() -> pengumpul.getSekuensTersimpan(ID_MESIN) == terakhir[0]
+                && pengirim.getSekuensDiakui() == terakhir[0]);
+    }
+
+    private static void tunggu(BooleanSupplier kondisi) throws InterruptedException {
+        long batas = System.nanoTime() + 15_000_000_000L;
+        while (!kondisi.getAsBoolean()) {
+            assertTrue(System.nanoTime() < batas, "replikasi tidak selesai dalam 15 detik");
+            Thread.sleep(20);
+        }
+    }
+}